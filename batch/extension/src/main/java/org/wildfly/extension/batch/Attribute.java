@@ -32,6 +32,7 @@ enum Attribute {
 
     UNKNOWN((String) null),
     JNDI_NAME("jndi-name"),
+    MAX_CONCURRENT_PARTITIONS("max-concurrent-partitions"),
     NAME("name");
 
     private final String name;
@@ -21,6 +21,11 @@ public class BatchServiceNames {
      */
     public static final ServiceName BATCH_THREAD_POOL_NAME = BASE_BATCH_THREAD_POOL_NAME.append("batch");
 
+    /**
+     * The name of the executor batch deployments submit their tasks to, which runs them on the thread-pool.
+     */
+    public static final ServiceName BATCH_JOB_EXECUTOR_NAME = ServiceName.JBOSS.append("batch", "job-executor");
+
     /**
      * Creates a service name for the deployment unit to define the service.
      *
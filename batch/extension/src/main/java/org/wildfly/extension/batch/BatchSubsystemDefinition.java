@@ -25,10 +25,12 @@ package org.wildfly.extension.batch;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SUBSYSTEM;
 
 import java.util.List;
+import java.util.concurrent.ExecutorService;
 import javax.xml.stream.XMLStreamException;
 import javax.xml.stream.XMLStreamWriter;
 
 import org.jboss.as.controller.AbstractAddStepHandler;
+import org.jboss.as.controller.AbstractRuntimeOnlyHandler;
 import org.jboss.as.controller.AttributeDefinition;
 import org.jboss.as.controller.DefaultAttributeMarshaller;
 import org.jboss.as.controller.OperationContext;
@@ -40,9 +42,11 @@ import org.jboss.as.controller.ServiceVerificationHandler;
 import org.jboss.as.controller.SimpleAttributeDefinition;
 import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
 import org.jboss.as.controller.SimpleResourceDefinition;
+import org.jboss.as.controller.descriptions.ModelDescriptionConstants;
 import org.jboss.as.controller.descriptions.StandardResourceDescriptionResolver;
 import org.jboss.as.controller.operations.common.GenericSubsystemDescribeHandler;
 import org.jboss.as.controller.operations.validation.EnumValidator;
+import org.jboss.as.controller.operations.validation.IntRangeValidator;
 import org.jboss.as.controller.registry.ManagementResourceRegistration;
 import org.jboss.as.server.AbstractDeploymentChainStep;
 import org.jboss.as.server.DeploymentProcessorTarget;
@@ -54,8 +58,11 @@ import org.jboss.as.threads.UnboundedQueueThreadPoolResourceDefinition;
 import org.jboss.dmr.ModelNode;
 import org.jboss.dmr.ModelType;
 import org.jboss.msc.service.ServiceController;
+import org.jboss.msc.service.ServiceController.State;
 import org.wildfly.extension.batch.deployment.BatchDependencyProcessor;
 import org.wildfly.extension.batch.deployment.BatchEnvironmentProcessor;
+import org.wildfly.extension.batch.job.JobExecutor;
+import org.wildfly.extension.batch.job.JobExecutorService;
 import org.wildfly.extension.batch.job.repository.JobRepositoryFactory;
 import org.wildfly.extension.batch.job.repository.JobRepositoryType;
 
@@ -118,11 +125,28 @@ class BatchSubsystemDefinition extends SimpleResourceDefinition {
             .setRestartJVM()
             .build();
 
-    public static final BatchSubsystemDefinition INSTANCE = new BatchSubsystemDefinition();
+    /**
+     * The maximum number of partitions of a single job running at the same time.
+     */
+    static final SimpleAttributeDefinition MAX_CONCURRENT_PARTITIONS = SimpleAttributeDefinitionBuilder.create("max-concurrent-partitions", ModelType.INT, true)
+            .setAllowExpression(true)
+            .setValidator(new IntRangeValidator(1, true, true))
+            .build();
+
+    static final SimpleAttributeDefinition QUEUED_PARTITIONS = SimpleAttributeDefinitionBuilder.create("queued-partitions", ModelType.INT, false)
+            .setStorageRuntime()
+            .build();
 
-    private BatchSubsystemDefinition() {
+    static final SimpleAttributeDefinition ACTIVE_PARTITIONS = SimpleAttributeDefinitionBuilder.create("active-partitions", ModelType.INT, false)
+            .setStorageRuntime()
+            .build();
+
+    private final boolean registerRuntimeOnly;
+
+    BatchSubsystemDefinition(final boolean registerRuntimeOnly) {
         super(SUBSYSTEM_PATH, getResourceDescriptionResolver((String) null), BatchSubsystemAdd.INSTANCE,
                 ReloadRequiredRemoveStepHandler.INSTANCE);
+        this.registerRuntimeOnly = registerRuntimeOnly;
     }
 
     @Override
@@ -149,6 +173,11 @@ class BatchSubsystemDefinition extends SimpleResourceDefinition {
     @Override
     public void registerAttributes(ManagementResourceRegistration resourceRegistration) {
         resourceRegistration.registerReadWriteAttribute(JOB_REPOSITORY_TYPE, null, new ReloadRequiredWriteAttributeHandler(JOB_REPOSITORY_TYPE));
+        resourceRegistration.registerReadWriteAttribute(MAX_CONCURRENT_PARTITIONS, null, new ReloadRequiredWriteAttributeHandler(MAX_CONCURRENT_PARTITIONS));
+        if (registerRuntimeOnly) {
+            resourceRegistration.registerMetric(QUEUED_PARTITIONS, JobExecutorMetricsHandler.INSTANCE);
+            resourceRegistration.registerMetric(ACTIVE_PARTITIONS, JobExecutorMetricsHandler.INSTANCE);
+        }
     }
 
 
@@ -179,6 +208,7 @@ class BatchSubsystemDefinition extends SimpleResourceDefinition {
         protected void populateModel(final ModelNode operation, final ModelNode model) throws OperationFailedException {
             model.setEmptyObject();
             JOB_REPOSITORY_TYPE.validateAndSet(operation, model);
+            MAX_CONCURRENT_PARTITIONS.validateAndSet(operation, model);
         }
 
         @Override
@@ -205,6 +235,41 @@ class BatchSubsystemDefinition extends SimpleResourceDefinition {
             // Determine the repository type
             final String repositoryType = JOB_REPOSITORY_TYPE.resolveModelAttribute(context, model).asString();
             JobRepositoryFactory.getInstance().setJobRepositoryType(repositoryType);
+
+            // The executor deployments submit their tasks to
+            final ModelNode maxConcurrentPartitions = MAX_CONCURRENT_PARTITIONS.resolveModelAttribute(context, model);
+            final JobExecutorService jobExecutorService = new JobExecutorService(maxConcurrentPartitions.isDefined() ? maxConcurrentPartitions.asInt() : 0);
+            final ServiceController<JobExecutor> controller = context.getServiceTarget().addService(BatchServiceNames.BATCH_JOB_EXECUTOR_NAME, jobExecutorService)
+                    .addDependency(BatchServiceNames.BATCH_THREAD_POOL_NAME, ExecutorService.class, jobExecutorService.getExecutorServiceInjector())
+                    .addListener(verificationHandler)
+                    .install();
+            if (newControllers != null) {
+                newControllers.add(controller);
+            }
+        }
+    }
+
+    /**
+     * Reads the partition metrics of the {@link JobExecutor}.
+     */
+    private static class JobExecutorMetricsHandler extends AbstractRuntimeOnlyHandler {
+        static final JobExecutorMetricsHandler INSTANCE = new JobExecutorMetricsHandler();
+
+        @Override
+        protected void executeRuntimeStep(final OperationContext context, final ModelNode operation) throws OperationFailedException {
+            final String attributeName = operation.require(ModelDescriptionConstants.NAME).asString();
+            final ServiceController<?> controller = context.getServiceRegistry(false).getService(BatchServiceNames.BATCH_JOB_EXECUTOR_NAME);
+            if (controller != null && controller.getState() == State.UP) {
+                final JobExecutor jobExecutor = (JobExecutor) controller.getValue();
+                if (QUEUED_PARTITIONS.getName().equals(attributeName)) {
+                    context.getResult().set(jobExecutor.getQueuedPartitions());
+                } else if (ACTIVE_PARTITIONS.getName().equals(attributeName)) {
+                    context.getResult().set(jobExecutor.getActivePartitions());
+                }
+            } else {
+                context.getResult().set(0);
+            }
+            context.stepCompleted();
         }
     }
 }
@@ -38,19 +38,15 @@ public class BatchSubsystemExtension implements Extension {
 
     @Override
     public void initializeParsers(ExtensionParsingContext context) {
-        for (Namespace namespace : Namespace.values()) {
-            final String uri = namespace.getUriString();
-            if (uri != null) {
-                context.setSubsystemXmlMapping(BatchSubsystemDefinition.NAME, uri, BatchSubsystemParser.INSTANCE);
-            }
-        }
+        context.setSubsystemXmlMapping(BatchSubsystemDefinition.NAME, Namespace.BATCH_1_0.getUriString(), BatchSubsystemParser.INSTANCE);
+        context.setSubsystemXmlMapping(BatchSubsystemDefinition.NAME, Namespace.BATCH_1_1.getUriString(), BatchSubsystemParser_1_1.INSTANCE);
     }
 
     @Override
     public void initialize(ExtensionContext context) {
         final SubsystemRegistration subsystem = context.registerSubsystem(BatchSubsystemDefinition.NAME,
                 MANAGEMENT_API_MAJOR_VERSION, MANAGEMENT_API_MINOR_VERSION, MANAGEMENT_API_MICRO_VERSION);
-        subsystem.registerSubsystemModel(BatchSubsystemDefinition.INSTANCE);
-        subsystem.registerXMLElementWriter(BatchSubsystemParser.INSTANCE);
+        subsystem.registerSubsystemModel(new BatchSubsystemDefinition(context.isRuntimeOnlyRegistrationValid()));
+        subsystem.registerXMLElementWriter(BatchSubsystemParser_1_1.INSTANCE);
     }
 }
@@ -42,6 +42,8 @@ import org.jboss.staxmapper.XMLExtendedStreamWriter;
 import org.wildfly.extension.batch.job.repository.JobRepositoryType;
 
 /**
+ * Parses the {@code urn:jboss:domain:batch:1.0} subsystem and writes the {@linkplain Namespace#CURRENT current} version.
+ *
  * @author <a href="mailto:jperkins@redhat.com">James R. Perkins</a>
  */
 class BatchSubsystemParser implements XMLStreamConstants, XMLElementReader<List<ModelNode>>, XMLElementWriter<SubsystemMarshallingContext> {
@@ -64,11 +66,14 @@ class BatchSubsystemParser implements XMLStreamConstants, XMLElementReader<List<
         final ModelNode jdbcAddOp = Util.createAddOperation(subsystemAddress.append(JobRepositoryDefinition.JDBC.getPathElement()));
         list.add(jdbcAddOp);
 
+        final Namespace subsystemNamespace = Namespace.forUri(reader.getNamespaceURI());
+        parseAttributes(reader, subsystemAddOp);
+
         final Set<Element> requiredElements = EnumSet.of(Element.JOB_REPOSITORY, Element.THREAD_POOL);
 
         while (reader.hasNext() && reader.nextTag() != END_ELEMENT) {
             final Namespace namespace = Namespace.forUri(reader.getNamespaceURI());
-            if (namespace == Namespace.BATCH_1_0) {
+            if (namespace == subsystemNamespace) {
                 final String localName = reader.getLocalName();
                 final Element element = Element.forName(localName);
                 if (element == Element.JOB_REPOSITORY) {
@@ -96,6 +101,18 @@ class BatchSubsystemParser implements XMLStreamConstants, XMLElementReader<List<
         ParseUtils.requireNoContent(reader);
     }
 
+    /**
+     * Parses the attributes of the subsystem element.
+     *
+     * @param reader         the reader positioned on the subsystem element
+     * @param subsystemAddOp the add operation of the subsystem
+     *
+     * @throws XMLStreamException if an attribute is not valid
+     */
+    void parseAttributes(final XMLExtendedStreamReader reader, final ModelNode subsystemAddOp) throws XMLStreamException {
+        ParseUtils.requireNoAttributes(reader);
+    }
+
     private void parseJobRepository(final XMLExtendedStreamReader reader, final ModelNode subsystemAddOp, final ModelNode jdbcAddOp) throws XMLStreamException {
         while (reader.hasNext() && reader.nextTag() != END_ELEMENT) {
             final String localName = reader.getLocalName();
@@ -123,6 +140,7 @@ class BatchSubsystemParser implements XMLStreamConstants, XMLElementReader<List<
     public void writeContent(final XMLExtendedStreamWriter writer, final SubsystemMarshallingContext context) throws XMLStreamException {
         context.startSubsystemElement(Namespace.CURRENT.getUriString(), false);
         final ModelNode model = context.getModelNode();
+        BatchSubsystemDefinition.MAX_CONCURRENT_PARTITIONS.marshallAsAttribute(model, writer);
         BatchSubsystemDefinition.JOB_REPOSITORY_TYPE.marshallAsElement(model, writer);
 
         // Write the thread pool
@@ -22,9 +22,16 @@
 
 package org.wildfly.extension.batch;
 
+import java.sql.SQLException;
+import java.sql.Timestamp;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
+import javax.naming.InitialContext;
+import javax.naming.NamingException;
+import javax.sql.DataSource;
 
 import org.jboss.as.controller.AbstractAddStepHandler;
+import org.jboss.as.controller.AbstractRuntimeOnlyHandler;
 import org.jboss.as.controller.AttributeDefinition;
 import org.jboss.as.controller.OperationContext;
 import org.jboss.as.controller.OperationFailedException;
@@ -34,12 +41,18 @@ import org.jboss.as.controller.ReloadRequiredWriteAttributeHandler;
 import org.jboss.as.controller.ServiceVerificationHandler;
 import org.jboss.as.controller.SimpleAttributeDefinition;
 import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
+import org.jboss.as.controller.SimpleOperationDefinition;
+import org.jboss.as.controller.SimpleOperationDefinitionBuilder;
 import org.jboss.as.controller.SimpleResourceDefinition;
+import org.jboss.as.controller.client.helpers.MeasurementUnit;
+import org.jboss.as.controller.operations.validation.IntRangeValidator;
 import org.jboss.as.controller.operations.validation.StringLengthValidator;
 import org.jboss.as.controller.registry.ManagementResourceRegistration;
 import org.jboss.dmr.ModelNode;
 import org.jboss.dmr.ModelType;
 import org.jboss.msc.service.ServiceController;
+import org.wildfly.extension.batch._private.BatchLogger;
+import org.wildfly.extension.batch.job.repository.JdbcJobRepositories;
 import org.wildfly.extension.batch.job.repository.JobRepositoryFactory;
 import org.wildfly.extension.batch.job.repository.JobRepositoryType;
 
@@ -64,6 +77,35 @@ class JobRepositoryDefinition extends SimpleResourceDefinition {
             .setValidator(new StringLengthValidator(1, true, true))
             .build();
 
+    /**
+     * The age in days finished job executions must have to be pruned.
+     */
+    static final SimpleAttributeDefinition OLDER_THAN = SimpleAttributeDefinitionBuilder.create("older-than", ModelType.INT, false)
+            .setAllowExpression(true)
+            .setValidator(new IntRangeValidator(0, false, true))
+            .setMeasurementUnit(MeasurementUnit.DAYS)
+            .build();
+
+    /**
+     * Deletes finished job executions, and the job instances left without executions, from the JDBC job repositories.
+     */
+    static final SimpleOperationDefinition PRUNE_JOB_EXECUTIONS = new SimpleOperationDefinitionBuilder("prune-job-executions",
+            BatchSubsystemDefinition.getResourceDescriptionResolver(NAME, JobRepositoryType.JDBC.toString()))
+            .setParameters(OLDER_THAN)
+            .setReplyType(ModelType.INT)
+            .setRuntimeOnly()
+            .build();
+
+    /**
+     * Creates the indexes the JDBC job repositories use to look up executions, which the default table definitions
+     * lack.
+     */
+    static final SimpleOperationDefinition CREATE_INDEXES = new SimpleOperationDefinitionBuilder("create-indexes",
+            BatchSubsystemDefinition.getResourceDescriptionResolver(NAME, JobRepositoryType.JDBC.toString()))
+            .setReplyType(ModelType.INT)
+            .setRuntimeOnly()
+            .build();
+
     /**
      * A JDBC resource definition
      */
@@ -79,6 +121,13 @@ class JobRepositoryDefinition extends SimpleResourceDefinition {
         resourceRegistration.registerReadWriteAttribute(JNDI_NAME, null, new ReloadRequiredWriteAttributeHandler(JNDI_NAME));
     }
 
+    @Override
+    public void registerOperations(final ManagementResourceRegistration resourceRegistration) {
+        super.registerOperations(resourceRegistration);
+        resourceRegistration.registerOperationHandler(CREATE_INDEXES, CreateIndexesHandler.INSTANCE);
+        resourceRegistration.registerOperationHandler(PRUNE_JOB_EXECUTIONS, PruneJobExecutionsHandler.INSTANCE);
+    }
+
     private static class JobRepositoryAdd extends AbstractAddStepHandler {
 
         public JobRepositoryAdd(final AttributeDefinition... attributes) {
@@ -93,4 +142,48 @@ class JobRepositoryDefinition extends SimpleResourceDefinition {
             }
         }
     }
+
+    private static class CreateIndexesHandler extends AbstractRuntimeOnlyHandler {
+        static final CreateIndexesHandler INSTANCE = new CreateIndexesHandler();
+
+        @Override
+        protected void executeRuntimeStep(final OperationContext context, final ModelNode operation) throws OperationFailedException {
+            int created = 0;
+            for (String jndiName : JobRepositoryFactory.getInstance().getJdbcJndiNames()) {
+                try {
+                    final DataSource dataSource = InitialContext.doLookup(jndiName);
+                    created += JdbcJobRepositories.createIndexes(dataSource, jndiName);
+                } catch (NamingException | SQLException e) {
+                    throw BatchLogger.LOGGER.failedToCreateIndexes(e, jndiName);
+                }
+            }
+            context.getResult().set(created);
+            context.stepCompleted();
+        }
+    }
+
+    private static class PruneJobExecutionsHandler extends AbstractRuntimeOnlyHandler {
+        static final PruneJobExecutionsHandler INSTANCE = new PruneJobExecutionsHandler();
+
+        @Override
+        protected void executeRuntimeStep(final OperationContext context, final ModelNode operation) throws OperationFailedException {
+            final int olderThan = OLDER_THAN.resolveModelAttribute(context, operation).asInt();
+            final Timestamp endedBefore = new Timestamp(System.currentTimeMillis() - TimeUnit.DAYS.toMillis(olderThan));
+            int pruned = 0;
+            final JobRepositoryFactory factory = JobRepositoryFactory.getInstance();
+            for (String jndiName : factory.getJdbcJndiNames()) {
+                try {
+                    final DataSource dataSource = InitialContext.doLookup(jndiName);
+                    pruned += JdbcJobRepositories.pruneJobExecutions(dataSource, endedBefore);
+                } catch (NamingException | SQLException e) {
+                    throw BatchLogger.LOGGER.failedToPruneJobExecutions(e, jndiName);
+                } finally {
+                    // the repositories may cache executions that were deleted, even if pruning failed part way
+                    factory.resetJdbcRepositories(jndiName);
+                }
+            }
+            context.getResult().set(pruned);
+            context.stepCompleted();
+        }
+    }
 }
@@ -32,12 +32,13 @@ enum Namespace {
     // must be first
     UNKNOWN(null),
 
-    BATCH_1_0("urn:jboss:domain:batch:1.0");
+    BATCH_1_0("urn:jboss:domain:batch:1.0"),
+    BATCH_1_1("urn:jboss:domain:batch:1.1");
 
     /**
      * The current namespace version.
      */
-    public static final Namespace CURRENT = BATCH_1_0;
+    public static final Namespace CURRENT = BATCH_1_1;
 
     private final String name;
 
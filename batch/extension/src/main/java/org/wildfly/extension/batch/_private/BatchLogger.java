@@ -22,18 +22,57 @@
 
 package org.wildfly.extension.batch._private;
 
+import static org.jboss.logging.Logger.Level.WARN;
+
+import org.jboss.as.controller.OperationFailedException;
 import org.jboss.logging.BasicLogger;
 import org.jboss.logging.Logger;
+import org.jboss.logging.annotations.Cause;
+import org.jboss.logging.annotations.LogMessage;
+import org.jboss.logging.annotations.Message;
 import org.jboss.logging.annotations.MessageLogger;
 
 /**
  * Log messages for WildFly batch module
  */
-@MessageLogger(projectCode = "<<none>>")
+@MessageLogger(projectCode = "WFLYBATCH", length = 4)
 public interface BatchLogger extends BasicLogger {
     /**
      * A logger with the category {@code org.wildfly.extension.batch}.
      */
     BatchLogger LOGGER = Logger.getMessageLogger(BatchLogger.class, "org.wildfly.extension.batch");
 
+    /**
+     * Logs a warning message indicating an index of a JDBC job repository could not be created.
+     *
+     * @param cause    the cause of the error
+     * @param index    the name of the index
+     * @param jndiName the JNDI name of the data source
+     */
+    @LogMessage(level = WARN)
+    @Message(id = 1, value = "Could not create index %s for the JDBC job repository %s")
+    void couldNotCreateIndex(@Cause Throwable cause, String index, String jndiName);
+
+    /**
+     * Creates an exception indicating the job executions of a JDBC job repository could not be pruned.
+     *
+     * @param cause    the cause of the error
+     * @param jndiName the JNDI name of the data source
+     *
+     * @return an {@link OperationFailedException} for the error
+     */
+    @Message(id = 2, value = "Failed to prune the job executions of the JDBC job repository %s")
+    OperationFailedException failedToPruneJobExecutions(@Cause Throwable cause, String jndiName);
+
+    /**
+     * Creates an exception indicating the indexes of a JDBC job repository could not be created.
+     *
+     * @param cause    the cause of the error
+     * @param jndiName the JNDI name of the data source
+     *
+     * @return an {@link OperationFailedException} for the error
+     */
+    @Message(id = 3, value = "Failed to create the indexes of the JDBC job repository %s")
+    OperationFailedException failedToCreateIndexes(@Cause Throwable cause, String jndiName);
+
 }
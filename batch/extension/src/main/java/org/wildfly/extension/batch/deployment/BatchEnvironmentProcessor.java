@@ -65,9 +65,9 @@ public class BatchEnvironmentProcessor implements DeploymentUnitProcessor {
 
             final EEModuleDescription moduleDescription = deploymentUnit.getAttachment(org.jboss.as.ee.component.Attachments.EE_MODULE_DESCRIPTION);
 
-            final BatchEnvironmentService service = new BatchEnvironmentService(moduleClassLoader, JobRepositoryFactory.getInstance().getJobRepository(moduleDescription));
+            final BatchEnvironmentService service = new BatchEnvironmentService(moduleClassLoader, JobRepositoryFactory.getInstance().getJobRepository(moduleClassLoader, moduleDescription));
             final ServiceBuilder<BatchEnvironment> serviceBuilder = serviceTarget.addService(BatchServiceNames.batchDeploymentServiceName(deploymentUnit), service);
-            serviceBuilder.addDependency(BatchServiceNames.BATCH_THREAD_POOL_NAME, ExecutorService.class, service.getExecutorServiceInjector());
+            serviceBuilder.addDependency(BatchServiceNames.BATCH_JOB_EXECUTOR_NAME, ExecutorService.class, service.getExecutorServiceInjector());
 
             // Only add transactions and the BeanManager if this is a batch deployment
             if (isBatchDeployment(deploymentUnit)) {
@@ -86,6 +86,10 @@ public class BatchEnvironmentProcessor implements DeploymentUnitProcessor {
 
     @Override
     public void undeploy(DeploymentUnit context) {
+        final Module module = context.getAttachment(Attachments.MODULE);
+        if (module != null) {
+            JobRepositoryFactory.getInstance().removeJobRepository(module.getClassLoader());
+        }
     }
 
     /**
@@ -0,0 +1,218 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.extension.batch.job;
+
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * An executor for batch tasks which bounds the number of partitions of a single job running at the same time.
+ * <p/>
+ * A task submitted from a thread which is not running a batch task starts a new job. Tasks submitted while a task of a
+ * job is running, e.g. the partitions and split flows of a step, belong to the same job. At most {@code
+ * maxConcurrentPartitions} of those run at the same time, the rest wait in a queue of the job. A wide partitioned step
+ * therefore cannot take every thread of the pool from the other jobs.
+ * <p/>
+ * A task which submits tasks of its own, e.g. a split flow running a partitioned step, waits for them rather than doing
+ * the work itself. It gives up its place among the running partitions when it submits its first task, so the tasks it
+ * waits for can never be queued behind it.
+ * <p/>
+ * The lifecycle of the underlying executor is managed by its own service, so this executor cannot be shut down.
+ */
+public class JobExecutor extends AbstractExecutorService {
+
+    private static final ThreadLocal<JobTask> CURRENT_TASK = new ThreadLocal<>();
+
+    private final ExecutorService delegate;
+    private final int maxConcurrentPartitions;
+    private final AtomicInteger queuedPartitions = new AtomicInteger();
+    private final AtomicInteger activePartitions = new AtomicInteger();
+
+    /**
+     * Creates a new executor.
+     *
+     * @param delegate                the executor the tasks run on
+     * @param maxConcurrentPartitions the maximum number of partitions of a job running at the same time, a value less
+     *                                than 1 does not limit partitions
+     */
+    public JobExecutor(final ExecutorService delegate, final int maxConcurrentPartitions) {
+        this.delegate = delegate;
+        this.maxConcurrentPartitions = maxConcurrentPartitions;
+    }
+
+    @Override
+    public void execute(final Runnable task) {
+        final JobTask current = CURRENT_TASK.get();
+        if (current == null) {
+            delegate.execute(new JobTask(new Job(), task, false));
+        } else {
+            current.releasePartition();
+            current.job.submit(task);
+        }
+    }
+
+    /**
+     * Returns the number of partitions waiting for other partitions of their job to complete.
+     *
+     * @return the number of queued partitions
+     */
+    public int getQueuedPartitions() {
+        return queuedPartitions.get();
+    }
+
+    /**
+     * Returns the number of partitions currently running, not counting those waiting for tasks they submitted.
+     *
+     * @return the number of active partitions
+     */
+    public int getActivePartitions() {
+        return activePartitions.get();
+    }
+
+    @Override
+    public void shutdown() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public List<Runnable> shutdownNow() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean isShutdown() {
+        return delegate.isShutdown();
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return delegate.isTerminated();
+    }
+
+    @Override
+    public boolean awaitTermination(final long timeout, final TimeUnit unit) throws InterruptedException {
+        return delegate.awaitTermination(timeout, unit);
+    }
+
+    private final class Job {
+        // guarded by this
+        private final Queue<Runnable> queue = new ArrayDeque<>();
+        private int running;
+
+        void submit(final Runnable task) {
+            synchronized (this) {
+                if (maxConcurrentPartitions > 0 && running >= maxConcurrentPartitions) {
+                    queue.add(task);
+                    queuedPartitions.incrementAndGet();
+                    return;
+                }
+                running++;
+            }
+            try {
+                dispatch(task);
+            } catch (RejectedExecutionException e) {
+                synchronized (this) {
+                    running--;
+                }
+                throw e;
+            }
+        }
+
+        void completed() {
+            for (;;) {
+                final Runnable next;
+                synchronized (this) {
+                    next = queue.poll();
+                    if (next == null) {
+                        running--;
+                        return;
+                    }
+                }
+                queuedPartitions.decrementAndGet();
+                try {
+                    dispatch(next);
+                    return;
+                } catch (RejectedExecutionException e) {
+                    // the pool is gone, the task will never run
+                    if (next instanceof Future) {
+                        ((Future<?>) next).cancel(false);
+                    }
+                }
+            }
+        }
+
+        private void dispatch(final Runnable task) {
+            delegate.execute(new JobTask(this, task, true));
+        }
+    }
+
+    private final class JobTask implements Runnable {
+        private final Job job;
+        private final Runnable task;
+        // only accessed by the thread running the task
+        private boolean partition;
+
+        JobTask(final Job job, final Runnable task, final boolean partition) {
+            this.job = job;
+            this.task = task;
+            this.partition = partition;
+        }
+
+        @Override
+        public void run() {
+            final JobTask previous = CURRENT_TASK.get();
+            CURRENT_TASK.set(this);
+            if (partition) {
+                activePartitions.incrementAndGet();
+            }
+            try {
+                task.run();
+            } finally {
+                if (previous == null) {
+                    CURRENT_TASK.remove();
+                } else {
+                    CURRENT_TASK.set(previous);
+                }
+                releasePartition();
+            }
+        }
+
+        /**
+         * Gives up the place of this task among the running partitions of its job, if it has one.
+         */
+        void releasePartition() {
+            if (partition) {
+                partition = false;
+                activePartitions.decrementAndGet();
+                job.completed();
+            }
+        }
+    }
+}
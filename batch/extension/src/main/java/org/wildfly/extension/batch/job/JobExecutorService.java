@@ -0,0 +1,68 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.extension.batch.job;
+
+import java.util.concurrent.ExecutorService;
+
+import org.jboss.msc.service.Service;
+import org.jboss.msc.service.StartContext;
+import org.jboss.msc.service.StartException;
+import org.jboss.msc.service.StopContext;
+import org.jboss.msc.value.InjectedValue;
+
+/**
+ * A service providing the {@link JobExecutor} batch deployments submit their tasks to.
+ */
+public class JobExecutorService implements Service<JobExecutor> {
+
+    private final InjectedValue<ExecutorService> executorServiceInjector = new InjectedValue<>();
+    private final int maxConcurrentPartitions;
+    private volatile JobExecutor jobExecutor;
+
+    public JobExecutorService(final int maxConcurrentPartitions) {
+        this.maxConcurrentPartitions = maxConcurrentPartitions;
+    }
+
+    @Override
+    public void start(final StartContext context) throws StartException {
+        jobExecutor = new JobExecutor(executorServiceInjector.getValue(), maxConcurrentPartitions);
+    }
+
+    @Override
+    public void stop(final StopContext context) {
+        jobExecutor = null;
+    }
+
+    @Override
+    public JobExecutor getValue() throws IllegalStateException, IllegalArgumentException {
+        final JobExecutor jobExecutor = this.jobExecutor;
+        if (jobExecutor == null) {
+            throw new IllegalStateException();
+        }
+        return jobExecutor;
+    }
+
+    public InjectedValue<ExecutorService> getExecutorServiceInjector() {
+        return executorServiceInjector;
+    }
+}
@@ -0,0 +1,162 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.extension.batch.job.repository;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import javax.sql.DataSource;
+
+import org.wildfly.extension.batch._private.BatchLogger;
+
+/**
+ * Maintenance of the tables of a JDBC job repository.
+ * <p/>
+ * The job repository looks up executions by their parent ids, none of which are indexed by the default table
+ * definitions. The tables also keep growing for as long as jobs run, so finished executions can be pruned in bounded
+ * batches.
+ */
+public final class JdbcJobRepositories {
+
+    /**
+     * The number of job executions deleted in a single transaction.
+     */
+    static final int PRUNE_BATCH_SIZE = 100;
+
+    private static final String[][] INDEXES = {
+            {"JOB_EXECUTION_JI_IDX", "CREATE INDEX JOB_EXECUTION_JI_IDX ON JOB_EXECUTION(JOBINSTANCEID)"},
+            {"STEP_EXECUTION_JE_IDX", "CREATE INDEX STEP_EXECUTION_JE_IDX ON STEP_EXECUTION(JOBEXECUTIONID)"},
+            {"PARTITION_EXECUTION_SE_IDX", "CREATE INDEX PARTITION_EXECUTION_SE_IDX ON PARTITION_EXECUTION(STEPEXECUTIONID)"},
+    };
+
+    private static final String SELECT_FINISHED_JOB_EXECUTIONS = "SELECT JOBEXECUTIONID FROM JOB_EXECUTION WHERE ENDTIME < ? " +
+            "AND BATCHSTATUS IN ('COMPLETED', 'FAILED', 'STOPPED', 'ABANDONED')";
+    private static final String DELETE_PARTITION_EXECUTIONS = "DELETE FROM PARTITION_EXECUTION WHERE STEPEXECUTIONID IN " +
+            "(SELECT STEPEXECUTIONID FROM STEP_EXECUTION WHERE JOBEXECUTIONID = ?)";
+    private static final String DELETE_STEP_EXECUTIONS = "DELETE FROM STEP_EXECUTION WHERE JOBEXECUTIONID = ?";
+    private static final String DELETE_JOB_EXECUTION = "DELETE FROM JOB_EXECUTION WHERE JOBEXECUTIONID = ?";
+    private static final String DELETE_ORPHANED_JOB_INSTANCES = "DELETE FROM JOB_INSTANCE WHERE NOT EXISTS " +
+            "(SELECT 1 FROM JOB_EXECUTION WHERE JOB_EXECUTION.JOBINSTANCEID = JOB_INSTANCE.JOBINSTANCEID)";
+
+    private JdbcJobRepositories() {
+    }
+
+    /**
+     * Creates the indexes on the columns the job repository uses to look up executions. Indexes that cannot be
+     * created, for example because they already exist, are skipped.
+     *
+     * @param dataSource the data source of the job repository
+     * @param jndiName   the JNDI name of the data source, used for logging
+     *
+     * @return the number of indexes created
+     *
+     * @throws SQLException if no connection to the database could be obtained
+     */
+    public static int createIndexes(final DataSource dataSource, final String jndiName) throws SQLException {
+        int created = 0;
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(true);
+            for (String[] index : INDEXES) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.executeUpdate(index[1]);
+                    created++;
+                } catch (SQLException e) {
+                    BatchLogger.LOGGER.couldNotCreateIndex(e, index[0], jndiName);
+                }
+            }
+        }
+        return created;
+    }
+
+    /**
+     * Deletes the finished job executions that ended before the given time, together with their step and partition
+     * executions and the job instances that have no executions left. Each batch of job executions is deleted in its
+     * own transaction so locks are held briefly and a large backlog does not grow the transaction log.
+     *
+     * @param dataSource  the data source of the job repository
+     * @param endedBefore the time finished job executions must have ended before to be deleted
+     *
+     * @return the number of job executions deleted
+     *
+     * @throws SQLException if reading or deleting the executions fails
+     */
+    public static int pruneJobExecutions(final DataSource dataSource, final Timestamp endedBefore) throws SQLException {
+        int pruned = 0;
+        try (Connection connection = dataSource.getConnection()) {
+            final boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try (
+                    PreparedStatement select = connection.prepareStatement(SELECT_FINISHED_JOB_EXECUTIONS);
+                    PreparedStatement deletePartitions = connection.prepareStatement(DELETE_PARTITION_EXECUTIONS);
+                    PreparedStatement deleteSteps = connection.prepareStatement(DELETE_STEP_EXECUTIONS);
+                    PreparedStatement deleteJob = connection.prepareStatement(DELETE_JOB_EXECUTION)
+            ) {
+                select.setMaxRows(PRUNE_BATCH_SIZE);
+                select.setTimestamp(1, endedBefore);
+                List<Long> ids = selectIds(select);
+                while (!ids.isEmpty()) {
+                    // children first, the tables reference their parents
+                    deleteBatch(deletePartitions, ids);
+                    deleteBatch(deleteSteps, ids);
+                    deleteBatch(deleteJob, ids);
+                    connection.commit();
+                    pruned += ids.size();
+                    ids = (ids.size() < PRUNE_BATCH_SIZE) ? new ArrayList<Long>() : selectIds(select);
+                }
+                try (Statement statement = connection.createStatement()) {
+                    statement.executeUpdate(DELETE_ORPHANED_JOB_INSTANCES);
+                }
+                connection.commit();
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        }
+        return pruned;
+    }
+
+    private static List<Long> selectIds(final PreparedStatement select) throws SQLException {
+        final List<Long> ids = new ArrayList<>(PRUNE_BATCH_SIZE);
+        try (ResultSet resultSet = select.executeQuery()) {
+            while (resultSet.next()) {
+                ids.add(resultSet.getLong(1));
+            }
+        }
+        return ids;
+    }
+
+    private static void deleteBatch(final PreparedStatement delete, final List<Long> ids) throws SQLException {
+        for (Long id : ids) {
+            delete.setLong(1, id);
+            delete.addBatch();
+        }
+        delete.executeBatch();
+    }
+}
@@ -22,12 +22,19 @@
 
 package org.wildfly.extension.batch.job.repository;
 
+import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.jberet.repository.InMemoryRepository;
 import org.jberet.repository.JdbcRepository;
 import org.jberet.repository.JobRepository;
 import org.jboss.as.ee.component.EEModuleDescription;
+import org.jboss.msc.value.ImmediateValue;
+import org.jboss.msc.value.Value;
 
 /**
  * @author <a href="mailto:jperkins@redhat.com">James R. Perkins</a>
@@ -43,26 +50,78 @@ public class JobRepositoryFactory {
 
     private volatile JobRepositoryType type;
     private volatile String jndiName;
+    // Each deployment has its own JDBC repository, so the cached job executions never outlive the deployment
+    private final ConcurrentMap<ClassLoader, JdbcJobRepositoryValue> jdbcRepositories = new ConcurrentHashMap<>();
 
-    private JobRepositoryFactory() {
+    JobRepositoryFactory() {
     }
 
     public static JobRepositoryFactory getInstance() {
         return INSTANCE;
     }
 
-    public JobRepository getJobRepository(final EEModuleDescription moduleDescription) {
+    /**
+     * Returns the job repository of a deployment. A JDBC job repository must be {@linkplain #removeJobRepository(ClassLoader)
+     * removed} once the deployment is undeployed.
+     *
+     * @param classLoader       the class loader of the deployment
+     * @param moduleDescription the module description of the deployment
+     *
+     * @return the job repository of the deployment
+     */
+    public Value<JobRepository> getJobRepository(final ClassLoader classLoader, final EEModuleDescription moduleDescription) {
         final JobRepositoryType type = this.type;
         if (JobRepositoryType.JDBC == type) {
             String jndiName = this.jndiName;
             if (jndiName == null) {
                 jndiName = moduleDescription.getDefaultResourceJndiNames().getDataSource();
             }
-            final Properties configProperties = new Properties();
-            configProperties.setProperty(JNDI_NAME, jndiName);
-            return JdbcRepository.create(configProperties);
+            final JdbcJobRepositoryValue repository = new JdbcJobRepositoryValue(jndiName);
+            jdbcRepositories.put(classLoader, repository);
+            return repository;
+        }
+        return new ImmediateValue<JobRepository>(InMemoryRepository.getInstance());
+    }
+
+    /**
+     * Removes the JDBC job repository of an undeployed deployment, if it has one.
+     *
+     * @param classLoader the class loader of the deployment
+     */
+    public void removeJobRepository(final ClassLoader classLoader) {
+        jdbcRepositories.remove(classLoader);
+    }
+
+    /**
+     * Replaces the JDBC job repositories using the data source so they no longer cache job executions that were deleted
+     * from its tables.
+     *
+     * @param jndiName the JNDI name of the data source
+     */
+    public void resetJdbcRepositories(final String jndiName) {
+        for (JdbcJobRepositoryValue repository : jdbcRepositories.values()) {
+            if (repository.jndiName.equals(jndiName)) {
+                repository.reset();
+            }
         }
-        return InMemoryRepository.getInstance();
+    }
+
+    /**
+     * Returns the JNDI names of the data sources used by JDBC job repositories, including the configured data source
+     * if no deployment has used it yet.
+     *
+     * @return the JNDI names of the data sources
+     */
+    public Set<String> getJdbcJndiNames() {
+        final Set<String> result = new LinkedHashSet<>();
+        final String jndiName = this.jndiName;
+        if (JobRepositoryType.JDBC == type && jndiName != null) {
+            result.add(jndiName);
+        }
+        for (JdbcJobRepositoryValue repository : jdbcRepositories.values()) {
+            result.add(repository.jndiName);
+        }
+        return Collections.unmodifiableSet(result);
     }
 
     public boolean requiresJndiName() {
@@ -81,4 +140,41 @@ public class JobRepositoryFactory {
         this.type = type;
     }
 
+    JobRepository createJdbcRepository(final String jndiName) {
+        final Properties configProperties = new Properties();
+        configProperties.setProperty(JNDI_NAME, jndiName);
+        return JdbcRepository.create(configProperties);
+    }
+
+    /**
+     * The JDBC job repository of a deployment, created on first use.
+     */
+    private class JdbcJobRepositoryValue implements Value<JobRepository> {
+        private final String jndiName;
+        private volatile JobRepository repository;
+
+        JdbcJobRepositoryValue(final String jndiName) {
+            this.jndiName = jndiName;
+        }
+
+        @Override
+        public JobRepository getValue() {
+            JobRepository repository = this.repository;
+            if (repository == null) {
+                synchronized (this) {
+                    repository = this.repository;
+                    if (repository == null) {
+                        repository = createJdbcRepository(jndiName);
+                        this.repository = repository;
+                    }
+                }
+            }
+            return repository;
+        }
+
+        synchronized void reset() {
+            repository = null;
+        }
+    }
+
 }
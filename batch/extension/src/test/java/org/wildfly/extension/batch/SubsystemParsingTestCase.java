@@ -23,6 +23,7 @@
 package org.wildfly.extension.batch;
 
 import java.io.IOException;
+import javax.xml.stream.XMLStreamException;
 
 import org.junit.Test;
 
@@ -55,4 +56,14 @@ public class SubsystemParsingTestCase extends AbstractBatchTestCase {
         standardSubsystemTest("/jdbc-default-subsystem.xml");
         standardSubsystemTest("/jdbc-subsystem.xml");
     }
+
+    @Test
+    public void testSubsystem_1_0() throws Exception {
+        boot(readResource("/jdbc-default-subsystem.xml").replace("batch:1.1", "batch:1.0"));
+    }
+
+    @Test(expected = XMLStreamException.class)
+    public void testMaxConcurrentPartitions_1_0() throws Exception {
+        parse(readResource("/jdbc-subsystem.xml").replace("batch:1.1", "batch:1.0"));
+    }
 }
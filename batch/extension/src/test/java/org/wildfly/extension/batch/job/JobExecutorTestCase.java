@@ -0,0 +1,196 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.extension.batch.job;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests {@link JobExecutor} limits the partitions of a job, but not the number of jobs.
+ */
+public class JobExecutorTestCase {
+
+    private static final int PARTITIONS = 10;
+
+    private ExecutorService pool;
+
+    @Before
+    public void setUp() {
+        pool = Executors.newFixedThreadPool(PARTITIONS + 2);
+    }
+
+    @After
+    public void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    public void testPartitionsLimited() throws Exception {
+        final JobExecutor executor = new JobExecutor(pool, 2);
+        final AtomicInteger running = new AtomicInteger();
+        final AtomicInteger maxRunning = new AtomicInteger();
+        final CountDownLatch release = new CountDownLatch(1);
+        final Future<List<Future<?>>> job = executor.submit(new Callable<List<Future<?>>>() {
+            @Override
+            public List<Future<?>> call() {
+                final List<Future<?>> partitions = new ArrayList<>();
+                for (int i = 0; i < PARTITIONS; i++) {
+                    partitions.add(executor.submit(new Runnable() {
+                        @Override
+                        public void run() {
+                            final int current = running.incrementAndGet();
+                            synchronized (maxRunning) {
+                                maxRunning.set(Math.max(maxRunning.get(), current));
+                            }
+                            try {
+                                release.await();
+                            } catch (InterruptedException e) {
+                                Thread.currentThread().interrupt();
+                            }
+                            running.decrementAndGet();
+                        }
+                    }));
+                }
+                return partitions;
+            }
+        });
+        final List<Future<?>> partitions = job.get(10, TimeUnit.SECONDS);
+        waitFor(executor, 2);
+        Assert.assertEquals(2, executor.getActivePartitions());
+        Assert.assertEquals(PARTITIONS - 2, executor.getQueuedPartitions());
+
+        release.countDown();
+        for (Future<?> partition : partitions) {
+            partition.get(10, TimeUnit.SECONDS);
+        }
+        Assert.assertEquals(2, maxRunning.get());
+        Assert.assertEquals(0, executor.getQueuedPartitions());
+    }
+
+    @Test
+    public void testJobsNotLimited() throws Exception {
+        final JobExecutor executor = new JobExecutor(pool, 1);
+        final CountDownLatch started = new CountDownLatch(PARTITIONS);
+        final CountDownLatch release = new CountDownLatch(1);
+        final List<Future<?>> jobs = new ArrayList<>();
+        for (int i = 0; i < PARTITIONS; i++) {
+            jobs.add(executor.submit(new Runnable() {
+                @Override
+                public void run() {
+                    started.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            }));
+        }
+        // every job runs at the same time, each is the only task of its job
+        Assert.assertTrue(started.await(10, TimeUnit.SECONDS));
+        Assert.assertEquals(0, executor.getActivePartitions());
+        release.countDown();
+        for (Future<?> job : jobs) {
+            job.get(10, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    public void testSplitPartitions() throws Exception {
+        final JobExecutor executor = new JobExecutor(pool, 2);
+        final AtomicInteger running = new AtomicInteger();
+        final AtomicInteger maxRunning = new AtomicInteger();
+        final AtomicInteger completed = new AtomicInteger();
+        // a split of two flows, each running a partitioned step and waiting for its partitions
+        final Future<?> job = executor.submit(new Callable<Void>() {
+            @Override
+            public Void call() throws Exception {
+                final List<Future<?>> flows = new ArrayList<>();
+                for (int i = 0; i < 2; i++) {
+                    flows.add(executor.submit(new Callable<Void>() {
+                        @Override
+                        public Void call() throws Exception {
+                            final List<Future<?>> partitions = new ArrayList<>();
+                            for (int j = 0; j < PARTITIONS / 2; j++) {
+                                partitions.add(executor.submit(new Callable<Void>() {
+                                    @Override
+                                    public Void call() throws Exception {
+                                        final int current = running.incrementAndGet();
+                                        synchronized (maxRunning) {
+                                            maxRunning.set(Math.max(maxRunning.get(), current));
+                                        }
+                                        Thread.sleep(10);
+                                        running.decrementAndGet();
+                                        completed.incrementAndGet();
+                                        return null;
+                                    }
+                                }));
+                            }
+                            for (Future<?> partition : partitions) {
+                                partition.get();
+                            }
+                            return null;
+                        }
+                    }));
+                }
+                for (Future<?> flow : flows) {
+                    flow.get();
+                }
+                return null;
+            }
+        });
+        job.get(10, TimeUnit.SECONDS);
+        Assert.assertEquals(PARTITIONS, completed.get());
+        Assert.assertTrue(maxRunning.get() <= 2);
+        // the futures complete before the tasks give up their places
+        waitForIdle(executor);
+        Assert.assertEquals(0, executor.getActivePartitions());
+        Assert.assertEquals(0, executor.getQueuedPartitions());
+    }
+
+    private static void waitFor(final JobExecutor executor, final int activePartitions) throws InterruptedException {
+        final long end = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(10);
+        while (executor.getActivePartitions() < activePartitions && System.currentTimeMillis() < end) {
+            Thread.sleep(10);
+        }
+    }
+
+    private static void waitForIdle(final JobExecutor executor) throws InterruptedException {
+        final long end = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(10);
+        while (executor.getActivePartitions() > 0 && System.currentTimeMillis() < end) {
+            Thread.sleep(10);
+        }
+    }
+}
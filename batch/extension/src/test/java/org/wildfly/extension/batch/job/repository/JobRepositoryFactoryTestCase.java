@@ -0,0 +1,107 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.extension.batch.job.repository;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.jberet.repository.JobRepository;
+import org.jboss.msc.value.Value;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests {@link JobRepositoryFactory} gives each deployment its own JDBC job repository.
+ */
+public class JobRepositoryFactoryTestCase {
+
+    private static final String JNDI_NAME = "java:jboss/datasources/BatchDS";
+
+    private final List<String> created = new ArrayList<>();
+    private JobRepositoryFactory factory;
+
+    @Before
+    public void setUp() {
+        factory = new JobRepositoryFactory() {
+            @Override
+            JobRepository createJdbcRepository(final String jndiName) {
+                created.add(jndiName);
+                return createRepository();
+            }
+        };
+        factory.setJobRepositoryType(JobRepositoryType.JDBC);
+        factory.setJndiName(JNDI_NAME);
+    }
+
+    @Test
+    public void testRepositoryPerDeployment() {
+        final Value<JobRepository> first = factory.getJobRepository(new ClassLoader() {}, null);
+        final Value<JobRepository> second = factory.getJobRepository(new ClassLoader() {}, null);
+        Assert.assertNotSame(first.getValue(), second.getValue());
+        Assert.assertSame(first.getValue(), first.getValue());
+        Assert.assertEquals(2, created.size());
+    }
+
+    @Test
+    public void testRedeploy() {
+        final ClassLoader loader = new ClassLoader() {};
+        final JobRepository repository = factory.getJobRepository(loader, null).getValue();
+        factory.removeJobRepository(loader);
+        final ClassLoader redeployed = new ClassLoader() {};
+        Assert.assertNotSame(repository, factory.getJobRepository(redeployed, null).getValue());
+        factory.removeJobRepository(redeployed);
+
+        // the configured data source can still be pruned once nothing is deployed
+        Assert.assertEquals(1, factory.getJdbcJndiNames().size());
+        Assert.assertTrue(factory.getJdbcJndiNames().contains(JNDI_NAME));
+    }
+
+    @Test
+    public void testReset() {
+        final Value<JobRepository> value = factory.getJobRepository(new ClassLoader() {}, null);
+        final JobRepository repository = value.getValue();
+
+        factory.resetJdbcRepositories("java:jboss/datasources/OtherDS");
+        Assert.assertSame(repository, value.getValue());
+
+        factory.resetJdbcRepositories(JNDI_NAME);
+        final JobRepository reset = value.getValue();
+        Assert.assertNotSame(repository, reset);
+        Assert.assertSame(reset, value.getValue());
+        Assert.assertEquals(2, created.size());
+    }
+
+    private static JobRepository createRepository() {
+        return (JobRepository) Proxy.newProxyInstance(JobRepository.class.getClassLoader(), new Class<?>[] {JobRepository.class},
+                new InvocationHandler() {
+                    @Override
+                    public Object invoke(final Object proxy, final Method method, final Object[] args) {
+                        throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+}
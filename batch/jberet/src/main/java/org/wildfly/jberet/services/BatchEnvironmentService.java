@@ -36,7 +36,9 @@ import org.jboss.msc.service.Service;
 import org.jboss.msc.service.StartContext;
 import org.jboss.msc.service.StartException;
 import org.jboss.msc.service.StopContext;
+import org.jboss.msc.value.ImmediateValue;
 import org.jboss.msc.value.InjectedValue;
+import org.jboss.msc.value.Value;
 import org.wildfly.jberet.BatchEnvironmentFactory;
 import org.wildfly.jberet.WildFlyArtifactFactory;
 import org.wildfly.jberet._private.WildFlyBatchLogger;
@@ -56,11 +58,15 @@ public class BatchEnvironmentService implements Service<BatchEnvironment> {
     private final InjectedValue<ExecutorService> executorServiceInjector = new InjectedValue<>();
     private final InjectedValue<TransactionManager> transactionManagerInjector = new InjectedValue<>();
 
-    private final JobRepository jobRepository;
+    private final Value<JobRepository> jobRepository;
     private final ClassLoader classLoader;
     private BatchEnvironment batchEnvironment = null;
 
     public BatchEnvironmentService(final ClassLoader classLoader, final JobRepository jobRepository) {
+        this(classLoader, new ImmediateValue<>(jobRepository));
+    }
+
+    public BatchEnvironmentService(final ClassLoader classLoader, final Value<JobRepository> jobRepository) {
         this.classLoader = classLoader;
         this.jobRepository = jobRepository;
     }
@@ -183,7 +189,7 @@ public class BatchEnvironmentService implements Service<BatchEnvironment> {
 
         @Override
         public JobRepository getJobRepository() {
-            return jobRepository;
+            return jobRepository.getValue();
         }
 
         /**
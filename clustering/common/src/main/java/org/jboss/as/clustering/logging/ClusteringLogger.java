@@ -22,6 +22,8 @@
 
 package org.jboss.as.clustering.logging;
 
+import java.io.StreamCorruptedException;
+
 import org.jboss.as.controller.OperationFailedException;
 import org.jboss.logging.BasicLogger;
 import org.jboss.logging.Logger;
@@ -43,4 +45,7 @@ public interface ClusteringLogger extends BasicLogger {
 
     @Message(id = 1, value = "%2$g is not a valid value for parameter %1$s. The value must be %3$s %4$g")
     OperationFailedException parameterValueOutOfBounds(String name, double value, String relationalOperator, double bound);
+
+    @Message(id = 2, value = "Stream was written with class table %08x, but this node uses class table %08x")
+    StreamCorruptedException classTableMismatch(int streamFingerprint, int fingerprint);
 }
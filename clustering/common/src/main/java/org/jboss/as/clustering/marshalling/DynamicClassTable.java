@@ -2,22 +2,81 @@ package org.jboss.as.clustering.marshalling;
 
 import java.io.Externalizable;
 import java.io.Serializable;
-import java.util.LinkedList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.ServiceLoader;
+import java.util.Set;
 
+/**
+ * {@link SimpleClassTable} of the classes of all {@link ClassTableContributor}s visible to a class loader, optionally preceded
+ * by container classes and followed by the classes of a deployment, so that these are written as an index rather than as a
+ * class descriptor.
+ * Since indexes are only meaningful to a node that computes the same table, the table is identified by a fingerprint,
+ * which a {@link FingerprintStreamHeader} writes into each stream.
+ */
 public class DynamicClassTable extends SimpleClassTable {
+
+    private final int fingerprint;
+
     public DynamicClassTable(ClassLoader loader) {
-        super(findClasses(loader));
+        this(loader, Collections.<String>emptyList());
+    }
+
+    /**
+     * Creates a class table that also recognizes the specified container classes, and the specified classes of a deployment.
+     * Classes of the deployment that cannot be loaded, or that exceed the capacity of the table, are not recognized.
+     * @param loader the class loader of the deployment
+     * @param classNames the names of the classes of the deployment, in an order that does not vary between nodes
+     * @param classes container classes, which precede all other classes of the table
+     */
+    public DynamicClassTable(ClassLoader loader, Collection<String> classNames, Class<?>... classes) {
+        this(findClasses(loader, classNames, classes));
     }
 
-    private static Class<?>[] findClasses(ClassLoader loader) {
-        List<Class<?>> classes = new LinkedList<>();
-        classes.add(Serializable.class);
-        classes.add(Externalizable.class);
+    private DynamicClassTable(Class<?>[] classes) {
+        super(classes);
+        int fingerprint = 1;
+        for (Class<?> targetClass: classes) {
+            fingerprint = 31 * fingerprint + targetClass.getName().hashCode();
+        }
+        this.fingerprint = fingerprint;
+    }
+
+    /**
+     * Returns a fingerprint of the classes of this table, in order.
+     * @return a fingerprint
+     */
+    public int getFingerprint() {
+        return this.fingerprint;
+    }
+
+    private static Class<?>[] findClasses(ClassLoader loader, Collection<String> classNames, Class<?>... containerClasses) {
+        List<Class<?>> classes = new ArrayList<>(Arrays.asList(containerClasses));
+        Set<Class<?>> recognized = new HashSet<>(classes);
+        for (Class<?> targetClass: new Class<?>[] { Serializable.class, Externalizable.class }) {
+            if (recognized.add(targetClass)) {
+                classes.add(targetClass);
+            }
+        }
         for (ClassTableContributor contributor: ServiceLoader.load(ClassTableContributor.class, loader)) {
             classes.addAll(contributor.getKnownClasses());
         }
+        recognized.addAll(classes);
+        for (String className: classNames) {
+            if (classes.size() == MAX_CLASSES) break;
+            try {
+                Class<?> targetClass = Class.forName(className, false, loader);
+                if (recognized.add(targetClass)) {
+                    classes.add(targetClass);
+                }
+            } catch (ClassNotFoundException | LinkageError e) {
+                // Marshalled with a class descriptor instead
+            }
+        }
         return classes.toArray(new Class<?>[classes.size()]);
     }
 }
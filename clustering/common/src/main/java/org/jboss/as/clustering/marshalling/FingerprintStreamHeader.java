@@ -0,0 +1,69 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.clustering.marshalling;
+
+import java.io.EOFException;
+import java.io.IOException;
+
+import org.jboss.as.clustering.logging.ClusteringLogger;
+import org.jboss.marshalling.ByteInput;
+import org.jboss.marshalling.ByteOutput;
+import org.jboss.marshalling.StreamHeader;
+
+/**
+ * {@link StreamHeader} that writes the fingerprint of a class table, so that a stream written with a different class table
+ * fails to unmarshal, rather than resolving class indexes to the wrong classes.
+ */
+public class FingerprintStreamHeader implements StreamHeader {
+
+    private final int fingerprint;
+
+    public FingerprintStreamHeader(DynamicClassTable table) {
+        this(table.getFingerprint());
+    }
+
+    public FingerprintStreamHeader(int fingerprint) {
+        this.fingerprint = fingerprint;
+    }
+
+    @Override
+    public void readHeader(ByteInput input) throws IOException {
+        int fingerprint = 0;
+        for (int i = 0; i < 4; ++i) {
+            int b = input.read();
+            if (b < 0) {
+                throw new EOFException();
+            }
+            fingerprint = (fingerprint << 8) | b;
+        }
+        if (fingerprint != this.fingerprint) {
+            throw ClusteringLogger.ROOT_LOGGER.classTableMismatch(fingerprint, this.fingerprint);
+        }
+    }
+
+    @Override
+    public void writeHeader(ByteOutput output) throws IOException {
+        for (int i = 24; i >= 0; i -= 8) {
+            output.write(this.fingerprint >>> i);
+        }
+    }
+}
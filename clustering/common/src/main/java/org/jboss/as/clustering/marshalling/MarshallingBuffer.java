@@ -0,0 +1,71 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.clustering.marshalling;
+
+import java.io.ByteArrayOutputStream;
+
+/**
+ * Output buffer for marshalled values, which is reused by subsequent marshalling on the same thread.
+ * A reused buffer keeps the capacity of the largest value it marshalled, up to {@link #MAX_RETAINED_SIZE}, so that it
+ * rarely needs to grow while marshalling values of a similar size.
+ */
+class MarshallingBuffer extends ByteArrayOutputStream {
+
+    static final int INITIAL_SIZE = 512;
+    static final int MAX_RETAINED_SIZE = 64 * 1024;
+
+    private static final ThreadLocal<MarshallingBuffer> BUFFER = new ThreadLocal<>();
+
+    private boolean acquired = false;
+
+    private MarshallingBuffer() {
+        super(INITIAL_SIZE);
+    }
+
+    /**
+     * Returns an empty buffer, reusing the buffer of the current thread unless that buffer is still in use, e.g. by the
+     * marshalling of an enclosing value.
+     * @return an empty buffer, that must be {@link #release() released} after use
+     */
+    static MarshallingBuffer acquire() {
+        MarshallingBuffer buffer = BUFFER.get();
+        if ((buffer == null) || buffer.acquired) {
+            buffer = new MarshallingBuffer();
+            if (BUFFER.get() == null) {
+                BUFFER.set(buffer);
+            }
+        }
+        buffer.acquired = true;
+        return buffer;
+    }
+
+    /**
+     * Releases this buffer for reuse by the current thread.
+     */
+    void release() {
+        this.reset();
+        this.acquired = false;
+        if ((this.buf.length > MAX_RETAINED_SIZE) && (BUFFER.get() == this)) {
+            BUFFER.remove();
+        }
+    }
+}
@@ -24,6 +24,7 @@ package org.jboss.as.clustering.marshalling;
 import org.jboss.marshalling.MarshallingConfiguration;
 import org.jboss.marshalling.ModularClassResolver;
 import org.jboss.modules.ModuleLoader;
+import org.wildfly.security.manager.WildFlySecurityManager;
 
 /**
  * Boilerplate code for marshalling configuration creation.
@@ -31,12 +32,34 @@ import org.jboss.modules.ModuleLoader;
  */
 public class MarshallingConfigurationFactory {
 
+    /**
+     * System property that enables the marshalling versions whose class table recognizes the classes of a deployment,
+     * i.e. for session attributes and stateful session beans.
+     * Every node reads these versions, but older releases do not; so that a cluster can be upgraded one node at a time,
+     * this is disabled by default, and should only be enabled once every node of the cluster has been upgraded.
+     */
+    public static final String DEPLOYMENT_CLASS_TABLE_ENABLED = "org.wildfly.clustering.marshalling.deployment-class-table";
+
+    public static boolean isDeploymentClassTableEnabled() {
+        return Boolean.parseBoolean(WildFlySecurityManager.getPropertyPrivileged(DEPLOYMENT_CLASS_TABLE_ENABLED, Boolean.FALSE.toString()));
+    }
+
     public static MarshallingConfiguration createMarshallingConfiguration(ModuleLoader loader) {
         MarshallingConfiguration config = new MarshallingConfiguration();
         config.setClassResolver(ModularClassResolver.getInstance(loader));
         return config;
     }
 
+    /**
+     * Creates a marshalling configuration using the specified class table, whose fingerprint is written into every stream.
+     */
+    public static MarshallingConfiguration createMarshallingConfiguration(ModuleLoader loader, DynamicClassTable table) {
+        MarshallingConfiguration config = createMarshallingConfiguration(loader);
+        config.setClassTable(table);
+        config.setStreamHeader(new FingerprintStreamHeader(table));
+        return config;
+    }
+
     private MarshallingConfigurationFactory() {
         // Hide constructor
     }
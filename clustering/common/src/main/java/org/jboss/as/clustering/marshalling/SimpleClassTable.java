@@ -31,17 +31,25 @@ import org.jboss.marshalling.Unmarshaller;
 
 /**
  * Simple {@link ClassTable} implementation based on an array of recognized classes.
+ * Classes are written as a single byte, or as two bytes if there are more than 256 recognized classes.
  * @author Paul Ferraro
  */
 public class SimpleClassTable implements ClassTable {
 
+    static final int MAX_CLASSES = 0x10000;
+
     private final Class<?>[] classes;
     private final Map<Class<?>, Writer> writers = new IdentityHashMap<>();
+    private final boolean wide;
 
     public SimpleClassTable(Class<?>... classes) {
+        if (classes.length > MAX_CLASSES) {
+            throw new IllegalArgumentException(String.valueOf(classes.length));
+        }
         this.classes = classes;
+        this.wide = classes.length > 0x100;
         for (int i = 0; i < classes.length; i++) {
-            this.writers.put(classes[i], new ByteWriter((byte) i));
+            this.writers.put(classes[i], this.wide ? new ByteWriter((byte) (i >>> 8), (byte) i) : new ByteWriter((byte) i));
         }
     }
 
@@ -52,7 +60,7 @@ public class SimpleClassTable implements ClassTable {
 
     @Override
     public Class<?> readClass(Unmarshaller unmarshaller) throws IOException {
-        return this.classes[unmarshaller.readUnsignedByte()];
+        return this.classes[this.wide ? unmarshaller.readUnsignedShort() : unmarshaller.readUnsignedByte()];
     }
 
     private static final class ByteWriter implements ClassTable.Writer {
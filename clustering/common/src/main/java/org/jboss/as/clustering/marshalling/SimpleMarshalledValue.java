@@ -23,7 +23,6 @@
 package org.jboss.as.clustering.marshalling;
 
 import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.Externalizable;
 import java.io.IOException;
 import java.io.ObjectInput;
@@ -68,7 +67,7 @@ public class SimpleMarshalledValue<T> implements MarshalledValue<T, MarshallingC
         if (bytes != null) return bytes;
         if (this.object == null) return null;
         int version = this.context.getCurrentVersion();
-        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        MarshallingBuffer output = MarshallingBuffer.acquire();
         ClassLoader loader = setThreadContextClassLoader(this.context.getClassLoader());
         try (SimpleDataOutput data = new SimpleDataOutput(Marshalling.createByteOutput(output))) {
             data.writeInt(version);
@@ -80,6 +79,7 @@ public class SimpleMarshalledValue<T> implements MarshalledValue<T, MarshallingC
             }
         } finally {
             setThreadContextClassLoader(loader);
+            output.release();
         }
     }
 
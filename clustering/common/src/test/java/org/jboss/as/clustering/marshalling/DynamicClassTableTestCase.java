@@ -0,0 +1,198 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.clustering.marshalling;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.io.StreamCorruptedException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import org.jboss.marshalling.ClassTable;
+import org.jboss.marshalling.Marshalling;
+import org.jboss.marshalling.MarshallingConfiguration;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link DynamicClassTable}.
+ */
+public class DynamicClassTableTestCase {
+
+    private static final List<String> DEPLOYMENT_CLASS_NAMES = Arrays.asList(Attribute.class.getName(), "org.example.Missing");
+
+    @Test
+    public void roundTrip() throws Exception {
+        Map<String, Object> attributes = createAttributes();
+        MarshallingContext context = createContext(new DynamicClassTable(this.getClass().getClassLoader(), DEPLOYMENT_CLASS_NAMES));
+        SimpleMarshalledValue<Map<String, Object>> copy = replicate(new SimpleMarshalledValueFactory(context).createMarshalledValue(attributes));
+
+        assertNull(copy.peek());
+        assertEquals(attributes, copy.get(context));
+    }
+
+    @Test
+    public void deploymentClasses() {
+        DynamicClassTable table = new DynamicClassTable(this.getClass().getClassLoader(), DEPLOYMENT_CLASS_NAMES, Date.class);
+
+        assertNotNull(table.getClassWriter(Date.class));
+        assertNotNull(table.getClassWriter(Serializable.class));
+        assertNotNull(table.getClassWriter(Externalizable.class));
+        assertNotNull(table.getClassWriter(Attribute.class));
+        assertNull(table.getClassWriter(UUID.class));
+    }
+
+    @Test
+    public void unrecognizedClass() throws Exception {
+        Map<String, Object> attributes = createAttributes();
+        MarshallingContext context = createContext(new DynamicClassTable(this.getClass().getClassLoader()));
+        SimpleMarshalledValue<Map<String, Object>> copy = replicate(new SimpleMarshalledValueFactory(context).createMarshalledValue(attributes));
+
+        assertEquals(attributes, copy.get(context));
+    }
+
+    @Test
+    public void smallerThanClassDescriptors() throws Exception {
+        Map<String, Object> attributes = createAttributes();
+        byte[] compact = new SimpleMarshalledValueFactory(createContext(new DynamicClassTable(this.getClass().getClassLoader(), DEPLOYMENT_CLASS_NAMES))).createMarshalledValue(attributes).getBytes();
+        byte[] simple = new SimpleMarshalledValueFactory(createContext(new DynamicClassTable(this.getClass().getClassLoader()))).createMarshalledValue(attributes).getBytes();
+
+        assertTrue(compact.length + " >= " + simple.length, compact.length < simple.length);
+    }
+
+    @Test
+    public void fingerprint() {
+        ClassLoader loader = this.getClass().getClassLoader();
+
+        assertEquals(new DynamicClassTable(loader).getFingerprint(), new DynamicClassTable(loader, Collections.<String>emptyList()).getFingerprint());
+        assertEquals(new DynamicClassTable(loader, DEPLOYMENT_CLASS_NAMES).getFingerprint(), new DynamicClassTable(loader, DEPLOYMENT_CLASS_NAMES).getFingerprint());
+        assertFalse(new DynamicClassTable(loader).getFingerprint() == new DynamicClassTable(loader, DEPLOYMENT_CLASS_NAMES).getFingerprint());
+    }
+
+    @Test
+    public void fingerprintMismatch() throws Exception {
+        Map<String, Object> attributes = createAttributes();
+        MarshallingContext context = createContext(new DynamicClassTable(this.getClass().getClassLoader(), DEPLOYMENT_CLASS_NAMES));
+        SimpleMarshalledValue<Map<String, Object>> copy = replicate(new SimpleMarshalledValueFactory(context).createMarshalledValue(attributes));
+
+        try {
+            copy.get(createContext(new DynamicClassTable(this.getClass().getClassLoader())));
+            fail("Stream written with a different class table was unmarshalled");
+        } catch (StreamCorruptedException e) {
+            assertNull(copy.peek());
+        }
+    }
+
+    @Test
+    public void wideTable() throws Exception {
+        Class<?>[] classes = new Class<?>[0x200];
+        for (int i = 0; i < classes.length; ++i) {
+            classes[i] = Object.class;
+        }
+        classes[0x1FF] = Attribute.class;
+        Attribute attribute = new Attribute("name", 1);
+        MarshallingContext context = createContext(new SimpleClassTable(classes));
+        SimpleMarshalledValue<Attribute> copy = replicate(new SimpleMarshalledValueFactory(context).createMarshalledValue(attribute));
+
+        assertEquals(attribute, copy.get(context));
+    }
+
+    private static Map<String, Object> createAttributes() {
+        Map<String, Object> attributes = new HashMap<>();
+        List<Attribute> items = new ArrayList<>();
+        for (int i = 0; i < 10; ++i) {
+            items.add(new Attribute("item-" + i, i));
+        }
+        attributes.put("items", items);
+        attributes.put("id", UUID.randomUUID());
+        attributes.put("created", new Date());
+        return attributes;
+    }
+
+    private static MarshallingContext createContext(final ClassTable table) {
+        VersionedMarshallingConfiguration configuration = new VersionedMarshallingConfiguration() {
+            @Override
+            public int getCurrentMarshallingVersion() {
+                return 0;
+            }
+
+            @Override
+            public MarshallingConfiguration getMarshallingConfiguration(int version) {
+                assertEquals(0, version);
+                MarshallingConfiguration configuration = new MarshallingConfiguration();
+                configuration.setClassTable(table);
+                if (table instanceof DynamicClassTable) {
+                    configuration.setStreamHeader(new FingerprintStreamHeader((DynamicClassTable) table));
+                }
+                return configuration;
+            }
+        };
+        return new SimpleMarshallingContext(Marshalling.getMarshallerFactory("river", Marshalling.class.getClassLoader()), configuration, Thread.currentThread().getContextClassLoader());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <V> SimpleMarshalledValue<V> replicate(SimpleMarshalledValue<V> value) throws IOException, ClassNotFoundException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream output = new ObjectOutputStream(bytes)) {
+            output.writeObject(value);
+        }
+        try (ObjectInputStream input = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            return (SimpleMarshalledValue<V>) input.readObject();
+        }
+    }
+
+    static class Attribute implements Serializable {
+        private static final long serialVersionUID = 5125465131468418599L;
+
+        private final String name;
+        private final int value;
+
+        Attribute(String name, int value) {
+            this.name = name;
+            this.value = value;
+        }
+
+        @Override
+        public int hashCode() {
+            return this.name.hashCode() ^ this.value;
+        }
+
+        @Override
+        public boolean equals(Object object) {
+            if (!(object instanceof Attribute)) return false;
+            Attribute attribute = (Attribute) object;
+            return this.name.equals(attribute.name) && (this.value == attribute.value);
+        }
+    }
+}
@@ -0,0 +1,345 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.clustering.ee.infinispan;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.jboss.logging.Logger;
+
+/**
+ * Keeps identifiers in buckets by expiration time, rather than each having its own scheduled task, and hands them to
+ * an {@link Expirer} once their bucket is due. Rescheduling an identifier only moves it into another bucket.
+ * <p/>
+ * The buckets are split into shards by identifier, each with its own lock, so that scheduling contends on a single
+ * shard only. Each shard schedules a drain on the executor for its earliest bucket only, so a shard without buckets
+ * costs nothing. The identifiers of the buckets that are due are expired a chunk of them at a time, and a chunk that
+ * fails does not prevent the expiration of the others. An identifier is never expired early, but may be expired up to
+ * one bucket late.
+ *
+ * @param <I> the identifier type
+ */
+public class ExpirationBuckets<I> {
+
+    private static final Logger LOGGER = Logger.getLogger(ExpirationBuckets.class);
+
+    /**
+     * Expires identifiers whose expiration time has passed.
+     */
+    public interface Expirer<I> {
+        /**
+         * Expires the specified identifiers, which became due together. Identifiers that fail to expire are not
+         * scheduled again, so an expirer should isolate a failure to the identifiers that caused it.
+         * @param ids at most {@link ExpirationBuckets#MAX_BATCH_SIZE} identifiers
+         */
+        void expire(List<I> ids);
+    }
+
+    /**
+     * Selects identifiers.
+     */
+    public interface Filter<I> {
+        boolean accept(I id);
+    }
+
+    public static final long DEFAULT_RESOLUTION = 250;
+    public static final int DEFAULT_SHARDS = Math.min(4, Runtime.getRuntime().availableProcessors());
+    public static final int MAX_BATCH_SIZE = 100;
+
+    final ScheduledExecutorService executor;
+    final Expirer<I> expirer;
+    final long resolution;
+    private final List<Shard> shards;
+
+    final AtomicLong expired = new AtomicLong();
+    final AtomicLong totalExpirationLag = new AtomicLong();
+    private final AtomicLong maxExpirationLag = new AtomicLong();
+
+    public ExpirationBuckets(ScheduledExecutorService executor, Expirer<I> expirer) {
+        this(executor, expirer, DEFAULT_SHARDS, DEFAULT_RESOLUTION);
+    }
+
+    /**
+     * @param shards the number of shards, which bounds the number of threads of the executor that can expire at once
+     * @param resolution the width of a bucket in ms
+     */
+    public ExpirationBuckets(ScheduledExecutorService executor, Expirer<I> expirer, int shards, long resolution) {
+        this.executor = executor;
+        this.expirer = expirer;
+        this.resolution = resolution;
+        List<Shard> list = new ArrayList<>(shards);
+        for (int i = 0; i < shards; ++i) {
+            list.add(new Shard());
+        }
+        this.shards = list;
+    }
+
+    /**
+     * Schedules the specified identifier to expire at the specified time, replacing any previous schedule.
+     * @param id an identifier
+     * @param time the time in ms at which the identifier expires
+     */
+    public void schedule(I id, long time) {
+        // round up, so that nothing is expired early
+        this.shardOf(id).schedule(id, (time + this.resolution - 1) / this.resolution);
+    }
+
+    public void cancel(I id) {
+        this.shardOf(id).cancel(id);
+    }
+
+    /**
+     * Cancels the expiration of every scheduled identifier accepted by the specified filter.
+     */
+    public void cancel(Filter<I> filter) {
+        for (Shard shard: this.shards) {
+            shard.cancel(filter);
+        }
+    }
+
+    /**
+     * Cancels all expirations, and waits for expirations that are in progress to complete.
+     */
+    public void close() {
+        for (Shard shard: this.shards) {
+            shard.close();
+        }
+    }
+
+    /**
+     * @return the number of identifiers scheduled to expire
+     */
+    public int size() {
+        int size = 0;
+        for (Shard shard: this.shards) {
+            size += shard.size();
+        }
+        return size;
+    }
+
+    /**
+     * @return the number of identifiers that were handed to the expirer
+     */
+    public long getExpiredCount() {
+        return this.expired.get();
+    }
+
+    /**
+     * @return the average time in ms between the moment identifiers became eligible for expiration and their expiration
+     */
+    public long getAverageExpirationLag() {
+        long count = this.expired.get();
+        return (count > 0) ? this.totalExpirationLag.get() / count : 0;
+    }
+
+    /**
+     * @return the longest time in ms between the moment an identifier became eligible for expiration and its expiration
+     */
+    public long getMaxExpirationLag() {
+        return this.maxExpirationLag.get();
+    }
+
+    private Shard shardOf(I id) {
+        int hash = id.hashCode();
+        // spread the higher bits, as identifiers may differ only in those
+        hash ^= (hash >>> 16);
+        return this.shards.get((hash & Integer.MAX_VALUE) % this.shards.size());
+    }
+
+    void recordMaxLag(long lag) {
+        long max = this.maxExpirationLag.get();
+        while (lag > max && !this.maxExpirationLag.compareAndSet(max, lag)) {
+            max = this.maxExpirationLag.get();
+        }
+    }
+
+    /**
+     * The buckets of a subset of the identifiers, and the drain that expires them.
+     * The monitor of the shard is held while draining, the buckets guard everything else.
+     */
+    private class Shard {
+        // the identifiers of each bucket, by bucket, i.e. expiration time / resolution, rounded up
+        private final TreeMap<Long, Set<I>> buckets = new TreeMap<>();
+        // the bucket of each identifier
+        private final Map<I, Long> idBuckets = new HashMap<>();
+        // the drain that is scheduled, if any, and the bucket it is scheduled for
+        private Drain drain;
+        private long drainBucket = Long.MAX_VALUE;
+        private boolean closed = false;
+
+        void schedule(I id, Long bucket) {
+            synchronized (this.buckets) {
+                Long previous = this.idBuckets.put(id, bucket);
+                if (bucket.equals(previous)) {
+                    return;
+                }
+                if (previous != null) {
+                    this.removeFromBucket(previous, id);
+                }
+                Set<I> ids = this.buckets.get(bucket);
+                if (ids == null) {
+                    ids = new LinkedHashSet<>();
+                    this.buckets.put(bucket, ids);
+                }
+                ids.add(id);
+                if (bucket < this.drainBucket) {
+                    this.scheduleDrain(bucket);
+                }
+            }
+        }
+
+        void cancel(I id) {
+            synchronized (this.buckets) {
+                Long bucket = this.idBuckets.remove(id);
+                if (bucket != null) {
+                    // a drain that finds nothing due only schedules the next one
+                    this.removeFromBucket(bucket, id);
+                }
+            }
+        }
+
+        void cancel(Filter<I> filter) {
+            synchronized (this.buckets) {
+                Iterator<Map.Entry<I, Long>> entries = this.idBuckets.entrySet().iterator();
+                while (entries.hasNext()) {
+                    Map.Entry<I, Long> entry = entries.next();
+                    if (filter.accept(entry.getKey())) {
+                        this.removeFromBucket(entry.getValue(), entry.getKey());
+                        entries.remove();
+                    }
+                }
+            }
+        }
+
+        int size() {
+            synchronized (this.buckets) {
+                return this.idBuckets.size();
+            }
+        }
+
+        // waits for a drain that is in progress to complete
+        synchronized void close() {
+            synchronized (this.buckets) {
+                this.closed = true;
+                if (this.drain != null) {
+                    this.drain.future.cancel(false);
+                    this.drain = null;
+                }
+                this.buckets.clear();
+                this.idBuckets.clear();
+            }
+        }
+
+        // must be called while holding the buckets
+        private void scheduleDrain(long bucket) {
+            if (this.closed) {
+                return;
+            }
+            if (this.drain != null) {
+                // it may already be running, in which case it finds that it was replaced
+                this.drain.future.cancel(false);
+            }
+            Drain drain = new Drain();
+            this.drain = drain;
+            this.drainBucket = bucket;
+            long delay = Math.max(bucket * ExpirationBuckets.this.resolution - System.currentTimeMillis(), 0);
+            drain.future = ExpirationBuckets.this.executor.schedule(drain, delay, TimeUnit.MILLISECONDS);
+        }
+
+        // must be called while holding the buckets
+        private void removeFromBucket(Long bucket, I id) {
+            Set<I> ids = this.buckets.get(bucket);
+            if (ids != null) {
+                ids.remove(id);
+                if (ids.isEmpty()) {
+                    this.buckets.remove(bucket);
+                }
+            }
+        }
+
+        synchronized void drain(Drain drain) {
+            ExpirationBuckets<I> expiration = ExpirationBuckets.this;
+            long now = System.currentTimeMillis();
+            long lag = 0;
+            List<I> ids = new ArrayList<>();
+            synchronized (this.buckets) {
+                if (this.closed || (drain != this.drain)) {
+                    return;
+                }
+                this.drain = null;
+                this.drainBucket = Long.MAX_VALUE;
+                Iterator<Map.Entry<Long, Set<I>>> entries = this.buckets.headMap(now / expiration.resolution, true).entrySet().iterator();
+                while (entries.hasNext()) {
+                    Map.Entry<Long, Set<I>> entry = entries.next();
+                    long bucketLag = now - entry.getKey() * expiration.resolution;
+                    for (I id: entry.getValue()) {
+                        this.idBuckets.remove(id);
+                        ids.add(id);
+                        lag += bucketLag;
+                    }
+                    expiration.recordMaxLag(bucketLag);
+                    entries.remove();
+                }
+                if (!this.buckets.isEmpty()) {
+                    this.scheduleDrain(this.buckets.firstKey());
+                }
+            }
+            if (ids.isEmpty()) {
+                return;
+            }
+            expiration.expired.addAndGet(ids.size());
+            expiration.totalExpirationLag.addAndGet(lag);
+            for (int i = 0; i < ids.size(); i += MAX_BATCH_SIZE) {
+                List<I> chunk = ids.subList(i, Math.min(i + MAX_BATCH_SIZE, ids.size()));
+                try {
+                    expiration.expirer.expire(chunk);
+                } catch (Throwable e) {
+                    // the identifiers of the later chunks were already taken from their buckets
+                    LOGGER.warnf(e, "Failed to expire %d identifiers", chunk.size());
+                }
+            }
+        }
+
+        /**
+         * A scheduled drain of the shard, which does nothing once it was replaced by a drain for an earlier bucket.
+         */
+        private class Drain implements Runnable {
+            // guarded by the buckets of the shard
+            ScheduledFuture<?> future;
+
+            @Override
+            public void run() {
+                Shard.this.drain(this);
+            }
+        }
+    }
+}
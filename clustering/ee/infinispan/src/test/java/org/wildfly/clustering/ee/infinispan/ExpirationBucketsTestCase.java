@@ -0,0 +1,211 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.clustering.ee.infinispan;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Unit test for {@link ExpirationBuckets}.
+ */
+public class ExpirationBucketsTestCase {
+
+    private final ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(2);
+    private final List<List<String>> expired = Collections.synchronizedList(new ArrayList<List<String>>());
+    private final ExpirationBuckets.Expirer<String> expirer = new ExpirationBuckets.Expirer<String>() {
+        @Override
+        public void expire(List<String> ids) {
+            ExpirationBucketsTestCase.this.expired.add(new ArrayList<>(ids));
+        }
+    };
+
+    public ExpirationBucketsTestCase() {
+        this.executor.setRemoveOnCancelPolicy(true);
+    }
+
+    @After
+    public void destroy() {
+        this.executor.shutdownNow();
+    }
+
+    @Test
+    public void expire() throws InterruptedException {
+        ExpirationBuckets<String> buckets = new ExpirationBuckets<>(this.executor, this.expirer, 2, 50);
+        long now = System.currentTimeMillis();
+        buckets.schedule("early", now + 10);
+        buckets.schedule("late", now + 10000);
+        buckets.schedule("canceled", now + 10);
+        buckets.cancel("canceled");
+        Assert.assertEquals(2, buckets.size());
+
+        Thread.sleep(500);
+
+        Assert.assertEquals(Collections.singletonList(Collections.singletonList("early")), this.expired);
+        Assert.assertEquals(1, buckets.size());
+        Assert.assertEquals(1, buckets.getExpiredCount());
+        Assert.assertTrue(buckets.getMaxExpirationLag() >= buckets.getAverageExpirationLag());
+        buckets.close();
+        Assert.assertEquals(0, buckets.size());
+    }
+
+    @Test
+    public void neverEarly() throws InterruptedException {
+        ExpirationBuckets<String> buckets = new ExpirationBuckets<>(this.executor, this.expirer, 1, 100);
+        long time = System.currentTimeMillis() + 300;
+        buckets.schedule("id", time);
+        while (this.expired.isEmpty()) {
+            Thread.sleep(10);
+        }
+        Assert.assertTrue(System.currentTimeMillis() >= time);
+        buckets.close();
+    }
+
+    @Test
+    public void reschedule() throws InterruptedException {
+        ExpirationBuckets<String> buckets = new ExpirationBuckets<>(this.executor, this.expirer, 1, 50);
+        long now = System.currentTimeMillis();
+        // moving into a later bucket prevents the earlier expiration, moving into an earlier one brings it forward
+        buckets.schedule("later", now + 10);
+        buckets.schedule("later", now + 10000);
+        buckets.schedule("earlier", now + 10000);
+        buckets.schedule("earlier", now + 10);
+
+        Thread.sleep(500);
+
+        Assert.assertEquals(Collections.singletonList(Collections.singletonList("earlier")), this.expired);
+        Assert.assertEquals(1, buckets.size());
+        buckets.close();
+    }
+
+    @Test
+    public void idle() throws InterruptedException {
+        ExpirationBuckets<String> buckets = new ExpirationBuckets<>(this.executor, this.expirer, 4, 50);
+        // shards without buckets schedule nothing
+        Assert.assertTrue(this.executor.getQueue().isEmpty());
+        buckets.schedule("id", System.currentTimeMillis() + 10000);
+        Assert.assertEquals(1, this.executor.getQueue().size());
+        buckets.cancel("id");
+        buckets.close();
+        Assert.assertTrue(this.executor.getQueue().isEmpty());
+    }
+
+    @Test
+    public void cancelFiltered() {
+        ExpirationBuckets<String> buckets = new ExpirationBuckets<>(this.executor, this.expirer, 4, 50);
+        long later = System.currentTimeMillis() + 10000;
+        for (int i = 0; i < 10; ++i) {
+            buckets.schedule("local" + i, later);
+            buckets.schedule("remote" + i, later);
+        }
+        buckets.cancel(new ExpirationBuckets.Filter<String>() {
+            @Override
+            public boolean accept(String id) {
+                return id.startsWith("remote");
+            }
+        });
+        Assert.assertEquals(10, buckets.size());
+        buckets.close();
+    }
+
+    @Test
+    public void batches() throws InterruptedException {
+        ExpirationBuckets<String> buckets = new ExpirationBuckets<>(this.executor, this.expirer, 1, 50);
+        long now = System.currentTimeMillis();
+        int count = ExpirationBuckets.MAX_BATCH_SIZE * 2 + 1;
+        for (int i = 0; i < count; ++i) {
+            buckets.schedule("id" + i, now);
+        }
+
+        Thread.sleep(500);
+
+        Assert.assertEquals(3, this.expired.size());
+        Assert.assertEquals(ExpirationBuckets.MAX_BATCH_SIZE, this.expired.get(0).size());
+        Assert.assertEquals(1, this.expired.get(2).size());
+        Assert.assertEquals(count, buckets.getExpiredCount());
+        buckets.close();
+    }
+
+    @Test
+    public void failingChunk() throws InterruptedException {
+        final List<List<String>> attempted = Collections.synchronizedList(new ArrayList<List<String>>());
+        ExpirationBuckets.Expirer<String> expirer = new ExpirationBuckets.Expirer<String>() {
+            @Override
+            public void expire(List<String> ids) {
+                attempted.add(new ArrayList<>(ids));
+                if (attempted.size() == 1) {
+                    throw new IllegalStateException();
+                }
+            }
+        };
+        ExpirationBuckets<String> buckets = new ExpirationBuckets<>(this.executor, expirer, 1, 50);
+        long now = System.currentTimeMillis();
+        int count = ExpirationBuckets.MAX_BATCH_SIZE * 2 + 1;
+        for (int i = 0; i < count; ++i) {
+            buckets.schedule("id" + i, now);
+        }
+
+        Thread.sleep(500);
+
+        // the chunks following the one that failed are still expired
+        Assert.assertEquals(3, attempted.size());
+        Assert.assertEquals(0, buckets.size());
+        buckets.close();
+    }
+
+    @Test
+    public void parallelShards() throws InterruptedException {
+        final CyclicBarrier barrier = new CyclicBarrier(2);
+        final List<List<String>> expired = Collections.synchronizedList(new ArrayList<List<String>>());
+        ExpirationBuckets.Expirer<String> expirer = new ExpirationBuckets.Expirer<String>() {
+            @Override
+            public void expire(List<String> ids) {
+                try {
+                    // only completes if the other shard is expiring at the same time
+                    barrier.await(5, TimeUnit.SECONDS);
+                    expired.add(new ArrayList<>(ids));
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+        };
+        ExpirationBuckets<String> buckets = new ExpirationBuckets<>(this.executor, expirer, 2, 50);
+        long now = System.currentTimeMillis();
+        for (int i = 0; i < 20; ++i) {
+            buckets.schedule("id" + i, now);
+        }
+
+        Thread.sleep(1000);
+
+        // each shard drained its identifiers on a worker of its own
+        Assert.assertEquals(2, expired.size());
+        Assert.assertEquals(20, expired.get(0).size() + expired.get(1).size());
+        buckets.close();
+    }
+}
@@ -21,21 +21,27 @@
  */
 package org.wildfly.clustering.ejb.infinispan;
 
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ExecutionException;
-import java.util.concurrent.Future;
+import java.util.Collections;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 
 import org.jboss.as.clustering.infinispan.distribution.Locality;
 import org.wildfly.clustering.ee.Batch;
 import org.wildfly.clustering.ee.Batcher;
+import org.wildfly.clustering.ee.infinispan.ExpirationBuckets;
 import org.wildfly.clustering.ee.infinispan.TransactionBatch;
 import org.wildfly.clustering.ejb.Time;
 import org.wildfly.clustering.ejb.infinispan.logging.InfinispanEjbLogger;
 
 /**
  * Schedules a bean for expiration.
+ * <p/>
+ * Beans are kept in {@link ExpirationBuckets} of {@link ExpirationBuckets#DEFAULT_RESOLUTION} ms by expiration time,
+ * rather than each having its own scheduled task. The beans of the buckets that are due are removed a chunk of them per
+ * batch. A bean is never expired early, but may be expired up to one bucket late.
+ * <p/>
+ * The buckets are split into shards by bean identifier, and each shard drains its due beans on the expiration executor
+ * of the bean manager, which has a worker per shard, so that shards that are due together expire in parallel.
  *
  * @author Paul Ferraro
  *
@@ -43,16 +49,22 @@ import org.wildfly.clustering.ejb.infinispan.logging.InfinispanEjbLogger;
  * @param <I> the bean identifier type
  * @param <T> the bean type
  */
-public class BeanExpirationScheduler<G, I, T> implements Scheduler<I> {
-    final Map<I, Future<?>> expirationFutures = new ConcurrentHashMap<>();
+public class BeanExpirationScheduler<G, I, T> implements Scheduler<I>, ExpirationBuckets.Expirer<I> {
+
     final Batcher<TransactionBatch> batcher;
     final BeanRemover<I, T> remover;
     final ExpirationConfiguration<T> expiration;
+    private final ExpirationBuckets<I> buckets;
 
     public BeanExpirationScheduler(Batcher<TransactionBatch> batcher, BeanRemover<I, T> remover, ExpirationConfiguration<T> expiration) {
+        this(batcher, remover, expiration, ExpirationBuckets.DEFAULT_SHARDS, ExpirationBuckets.DEFAULT_RESOLUTION);
+    }
+
+    BeanExpirationScheduler(Batcher<TransactionBatch> batcher, BeanRemover<I, T> remover, ExpirationConfiguration<T> expiration, int shards, long resolution) {
         this.batcher = batcher;
         this.remover = remover;
         this.expiration = expiration;
+        this.buckets = new ExpirationBuckets<>(expiration.getExecutor(), this, shards, resolution);
     }
 
     @Override
@@ -62,78 +74,87 @@ public class BeanExpirationScheduler<G, I, T> implements Scheduler<I> {
         if (value >= 0) {
             TimeUnit unit = timeout.getUnit();
             InfinispanEjbLogger.ROOT_LOGGER.tracef("Scheduling stateful session bean %s to expire in %d %s", id, value, unit);
-            Runnable task = new ExpirationTask(id);
-            // Make sure the expiration future map insertion happens before map removal (during task execution).
-            synchronized (task) {
-                this.expirationFutures.put(id, this.expiration.getExecutor().schedule(task, value, unit));
-            }
+            this.buckets.schedule(id, System.currentTimeMillis() + unit.toMillis(value));
         }
     }
 
     @Override
     public void cancel(I id) {
-        Future<?> future = this.expirationFutures.remove(id);
-        if (future != null) {
-            future.cancel(false);
-        }
+        this.buckets.cancel(id);
     }
 
     @Override
-    public void cancel(Locality locality) {
-        for (I id: this.expirationFutures.keySet()) {
-            if (!locality.isLocal(id)) {
-                this.cancel(id);
+    public void cancel(final Locality locality) {
+        this.buckets.cancel(new ExpirationBuckets.Filter<I>() {
+            @Override
+            public boolean accept(I id) {
+                return !locality.isLocal(id);
             }
-        }
+        });
     }
 
     @Override
     public void close() {
-        for (Future<?> future: this.expirationFutures.values()) {
-            future.cancel(false);
-        }
-        for (Future<?> future: this.expirationFutures.values()) {
-            if (!future.isDone()) {
-                try {
-                    future.get();
-                } catch (InterruptedException e) {
-                    Thread.currentThread().interrupt();
-                } catch (ExecutionException e) {
-                    // Ignore
-                }
-            }
-        }
-        this.expirationFutures.clear();
+        // lets an expiration that is in progress complete
+        this.buckets.close();
     }
 
-    private class ExpirationTask implements Runnable {
-        private final I id;
+    /**
+     * @return the number of beans scheduled to expire
+     */
+    public int getScheduledBeanCount() {
+        return this.buckets.size();
+    }
 
-        public ExpirationTask(I id) {
-            this.id = id;
-        }
+    /**
+     * @return the number of beans this scheduler has attempted to expire
+     */
+    public long getExpiredBeanCount() {
+        return this.buckets.getExpiredCount();
+    }
+
+    /**
+     * @return the average time in ms between the moment beans became eligible for expiration and their expiration
+     */
+    public long getAverageExpirationLag() {
+        return this.buckets.getAverageExpirationLag();
+    }
 
-        @Override
-        public void run() {
-            InfinispanEjbLogger.ROOT_LOGGER.tracef("Expiring stateful session bean %s", this.id);
+    /**
+     * @return the longest time in ms between the moment a bean became eligible for expiration and its expiration
+     */
+    public long getMaxExpirationLag() {
+        return this.buckets.getMaxExpirationLag();
+    }
+
+    @Override
+    public void expire(List<I> ids) {
+        Throwable failure = null;
+        Batch batch = this.batcher.createBatch();
+        try {
+            for (I id: ids) {
+                InfinispanEjbLogger.ROOT_LOGGER.tracef("Expiring stateful session bean %s", id);
+                this.remover.remove(id, this.expiration.getRemoveListener());
+            }
+        } catch (Throwable e) {
+            failure = e;
+            batch.discard();
+        }
+        if (failure == null) {
             try {
-                Batch batch = BeanExpirationScheduler.this.batcher.createBatch();
-                boolean success = false;
-                try {
-                    BeanExpirationScheduler.this.remover.remove(this.id, BeanExpirationScheduler.this.expiration.getRemoveListener());
-                    success = true;
-                } catch (Throwable e) {
-                    InfinispanEjbLogger.ROOT_LOGGER.failedToExpireBean(e, this.id);
-                } finally {
-                    if (success) {
-                        batch.close();
-                    } else {
-                        batch.discard();
-                    }
-                }
-            } finally {
-                synchronized (this) {
-                    BeanExpirationScheduler.this.expirationFutures.remove(this.id);
+                // commits the removals, which fails on a conflict with any of the beans
+                batch.close();
+            } catch (Throwable e) {
+                failure = e;
+            }
+        }
+        if (failure != null) {
+            if (ids.size() == 1) {
+                InfinispanEjbLogger.ROOT_LOGGER.failedToExpireBean(failure, ids.get(0));
+            } else {
+                // one bean spoils the whole batch, so retry them one by one to isolate it
+                for (I id: ids) {
+                    this.expire(Collections.singletonList(id));
                 }
             }
         }
@@ -99,6 +99,7 @@ public class InfinispanBeanManager<G, I, T> implements BeanManager<G, I, T, Tran
 
     volatile CommandDispatcher<Scheduler<I>> dispatcher;
     private volatile Scheduler<I> scheduler;
+    private volatile BeanExpirationScheduler<G, I, T> expirationScheduler;
 
     public InfinispanBeanManager(InfinispanBeanManagerConfiguration<T> configuration, final Configuration<I, BeanKey<I>, BeanEntry<G>, BeanFactory<G, I, T>> beanConfiguration, final Configuration<G, G, BeanGroupEntry<I, T>, BeanGroupFactory<G, I, T>> groupConfiguration) {
         this.beanName = configuration.getBeanName();
@@ -153,7 +154,8 @@ public class InfinispanBeanManager<G, I, T> implements BeanManager<G, I, T, Tran
         final List<Scheduler<I>> schedulers = new ArrayList<>(2);
         Time timeout = this.expiration.getTimeout();
         if ((timeout != null) && (timeout.getValue() >= 0)) {
-            schedulers.add(new BeanExpirationScheduler<>(this.batcher, new ExpiredBeanRemover<>(this.beanFactory), this.expiration));
+            this.expirationScheduler = new BeanExpirationScheduler<>(this.batcher, new ExpiredBeanRemover<>(this.beanFactory), this.expiration);
+            schedulers.add(this.expirationScheduler);
         }
         if (this.passivation.isEvictionAllowed()) {
             schedulers.add(new BeanEvictionScheduler<>(this.beanName + ".eviction", this.batcher, this.beanFactory, this.dispatcherFactory, this.passivation));
@@ -304,6 +306,18 @@ public class InfinispanBeanManager<G, I, T> implements BeanManager<G, I, T, Tran
         return this.passiveCount.get();
     }
 
+    @Override
+    public long getExpirationLag() {
+        BeanExpirationScheduler<G, I, T> scheduler = this.expirationScheduler;
+        return (scheduler != null) ? scheduler.getAverageExpirationLag() : 0;
+    }
+
+    @Override
+    public long getMaxExpirationLag() {
+        BeanExpirationScheduler<G, I, T> scheduler = this.expirationScheduler;
+        return (scheduler != null) ? scheduler.getMaxExpirationLag() : 0;
+    }
+
     @CacheEntryPassivated
     public void passivated(CacheEntryPassivatedEvent<BeanKey<I>, BeanEntry<G>> event) {
         if (event.isPre()) {
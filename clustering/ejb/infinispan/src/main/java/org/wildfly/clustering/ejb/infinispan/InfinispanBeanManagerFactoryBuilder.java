@@ -39,6 +39,7 @@ import org.jboss.msc.service.ServiceTarget;
 import org.jboss.msc.value.InjectedValue;
 import org.jboss.threads.JBossThreadFactory;
 import org.jboss.tm.XAResourceRecoveryRegistry;
+import org.wildfly.clustering.ee.infinispan.ExpirationBuckets;
 import org.wildfly.clustering.ee.infinispan.TransactionBatch;
 import org.wildfly.clustering.ejb.BeanContext;
 import org.wildfly.clustering.ejb.BeanManagerFactory;
@@ -98,7 +99,8 @@ public class InfinispanBeanManagerFactoryBuilder<G, I> implements BeanManagerFac
                 .setInitialMode(ServiceController.Mode.ON_DEMAND)
                 .install()
         ;
-        RemoveOnCancelScheduledExecutorService.build(target, deploymentUnitServiceName.append(this.name, "expiration"), EXPIRATION_THREAD_FACTORY)
+        // a worker per shard of the expiration buckets, so that shards that are due together are drained in parallel
+        RemoveOnCancelScheduledExecutorService.build(target, deploymentUnitServiceName.append(this.name, "expiration"), EXPIRATION_THREAD_FACTORY, ExpirationBuckets.DEFAULT_SHARDS)
                 .setInitialMode(ServiceController.Mode.ON_DEMAND)
                 .install()
         ;
@@ -21,16 +21,23 @@
  */
 package org.wildfly.clustering.ejb.infinispan;
 
+import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.atMost;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.util.Arrays;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 
+import org.junit.Assert;
 import org.junit.Test;
 import org.wildfly.clustering.ee.Batcher;
+import org.wildfly.clustering.ee.infinispan.ExpirationBuckets;
 import org.wildfly.clustering.ee.infinispan.TransactionBatch;
 import org.wildfly.clustering.ejb.RemoveListener;
 import org.wildfly.clustering.ejb.Time;
@@ -110,4 +117,66 @@ public class BeanExpirationSchedulerTestCase {
         verify(remover, never()).remove(beanId, listener);
         verify(batcher, never()).createBatch();
     }
+
+    @Test
+    public void testExpireSharded() throws InterruptedException {
+        Batcher<TransactionBatch> batcher = mock(Batcher.class);
+        TransactionBatch batch = mock(TransactionBatch.class);
+        BeanRemover<String, Object> remover = mock(BeanRemover.class);
+        ExpirationConfiguration<Object> config = mock(ExpirationConfiguration.class);
+        RemoveListener<Object> listener = mock(RemoveListener.class);
+        int beans = 3 * ExpirationBuckets.MAX_BATCH_SIZE;
+
+        when(config.getExecutor()).thenReturn(Executors.newScheduledThreadPool(2));
+        when(batcher.createBatch()).thenReturn(batch);
+
+        when(config.getTimeout()).thenReturn(new Time(1, TimeUnit.MILLISECONDS));
+        when(config.getRemoveListener()).thenReturn(listener);
+
+        try (BeanExpirationScheduler<Object, String, Object> scheduler = new BeanExpirationScheduler<>(batcher, remover, config, 2, 10)) {
+            for (int i = 0; i < beans; ++i) {
+                scheduler.schedule("bean-" + i);
+            }
+
+            Thread.sleep(1000);
+
+            Assert.assertEquals(0, scheduler.getScheduledBeanCount());
+            Assert.assertEquals(beans, scheduler.getExpiredBeanCount());
+            Assert.assertTrue(scheduler.getMaxExpirationLag() >= scheduler.getAverageExpirationLag());
+        }
+
+        for (int i = 0; i < beans; ++i) {
+            verify(remover).remove("bean-" + i, listener);
+        }
+        // beans are removed in batches, rather than one batch per bean
+        verify(batcher, atMost(beans / 10)).createBatch();
+        verify(batch, atLeast(3)).close();
+    }
+
+    @Test
+    public void testCommitFailure() {
+        Batcher<TransactionBatch> batcher = mock(Batcher.class);
+        TransactionBatch batch = mock(TransactionBatch.class);
+        BeanRemover<String, Object> remover = mock(BeanRemover.class);
+        ExpirationConfiguration<Object> config = mock(ExpirationConfiguration.class);
+        RemoveListener<Object> listener = mock(RemoveListener.class);
+        String[] beanIds = new String[] { "bean-1", "bean-2", "bean-3" };
+
+        when(config.getExecutor()).thenReturn(Executors.newSingleThreadScheduledExecutor());
+        when(config.getRemoveListener()).thenReturn(listener);
+        when(batcher.createBatch()).thenReturn(batch);
+        // the commit of the whole chunk fails, e.g. on a conflict with one of its beans
+        doThrow(new IllegalStateException()).doNothing().when(batch).close();
+
+        try (BeanExpirationScheduler<Object, String, Object> scheduler = new BeanExpirationScheduler<>(batcher, remover, config)) {
+            scheduler.expire(Arrays.asList(beanIds));
+        }
+
+        // each bean is retried in a batch of its own
+        for (String beanId: beanIds) {
+            verify(remover, times(2)).remove(beanId, listener);
+        }
+        verify(batch, times(beanIds.length + 1)).close();
+        verify(batch, never()).discard();
+    }
 }
@@ -25,4 +25,14 @@ public interface BeanManagerStatistics {
     int getActiveCount();
 
     int getPassiveCount();
+
+    /**
+     * @return the average time in ms between the moment beans became eligible for expiration and their expiration
+     */
+    long getExpirationLag();
+
+    /**
+     * @return the longest time in ms between the moment a bean became eligible for expiration and its expiration
+     */
+    long getMaxExpirationLag();
 }
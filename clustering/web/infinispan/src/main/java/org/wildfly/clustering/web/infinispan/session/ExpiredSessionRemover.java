@@ -21,8 +21,11 @@
  */
 package org.wildfly.clustering.web.infinispan.session;
 
+import java.util.concurrent.TimeUnit;
+
 import org.wildfly.clustering.ee.infinispan.Remover;
 import org.wildfly.clustering.web.infinispan.logging.InfinispanWebLogger;
+import org.wildfly.clustering.web.session.ImmutableSessionMetaData;
 import org.wildfly.clustering.web.session.Session;
 
 /**
@@ -32,9 +35,19 @@ import org.wildfly.clustering.web.session.Session;
 public class ExpiredSessionRemover<V, L> implements Remover<String> {
 
     private final SessionFactory<V, L> factory;
+    private final long lastAccessCoalescingWindow;
 
     public ExpiredSessionRemover(SessionFactory<V, L> factory) {
+        this(factory, 0);
+    }
+
+    /**
+     * Creates a remover for sessions whose stored last accessed time may lag behind their actual last access by up to
+     * the specified window.
+     */
+    public ExpiredSessionRemover(SessionFactory<V, L> factory, long lastAccessCoalescingWindow) {
         this.factory = factory;
+        this.lastAccessCoalescingWindow = lastAccessCoalescingWindow;
     }
 
     @Override
@@ -42,10 +55,20 @@ public class ExpiredSessionRemover<V, L> implements Remover<String> {
         V value = this.factory.findValue(id);
         if (value != null) {
             Session<L> session = this.factory.createSession(id, value);
-            if (session.isValid() && session.getMetaData().isExpired()) {
+            if (session.isValid() && isExpired(session.getMetaData(), this.lastAccessCoalescingWindow)) {
                 InfinispanWebLogger.ROOT_LOGGER.tracef("Session %s has expired.", id);
                 session.invalidate();
             }
         }
     }
+
+    /**
+     * Indicates whether a session has expired, allowing its stored last accessed time to lag behind the last access by up
+     * to the specified window.
+     */
+    static boolean isExpired(ImmutableSessionMetaData metaData, long lastAccessCoalescingWindow) {
+        if (lastAccessCoalescingWindow <= 0) return metaData.isExpired();
+        long maxInactiveInterval = metaData.getMaxInactiveInterval(TimeUnit.MILLISECONDS);
+        return (maxInactiveInterval > 0) && ((System.currentTimeMillis() - metaData.getLastAccessedTime().getTime()) >= (maxInactiveInterval + lastAccessCoalescingWindow));
+    }
 }
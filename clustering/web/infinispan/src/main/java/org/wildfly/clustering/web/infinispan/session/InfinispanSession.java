@@ -22,6 +22,7 @@
 package org.wildfly.clustering.web.infinispan.session;
 
 import java.util.Date;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
 
@@ -47,8 +48,18 @@ public class InfinispanSession<L> extends InfinispanImmutableSession implements
     private final Mutator mutator;
     private final Remover<String> remover;
     private final AtomicBoolean valid = new AtomicBoolean(true);
+    private final long lastAccessCoalescingWindow;
+    private final long maxInactiveInterval;
 
     public InfinispanSession(String id, SessionMetaData metaData, SessionAttributes attributes, AtomicReference<L> localContext, LocalContextFactory<L> localContextFactory, SessionContext context, Mutator mutator, Remover<String> remover) {
+        this(id, metaData, attributes, localContext, localContextFactory, context, mutator, remover, 0);
+    }
+
+    /**
+     * Creates a session whose last accessed time is only updated, and therefore only replicated, once it is at least
+     * the specified window old.
+     */
+    public InfinispanSession(String id, SessionMetaData metaData, SessionAttributes attributes, AtomicReference<L> localContext, LocalContextFactory<L> localContextFactory, SessionContext context, Mutator mutator, Remover<String> remover, long lastAccessCoalescingWindow) {
         super(id, metaData, attributes, context);
         this.metaData = metaData;
         this.attributes = attributes;
@@ -56,6 +67,8 @@ public class InfinispanSession<L> extends InfinispanImmutableSession implements
         this.localContextFactory = localContextFactory;
         this.mutator = mutator;
         this.remover = remover;
+        this.lastAccessCoalescingWindow = lastAccessCoalescingWindow;
+        this.maxInactiveInterval = (lastAccessCoalescingWindow > 0) ? metaData.getMaxInactiveInterval(TimeUnit.MILLISECONDS) : 0;
     }
 
     @Override
@@ -90,11 +103,22 @@ public class InfinispanSession<L> extends InfinispanImmutableSession implements
     @Override
     public void close() {
         if (this.valid.get()) {
-            this.metaData.setLastAccessedTime(new Date());
-            this.mutator.mutate();
+            Date now = new Date();
+            if (this.isLastAccessReplicationRequired(now)) {
+                this.metaData.setLastAccessedTime(now);
+                this.mutator.mutate();
+            }
         }
     }
 
+    private boolean isLastAccessReplicationRequired(Date now) {
+        if (this.lastAccessCoalescingWindow <= 0) return true;
+        // A new session must always be updated, otherwise it would still be considered new by subsequent requests
+        if (this.metaData.isNew()) return true;
+        if (this.metaData.getMaxInactiveInterval(TimeUnit.MILLISECONDS) != this.maxInactiveInterval) return true;
+        return (now.getTime() - this.metaData.getLastAccessedTime().getTime()) >= this.lastAccessCoalescingWindow;
+    }
+
     @Override
     public L getLocalContext() {
         if (this.localContextFactory == null) return null;
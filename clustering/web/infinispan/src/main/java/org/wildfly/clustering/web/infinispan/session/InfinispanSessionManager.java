@@ -90,6 +90,7 @@ public class InfinispanSessionManager<V, L> implements SessionManager<L, Transac
     private final CommandDispatcherFactory dispatcherFactory;
     private final NodeFactory<Address> nodeFactory;
     private final int maxActiveSessions;
+    private final long lastAccessCoalescingWindow;
     private volatile Time defaultMaxInactiveInterval = new Time(30, TimeUnit.MINUTES);
     private final boolean persistent;
     private final Invoker invoker = new RetryingInvoker(0, 10, 100);
@@ -97,6 +98,7 @@ public class InfinispanSessionManager<V, L> implements SessionManager<L, Transac
 
     volatile CommandDispatcher<Scheduler> dispatcher;
     private volatile Scheduler scheduler;
+    private volatile SessionExpirationScheduler expirationScheduler;
 
     public InfinispanSessionManager(SessionFactory<V, L> factory, InfinispanSessionManagerConfiguration configuration) {
         this.factory = factory;
@@ -107,6 +109,7 @@ public class InfinispanSessionManager<V, L> implements SessionManager<L, Transac
         this.dispatcherFactory = configuration.getCommandDispatcherFactory();
         this.nodeFactory = configuration.getNodeFactory();
         this.maxActiveSessions = configuration.getMaxActiveSessions();
+        this.lastAccessCoalescingWindow = configuration.getLastAccessCoalescingWindow();
         Configuration config = this.cache.getCacheConfiguration();
         // If cache is clustered or configured with a write-through cache store
         // then we need to trigger any HttpSessionActivationListeners per request
@@ -118,7 +121,8 @@ public class InfinispanSessionManager<V, L> implements SessionManager<L, Transac
     public void start() {
         this.identifierFactory.start();
         final List<Scheduler> schedulers = new ArrayList<>(2);
-        schedulers.add(new SessionExpirationScheduler(this.batcher, new ExpiredSessionRemover<>(this.factory)));
+        this.expirationScheduler = new SessionExpirationScheduler(this.batcher, new ExpiredSessionRemover<>(this.factory, this.lastAccessCoalescingWindow), this.lastAccessCoalescingWindow);
+        schedulers.add(this.expirationScheduler);
         if (this.maxActiveSessions >= 0) {
             schedulers.add(new SessionEvictionScheduler(this.cache.getName() + ".eviction", this.batcher, this.factory, this.dispatcherFactory, this.maxActiveSessions));
         }
@@ -235,7 +239,7 @@ public class InfinispanSessionManager<V, L> implements SessionManager<L, Transac
             return null;
         }
         Session<L> session = this.factory.createSession(id, value);
-        if (session.getMetaData().isExpired()) {
+        if (ExpiredSessionRemover.isExpired(session.getMetaData(), this.lastAccessCoalescingWindow)) {
             InfinispanWebLogger.ROOT_LOGGER.tracef("Session %s was found, but has expired", id);
             session.invalidate();
             return null;
@@ -267,6 +271,18 @@ public class InfinispanSessionManager<V, L> implements SessionManager<L, Transac
         return this.getSessions(Flag.CACHE_MODE_LOCAL, Flag.SKIP_CACHE_LOAD);
     }
 
+    @Override
+    public long getExpirationLag() {
+        SessionExpirationScheduler scheduler = this.expirationScheduler;
+        return (scheduler != null) ? scheduler.getAverageExpirationLag() : 0;
+    }
+
+    @Override
+    public long getMaxExpirationLag() {
+        SessionExpirationScheduler scheduler = this.expirationScheduler;
+        return (scheduler != null) ? scheduler.getMaxExpirationLag() : 0;
+    }
+
     @Override
     public Set<String> getLocalSessions() {
         // Omit remote sessions (i.e. when using DIST mode)
@@ -100,6 +100,7 @@ public class InfinispanSessionManagerFactory extends AbstractService<SessionMana
         final CommandDispatcherFactory dispatcherFactory = this.dispatcherFactory.getValue();
         final NodeFactory<Address> nodeFactory = this.nodeFactory.getValue();
         final int maxActiveSessions = this.config.getMaxActiveSessions();
+        final long lastAccessCoalescingWindow = this.config.getLastAccessCoalescingWindow();
         InfinispanSessionManagerConfiguration config = new InfinispanSessionManagerConfiguration() {
             @Override
             public SessionContext getSessionContext() {
@@ -135,27 +136,34 @@ public class InfinispanSessionManagerFactory extends AbstractService<SessionMana
             public int getMaxActiveSessions() {
                 return maxActiveSessions;
             }
+
+            @Override
+            public long getLastAccessCoalescingWindow() {
+                return lastAccessCoalescingWindow;
+            }
         };
         return new InfinispanSessionManager<>(this.getSessionFactory(context, localContextFactory), config);
     }
 
     private <L> SessionFactory<?, L> getSessionFactory(SessionContext context, LocalContextFactory<L> localContextFactory) {
         Module module = this.config.getModule();
-        MarshallingContext marshallingContext = new SimpleMarshallingContextFactory().createMarshallingContext(new SessionAttributeMarshallingContext(module), module.getClassLoader());
+        MarshallingContext marshallingContext = new SimpleMarshallingContextFactory().createMarshallingContext(new SessionAttributeMarshallingContext(module, this.config.getSerializableClassNames()), module.getClassLoader());
         MarshalledValueFactory<MarshallingContext> factory = new SimpleMarshalledValueFactory(marshallingContext);
 
+        long lastAccessCoalescingWindow = this.config.getLastAccessCoalescingWindow();
+
         switch (this.config.getAttributePersistenceStrategy()) {
             case FINE: {
                 Cache<String, FineSessionCacheEntry<L>> sessionCache = this.cache.getValue();
                 Cache<SessionAttributeCacheKey, MarshalledValue<Object, MarshallingContext>> attributeCache = this.cache.getValue();
                 SessionAttributeMarshaller<Object, MarshalledValue<Object, MarshallingContext>> marshaller = new MarshalledValueSessionAttributeMarshaller<>(factory, marshallingContext);
-                return new FineSessionFactory<>(sessionCache, attributeCache, context, marshaller, localContextFactory);
+                return new FineSessionFactory<>(sessionCache, attributeCache, context, marshaller, localContextFactory, lastAccessCoalescingWindow);
             }
             case COARSE: {
                 Cache<String, CoarseSessionCacheEntry<L>> sessionCache = this.cache.getValue();
                 Cache<SessionAttributesCacheKey, MarshalledValue<Map<String, Object>, MarshallingContext>> attributesCache = this.cache.getValue();
                 SessionAttributeMarshaller<Map<String, Object>, MarshalledValue<Map<String, Object>, MarshallingContext>> marshaller = new MarshalledValueSessionAttributeMarshaller<>(factory, marshallingContext);
-                return new CoarseSessionFactory<>(sessionCache, attributesCache, context, marshaller, localContextFactory);
+                return new CoarseSessionFactory<>(sessionCache, attributesCache, context, marshaller, localContextFactory, lastAccessCoalescingWindow);
             }
             default: {
                 // Impossible
@@ -23,9 +23,9 @@ package org.wildfly.clustering.web.infinispan.session;
 
 import java.io.Externalizable;
 import java.io.Serializable;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.Collection;
 
+import org.jboss.as.clustering.marshalling.DynamicClassTable;
 import org.jboss.as.clustering.marshalling.MarshallingConfigurationFactory;
 import org.jboss.as.clustering.marshalling.SimpleClassTable;
 import org.jboss.as.clustering.marshalling.VersionedMarshallingConfiguration;
@@ -34,30 +34,58 @@ import org.jboss.modules.Module;
 
 /**
  * Versioned session attribute marshalling context.
+ * Version 1 only recognizes {@link Serializable} and {@link Externalizable}, and is written by default.
+ * Version 2 also recognizes the serializable classes of the deployment, and is only written if
+ * {@link MarshallingConfigurationFactory#DEPLOYMENT_CLASS_TABLE_ENABLED enabled}, since older releases cannot read it.
  * @author Paul Ferraro
  */
 public class SessionAttributeMarshallingContext implements VersionedMarshallingConfiguration {
-    private static final int CURRENT_VERSION = 1;
+    private static final int DEFAULT_VERSION = 1;
+    private static final int DEPLOYMENT_CLASS_TABLE_VERSION = 2;
 
-    private final Map<Integer, MarshallingConfiguration> configurations = new ConcurrentHashMap<>();
+    private final Module module;
+    private final Collection<String> serializableClassNames;
+    private final int currentVersion;
+    private final MarshallingConfiguration configuration;
+    private volatile MarshallingConfiguration deploymentClassTableConfiguration;
 
-    public SessionAttributeMarshallingContext(Module module) {
-        MarshallingConfiguration configuration = MarshallingConfigurationFactory.createMarshallingConfiguration(module.getModuleLoader());
-        configuration.setClassTable(new SimpleClassTable(Serializable.class, Externalizable.class));
-        this.configurations.put(CURRENT_VERSION, configuration);
+    public SessionAttributeMarshallingContext(Module module, Collection<String> serializableClassNames) {
+        this.module = module;
+        this.serializableClassNames = serializableClassNames;
+        this.currentVersion = MarshallingConfigurationFactory.isDeploymentClassTableEnabled() ? DEPLOYMENT_CLASS_TABLE_VERSION : DEFAULT_VERSION;
+        this.configuration = MarshallingConfigurationFactory.createMarshallingConfiguration(module.getModuleLoader());
+        this.configuration.setClassTable(new SimpleClassTable(Serializable.class, Externalizable.class));
     }
 
     @Override
     public int getCurrentMarshallingVersion() {
-        return CURRENT_VERSION;
+        return this.currentVersion;
     }
 
     @Override
     public MarshallingConfiguration getMarshallingConfiguration(int version) {
-        MarshallingConfiguration config = this.configurations.get(version);
-        if (config == null) {
-            throw new IllegalArgumentException(String.valueOf(version));
+        switch (version) {
+            case DEFAULT_VERSION: {
+                return this.configuration;
+            }
+            case DEPLOYMENT_CLASS_TABLE_VERSION: {
+                // Loads the classes of the deployment on first use
+                MarshallingConfiguration configuration = this.deploymentClassTableConfiguration;
+                if (configuration == null) {
+                    synchronized (this) {
+                        configuration = this.deploymentClassTableConfiguration;
+                        if (configuration == null) {
+                            DynamicClassTable table = new DynamicClassTable(this.module.getClassLoader(), this.serializableClassNames, Serializable.class, Externalizable.class);
+                            configuration = MarshallingConfigurationFactory.createMarshallingConfiguration(this.module.getModuleLoader(), table);
+                            this.deploymentClassTableConfiguration = configuration;
+                        }
+                    }
+                }
+                return configuration;
+            }
+            default: {
+                throw new IllegalArgumentException(String.valueOf(version));
+            }
         }
-        return config;
     }
 }
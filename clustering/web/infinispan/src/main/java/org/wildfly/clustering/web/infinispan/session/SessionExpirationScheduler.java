@@ -22,10 +22,8 @@
 package org.wildfly.clustering.web.infinispan.session;
 
 import java.security.AccessController;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ExecutionException;
-import java.util.concurrent.Future;
+import java.util.Collections;
+import java.util.List;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.ThreadFactory;
@@ -35,6 +33,7 @@ import org.jboss.as.clustering.infinispan.distribution.Locality;
 import org.jboss.threads.JBossThreadFactory;
 import org.wildfly.clustering.ee.Batch;
 import org.wildfly.clustering.ee.Batcher;
+import org.wildfly.clustering.ee.infinispan.ExpirationBuckets;
 import org.wildfly.clustering.ee.infinispan.Remover;
 import org.wildfly.clustering.ee.infinispan.TransactionBatch;
 import org.wildfly.clustering.web.infinispan.logging.InfinispanWebLogger;
@@ -44,17 +43,31 @@ import org.wildfly.security.manager.action.GetAccessControlContextAction;
 /**
  * Session expiration scheduler that eagerly expires sessions as soon as they are eligible.
  * If/When Infinispan implements expiration notifications (ISPN-694), this will be obsolete.
+ * <p/>
+ * Sessions are kept in {@link ExpirationBuckets} of {@link ExpirationBuckets#DEFAULT_RESOLUTION} ms by expiration
+ * time, rather than each having its own scheduled task. Rescheduling a session on every request only moves its
+ * identifier into another bucket, under the lock of the shard of that session. The sessions of the buckets that are
+ * due are expired a chunk of them per batch. A session is never expired early, but may be expired up to one bucket late.
  * @author Paul Ferraro
  */
-public class SessionExpirationScheduler implements Scheduler {
+public class SessionExpirationScheduler implements Scheduler, ExpirationBuckets.Expirer<String> {
 
-    final Map<String, Future<?>> expirationFutures = new ConcurrentHashMap<>();
     final Batcher<TransactionBatch> batcher;
     final Remover<String> remover;
     private final ScheduledExecutorService executor;
+    private final ExpirationBuckets<String> buckets;
+    private final long lastAccessCoalescingWindow;
 
     public SessionExpirationScheduler(Batcher<TransactionBatch> batcher, Remover<String> remover) {
-        this(batcher, remover, createScheduledExecutor(createThreadFactory()));
+        this(batcher, remover, 0);
+    }
+
+    /**
+     * Creates a scheduler for sessions whose last accessed time may lag behind their actual last access by up to the
+     * specified window, such that sessions are not expired early.
+     */
+    public SessionExpirationScheduler(Batcher<TransactionBatch> batcher, Remover<String> remover, long lastAccessCoalescingWindow) {
+        this(batcher, remover, createScheduledExecutor(createThreadFactory()), ExpirationBuckets.DEFAULT_SHARDS, ExpirationBuckets.DEFAULT_RESOLUTION, lastAccessCoalescingWindow);
     }
 
     private static ThreadFactory createThreadFactory() {
@@ -69,91 +82,116 @@ public class SessionExpirationScheduler implements Scheduler {
     }
 
     public SessionExpirationScheduler(Batcher<TransactionBatch> batcher, Remover<String> remover, ScheduledExecutorService executor) {
+        this(batcher, remover, executor, ExpirationBuckets.DEFAULT_SHARDS, ExpirationBuckets.DEFAULT_RESOLUTION, 0);
+    }
+
+    SessionExpirationScheduler(Batcher<TransactionBatch> batcher, Remover<String> remover, ScheduledExecutorService executor, int shards, long resolution) {
+        this(batcher, remover, executor, shards, resolution, 0);
+    }
+
+    SessionExpirationScheduler(Batcher<TransactionBatch> batcher, Remover<String> remover, ScheduledExecutorService executor, int shards, long resolution, long lastAccessCoalescingWindow) {
         this.batcher = batcher;
         this.remover = remover;
         this.executor = executor;
+        this.lastAccessCoalescingWindow = lastAccessCoalescingWindow;
+        this.buckets = new ExpirationBuckets<>(executor, this, shards, resolution);
     }
 
     @Override
     public void cancel(String sessionId) {
-        Future<?> future = this.expirationFutures.remove(sessionId);
-        if (future != null) {
-            future.cancel(false);
-        }
+        this.buckets.cancel(sessionId);
     }
 
     @Override
     public void schedule(ImmutableSession session) {
         long timeout = session.getMetaData().getMaxInactiveInterval(TimeUnit.MILLISECONDS);
         if (timeout > 0) {
+            timeout += this.lastAccessCoalescingWindow;
             long lastAccessed = session.getMetaData().getLastAccessedTime().getTime();
-            long delay = Math.max(lastAccessed + timeout - System.currentTimeMillis(), 0);
             String id = session.getId();
-            Runnable task = new ExpirationTask(id);
             InfinispanWebLogger.ROOT_LOGGER.tracef("Session %s will expire in %d ms", id, timeout);
-            synchronized (task) {
-                this.expirationFutures.put(id, this.executor.schedule(task, delay, TimeUnit.MILLISECONDS));
-            }
+            this.buckets.schedule(id, lastAccessed + timeout);
         }
     }
 
     @Override
-    public void cancel(Locality locality) {
-        for (String sessionId: this.expirationFutures.keySet()) {
-            if (!locality.isLocal(sessionId)) {
-                this.cancel(sessionId);
+    public void cancel(final Locality locality) {
+        this.buckets.cancel(new ExpirationBuckets.Filter<String>() {
+            @Override
+            public boolean accept(String id) {
+                return !locality.isLocal(id);
             }
-        }
+        });
     }
 
     @Override
     public void close() {
+        // lets an expiration that is in progress complete
+        this.buckets.close();
         this.executor.shutdown();
-        for (Future<?> future: this.expirationFutures.values()) {
-            future.cancel(false);
-        }
-        for (Future<?> future: this.expirationFutures.values()) {
-            if (!future.isDone()) {
-                try {
-                    future.get();
-                } catch (InterruptedException e) {
-                    Thread.currentThread().interrupt();
-                } catch (ExecutionException e) {
-                    // Ignore
-                }
-            }
+        try {
+            this.executor.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
         }
-        this.expirationFutures.clear();
     }
 
-    private class ExpirationTask implements Runnable {
-        private final String id;
+    /**
+     * @return the number of sessions scheduled to expire
+     */
+    public int getScheduledSessionCount() {
+        return this.buckets.size();
+    }
 
-        public ExpirationTask(String id) {
-            this.id = id;
-        }
+    /**
+     * @return the number of sessions this scheduler has attempted to expire
+     */
+    public long getExpiredSessionCount() {
+        return this.buckets.getExpiredCount();
+    }
+
+    /**
+     * @return the average time in ms between the moment sessions became eligible for expiration and their expiration
+     */
+    public long getAverageExpirationLag() {
+        return this.buckets.getAverageExpirationLag();
+    }
+
+    /**
+     * @return the longest time in ms between the moment a session became eligible for expiration and its expiration
+     */
+    public long getMaxExpirationLag() {
+        return this.buckets.getMaxExpirationLag();
+    }
 
-        @Override
-        public void run() {
-            InfinispanWebLogger.ROOT_LOGGER.tracef("Expiring session %s", this.id);
+    @Override
+    public void expire(List<String> ids) {
+        Throwable failure = null;
+        Batch batch = this.batcher.createBatch();
+        try {
+            for (String id: ids) {
+                InfinispanWebLogger.ROOT_LOGGER.tracef("Expiring session %s", id);
+                this.remover.remove(id);
+            }
+        } catch (Throwable e) {
+            failure = e;
+            batch.discard();
+        }
+        if (failure == null) {
             try {
-                Batch batch = SessionExpirationScheduler.this.batcher.createBatch();
-                boolean success = false;
-                try {
-                    SessionExpirationScheduler.this.remover.remove(this.id);
-                    success = true;
-                } catch (Throwable e) {
-                    InfinispanWebLogger.ROOT_LOGGER.failedToExpireSession(e, this.id);
-                } finally {
-                    if (success) {
-                        batch.close();
-                    } else {
-                        batch.discard();
-                    }
-                }
-            } finally {
-                synchronized (this) {
-                    SessionExpirationScheduler.this.expirationFutures.remove(this.id);
+                // commits the removals, which fails on a conflict with any of the sessions
+                batch.close();
+            } catch (Throwable e) {
+                failure = e;
+            }
+        }
+        if (failure != null) {
+            if (ids.size() == 1) {
+                InfinispanWebLogger.ROOT_LOGGER.failedToExpireSession(failure, ids.get(0));
+            } else {
+                // one session spoils the whole batch, so retry them one by one to isolate it
+                for (String id: ids) {
+                    this.expire(Collections.singletonList(id));
                 }
             }
         }
@@ -26,6 +26,9 @@ import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
 import org.junit.Test;
 import org.wildfly.clustering.ee.infinispan.Remover;
 import org.wildfly.clustering.web.session.Session;
@@ -76,4 +79,33 @@ public class ExpiredSessionRemoverTestCase {
         verify(expiredSession).invalidate();
         verify(validSession, never()).invalidate();
     }
+
+    @Test
+    public void coalescingWindow() {
+        SessionFactory<Object, Object> factory = mock(SessionFactory.class);
+        Remover<String> remover = new ExpiredSessionRemover<>(factory, 1000);
+        Session<Object> session = mock(Session.class);
+        SessionMetaData metaData = mock(SessionMetaData.class);
+        String id = "session";
+        Object value = new Object();
+
+        when(factory.findValue(id)).thenReturn(value);
+        when(factory.createSession(id, value)).thenReturn(session);
+        when(session.isValid()).thenReturn(true);
+        when(session.getMetaData()).thenReturn(metaData);
+        when(metaData.getMaxInactiveInterval(TimeUnit.MILLISECONDS)).thenReturn(1000L);
+
+        // Last accessed time may lag behind by up to the window, so the session is not yet expired
+        when(metaData.getLastAccessedTime()).thenReturn(new Date(System.currentTimeMillis() - 1500));
+
+        remover.remove(id);
+
+        verify(session, never()).invalidate();
+
+        when(metaData.getLastAccessedTime()).thenReturn(new Date(System.currentTimeMillis() - 2500));
+
+        remover.remove(id);
+
+        verify(session).invalidate();
+    }
 }
@@ -34,6 +34,7 @@ import static org.mockito.Mockito.verifyZeroInteractions;
 import static org.mockito.Mockito.when;
 
 import java.util.Date;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReference;
 
 import org.junit.Test;
@@ -142,6 +143,57 @@ public class InfinispanSessionTestCase {
         verify(this.mutator, never()).mutate();
     }
 
+    @Test
+    public void closeWithinCoalescingWindow() {
+        long window = 1000;
+        when(this.metaData.getMaxInactiveInterval(TimeUnit.MILLISECONDS)).thenReturn(60000L);
+        Session<Object> session = new InfinispanSession<>(this.id, this.metaData, this.attributes, this.localContextRef, this.localContextFactory, this.context, this.mutator, this.remover, window);
+
+        // Recently accessed session is not updated
+        when(this.metaData.getLastAccessedTime()).thenReturn(new Date(System.currentTimeMillis() - (window / 2)));
+
+        session.close();
+
+        verify(this.metaData, never()).setLastAccessedTime(any(Date.class));
+        verify(this.mutator, never()).mutate();
+
+        // New session is always updated
+        when(this.metaData.isNew()).thenReturn(true);
+
+        session.close();
+
+        verify(this.metaData).setLastAccessedTime(any(Date.class));
+        verify(this.mutator).mutate();
+    }
+
+    @Test
+    public void closeOutsideCoalescingWindow() {
+        long window = 1000;
+        when(this.metaData.getMaxInactiveInterval(TimeUnit.MILLISECONDS)).thenReturn(60000L);
+        when(this.metaData.getLastAccessedTime()).thenReturn(new Date(System.currentTimeMillis() - (window * 2)));
+        Session<Object> session = new InfinispanSession<>(this.id, this.metaData, this.attributes, this.localContextRef, this.localContextFactory, this.context, this.mutator, this.remover, window);
+
+        session.close();
+
+        verify(this.metaData).setLastAccessedTime(any(Date.class));
+        verify(this.mutator).mutate();
+    }
+
+    @Test
+    public void closeWithModifiedMaxInactiveInterval() {
+        long window = 1000;
+        when(this.metaData.getMaxInactiveInterval(TimeUnit.MILLISECONDS)).thenReturn(60000L);
+        when(this.metaData.getLastAccessedTime()).thenReturn(new Date());
+        Session<Object> session = new InfinispanSession<>(this.id, this.metaData, this.attributes, this.localContextRef, this.localContextFactory, this.context, this.mutator, this.remover, window);
+
+        when(this.metaData.getMaxInactiveInterval(TimeUnit.MILLISECONDS)).thenReturn(120000L);
+
+        session.close();
+
+        verify(this.metaData).setLastAccessedTime(any(Date.class));
+        verify(this.mutator).mutate();
+    }
+
     @SuppressWarnings("unchecked")
     @Test
     public void getLocalContext() {
@@ -21,14 +21,19 @@
  */
 package org.wildfly.clustering.web.infinispan.session;
 
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.util.Arrays;
 import java.util.Date;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 
+import org.junit.Assert;
 import org.junit.Test;
 import org.wildfly.clustering.ee.Batcher;
 import org.wildfly.clustering.ee.infinispan.Remover;
@@ -91,4 +96,118 @@ public class SessionExpirationSchedulerTestCase {
         verify(batch).close();
     }
 
+    @Test
+    public void batch() throws InterruptedException {
+        Batcher<TransactionBatch> batcher = mock(Batcher.class);
+        TransactionBatch batch = mock(TransactionBatch.class);
+        Remover<String> remover = mock(Remover.class);
+        SessionMetaData expiringMetaData = mock(SessionMetaData.class);
+        SessionMetaData longTimeoutMetaData = mock(SessionMetaData.class);
+        String[] expiringSessionIds = new String[] { "expiring1", "expiring2", "expiring3" };
+        String movedSessionId = "moved";
+
+        when(batcher.createBatch()).thenReturn(batch);
+
+        Date now = new Date();
+        when(expiringMetaData.getMaxInactiveInterval(TimeUnit.MILLISECONDS)).thenReturn(1L);
+        when(expiringMetaData.getLastAccessedTime()).thenReturn(now);
+        when(longTimeoutMetaData.getMaxInactiveInterval(TimeUnit.MILLISECONDS)).thenReturn(10000L);
+        when(longTimeoutMetaData.getLastAccessedTime()).thenReturn(now);
+
+        SessionExpirationScheduler scheduler = new SessionExpirationScheduler(batcher, remover, new ScheduledThreadPoolExecutor(1), 1, 100);
+        try {
+            for (String id: expiringSessionIds) {
+                scheduler.schedule(mockSession(id, expiringMetaData));
+            }
+            // moving a session into a later bucket, e.g. following a request, must prevent its earlier expiration
+            scheduler.schedule(mockSession(movedSessionId, expiringMetaData));
+            scheduler.schedule(mockSession(movedSessionId, longTimeoutMetaData));
+
+            Thread.sleep(1000);
+
+            Assert.assertEquals(1, scheduler.getScheduledSessionCount());
+            Assert.assertEquals(expiringSessionIds.length, scheduler.getExpiredSessionCount());
+            Assert.assertTrue(scheduler.getMaxExpirationLag() >= scheduler.getAverageExpirationLag());
+        } finally {
+            scheduler.close();
+        }
+
+        for (String id: expiringSessionIds) {
+            verify(remover).remove(id);
+        }
+        verify(remover, never()).remove(movedSessionId);
+        // all sessions of the same bucket expire within one batch
+        verify(batcher, times(1)).createBatch();
+        verify(batch).close();
+    }
+
+    @Test
+    public void shards() throws InterruptedException {
+        Batcher<TransactionBatch> batcher = mock(Batcher.class);
+        TransactionBatch batch = mock(TransactionBatch.class);
+        Remover<String> remover = mock(Remover.class);
+        SessionMetaData expiringMetaData = mock(SessionMetaData.class);
+
+        when(batcher.createBatch()).thenReturn(batch);
+        when(expiringMetaData.getMaxInactiveInterval(TimeUnit.MILLISECONDS)).thenReturn(1L);
+        when(expiringMetaData.getLastAccessedTime()).thenReturn(new Date());
+
+        ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1);
+        executor.setRemoveOnCancelPolicy(true);
+        SessionExpirationScheduler scheduler = new SessionExpirationScheduler(batcher, remover, executor, 4, 100);
+        try {
+            // nothing is scheduled on the executor while there are no sessions
+            Assert.assertTrue(executor.getQueue().isEmpty());
+            for (int i = 0; i < 50; ++i) {
+                scheduler.schedule(mockSession("session" + i, expiringMetaData));
+            }
+
+            Thread.sleep(1000);
+
+            Assert.assertEquals(0, scheduler.getScheduledSessionCount());
+            Assert.assertEquals(50, scheduler.getExpiredSessionCount());
+            Assert.assertTrue(executor.getQueue().isEmpty());
+        } finally {
+            scheduler.close();
+        }
+
+        for (int i = 0; i < 50; ++i) {
+            verify(remover).remove("session" + i);
+        }
+    }
+
+    @Test
+    public void commitFailure() {
+        Batcher<TransactionBatch> batcher = mock(Batcher.class);
+        TransactionBatch batch = mock(TransactionBatch.class);
+        Remover<String> remover = mock(Remover.class);
+        String[] ids = new String[] { "session1", "session2", "session3" };
+
+        when(batcher.createBatch()).thenReturn(batch);
+        // the commit of the whole chunk fails, e.g. on a conflict with one of its sessions
+        doThrow(new IllegalStateException()).doNothing().when(batch).close();
+
+        SessionExpirationScheduler scheduler = new SessionExpirationScheduler(batcher, remover, new ScheduledThreadPoolExecutor(1), 1, 100);
+        try {
+            scheduler.expire(Arrays.asList(ids));
+        } finally {
+            scheduler.close();
+        }
+
+        // each session is retried in a batch of its own
+        for (String id: ids) {
+            verify(remover, times(2)).remove(id);
+        }
+        verify(batcher, times(ids.length + 1)).createBatch();
+        verify(batch, times(ids.length + 1)).close();
+        verify(batch, never()).discard();
+    }
+
+    private static ImmutableSession mockSession(String id, SessionMetaData metaData) {
+        ImmutableSession session = mock(ImmutableSession.class);
+        when(session.isValid()).thenReturn(true);
+        when(session.getId()).thenReturn(id);
+        when(session.getMetaData()).thenReturn(metaData);
+        return session;
+    }
 }
@@ -21,6 +21,8 @@
  */
 package org.wildfly.clustering.web.session;
 
+import java.util.Collection;
+
 import org.jboss.modules.Module;
 
 /**
@@ -39,4 +41,17 @@ public interface SessionManagerConfiguration {
     Module getModule();
 
     String getCacheName();
+
+    /**
+     * Returns the names of the serializable classes of the deployment, in an order that does not vary between nodes.
+     * @return a collection of class names
+     */
+    Collection<String> getSerializableClassNames();
+
+    /**
+     * Returns the window, in milliseconds, within which updates to the last accessed time of a session are not replicated.
+     * Sessions then expire up to this window later than they otherwise would.
+     * @return a window in milliseconds, or 0 if every access is replicated
+     */
+    long getLastAccessCoalescingWindow();
 }
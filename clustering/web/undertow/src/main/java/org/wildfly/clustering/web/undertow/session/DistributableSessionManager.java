@@ -35,12 +35,13 @@ import org.wildfly.clustering.ee.Batch;
 import org.wildfly.clustering.web.session.ImmutableSession;
 import org.wildfly.clustering.web.session.Session;
 import org.wildfly.clustering.web.session.SessionManager;
+import org.wildfly.extension.undertow.session.SessionExpirationStatistics;
 
 /**
  * Adapts a distributable {@link SessionManager} to an Undertow {@link io.undertow.server.session.SessionManager}.
  * @author Paul Ferraro
  */
-public class DistributableSessionManager implements UndertowSessionManager {
+public class DistributableSessionManager implements UndertowSessionManager, SessionExpirationStatistics {
 
     private static final int MAX_SESSION_ID_GENERATION_ATTEMPTS = 10;
 
@@ -166,6 +167,16 @@ public class DistributableSessionManager implements UndertowSessionManager {
         }
     }
 
+    @Override
+    public long getExpirationLag() {
+        return this.manager.getExpirationLag();
+    }
+
+    @Override
+    public long getMaxExpirationLag() {
+        return this.manager.getMaxExpirationLag();
+    }
+
     @Override
     public String getDeploymentName() {
         return this.deploymentName;
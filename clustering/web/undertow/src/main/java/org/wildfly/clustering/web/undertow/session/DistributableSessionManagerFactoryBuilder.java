@@ -21,6 +21,7 @@
  */
 package org.wildfly.clustering.web.undertow.session;
 
+import java.util.Collection;
 import java.util.EnumMap;
 import java.util.Map;
 
@@ -88,6 +89,16 @@ public class DistributableSessionManagerFactoryBuilder implements org.wildfly.ex
             public String getCacheName() {
                 return config.getCacheName();
             }
+
+            @Override
+            public long getLastAccessCoalescingWindow() {
+                return config.getLastAccessCoalescingWindow();
+            }
+
+            @Override
+            public Collection<String> getSerializableClassNames() {
+                return config.getSerializableClassNames();
+            }
         };
         this.builder.buildDeploymentDependency(target, clusteringServiceName, configuration)
                 .setInitialMode(ServiceController.Mode.ON_DEMAND)
@@ -66,6 +66,15 @@ public class DistributableSessionManagerTestCase {
         assertSame(this.deploymentName, this.adapter.getDeploymentName());
     }
 
+    @Test
+    public void getExpirationLag() {
+        when(this.manager.getExpirationLag()).thenReturn(10L);
+        when(this.manager.getMaxExpirationLag()).thenReturn(20L);
+
+        assertEquals(10L, this.adapter.getExpirationLag());
+        assertEquals(20L, this.adapter.getMaxExpirationLag());
+    }
+
     @Test
     public void start() {
         this.adapter.start();
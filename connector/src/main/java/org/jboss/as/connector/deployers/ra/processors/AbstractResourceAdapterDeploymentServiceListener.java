@@ -24,6 +24,7 @@ package org.jboss.as.connector.deployers.ra.processors;
 
 import org.jboss.as.connector.dynamicresource.StatisticsResourceDefinition;
 import org.jboss.as.connector.dynamicresource.ClearWorkManagerStatisticsHandler;
+import org.jboss.as.connector.subsystems.common.pool.PoolLatencyStatistics;
 import org.jboss.as.connector.subsystems.common.pool.PoolMetrics;
 import org.jboss.as.connector.subsystems.common.pool.PoolStatisticsRuntimeAttributeReadHandler;
 import org.jboss.as.connector.subsystems.common.pool.PoolStatisticsRuntimeAttributeWriteHandler;
@@ -63,6 +64,8 @@ import java.util.Map;
  * @author Stefano Maestri (c) 2011 Red Hat Inc.
  */
 public abstract class AbstractResourceAdapterDeploymentServiceListener extends AbstractServiceListener<Object> {
+    private static final String LATENCY_STATISTICS = "latency";
+
     private final ManagementResourceRegistration registration;
     private final String deploymentUnitName;
     private final Resource deploymentResource;
@@ -89,6 +92,9 @@ public abstract class AbstractResourceAdapterDeploymentServiceListener extends A
                         if (cm.getPool() != null) {
                             StatisticsPlugin poolStats = cm.getPool().getStatistics();
                             poolStats.setEnabled(false);
+                            // IronJacamar creates the connections of the pool, so only their use time is recorded
+                            PoolLatencyStatistics latencyStats = new PoolLatencyStatistics(false, false);
+                            PoolLatencyStatistics.attach(cm, latencyStats);
                             final ServiceController<?> bootstrapContextController = controller.getServiceContainer().getService(ConnectorServices.BOOTSTRAP_CONTEXT_SERVICE.append(bootstrapCtx));
                             WorkManager wm = null;
                             if (bootstrapContextController != null) {
@@ -102,6 +108,7 @@ public abstract class AbstractResourceAdapterDeploymentServiceListener extends A
                                 PathElement peWm = PathElement.pathElement(Constants.WORKMANAGER_NAME, wm.getName());
                                 PathElement peDistributedWm = PathElement.pathElement(Constants.DISTRIBUTED_WORKMANAGER_NAME, wm.getName());
                                 PathElement peCD = PathElement.pathElement(Constants.CONNECTIONDEFINITIONS_NAME, cm.getJndiName());
+                                PathElement peLatency = PathElement.pathElement(Constants.STATISTICS_NAME, LATENCY_STATISTICS);
                                 ManagementResourceRegistration overrideRegistration = registration;
                                 //when you are in deploy you have a registration pointing to deployment=*
                                 //when you are in re-deploy it points to specific deploymentUnit
@@ -198,6 +205,11 @@ public abstract class AbstractResourceAdapterDeploymentServiceListener extends A
 
                                         if (!raResource.hasChild(peCD))
                                             raResource.registerChild(peCD, cdResource);
+
+                                        cdSubRegistration.registerSubModel(new StatisticsResourceDefinition(peLatency, CommonAttributes.RESOURCE_NAME, latencyStats));
+                                        final Resource cdLatencyParent = raResource.getChild(peCD);
+                                        if (!cdLatencyParent.hasChild(peLatency))
+                                            cdLatencyParent.registerChild(peLatency, new IronJacamarResource.IronJacamarRuntimeResource());
                                     }
 
                                     if (wm.getStatistics() != null) {
@@ -261,6 +273,13 @@ public abstract class AbstractResourceAdapterDeploymentServiceListener extends A
             }
             case UP_to_STOP_REQUESTED: {
 
+                CommonDeployment deploymentMD = getDeploymentMetadata(controller);
+                if (deploymentMD != null && deploymentMD.getConnectionManagers() != null) {
+                    for (ConnectionManager cm : deploymentMD.getConnectionManagers()) {
+                        PoolLatencyStatistics.detach(cm);
+                    }
+                }
+
                 PathElement pe = PathElement.pathElement(ModelDescriptionConstants.SUBSYSTEM, ResourceAdaptersExtension.SUBSYSTEM_NAME);
                 PathElement ijPe = PathElement.pathElement(Constants.IRONJACAMAR_NAME, Constants.IRONJACAMAR_NAME);
                 PathElement peStats = PathElement.pathElement(Constants.STATISTICS_NAME, Constants.STATISTICS_NAME);
@@ -840,6 +840,14 @@ public interface ConnectorLogger extends BasicLogger {
 
     @Message(id = 90, value = "Jndi name shouldn't include '//' or end with '/'")
     OperationFailedException jndiNameShouldValidate();
+
+    @LogMessage(level = WARN)
+    @Message(id = 91, value = "Unable to open a connection while warming up datasource %s")
+    void warmUpConnectionFailed(@Cause Throwable cause, String dsName);
+
+    @LogMessage(level = WARN)
+    @Message(id = 92, value = "Warm-up of datasource %s timed out after %d ms with %d of %d connections opened")
+    void warmUpTimedOut(String dsName, long timeout, int opened, int connections);
 }
 
 
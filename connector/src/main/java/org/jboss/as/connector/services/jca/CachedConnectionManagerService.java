@@ -24,7 +24,12 @@ package org.jboss.as.connector.services.jca;
 
 import static org.jboss.as.connector.logging.ConnectorLogger.ROOT_LOGGER;
 
+import javax.resource.spi.ConnectionRequestInfo;
+
+import org.jboss.as.connector.subsystems.common.pool.PoolLatencyStatistics;
 import org.jboss.jca.core.api.connectionmanager.ccm.CachedConnectionManager;
+import org.jboss.jca.core.api.connectionmanager.listener.ConnectionCacheListener;
+import org.jboss.jca.core.api.connectionmanager.listener.ConnectionListener;
 import org.jboss.jca.core.connectionmanager.ccm.CachedConnectionManagerImpl;
 import org.jboss.jca.core.spi.transaction.TransactionIntegration;
 import org.jboss.msc.inject.Injector;
@@ -65,7 +70,26 @@ public class CachedConnectionManagerService implements Service<CachedConnectionM
 
     @Override
     public void start(StartContext context) throws StartException {
-        value = new CachedConnectionManagerImpl(transactionIntegration.getValue());
+        value = new CachedConnectionManagerImpl(transactionIntegration.getValue()) {
+            // records the use time of the connections of the pools with latency statistics
+            @Override
+            public void registerConnection(ConnectionCacheListener cm, ConnectionListener cl, Object connection, ConnectionRequestInfo cri) {
+                super.registerConnection(cm, cl, connection, cri);
+                final PoolLatencyStatistics statistics = PoolLatencyStatistics.getStatistics(cm);
+                if (statistics != null) {
+                    statistics.connectionRegistered(cl);
+                }
+            }
+
+            @Override
+            public void unregisterConnection(ConnectionCacheListener cm, ConnectionListener cl, Object connection) {
+                final PoolLatencyStatistics statistics = PoolLatencyStatistics.getStatistics(cm);
+                if (statistics != null) {
+                    statistics.connectionUnregistered(cl);
+                }
+                super.unregisterConnection(cm, cl, connection);
+            }
+        };
         value.setDebug(debug);
         value.setError(error);
         value.setIgnoreUnknownConnections(ignoreUnknownConnections);
@@ -0,0 +1,284 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.connector.subsystems.common.pool;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.jca.core.spi.statistics.StatisticsPlugin;
+
+/**
+ * Latency histograms of a connection pool: the time taken to acquire a connection from the pool, the time a
+ * connection is used before it is closed, and the time taken to create a physical connection.
+ * <p/>
+ * Values are recorded in microseconds. Apart from tracking each connection of the pool once, recording does not
+ * allocate, so it can be left enabled on busy pools.
+ * <p/>
+ * The use time is recorded by the cached connection manager, for the pools {@link #attach(Object, PoolLatencyStatistics) attached}
+ * to it, from a connection of the pool being handed out until its last handle is closed, by whichever thread. The
+ * connections are tracked weakly, so a connection the pool destroyed without its handles being closed is not retained.
+ */
+public final class PoolLatencyStatistics implements StatisticsPlugin {
+
+    private static final String ACQUIRE_TIME = "AcquireTime";
+    private static final String USE_TIME = "UseTime";
+    private static final String CREATION_TIME = "CreationTime";
+
+    private static final String COUNT = "Count";
+    private static final String MAX = "Max";
+    private static final Map<String, Double> PERCENTILES = new LinkedHashMap<String, Double>();
+
+    static {
+        PERCENTILES.put("P50", 0.5);
+        PERCENTILES.put("P90", 0.9);
+        PERCENTILES.put("P99", 0.99);
+        PERCENTILES.put("P999", 0.999);
+    }
+
+    // number of locks the connections in use are spread over
+    private static final int STRIPES = 16;
+
+    // the statistics of the pools, by connection manager
+    private static final ConcurrentMap<Object, PoolLatencyStatistics> CONNECTION_MANAGERS = new ConcurrentHashMap<Object, PoolLatencyStatistics>();
+
+    private final Map<String, LatencyHistogram> histograms = new LinkedHashMap<String, LatencyHistogram>();
+    private final Map<String, String> descriptions = new LinkedHashMap<String, String>();
+    private final LatencyHistogram acquireTime = new LatencyHistogram();
+    private final LatencyHistogram useTime = new LatencyHistogram();
+    private final LatencyHistogram creationTime = new LatencyHistogram();
+
+    private final ConnectionUsages[] usages = new ConnectionUsages[STRIPES];
+
+    private volatile boolean enabled;
+
+    public PoolLatencyStatistics(final boolean enabled) {
+        this(enabled, true);
+    }
+
+    /**
+     * Creates the latency statistics of a pool.
+     *
+     * @param enabled whether the statistics are enabled
+     * @param acquisition whether the time taken to acquire and to create connections is recorded, otherwise only the
+     *                    use time is exposed
+     */
+    public PoolLatencyStatistics(final boolean enabled, final boolean acquisition) {
+        this.enabled = enabled;
+        if (acquisition) {
+            this.addHistogram(ACQUIRE_TIME, this.acquireTime, "acquire a connection from the pool");
+        }
+        this.addHistogram(USE_TIME, this.useTime, "use a connection, from acquiring it to closing it");
+        if (acquisition) {
+            this.addHistogram(CREATION_TIME, this.creationTime, "create a physical connection");
+        }
+        for (int i = 0; i < STRIPES; ++i) {
+            this.usages[i] = new ConnectionUsages();
+        }
+    }
+
+    /**
+     * Attaches the statistics of a pool to the connection manager of the pool, so that the cached connection manager
+     * records the use time of its connections.
+     *
+     * @param connectionManager the connection manager of the pool
+     * @param statistics the statistics of the pool
+     */
+    public static void attach(Object connectionManager, PoolLatencyStatistics statistics) {
+        CONNECTION_MANAGERS.put(connectionManager, statistics);
+    }
+
+    /**
+     * Detaches the statistics of a pool from the connection manager of the pool.
+     *
+     * @param connectionManager the connection manager of the pool
+     */
+    public static void detach(Object connectionManager) {
+        CONNECTION_MANAGERS.remove(connectionManager);
+    }
+
+    /**
+     * Returns the statistics attached to a connection manager.
+     *
+     * @param connectionManager a connection manager
+     * @return the statistics of the pool of the connection manager, or {@code null} if none are attached
+     */
+    public static PoolLatencyStatistics getStatistics(Object connectionManager) {
+        return CONNECTION_MANAGERS.get(connectionManager);
+    }
+
+    private void addHistogram(String name, LatencyHistogram histogram, String action) {
+        this.histograms.put(name, histogram);
+        this.descriptions.put(name + COUNT, "The number of recorded times taken to " + action);
+        for (String percentile : PERCENTILES.keySet()) {
+            this.descriptions.put(name + percentile, "The " + percentile.substring(1) + " percentile in microseconds of the time taken to " + action);
+        }
+        this.descriptions.put(name + MAX, "The maximum time in microseconds taken to " + action);
+    }
+
+    /**
+     * Records that a connection was acquired from the pool.
+     *
+     * @param start the value of {@link System#nanoTime()} before the connection was requested
+     */
+    public void connectionAcquired(long start) {
+        if (this.enabled) {
+            this.acquireTime.record(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start));
+        }
+    }
+
+    /**
+     * Records that a physical connection was created.
+     *
+     * @param start the value of {@link System#nanoTime()} before the connection was created
+     */
+    public void connectionCreated(long start) {
+        if (this.enabled) {
+            this.creationTime.record(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start));
+        }
+    }
+
+    /**
+     * Records that a handle of a connection of the pool was handed out.
+     *
+     * @param connection the connection of the pool, the same for all of its handles
+     */
+    public void connectionRegistered(Object connection) {
+        if (this.enabled) {
+            this.getUsages(connection).registered(connection, System.nanoTime());
+        }
+    }
+
+    /**
+     * Records that a handle of a connection of the pool was closed. The use time is recorded once all handles of the
+     * connection that were handed out while the statistics were enabled are closed.
+     *
+     * @param connection the connection of the pool, the same for all of its handles
+     */
+    public void connectionUnregistered(Object connection) {
+        final long start = this.getUsages(connection).unregistered(connection);
+        if (this.enabled && start != 0) {
+            this.useTime.record(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start));
+        }
+    }
+
+    private ConnectionUsages getUsages(Object connection) {
+        return this.usages[System.identityHashCode(connection) & (STRIPES - 1)];
+    }
+
+    @Override
+    public Set<String> getNames() {
+        return Collections.unmodifiableSet(this.descriptions.keySet());
+    }
+
+    @Override
+    public Class getType(String name) {
+        return this.descriptions.containsKey(name) ? long.class : null;
+    }
+
+    @Override
+    public String getDescription(String name) {
+        return this.descriptions.get(name);
+    }
+
+    @Override
+    public String getDescription(String name, Locale locale) {
+        return this.getDescription(name);
+    }
+
+    @Override
+    public Object getValue(String name) {
+        for (Map.Entry<String, LatencyHistogram> entry : this.histograms.entrySet()) {
+            if (name.startsWith(entry.getKey())) {
+                final LatencyHistogram histogram = entry.getValue();
+                final String statistic = name.substring(entry.getKey().length());
+                if (statistic.equals(COUNT)) {
+                    return histogram.getCount();
+                }
+                if (statistic.equals(MAX)) {
+                    return histogram.getMax();
+                }
+                final Double percentile = PERCENTILES.get(statistic);
+                if (percentile != null) {
+                    return histogram.getValueAtPercentile(percentile);
+                }
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return this.enabled;
+    }
+
+    @Override
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    @Override
+    public void clear() {
+        for (LatencyHistogram histogram : this.histograms.values()) {
+            histogram.reset();
+        }
+    }
+
+    /**
+     * The connections of the pool that were handed out, with the time they were handed out and the number of their
+     * handles not closed yet.
+     */
+    private static final class ConnectionUsages {
+        private final Map<Object, ConnectionUsage> connections = new WeakHashMap<Object, ConnectionUsage>();
+
+        synchronized void registered(Object connection, long now) {
+            ConnectionUsage usage = this.connections.get(connection);
+            if (usage == null) {
+                usage = new ConnectionUsage();
+                this.connections.put(connection, usage);
+            }
+            if (usage.handles++ == 0) {
+                usage.start = now;
+            }
+        }
+
+        synchronized long unregistered(Object connection) {
+            final ConnectionUsage usage = this.connections.get(connection);
+            if (usage == null || usage.handles == 0) {
+                return 0;
+            }
+            return (--usage.handles == 0) ? usage.start : 0;
+        }
+    }
+
+    private static final class ConnectionUsage {
+        long start;
+        int handles;
+    }
+}
@@ -27,6 +27,7 @@ import static org.jboss.as.connector.subsystems.datasources.Constants.ENABLED;
 import static org.jboss.as.connector.subsystems.datasources.Constants.JNDI_NAME;
 import static org.jboss.as.connector.subsystems.datasources.Constants.JTA;
 import static org.jboss.as.connector.subsystems.datasources.Constants.STATISTICS_ENABLED;
+import static org.jboss.as.connector.subsystems.datasources.Constants.WARM_UP_TIMEOUT;
 import static org.jboss.as.connector.subsystems.jca.Constants.DEFAULT_NAME;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
 
@@ -149,6 +150,10 @@ public abstract class AbstractDataSourceAdd extends AbstractAddStepHandler {
         driverDemanderBuilder.setInitialMode(ServiceController.Mode.ACTIVE);
 
         AbstractDataSourceService dataSourceService = createDataSourceService(dsName, jndiName);
+        final ModelNode warmUpTimeout = WARM_UP_TIMEOUT.resolveModelAttribute(context, model);
+        if (warmUpTimeout.isDefined()) {
+            dataSourceService.setWarmUpTimeout(warmUpTimeout.asLong());
+        }
 
         final ManagementResourceRegistration registration = context.getResourceRegistrationForUpdate();
 
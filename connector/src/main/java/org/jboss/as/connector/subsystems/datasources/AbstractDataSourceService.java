@@ -51,6 +51,7 @@ import org.jboss.jca.adapters.jdbc.local.LocalManagedConnectionFactory;
 import org.jboss.jca.adapters.jdbc.spi.ClassLoaderPlugin;
 import org.jboss.jca.adapters.jdbc.xa.XAManagedConnectionFactory;
 import org.jboss.jca.common.api.metadata.common.Extension;
+import org.jboss.jca.common.api.metadata.common.Pool;
 import org.jboss.jca.common.api.metadata.ds.CommonDataSource;
 import org.jboss.jca.common.api.metadata.ds.DataSources;
 import org.jboss.jca.common.api.metadata.ds.DsSecurity;
@@ -113,9 +114,11 @@ public abstract class AbstractDataSourceService implements Service<DataSource> {
 
     private final String dsName;
     private final String jndiName;
+    private volatile long warmUpTimeout = 0;
 
     protected CommonDeployment deploymentMD;
     private WildFlyDataSource sqlDataSource;
+    private final PoolLatencyStatistics latencyStatistics = new PoolLatencyStatistics(false);
 
     /**
      * The class loader to use. If null the Driver class loader will be used instead.
@@ -128,19 +131,50 @@ public abstract class AbstractDataSourceService implements Service<DataSource> {
         this.jndiName = jndiName;
     }
 
-    public synchronized void start(StartContext startContext) throws StartException {
+    public synchronized void start(final StartContext startContext) throws StartException {
+        final AS7DataSourceDeployer deployer;
         try {
             final ServiceContainer container = startContext.getController().getServiceContainer();
 
-            deploymentMD = getDeployer().deploy(container);
+            deployer = getDeployer();
+            deploymentMD = deployer.deploy(container);
             if (deploymentMD.getCfs().length != 1) {
                 throw ConnectorLogger.ROOT_LOGGER.cannotStartDs();
             }
-            sqlDataSource = new WildFlyDataSource((javax.sql.DataSource) deploymentMD.getCfs()[0], jndiName);
+            sqlDataSource = new WildFlyDataSource((javax.sql.DataSource) deploymentMD.getCfs()[0], jndiName, latencyStatistics);
+            if (deploymentMD.getConnectionManagers() != null) {
+                for (ConnectionManager cm : deploymentMD.getConnectionManagers()) {
+                    PoolLatencyStatistics.attach(cm, latencyStatistics);
+                }
+            }
             DS_DEPLOYER_LOGGER.debugf("Adding datasource: %s", deploymentMD.getCfJndiNames()[0]);
         } catch (Throwable t) {
             throw ConnectorLogger.ROOT_LOGGER.deploymentError(t, dsName);
         }
+        final int warmUpConnections = deployer.getWarmUpConnections();
+        if (warmUpTimeout > 0 && warmUpConnections > 0) {
+            // the datasource, and so everything depending on it, only becomes available once the pool is warmed up
+            final ExecutorService executorService = executor.getValue();
+            final DataSourceWarmUp warmUp = new DataSourceWarmUp(dsName, sqlDataSource, warmUpConnections, deployer.getValidationSql(), executorService);
+            final long timeout = warmUpTimeout;
+            Runnable r = new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        warmUp.run(timeout);
+                    } finally {
+                        startContext.complete();
+                    }
+                }
+            };
+            // asynchronous() must precede the task, which may complete the start before execute() returns
+            startContext.asynchronous();
+            try {
+                executorService.execute(r);
+            } catch (RejectedExecutionException e) {
+                r.run();
+            }
+        }
     }
 
     protected abstract AS7DataSourceDeployer getDeployer() throws ValidateException ;
@@ -198,6 +232,7 @@ public abstract class AbstractDataSourceService implements Service<DataSource> {
 
         if (deploymentMD.getConnectionManagers() != null) {
             for (ConnectionManager cm : deploymentMD.getConnectionManagers()) {
+                PoolLatencyStatistics.detach(cm);
                 cm.shutdown();
             }
         }
@@ -207,10 +242,28 @@ public abstract class AbstractDataSourceService implements Service<DataSource> {
 
     }
 
+    /**
+     * Sets the maximum time, in milliseconds, that starting the datasource waits for its pool to be warmed up.
+     * The pool is warmed up by opening the initial (or minimum) number of connections in parallel, running the
+     * check-valid-connection-sql on each if one is configured. A value of 0 disables the warm-up.
+     *
+     * @param warmUpTimeout the warm-up timeout in milliseconds
+     */
+    public void setWarmUpTimeout(final long warmUpTimeout) {
+        this.warmUpTimeout = warmUpTimeout;
+    }
+
     public CommonDeployment getDeploymentMD() {
         return deploymentMD;
     }
 
+    /**
+     * @return the acquire, use and creation time histograms of the pool
+     */
+    public PoolLatencyStatistics getLatencyStatistics() {
+        return latencyStatistics;
+    }
+
     public synchronized DataSource getValue() throws IllegalStateException, IllegalArgumentException {
         return sqlDataSource;
     }
@@ -305,6 +358,29 @@ public abstract class AbstractDataSourceService implements Service<DataSource> {
 
         }
 
+        /**
+         * @return the number of connections to open when warming up the pool
+         */
+        int getWarmUpConnections() {
+            final Pool pool = (dataSourceConfig != null) ? dataSourceConfig.getPool() : xaDataSourceConfig.getXaPool();
+            if (pool == null) {
+                return 0;
+            }
+            Integer connections = pool.getInitialPoolSize();
+            if (connections == null || connections <= 0) {
+                connections = pool.getMinPoolSize();
+            }
+            return (connections != null) ? connections : 0;
+        }
+
+        /**
+         * @return the query used to validate the connections opened when warming up the pool, or null
+         */
+        String getValidationSql() {
+            final Validation validation = (dataSourceConfig != null) ? dataSourceConfig.getValidation() : xaDataSourceConfig.getValidation();
+            return (validation != null) ? validation.getCheckValidConnectionSql() : null;
+        }
+
         public CommonDeployment deploy(ServiceContainer serviceContainer) throws DeployException {
             try {
                 if (serviceContainer == null) {
@@ -492,7 +568,7 @@ public abstract class AbstractDataSourceService implements Service<DataSource> {
         @Override
         protected ManagedConnectionFactory createMcf(org.jboss.jca.common.api.metadata.ds.DataSource arg0, String arg1,
                 ClassLoader arg2) throws NotFoundException, DeployException {
-            final LocalManagedConnectionFactory managedConnectionFactory = new LocalManagedConnectionFactory();
+            final LocalManagedConnectionFactory managedConnectionFactory = new WildFlyLocalMCF();
             managedConnectionFactory.setDriverClass(dataSourceConfig.getDriverClass());
 
             if (dataSourceConfig.getUrlDelimiter() != null) {
@@ -659,6 +735,28 @@ public abstract class AbstractDataSourceService implements Service<DataSource> {
             xaProps.putAll(inputProperties);
         }
 
+        @Override
+        public ManagedConnection createManagedConnection(Subject subject, ConnectionRequestInfo cri) throws ResourceException {
+            final long start = System.nanoTime();
+            final ManagedConnection connection = super.createManagedConnection(subject, cri);
+            latencyStatistics.connectionCreated(start);
+            return connection;
+        }
+
+    }
+
+    private class WildFlyLocalMCF extends LocalManagedConnectionFactory {
+
+        private static final long serialVersionUID = -1867389187536463390L;
+
+        @Override
+        public ManagedConnection createManagedConnection(Subject subject, ConnectionRequestInfo cri) throws ResourceException {
+            final long start = System.nanoTime();
+            final ManagedConnection connection = super.createManagedConnection(subject, cri);
+            latencyStatistics.connectionCreated(start);
+            return connection;
+        }
+
     }
 
 }
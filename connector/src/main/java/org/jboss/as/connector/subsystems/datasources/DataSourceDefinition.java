@@ -43,6 +43,7 @@ import static org.jboss.as.connector.subsystems.datasources.Constants.FLUSH_INVA
 import static org.jboss.as.connector.subsystems.datasources.Constants.STATISTICS_ENABLED;
 import static org.jboss.as.connector.subsystems.datasources.Constants.TEST_CONNECTION;
 import static org.jboss.as.connector.subsystems.datasources.Constants.TRACKING;
+import static org.jboss.as.connector.subsystems.datasources.Constants.WARM_UP_TIMEOUT;
 
 import java.util.List;
 import java.util.Map;
@@ -202,7 +203,7 @@ public class DataSourceDefinition extends SimpleResourceDefinition {
                         org.jboss.as.connector.subsystems.common.pool.Constants.CAPACITY_INCREMENTER_CLASS,
                         org.jboss.as.connector.subsystems.common.pool.Constants.CAPACITY_DECREMENTER_PROPERTIES,
                         org.jboss.as.connector.subsystems.common.pool.Constants.INITIAL_POOL_SIZE,
-                        CONNECTABLE, TRACKING
+                        CONNECTABLE, TRACKING, WARM_UP_TIMEOUT
                 )
                 .addRejectCheck(RejectAttributeChecker.SIMPLE_EXPRESSIONS, DATASOURCE_PROPERTIES_ATTRIBUTES)
                  /*These are nillable in the old model, but appear as not nillable in CompareModelUtils due to problems in the resource description
@@ -210,7 +211,7 @@ public class DataSourceDefinition extends SimpleResourceDefinition {
                   .addRejectCheck(RejectAttributeChecker.UNDEFINED, Constants.EXCEPTION_SORTER_PROPERTIES, Constants.REAUTHPLUGIN_PROPERTIES, Constants.STALE_CONNECTION_CHECKER_PROPERTIES, Constants.VALID_CONNECTION_CHECKER_PROPERTIES)*/
                         //Reject expressions for enabled, since if they are used we don't know their value for the operation transformer override
                 //Reject expressions for enabled, since if they are used we don't know their value for the operation transformer override
-                .setDiscard(DiscardAttributeChecker.UNDEFINED, TRACKING)
+                .setDiscard(DiscardAttributeChecker.UNDEFINED, TRACKING, WARM_UP_TIMEOUT)
                 .addRejectCheck(RejectAttributeChecker.SIMPLE_EXPRESSIONS, Constants.ENABLED)
                 .end()
                 .addOperationTransformationOverride(ModelDescriptionConstants.WRITE_ATTRIBUTE_OPERATION)
@@ -245,7 +246,7 @@ public class DataSourceDefinition extends SimpleResourceDefinition {
                         org.jboss.as.connector.subsystems.common.pool.Constants.CAPACITY_DECREMENTER_PROPERTIES,
                         org.jboss.as.connector.subsystems.common.pool.Constants.INITIAL_POOL_SIZE
                 )
-                        .setDiscard(DiscardAttributeChecker.UNDEFINED, TRACKING)
+                        .setDiscard(DiscardAttributeChecker.UNDEFINED, TRACKING, WARM_UP_TIMEOUT)
                         .setDiscard(new DiscardAttributeChecker.DiscardAttributeValueChecker(new ModelNode(false)), CONNECTABLE)
                         .setDiscard(new DiscardAttributeChecker.DiscardAttributeValueChecker(false, false, new ModelNode(true)), STATISTICS_ENABLED)
                         .addRejectCheck(new RejectAttributeChecker.DefaultRejectAttributeChecker() {
@@ -268,7 +269,7 @@ public class DataSourceDefinition extends SimpleResourceDefinition {
                         org.jboss.as.connector.subsystems.common.pool.Constants.CAPACITY_INCREMENTER_CLASS,
                         org.jboss.as.connector.subsystems.common.pool.Constants.CAPACITY_DECREMENTER_PROPERTIES,
                         org.jboss.as.connector.subsystems.common.pool.Constants.INITIAL_POOL_SIZE,
-                        CONNECTABLE, TRACKING
+                        CONNECTABLE, TRACKING, WARM_UP_TIMEOUT
                 )
                 //Reject expressions for enabled, since if they are used we don't know their value for the operation transformer override
                 //Although 'enabled' appears in the legacy model and the 'add' handler, the add does not actually set its value in the model
@@ -321,7 +322,8 @@ public class DataSourceDefinition extends SimpleResourceDefinition {
                         return attributeValue.equals(new ModelNode(false));
                     }
                 }, TRACKING)
-                .addRejectCheck(RejectAttributeChecker.DEFINED, TRACKING).end()
+                .setDiscard(DiscardAttributeChecker.UNDEFINED, WARM_UP_TIMEOUT)
+                .addRejectCheck(RejectAttributeChecker.DEFINED, TRACKING, WARM_UP_TIMEOUT).end()
                 //We're rejecting operations when statistics-enabled=false, so let it through in the enable/disable ops which do not use that attribute
                 .addOperationTransformationOverride(DATASOURCE_ENABLE.getName())
                 .end()
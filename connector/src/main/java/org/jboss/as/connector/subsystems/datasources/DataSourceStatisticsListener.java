@@ -39,6 +39,7 @@ public class DataSourceStatisticsListener extends AbstractServiceListener<Object
 
     private static final PathElement JDBC_STATISTICS = PathElement.pathElement("statistics", "jdbc");
     private static final PathElement POOL_STATISTICS = PathElement.pathElement("statistics", "pool");
+    private static final PathElement LATENCY_STATISTICS = PathElement.pathElement("statistics", "latency");
 
     private final ManagementResourceRegistration overrideRegistration;
     private final boolean statsEnabled;
@@ -54,12 +55,15 @@ public class DataSourceStatisticsListener extends AbstractServiceListener<Object
         switch (transition) {
             case STARTING_to_UP: {
 
-                CommonDeployment deploymentMD = ((AbstractDataSourceService) controller.getService()).getDeploymentMD();
+                AbstractDataSourceService service = (AbstractDataSourceService) controller.getService();
+                CommonDeployment deploymentMD = service.getDeploymentMD();
 
                 StatisticsPlugin jdbcStats = deploymentMD.getDataSources()[0].getStatistics();
                 StatisticsPlugin poolStats = deploymentMD.getDataSources()[0].getPool().getStatistics();
                 jdbcStats.setEnabled(statsEnabled);
                 poolStats.setEnabled(statsEnabled);
+                StatisticsPlugin latencyStats = service.getLatencyStatistics();
+                latencyStats.setEnabled(statsEnabled);
 
                 int jdbcStatsSize = jdbcStats.getNames().size();
                 int poolStatsSize = poolStats.getNames().size();
@@ -76,6 +80,10 @@ public class DataSourceStatisticsListener extends AbstractServiceListener<Object
                         }
                     }
                 }
+                if (overrideRegistration != null) {
+                    ManagementResourceRegistration latencyRegistration = overrideRegistration.registerSubModel(new StatisticsResourceDefinition(LATENCY_STATISTICS, DataSourcesSubsystemProviders.RESOURCE_NAME, latencyStats));
+                    latencyRegistration.setRuntimeOnly(true);
+                }
                 break;
 
 
@@ -85,6 +93,7 @@ public class DataSourceStatisticsListener extends AbstractServiceListener<Object
                 if (overrideRegistration != null) {
                     overrideRegistration.unregisterSubModel(JDBC_STATISTICS);
                     overrideRegistration.unregisterSubModel(POOL_STATISTICS);
+                    overrideRegistration.unregisterSubModel(LATENCY_STATISTICS);
                 }
                 break;
 
@@ -99,6 +108,9 @@ public class DataSourceStatisticsListener extends AbstractServiceListener<Object
         if (!datasourceResource.hasChild(POOL_STATISTICS)) {
             datasourceResource.registerChild(POOL_STATISTICS, new PlaceholderResource.PlaceholderResourceEntry(POOL_STATISTICS));
         }
+        if (!datasourceResource.hasChild(LATENCY_STATISTICS)) {
+            datasourceResource.registerChild(LATENCY_STATISTICS, new PlaceholderResource.PlaceholderResourceEntry(LATENCY_STATISTICS));
+        }
     }
 
     public static void removeStatisticsResources(Resource datasourceResource) {
@@ -108,5 +120,8 @@ public class DataSourceStatisticsListener extends AbstractServiceListener<Object
         if (datasourceResource.hasChild(POOL_STATISTICS)) {
             datasourceResource.removeChild(POOL_STATISTICS);
         }
+        if (datasourceResource.hasChild(LATENCY_STATISTICS)) {
+            datasourceResource.removeChild(LATENCY_STATISTICS);
+        }
     }
 }
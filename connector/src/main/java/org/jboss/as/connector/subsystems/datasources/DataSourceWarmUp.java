@@ -0,0 +1,154 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.connector.subsystems.datasources;
+
+import static org.jboss.as.connector.logging.ConnectorLogger.SUBSYSTEM_DATASOURCES_LOGGER;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+/**
+ * Opens a number of pooled connections of a datasource in parallel, optionally running a validation query on each,
+ * so that the physical connections are established before the datasource is made available.
+ * <p/>
+ * Connections are held until every connection was opened, or the timeout expired, so that the pool has to
+ * create a distinct physical connection for each of them. They are then returned to the pool.
+ */
+class DataSourceWarmUp {
+
+    private final String dsName;
+    private final DataSource dataSource;
+    private final int connections;
+    private final String validationSql;
+    private final Executor executor;
+
+    private final List<Connection> opened = new ArrayList<Connection>();
+    private boolean done = false;
+
+    DataSourceWarmUp(final String dsName, final DataSource dataSource, final int connections, final String validationSql, final Executor executor) {
+        this.dsName = dsName;
+        this.dataSource = dataSource;
+        this.connections = connections;
+        this.validationSql = validationSql;
+        this.executor = executor;
+    }
+
+    /**
+     * Opens the connections and waits for them to be established.
+     *
+     * @param timeout the maximum time to wait, in milliseconds
+     * @return the number of connections that were opened before the timeout
+     */
+    int run(final long timeout) {
+        final CountDownLatch latch = new CountDownLatch(this.connections);
+        for (int i = 0; i < this.connections; ++i) {
+            final Runnable task = new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        DataSourceWarmUp.this.open();
+                    } finally {
+                        latch.countDown();
+                    }
+                }
+            };
+            try {
+                this.executor.execute(task);
+            } catch (RejectedExecutionException e) {
+                task.run();
+            }
+        }
+        boolean completed;
+        try {
+            completed = latch.await(timeout, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            completed = false;
+        }
+        final List<Connection> connections;
+        synchronized (this) {
+            this.done = true;
+            connections = new ArrayList<Connection>(this.opened);
+            this.opened.clear();
+        }
+        for (Connection connection : connections) {
+            close(connection);
+        }
+        if (!completed) {
+            SUBSYSTEM_DATASOURCES_LOGGER.warmUpTimedOut(this.dsName, timeout, connections.size(), this.connections);
+        } else {
+            SUBSYSTEM_DATASOURCES_LOGGER.debugf("Warmed up datasource %s with %d of %d connections", this.dsName, connections.size(), this.connections);
+        }
+        return connections.size();
+    }
+
+    private void open() {
+        synchronized (this) {
+            if (this.done) {
+                return;
+            }
+        }
+        Connection connection = null;
+        try {
+            connection = this.dataSource.getConnection();
+            if (this.validationSql != null) {
+                final Statement statement = connection.createStatement();
+                try {
+                    statement.execute(this.validationSql);
+                } finally {
+                    statement.close();
+                }
+            }
+            synchronized (this) {
+                if (!this.done) {
+                    this.opened.add(connection);
+                    connection = null;
+                }
+            }
+        } catch (Throwable e) {
+            SUBSYSTEM_DATASOURCES_LOGGER.warmUpConnectionFailed(e, this.dsName);
+        } finally {
+            // a connection opened after the warm-up finished, or that failed validation
+            if (connection != null) {
+                close(connection);
+            }
+        }
+    }
+
+    private static void close(final Connection connection) {
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            SUBSYSTEM_DATASOURCES_LOGGER.debugf(e, "Failed to return warm-up connection");
+        }
+    }
+}
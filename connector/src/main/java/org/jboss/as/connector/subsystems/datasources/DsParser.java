@@ -583,6 +583,13 @@ public class DsParser extends AbstractParser {
                         }
                         break;
 
+                    } else if (Constants.WARM_UP_TIMEOUT.getName().equals(reader.getAttributeLocalName(i))) {
+                        final String value = rawAttributeText(reader, Constants.WARM_UP_TIMEOUT.getXmlName());
+                        if (value != null) {
+                            Constants.WARM_UP_TIMEOUT.parseAndSetParameter(value, operation, reader);
+                        }
+                        break;
+
                     } else {
                         throw ParseUtils.unexpectedAttribute(reader, i);
                     }
@@ -1010,6 +1017,13 @@ public class DsParser extends AbstractParser {
                         }
                         break;
 
+                    } else if (Constants.WARM_UP_TIMEOUT.getName().equals(reader.getAttributeLocalName(i))) {
+                        final String value = rawAttributeText(reader, Constants.WARM_UP_TIMEOUT.getXmlName());
+                        if (value != null) {
+                            Constants.WARM_UP_TIMEOUT.parseAndSetParameter(value, operation, reader);
+                        }
+                        break;
+
                     } else {
                         throw ParseUtils.unexpectedAttribute(reader, i);
                     }
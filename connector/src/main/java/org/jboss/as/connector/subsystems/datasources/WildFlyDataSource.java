@@ -33,6 +33,8 @@ import java.util.logging.Logger;
 import javax.naming.InitialContext;
 import javax.sql.DataSource;
 
+import org.jboss.as.connector.subsystems.common.pool.PoolLatencyStatistics;
+
 /**
  * WildFly DataSource implementation
  *
@@ -49,6 +51,9 @@ public class WildFlyDataSource implements DataSource, Serializable {
     /** Service name */
     private transient String jndiName;
 
+    /** Latency statistics of the pool, may be null */
+    private transient PoolLatencyStatistics latencyStatistics;
+
 
     /**
      * Constructor
@@ -56,22 +61,45 @@ public class WildFlyDataSource implements DataSource, Serializable {
      * @param jndiName The service name
      */
     public WildFlyDataSource(DataSource delegate, String jndiName) {
+        this(delegate, jndiName, null);
+    }
+
+    /**
+     * Constructor
+     * @param delegate The datasource
+     * @param jndiName The service name
+     * @param latencyStatistics The latency statistics of the pool
+     */
+    public WildFlyDataSource(DataSource delegate, String jndiName, PoolLatencyStatistics latencyStatistics) {
         this.delegate = delegate;
         this.jndiName = jndiName;
+        this.latencyStatistics = latencyStatistics;
     }
 
     /**
      * {@inheritDoc}
      */
     public Connection getConnection() throws SQLException {
-        return delegate.getConnection();
+        if (latencyStatistics == null) {
+            return delegate.getConnection();
+        }
+        final long start = System.nanoTime();
+        final Connection connection = delegate.getConnection();
+        latencyStatistics.connectionAcquired(start);
+        return connection;
     }
 
     /**
      * {@inheritDoc}
      */
     public Connection getConnection(String username, String password) throws SQLException {
-        return delegate.getConnection(username, password);
+        if (latencyStatistics == null) {
+            return delegate.getConnection(username, password);
+        }
+        final long start = System.nanoTime();
+        final Connection connection = delegate.getConnection(username, password);
+        latencyStatistics.connectionAcquired(start);
+        return connection;
     }
 
     /**
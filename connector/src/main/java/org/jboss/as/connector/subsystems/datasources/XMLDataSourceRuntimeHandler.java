@@ -382,6 +382,9 @@ public class XMLDataSourceRuntimeHandler extends AbstractXMLDataSourceRuntimeHan
         } else if (attributeName.equals(Constants.TRACKING.getName())) {
             //Just return w/o setting a result
             return;
+        } else if (attributeName.equals(Constants.WARM_UP_TIMEOUT.getName())) {
+            //Deployed datasources are not warmed up
+            return;
         } else {
             throw ConnectorLogger.ROOT_LOGGER.unknownAttribute(attributeName);
         }
@@ -494,6 +494,9 @@ public class XMLXaDataSourceRuntimeHandler extends AbstractXMLDataSourceRuntimeH
         } else if (attributeName.equals(Constants.TRACKING.getName())) {
             //Just return w/o setting a result
             return;
+        } else if (attributeName.equals(Constants.WARM_UP_TIMEOUT.getName())) {
+            //Deployed datasources are not warmed up
+            return;
         } else {
             throw ConnectorLogger.ROOT_LOGGER.unknownAttribute(attributeName);
         }
@@ -40,6 +40,7 @@ import static org.jboss.as.connector.subsystems.datasources.Constants.FLUSH_INVA
 import static org.jboss.as.connector.subsystems.datasources.Constants.STATISTICS_ENABLED;
 import static org.jboss.as.connector.subsystems.datasources.Constants.TEST_CONNECTION;
 import static org.jboss.as.connector.subsystems.datasources.Constants.TRACKING;
+import static org.jboss.as.connector.subsystems.datasources.Constants.WARM_UP_TIMEOUT;
 import static org.jboss.as.connector.subsystems.datasources.Constants.XA_DATASOURCE;
 import static org.jboss.as.connector.subsystems.datasources.Constants.XA_DATASOURCE_ATTRIBUTE;
 import static org.jboss.as.connector.subsystems.datasources.Constants.XA_DATASOURCE_PROPERTIES_ATTRIBUTES;
@@ -178,7 +179,7 @@ public class XaDataSourceDefinition extends SimpleResourceDefinition {
                 )
                 .setDiscard(new DiscardAttributeChecker.DiscardAttributeValueChecker(new ModelNode(false)), CONNECTABLE)
                 .setDiscard(new DiscardAttributeChecker.DiscardAttributeValueChecker(false, false, new ModelNode(true)), STATISTICS_ENABLED)
-                .setDiscard(DiscardAttributeChecker.UNDEFINED, TRACKING)
+                .setDiscard(DiscardAttributeChecker.UNDEFINED, TRACKING, WARM_UP_TIMEOUT)
                 .addRejectCheck(new RejectAttributeChecker.DefaultRejectAttributeChecker() {
 
                     @Override
@@ -200,7 +201,7 @@ public class XaDataSourceDefinition extends SimpleResourceDefinition {
                         org.jboss.as.connector.subsystems.common.pool.Constants.CAPACITY_INCREMENTER_CLASS,
                         org.jboss.as.connector.subsystems.common.pool.Constants.CAPACITY_DECREMENTER_PROPERTIES,
                         org.jboss.as.connector.subsystems.common.pool.Constants.INITIAL_POOL_SIZE,
-                        Constants.URL_PROPERTY, CONNECTABLE, TRACKING
+                        Constants.URL_PROPERTY, CONNECTABLE, TRACKING, WARM_UP_TIMEOUT
                 )
                 .addRejectCheck(RejectAttributeChecker.SIMPLE_EXPRESSIONS, DATASOURCE_PROPERTIES_ATTRIBUTES)
                  /*These are nillable in the old model, but appear as not nillable in CompareModelUtils due to problems in the resource description
@@ -244,7 +245,7 @@ public class XaDataSourceDefinition extends SimpleResourceDefinition {
                 )
                 .setDiscard(new DiscardAttributeChecker.DiscardAttributeValueChecker(new ModelNode(false)), CONNECTABLE)
                 .setDiscard(new DiscardAttributeChecker.DiscardAttributeValueChecker(false, false, new ModelNode(true)), STATISTICS_ENABLED)
-                .setDiscard(DiscardAttributeChecker.UNDEFINED, TRACKING)
+                .setDiscard(DiscardAttributeChecker.UNDEFINED, TRACKING, WARM_UP_TIMEOUT)
                 .addRejectCheck(new RejectAttributeChecker.DefaultRejectAttributeChecker() {
 
                     @Override
@@ -266,7 +267,7 @@ public class XaDataSourceDefinition extends SimpleResourceDefinition {
                 Constants.CONNECTION_PROPERTIES,
                 org.jboss.as.connector.subsystems.common.pool.Constants.CAPACITY_DECREMENTER_PROPERTIES,
                 org.jboss.as.connector.subsystems.common.pool.Constants.INITIAL_POOL_SIZE,
-                Constants.URL_PROPERTY, CONNECTABLE, TRACKING
+                Constants.URL_PROPERTY, CONNECTABLE, TRACKING, WARM_UP_TIMEOUT
         )
                 //Reject expressions for enabled, since if they are used we don't know their value for the operation transformer override
                 //Although 'enabled' appears in the legacy model and the 'add' handler, the add does not actually set its value in the model
@@ -312,8 +313,8 @@ public class XaDataSourceDefinition extends SimpleResourceDefinition {
                         return !attributeValue.isDefined() || !attributeValue.asString().equals("true");
                     }
                 }, STATISTICS_ENABLED)
-                .setDiscard(DiscardAttributeChecker.UNDEFINED, TRACKING)
-                .addRejectCheck(RejectAttributeChecker.DEFINED, TRACKING).end()
+                .setDiscard(DiscardAttributeChecker.UNDEFINED, TRACKING, WARM_UP_TIMEOUT)
+                .addRejectCheck(RejectAttributeChecker.DEFINED, TRACKING, WARM_UP_TIMEOUT).end()
                 //We're rejecting operations when statistics-enabled=false, so let it through in the enable/disable ops which do not use that attribute
                 .addOperationTransformationOverride(DATASOURCE_ENABLE.getName())
                 .end()
@@ -0,0 +1,147 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.connector.subsystems.common.pool;
+
+import java.lang.ref.WeakReference;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests {@link PoolLatencyStatistics}.
+ */
+public class PoolLatencyStatisticsTestCase {
+
+    @Test
+    public void testDisabled() {
+        final PoolLatencyStatistics statistics = new PoolLatencyStatistics(false);
+        final Object connection = new Object();
+        statistics.connectionAcquired(System.nanoTime());
+        statistics.connectionCreated(System.nanoTime());
+        statistics.connectionRegistered(connection);
+        // enabling the statistics while the connection is in use does not record a partial use time
+        statistics.setEnabled(true);
+        statistics.connectionUnregistered(connection);
+        Assert.assertEquals(0L, statistics.getValue("AcquireTimeCount"));
+        Assert.assertEquals(0L, statistics.getValue("UseTimeCount"));
+        Assert.assertEquals(0L, statistics.getValue("CreationTimeCount"));
+    }
+
+    @Test
+    public void testStatistics() {
+        final PoolLatencyStatistics statistics = new PoolLatencyStatistics(true);
+        final Object connection = new Object();
+        statistics.connectionCreated(System.nanoTime());
+        statistics.connectionAcquired(System.nanoTime());
+        statistics.connectionRegistered(connection);
+        statistics.connectionUnregistered(connection);
+        // closing a handle that is not tracked any more is ignored
+        statistics.connectionUnregistered(connection);
+        Assert.assertEquals(1L, statistics.getValue("AcquireTimeCount"));
+        Assert.assertEquals(1L, statistics.getValue("UseTimeCount"));
+        Assert.assertEquals(1L, statistics.getValue("CreationTimeCount"));
+        Assert.assertNotNull(statistics.getValue("UseTimeP999"));
+        Assert.assertNull(statistics.getValue("UseTimeP42"));
+        Assert.assertEquals(18, statistics.getNames().size());
+        for (String name : statistics.getNames()) {
+            Assert.assertEquals(long.class, statistics.getType(name));
+            Assert.assertNotNull(statistics.getDescription(name));
+        }
+
+        statistics.clear();
+        Assert.assertEquals(0L, statistics.getValue("AcquireTimeCount"));
+        Assert.assertEquals(0L, statistics.getValue("UseTimeCount"));
+    }
+
+    @Test
+    public void testUseTimeOnly() {
+        final PoolLatencyStatistics statistics = new PoolLatencyStatistics(true, false);
+        Assert.assertEquals(6, statistics.getNames().size());
+        Assert.assertNull(statistics.getType("AcquireTimeCount"));
+        Assert.assertNull(statistics.getValue("CreationTimeMax"));
+        Assert.assertEquals(0L, statistics.getValue("UseTimeCount"));
+    }
+
+    @Test
+    public void testSharedConnection() throws InterruptedException {
+        final PoolLatencyStatistics statistics = new PoolLatencyStatistics(true);
+        final Object connection = new Object();
+        statistics.connectionRegistered(connection);
+        statistics.connectionRegistered(connection);
+        Thread.sleep(2);
+        statistics.connectionUnregistered(connection);
+        Assert.assertEquals(0L, statistics.getValue("UseTimeCount"));
+        statistics.connectionUnregistered(connection);
+        // the connection is used until its last handle is closed
+        Assert.assertEquals(1L, statistics.getValue("UseTimeCount"));
+        Assert.assertTrue((Long) statistics.getValue("UseTimeMax") >= TimeUnit.MILLISECONDS.toMicros(2));
+    }
+
+    @Test
+    public void testClosedByAnotherThread() throws Exception {
+        final PoolLatencyStatistics statistics = new PoolLatencyStatistics(true);
+        final Object connection = new Object();
+        statistics.connectionRegistered(connection);
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            executor.submit(new Runnable() {
+                @Override
+                public void run() {
+                    statistics.connectionUnregistered(connection);
+                }
+            }).get();
+        } finally {
+            executor.shutdown();
+        }
+        Assert.assertEquals(1L, statistics.getValue("UseTimeCount"));
+    }
+
+    @Test
+    public void testConnectionNotRetained() throws InterruptedException {
+        final PoolLatencyStatistics statistics = new PoolLatencyStatistics(true);
+        Object connection = new Object();
+        final WeakReference<Object> reference = new WeakReference<Object>(connection);
+        // the handle of the connection is never closed
+        statistics.connectionRegistered(connection);
+        connection = null;
+        for (int i = 0; i < 100 && reference.get() != null; ++i) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        Assert.assertNull(reference.get());
+    }
+
+    @Test
+    public void testAttach() {
+        final PoolLatencyStatistics statistics = new PoolLatencyStatistics(false);
+        final Object connectionManager = new Object();
+        Assert.assertNull(PoolLatencyStatistics.getStatistics(connectionManager));
+        PoolLatencyStatistics.attach(connectionManager, statistics);
+        Assert.assertSame(statistics, PoolLatencyStatistics.getStatistics(connectionManager));
+        PoolLatencyStatistics.detach(connectionManager);
+        Assert.assertNull(PoolLatencyStatistics.getStatistics(connectionManager));
+    }
+}
@@ -0,0 +1,157 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.connector.subsystems.datasources;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests {@link DataSourceWarmUp} opens connections in parallel, and returns every connection it opened to the pool.
+ */
+public class DataSourceWarmUpTestCase {
+
+    private static final int CONNECTIONS = 4;
+
+    private ExecutorService executor;
+    private final AtomicInteger opened = new AtomicInteger();
+    private final AtomicInteger closed = new AtomicInteger();
+
+    @Before
+    public void setUp() {
+        executor = Executors.newCachedThreadPool();
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testWarmUp() throws Exception {
+        final CountDownLatch allOpen = new CountDownLatch(CONNECTIONS);
+        // every connection is held until all are open, otherwise this would time out
+        final DataSource dataSource = createDataSource(allOpen, allOpen, null);
+        Assert.assertEquals(CONNECTIONS, new DataSourceWarmUp("ds", dataSource, CONNECTIONS, "SELECT 1", executor).run(TimeUnit.SECONDS.toMillis(10)));
+        Assert.assertEquals(CONNECTIONS, opened.get());
+        Assert.assertEquals(CONNECTIONS, closed.get());
+    }
+
+    @Test
+    public void testTimeout() throws Exception {
+        final CountDownLatch release = new CountDownLatch(1);
+        final DataSource dataSource = createDataSource(null, release, null);
+        final long start = System.currentTimeMillis();
+        Assert.assertEquals(0, new DataSourceWarmUp("ds", dataSource, CONNECTIONS, null, executor).run(100));
+        Assert.assertTrue(System.currentTimeMillis() - start < TimeUnit.SECONDS.toMillis(10));
+
+        // connections that become available after the timeout are returned to the pool straight away
+        release.countDown();
+        final long end = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(10);
+        while (closed.get() < CONNECTIONS && System.currentTimeMillis() < end) {
+            Thread.sleep(10);
+        }
+        Assert.assertEquals(CONNECTIONS, opened.get());
+        Assert.assertEquals(CONNECTIONS, closed.get());
+    }
+
+    @Test
+    public void testValidationFailure() throws Exception {
+        final DataSource dataSource = createDataSource(null, null, new SQLException("invalid"));
+        Assert.assertEquals(0, new DataSourceWarmUp("ds", dataSource, CONNECTIONS, "SELECT 1", executor).run(TimeUnit.SECONDS.toMillis(10)));
+        Assert.assertEquals(CONNECTIONS, opened.get());
+        Assert.assertEquals(CONNECTIONS, closed.get());
+    }
+
+    /**
+     * @param requested if not null, counted down by each connection request
+     * @param release if not null, each connection request waits for it to reach 0
+     * @param validationFailure if not null, thrown by the validation query
+     */
+    private DataSource createDataSource(final CountDownLatch requested, final CountDownLatch release, final SQLException validationFailure) {
+        return proxy(DataSource.class, new InvocationHandler() {
+            @Override
+            public Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable {
+                if (!method.getName().equals("getConnection")) {
+                    return null;
+                }
+                if (requested != null) {
+                    requested.countDown();
+                }
+                if (release != null) {
+                    release.await();
+                }
+                opened.incrementAndGet();
+                return createConnection(validationFailure);
+            }
+        });
+    }
+
+    private Connection createConnection(final SQLException validationFailure) {
+        return proxy(Connection.class, new InvocationHandler() {
+            @Override
+            public Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable {
+                switch (method.getName()) {
+                    case "createStatement":
+                        return createStatement(validationFailure);
+                    case "close":
+                        closed.incrementAndGet();
+                        return null;
+                    default:
+                        return null;
+                }
+            }
+        });
+    }
+
+    private static Statement createStatement(final SQLException validationFailure) {
+        return proxy(Statement.class, new InvocationHandler() {
+            @Override
+            public Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable {
+                if (method.getName().equals("execute") && validationFailure != null) {
+                    throw validationFailure;
+                }
+                return method.getReturnType() == boolean.class ? Boolean.FALSE : null;
+            }
+        });
+    }
+
+    private static <T> T proxy(final Class<T> type, final InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type }, handler));
+    }
+}
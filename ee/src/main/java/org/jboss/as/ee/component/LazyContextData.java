@@ -0,0 +1,95 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ee.component;
+
+import java.util.AbstractMap;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The public context data of an invocation, which only allocates its backing map once an entry is added.
+ * <p>
+ * Most invocations never add context data, so this avoids allocating a {@link HashMap} on every call through a view.
+ */
+final class LazyContextData extends AbstractMap<String, Object> {
+
+    private Map<String, Object> map;
+
+    @Override
+    public int size() {
+        return (this.map != null) ? this.map.size() : 0;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return (this.map == null) || this.map.isEmpty();
+    }
+
+    @Override
+    public boolean containsKey(final Object key) {
+        return (this.map != null) && this.map.containsKey(key);
+    }
+
+    @Override
+    public Object get(final Object key) {
+        return (this.map != null) ? this.map.get(key) : null;
+    }
+
+    @Override
+    public Object put(final String key, final Object value) {
+        return this.getMap().put(key, value);
+    }
+
+    @Override
+    public void putAll(final Map<? extends String, ?> map) {
+        if (!map.isEmpty()) {
+            this.getMap().putAll(map);
+        }
+    }
+
+    @Override
+    public Object remove(final Object key) {
+        return (this.map != null) ? this.map.remove(key) : null;
+    }
+
+    @Override
+    public void clear() {
+        if (this.map != null) {
+            this.map.clear();
+        }
+    }
+
+    @Override
+    public Set<Entry<String, Object>> entrySet() {
+        // the entry set of the backing map, so that iterators can remove entries
+        return (this.map != null) ? this.map.entrySet() : Collections.<Entry<String, Object>>emptySet();
+    }
+
+    private Map<String, Object> getMap() {
+        if (this.map == null) {
+            this.map = new HashMap<String, Object>();
+        }
+        return this.map;
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ee.component;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+
+/**
+ * An immutable dispatch table of the methods of a view.
+ * <p>
+ * Generated proxies always pass the same {@link Method} instances, so methods are compared by identity. The table is a
+ * single open-addressed array which is at most half full, so that a lookup usually costs one hash and one comparison,
+ * and no allocation.
+ *
+ * @param <V> the type of the value associated with each method
+ */
+final class MethodTable<V> {
+
+    private final Method[] methods;
+    private final Object[] values;
+    private final int mask;
+
+    MethodTable(final Map<Method, V> map) {
+        int capacity = 2;
+        while (capacity < 2 * map.size()) {
+            capacity <<= 1;
+        }
+        this.methods = new Method[capacity];
+        this.values = new Object[capacity];
+        this.mask = capacity - 1;
+        for (Map.Entry<Method, V> entry : map.entrySet()) {
+            int index = this.indexOf(entry.getKey());
+            this.methods[index] = entry.getKey();
+            this.values[index] = entry.getValue();
+        }
+    }
+
+    /**
+     * Returns the value associated with the given method.
+     *
+     * @param method the method
+     * @return the associated value, or {@code null} if the method is not part of the table
+     */
+    @SuppressWarnings("unchecked")
+    V get(final Method method) {
+        return (V) this.values[this.indexOf(method)];
+    }
+
+    // the slot containing the method, or the empty slot where it would go
+    private int indexOf(final Method method) {
+        final int hash = System.identityHashCode(method);
+        int index = (hash ^ (hash >>> 16)) & this.mask;
+        Method current = this.methods[index];
+        while (current != null && current != method) {
+            index = (index + 1) & this.mask;
+            current = this.methods[index];
+        }
+        return index;
+    }
+}
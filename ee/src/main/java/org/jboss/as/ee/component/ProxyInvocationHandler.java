@@ -24,7 +24,6 @@ package org.jboss.as.ee.component;
 
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
-import java.util.HashMap;
 import java.util.Map;
 
 import org.jboss.invocation.Interceptor;
@@ -37,7 +36,7 @@ import org.jboss.invocation.InterceptorContext;
  */
 public final class ProxyInvocationHandler implements InvocationHandler {
 
-    private final Map<Method, Interceptor> interceptors;
+    private final MethodTable<Interceptor> interceptors;
     private final ComponentView componentView;
     private final ComponentClientInstance instance;
 
@@ -49,6 +48,17 @@ public final class ProxyInvocationHandler implements InvocationHandler {
      * @param componentView The component view
      */
     public ProxyInvocationHandler(final Map<Method, Interceptor> interceptors, ComponentClientInstance instance, ComponentView componentView) {
+        this(new MethodTable<Interceptor>(interceptors), instance, componentView);
+    }
+
+    /**
+     * Construct a new instance which shares the dispatch table of its view.
+     *
+     * @param interceptors the interceptors of each method of the view
+     * @param instance The view instane data
+     * @param componentView The component view
+     */
+    ProxyInvocationHandler(final MethodTable<Interceptor> interceptors, ComponentClientInstance instance, ComponentView componentView) {
         this.interceptors = interceptors;
         this.instance = instance;
         this.componentView = componentView;
@@ -68,8 +78,8 @@ public final class ProxyInvocationHandler implements InvocationHandler {
         instance.prepareInterceptorContext(context);
         context.setParameters(args);
         context.setMethod(method);
-        // setup the public context data
-        context.setContextData(new HashMap<String, Object>());
+        // setup the public context data, which is only allocated if an interceptor adds to it
+        context.setContextData(new LazyContextData());
         return interceptor.processInvocation(context);
     }
 }
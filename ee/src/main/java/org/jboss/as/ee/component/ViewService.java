@@ -68,7 +68,7 @@ public final class ViewService implements Service<ComponentView> {
 
     private volatile Interceptor clientPostConstructInterceptor;
     private volatile Interceptor clientPreDestroyInterceptor;
-    private volatile Map<Method, Interceptor> clientInterceptors;
+    private volatile MethodTable<Interceptor> clientInterceptors;
 
 
     public ViewService(final ViewConfiguration viewConfiguration) {
@@ -119,11 +119,12 @@ public final class ViewService implements Service<ComponentView> {
         clientPreDestroyInterceptor = clientPreDestroy.create(factoryContext);
 
         final Map<Method, InterceptorFactory> clientInterceptorFactories = ViewService.this.clientInterceptorFactories;
-        clientInterceptors = new IdentityHashMap<Method, Interceptor>(clientInterceptorFactories.size());
+        final Map<Method, Interceptor> clientInterceptors = new IdentityHashMap<Method, Interceptor>(clientInterceptorFactories.size());
         for (Method method : clientInterceptorFactories.keySet()) {
             clientInterceptors.put(method, clientInterceptorFactories.get(method).create(factoryContext));
         }
-
+        // shared by the invocation handlers of all instances of this view
+        this.clientInterceptors = new MethodTable<Interceptor>(clientInterceptors);
 
     }
 
@@ -143,6 +144,7 @@ public final class ViewService implements Service<ComponentView> {
 
         private final Component component;
         private final Map<Method, Interceptor> viewInterceptors;
+        private volatile MethodTable<Interceptor> viewInterceptorTable;
         private final Map<MethodDescription, Method> methods;
         private final Map<Class<?>, Object> privateData;
 
@@ -167,6 +169,7 @@ public final class ViewService implements Service<ComponentView> {
                 viewEntryPoints.put(method, viewInterceptorFactories.get(method).create(factoryContext));
                 methods.put(new MethodDescription(method.getName(), DescriptorUtils.methodDescriptor(method)), method);
             }
+            this.viewInterceptorTable = new MethodTable<Interceptor>(viewEntryPoints);
 
         }
 
@@ -191,7 +194,7 @@ public final class ViewService implements Service<ComponentView> {
         @Override
         public Object invoke(InterceptorContext interceptorContext) throws Exception {
             final Method method = interceptorContext.getMethod();
-            final Interceptor interceptor = viewInterceptors.get(method);
+            final Interceptor interceptor = viewInterceptorTable.get(method);
             return interceptor.processInvocation(interceptorContext);
         }
 
@@ -295,7 +298,7 @@ public final class ViewService implements Service<ComponentView> {
             context.putPrivateData(ComponentView.class, componentView);
             context.putPrivateData(Component.class, component);
             context.putPrivateData(ComponentClientInstance.class, instance);
-            context.setContextData(new HashMap<String, Object>());
+            context.setContextData(new LazyContextData());
             for(Map.Entry<Object, Object> entry : contextData.entrySet()) {
                 context.putPrivateData(entry.getKey(), entry.getValue());
             }
@@ -22,6 +22,7 @@
 
 package org.jboss.as.ee.concurrent;
 
+import org.jboss.as.ee.concurrent.handle.NullContextHandle;
 import org.jboss.as.ee.concurrent.handle.ResetContextHandle;
 import org.jboss.as.ee.concurrent.handle.SetupContextHandle;
 import org.jboss.as.ee.logging.EeLogger;
@@ -40,11 +41,8 @@ import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.security.AccessController;
 import java.security.PrivilegedAction;
-import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.HashMap;
-import java.util.LinkedList;
-import java.util.List;
 import java.util.Map;
 import java.util.SortedSet;
 import java.util.TreeSet;
@@ -96,7 +94,10 @@ public class ConcurrentContext {
     }
 
     private final Map<String, ContextHandleFactory> factoryMap = new HashMap<>();
-    private List<ContextHandleFactory> factoryOrderedList;
+    /**
+     * the factories ordered by chain priority, replaced on each factory addition and never modified
+     */
+    private volatile ContextHandleFactory[] factories = new ContextHandleFactory[0];
 
     private volatile ServiceName serviceName;
 
@@ -126,21 +127,26 @@ public class ConcurrentContext {
         };
         SortedSet<ContextHandleFactory> sortedSet = new TreeSet<>(comparator);
         sortedSet.addAll(factoryMap.values());
-        factoryOrderedList = new ArrayList<>(sortedSet);
+        factories = sortedSet.toArray(new ContextHandleFactory[sortedSet.size()]);
     }
 
     /**
-     * Saves the current invocation context on a chained context handle.
+     * Saves the current invocation context on a chained context handle. Factories which return the {@link NullContextHandle}, since there is no context to save, are not part of the chain.
      * @param contextService
      * @param contextObjectProperties
      * @return
      */
     public SetupContextHandle saveContext(ContextService contextService, Map<String, String> contextObjectProperties) {
-        final List<SetupContextHandle> handles = new ArrayList<>(factoryOrderedList.size());
-        for (ContextHandleFactory factory : factoryOrderedList) {
-            handles.add(factory.saveContext(contextService, contextObjectProperties));
+        final ContextHandleFactory[] factories = this.factories;
+        final SetupContextHandle[] handles = new SetupContextHandle[factories.length];
+        int size = 0;
+        for (ContextHandleFactory factory : factories) {
+            final SetupContextHandle handle = factory.saveContext(contextService, contextObjectProperties);
+            if (handle != NullContextHandle.INSTANCE) {
+                handles[size++] = handle;
+            }
         }
-        return new ChainedSetupContextHandle(this, handles);
+        return new ChainedSetupContextHandle(this, handles, size);
     }
 
     /**
@@ -149,21 +155,22 @@ public class ConcurrentContext {
     private static class ChainedSetupContextHandle implements SetupContextHandle {
 
         private transient ConcurrentContext concurrentContext;
-        private transient List<SetupContextHandle> setupHandles;
+        private transient SetupContextHandle[] setupHandles;
+        private transient int size;
 
-        private ChainedSetupContextHandle(ConcurrentContext concurrentContext, List<SetupContextHandle> setupHandles) {
+        private ChainedSetupContextHandle(ConcurrentContext concurrentContext, SetupContextHandle[] setupHandles, int size) {
             this.concurrentContext = concurrentContext;
             this.setupHandles = setupHandles;
+            this.size = size;
         }
 
         @Override
         public ResetContextHandle setup() throws IllegalStateException {
-            final LinkedList<ResetContextHandle> resetHandles = new LinkedList<>();
-            final ResetContextHandle resetContextHandle = new ChainedResetContextHandle(resetHandles);
+            final ChainedResetContextHandle resetContextHandle = new ChainedResetContextHandle(new ResetContextHandle[size]);
             try {
                 ConcurrentContext.pushCurrent(concurrentContext);
-                for (SetupContextHandle handle : setupHandles) {
-                    resetHandles.addFirst(handle.setup());
+                for (int i = 0; i < size; i++) {
+                    resetContextHandle.add(setupHandles[i].setup());
                 }
             } catch (Error | RuntimeException e) {
                 resetContextHandle.reset();
@@ -182,11 +189,12 @@ public class ConcurrentContext {
             // write the concurrent context service name
             out.writeObject(concurrentContext.serviceName);
             // write the number of setup handles
-            out.write(setupHandles.size());
+            out.write(size);
             // write each handle
             ContextHandleFactory factory = null;
             String factoryName = null;
-            for(SetupContextHandle handle : setupHandles) {
+            for(int i = 0; i < size; i++) {
+                final SetupContextHandle handle = setupHandles[i];
                 factoryName = handle.getFactoryName();
                 factory = concurrentContext.factoryMap.get(factoryName);
                 if(factory == null) {
@@ -238,16 +246,17 @@ public class ConcurrentContext {
                 }
                 concurrentContext = (ConcurrentContext) serviceController.getValue();
                 // read setup handles
-                setupHandles = new ArrayList<>();
+                size = in.read();
+                setupHandles = new SetupContextHandle[size];
                 ContextHandleFactory factory = null;
                 String factoryName = null;
-                for(int i = in.read(); i > 0; i--) {
+                for(int i = 0; i < size; i++) {
                     factoryName = in.readUTF();
                     factory = concurrentContext.factoryMap.get(factoryName);
                     if(factory == null) {
                         throw EeLogger.ROOT_LOGGER.factoryNotFound(concurrentContext, factoryName);
                     }
-                    setupHandles.add(factory.readSetupContextHandle(in));
+                    setupHandles[i] = factory.readSetupContextHandle(in);
                 }
             } finally {
                 if (sm == null) {
@@ -266,22 +275,27 @@ public class ConcurrentContext {
     }
 
     /**
-     * A reset context handle that is a chain of other reset context handles
+     * A reset context handle that is a chain of other reset context handles, which are reset in the reverse order of their addition
      */
     private static class ChainedResetContextHandle implements ResetContextHandle {
 
-        private transient List<ResetContextHandle> resetHandles;
+        private transient ResetContextHandle[] resetHandles;
+        private transient int size;
 
-        private ChainedResetContextHandle(List<ResetContextHandle> resetHandles) {
+        private ChainedResetContextHandle(ResetContextHandle[] resetHandles) {
             this.resetHandles = resetHandles;
         }
 
+        private void add(ResetContextHandle handle) {
+            resetHandles[size++] = handle;
+        }
+
         @Override
         public void reset() {
             if(resetHandles != null) {
-                for (ResetContextHandle handle : resetHandles) {
+                for (int i = size - 1; i >= 0; i--) {
                     try {
-                        handle.reset();
+                        resetHandles[i].reset();
                     } catch (Throwable e) {
                         EeLogger.ROOT_LOGGER.debug("failed to reset handle",e);
                     }
@@ -39,15 +39,16 @@ public class ClassLoaderContextHandleFactory implements ContextHandleFactory {
 
     public static final String NAME = "CLASSLOADER";
 
-    private final ClassLoader classLoader;
+    private final SetupContextHandle setupContextHandle;
 
     public ClassLoaderContextHandleFactory(ClassLoader classLoader) {
-        this.classLoader = classLoader;
+        // the handle has no state besides the classloader, a single instance is shared by all saved contexts
+        this.setupContextHandle = new ClassLoaderSetupContextHandle(classLoader);
     }
 
     @Override
     public SetupContextHandle saveContext(ContextService contextService, Map<String, String> contextObjectProperties) {
-        return new ClassLoaderSetupContextHandle(classLoader);
+        return setupContextHandle;
     }
 
     @Override
@@ -66,7 +67,7 @@ public class ClassLoaderContextHandleFactory implements ContextHandleFactory {
 
     @Override
     public SetupContextHandle readSetupContextHandle(ObjectInputStream in) throws IOException, ClassNotFoundException {
-        return new ClassLoaderSetupContextHandle(classLoader);
+        return setupContextHandle;
     }
 
     private static class ClassLoaderSetupContextHandle implements SetupContextHandle {
@@ -41,17 +41,19 @@ public class NamingContextHandleFactory implements ContextHandleFactory {
 
     public static final String NAME = "NAMING";
 
-    private final NamespaceContextSelector namespaceContextSelector;
-    private final ServiceName duServiceName;
+    private final SetupContextHandle setupContextHandle;
 
     public NamingContextHandleFactory(NamespaceContextSelector namespaceContextSelector, ServiceName duServiceName) {
-        this.namespaceContextSelector = namespaceContextSelector;
-        this.duServiceName = duServiceName;
+        if (namespaceContextSelector == null && duServiceName == null) {
+            this.setupContextHandle = NullContextHandle.INSTANCE;
+        } else {
+            this.setupContextHandle = new NamingContextHandle(namespaceContextSelector, duServiceName);
+        }
     }
 
     @Override
     public SetupContextHandle saveContext(ContextService contextService, Map<String, String> contextObjectProperties) {
-        return new NamingContextHandle(namespaceContextSelector,duServiceName);
+        return setupContextHandle;
     }
 
     @Override
@@ -70,7 +72,7 @@ public class NamingContextHandleFactory implements ContextHandleFactory {
 
     @Override
     public SetupContextHandle readSetupContextHandle(ObjectInputStream in) throws IOException, ClassNotFoundException {
-        return new NamingContextHandle(namespaceContextSelector,duServiceName);
+        return setupContextHandle;
     }
 
     private static class NamingContextHandle implements SetupContextHandle, ResetContextHandle {
@@ -43,14 +43,17 @@ public class OtherEESetupActionsContextHandleFactory implements ContextHandleFac
     public static final String NAME = "EE_SETUP_ACTIONS";
 
     private final List<SetupAction> setupActions;
+    private final SetupContextHandle setupContextHandle;
 
     public OtherEESetupActionsContextHandleFactory(List<SetupAction> setupActions) {
         this.setupActions = setupActions;
+        this.setupContextHandle = new OtherEESetupActionsSetupContextHandle(setupActions);
     }
 
     @Override
     public SetupContextHandle saveContext(ContextService contextService, Map<String, String> contextObjectProperties) {
-        return new OtherEESetupActionsSetupContextHandle(setupActions);
+        // the list may be a view of the deployment's attachment list, which is only complete once deployed
+        return setupActions.isEmpty() ? NullContextHandle.INSTANCE : setupContextHandle;
     }
 
     @Override
@@ -69,7 +72,7 @@ public class OtherEESetupActionsContextHandleFactory implements ContextHandleFac
 
     @Override
     public SetupContextHandle readSetupContextHandle(ObjectInputStream in) throws IOException, ClassNotFoundException {
-        return new OtherEESetupActionsSetupContextHandle(setupActions);
+        return setupContextHandle;
     }
 
     private static class OtherEESetupActionsSetupContextHandle implements SetupContextHandle {
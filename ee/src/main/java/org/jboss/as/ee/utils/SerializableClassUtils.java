@@ -0,0 +1,59 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ee.utils;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.jboss.as.server.deployment.annotation.CompositeIndex;
+import org.jboss.jandex.ClassInfo;
+import org.jboss.jandex.DotName;
+
+/**
+ * Utility class for finding the serializable classes of a deployment.
+ */
+public class SerializableClassUtils {
+
+    private static final DotName SERIALIZABLE = DotName.createSimple(Serializable.class.getName());
+
+    /**
+     * Returns the names of the indexed classes of a deployment that implement {@link Serializable}, ordered by name,
+     * so that every node that deploys the same deployment finds the same classes in the same order.
+     * @param index the composite index of a deployment, may be null
+     * @return a list of class names
+     */
+    public static List<String> getSerializableClassNames(CompositeIndex index) {
+        if (index == null) return Collections.emptyList();
+        List<String> classNames = new ArrayList<>();
+        for (ClassInfo info: index.getAllKnownImplementors(SERIALIZABLE)) {
+            classNames.add(info.name().toString());
+        }
+        Collections.sort(classNames);
+        return classNames;
+    }
+
+    private SerializableClassUtils() {
+        // Hide constructor
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ee.component;
+
+import java.lang.reflect.Method;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests {@link MethodTable} and {@link LazyContextData}.
+ */
+public class MethodTableTestCase {
+
+    @Test
+    public void testLookup() throws Exception {
+        final Map<Method, String> map = new IdentityHashMap<Method, String>();
+        for (Method method : Object.class.getDeclaredMethods()) {
+            map.put(method, method.toString());
+        }
+        final MethodTable<String> table = new MethodTable<String>(map);
+        for (Map.Entry<Method, String> entry : map.entrySet()) {
+            Assert.assertSame(entry.getValue(), table.get(entry.getKey()));
+        }
+        Assert.assertNull(table.get(String.class.getMethod("length")));
+        Assert.assertNull(new MethodTable<String>(new IdentityHashMap<Method, String>()).get(String.class.getMethod("length")));
+    }
+
+    @Test
+    public void testLazyContextData() {
+        final Map<String, Object> contextData = new LazyContextData();
+        Assert.assertTrue(contextData.isEmpty());
+        Assert.assertNull(contextData.get("key"));
+        Assert.assertNull(contextData.remove("key"));
+        Assert.assertFalse(contextData.keySet().iterator().hasNext());
+
+        Assert.assertNull(contextData.put("key", "value"));
+        Assert.assertEquals(1, contextData.size());
+        Assert.assertEquals("value", contextData.get("key"));
+        Assert.assertTrue(contextData.keySet().contains("key"));
+
+        contextData.clear();
+        Assert.assertTrue(contextData.isEmpty());
+    }
+}
@@ -0,0 +1,164 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ee.concurrent;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import javax.enterprise.concurrent.ContextService;
+
+import org.jboss.as.ee.concurrent.handle.ContextHandleFactory;
+import org.jboss.as.ee.concurrent.handle.NullContextHandle;
+import org.jboss.as.ee.concurrent.handle.ResetContextHandle;
+import org.jboss.as.ee.concurrent.handle.SetupContextHandle;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests the chained context handles saved by {@link ConcurrentContext}.
+ */
+public class ConcurrentContextTestCase {
+
+    private final List<String> events = new ArrayList<>();
+
+    @Test
+    public void testChain() {
+        final ConcurrentContext concurrentContext = new ConcurrentContext();
+        concurrentContext.addFactory(new TestContextHandleFactory("B", 200, false));
+        concurrentContext.addFactory(new TestContextHandleFactory("A", 100, false));
+        concurrentContext.addFactory(new TestContextHandleFactory("NONE", 150, true));
+
+        final SetupContextHandle setupContextHandle = concurrentContext.saveContext(null, null);
+        Assert.assertEquals(Arrays.asList("save A", "save NONE", "save B"), events);
+        events.clear();
+
+        Assert.assertNull(ConcurrentContext.current());
+        final ResetContextHandle resetContextHandle = setupContextHandle.setup();
+        Assert.assertSame(concurrentContext, ConcurrentContext.current());
+        resetContextHandle.reset();
+        Assert.assertNull(ConcurrentContext.current());
+        // factories without context to save are not part of the chain, the others are reset in reverse order
+        Assert.assertEquals(Arrays.asList("setup A", "setup B", "reset B", "reset A"), events);
+
+        // reset is only done once
+        resetContextHandle.reset();
+        Assert.assertEquals(4, events.size());
+    }
+
+    @Test
+    public void testFailedSetup() {
+        final ConcurrentContext concurrentContext = new ConcurrentContext();
+        concurrentContext.addFactory(new TestContextHandleFactory("A", 100, false));
+        concurrentContext.addFactory(new TestContextHandleFactory("FAIL", 200, false));
+
+        final SetupContextHandle setupContextHandle = concurrentContext.saveContext(null, null);
+        events.clear();
+        try {
+            setupContextHandle.setup();
+            Assert.fail();
+        } catch (IllegalStateException expected) {
+        }
+        Assert.assertNull(ConcurrentContext.current());
+        Assert.assertEquals(Arrays.asList("setup A", "setup FAIL", "reset A"), events);
+    }
+
+    @Test
+    public void testDuplicateFactory() {
+        final ConcurrentContext concurrentContext = new ConcurrentContext();
+        concurrentContext.addFactory(new TestContextHandleFactory("A", 100, false));
+        try {
+            concurrentContext.addFactory(new TestContextHandleFactory("A", 200, false));
+            Assert.fail();
+        } catch (IllegalArgumentException expected) {
+        }
+    }
+
+    private class TestContextHandleFactory implements ContextHandleFactory {
+
+        private final String name;
+        private final int priority;
+        private final boolean noContext;
+
+        private TestContextHandleFactory(String name, int priority, boolean noContext) {
+            this.name = name;
+            this.priority = priority;
+            this.noContext = noContext;
+        }
+
+        @Override
+        public SetupContextHandle saveContext(ContextService contextService, Map<String, String> contextObjectProperties) {
+            events.add("save " + name);
+            if (noContext) {
+                return NullContextHandle.INSTANCE;
+            }
+            return new SetupContextHandle() {
+                @Override
+                public ResetContextHandle setup() throws IllegalStateException {
+                    events.add("setup " + name);
+                    if (name.equals("FAIL")) {
+                        throw new IllegalStateException();
+                    }
+                    return new ResetContextHandle() {
+                        @Override
+                        public void reset() {
+                            events.add("reset " + name);
+                        }
+
+                        @Override
+                        public String getFactoryName() {
+                            return name;
+                        }
+                    };
+                }
+
+                @Override
+                public String getFactoryName() {
+                    return name;
+                }
+            };
+        }
+
+        @Override
+        public int getChainPriority() {
+            return priority;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public void writeSetupContextHandle(SetupContextHandle contextHandle, ObjectOutputStream out) throws IOException {
+        }
+
+        @Override
+        public SetupContextHandle readSetupContextHandle(ObjectInputStream in) throws IOException, ClassNotFoundException {
+            return null;
+        }
+    }
+}
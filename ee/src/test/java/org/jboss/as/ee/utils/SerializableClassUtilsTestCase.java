@@ -0,0 +1,73 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ee.utils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.jboss.as.server.deployment.annotation.CompositeIndex;
+import org.jboss.jandex.Index;
+import org.jboss.jandex.Indexer;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests {@link SerializableClassUtils}.
+ */
+public class SerializableClassUtilsTestCase {
+
+    @Test
+    public void testSerializableClassNames() throws IOException {
+        Index index = index(Unserializable.class, SerializableSubclass.class, SerializableClass.class, Serializable.class);
+
+        Assert.assertEquals(Arrays.asList(SerializableClass.class.getName(), SerializableSubclass.class.getName()), SerializableClassUtils.getSerializableClassNames(new CompositeIndex(Collections.singleton(index))));
+    }
+
+    @Test
+    public void testNoIndex() {
+        Assert.assertTrue(SerializableClassUtils.getSerializableClassNames(null).isEmpty());
+    }
+
+    private static Index index(Class<?>... classes) throws IOException {
+        Indexer indexer = new Indexer();
+        for (Class<?> indexedClass : classes) {
+            try (InputStream input = indexedClass.getResourceAsStream("/" + indexedClass.getName().replace('.', '/') + ".class")) {
+                indexer.index(input);
+            }
+        }
+        return indexer.complete();
+    }
+
+    static class SerializableClass implements Serializable {
+        private static final long serialVersionUID = 1L;
+    }
+
+    static class SerializableSubclass extends SerializableClass {
+        private static final long serialVersionUID = 1L;
+    }
+
+    static class Unserializable {
+    }
+}
@@ -95,4 +95,14 @@ public interface Cache<K, V extends Identifiable<K>> extends AffinitySupport<K>,
     int getPassivatedCount();
 
     int getTotalSize();
+
+    /**
+     * @return the average time in ms between the moment beans became eligible for expiration and their removal
+     */
+    long getExpirationLag();
+
+    /**
+     * @return the longest time in ms between the moment a bean became eligible for expiration and its removal
+     */
+    long getMaxExpirationLag();
 }
@@ -189,4 +189,14 @@ public class DistributableCache<K, V extends Identifiable<K> & Contextual<Batch>
     public int getTotalSize() {
         return this.manager.getActiveCount() + this.manager.getPassiveCount();
     }
+
+    @Override
+    public long getExpirationLag() {
+        return this.manager.getExpirationLag();
+    }
+
+    @Override
+    public long getMaxExpirationLag() {
+        return this.manager.getMaxExpirationLag();
+    }
 }
@@ -29,6 +29,7 @@ import java.util.concurrent.Future;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.jboss.as.ejb3.logging.EjbLogger;
 import org.jboss.as.ejb3.cache.Cache;
@@ -57,6 +58,9 @@ public class SimpleCache<K, V extends Identifiable<K>> implements Cache<K, V> {
     private final StatefulTimeoutInfo timeout;
     private final ServerEnvironment environment;
     private final ScheduledExecutorService executor;
+    private final AtomicLong expiredCount = new AtomicLong();
+    private final AtomicLong totalExpirationLag = new AtomicLong();
+    private final AtomicLong maxExpirationLag = new AtomicLong();
 
     public SimpleCache(StatefulObjectFactory<V> factory, IdentifierFactory<K> identifierFactory, StatefulTimeoutInfo timeout, ServerEnvironment environment, ScheduledExecutorService executor) {
         this.factory = factory;
@@ -159,7 +163,7 @@ public class SimpleCache<K, V extends Identifiable<K>> implements Cache<K, V> {
                 long value = this.timeout.getValue();
                 if (value > 0) {
                     TimeUnit unit = this.timeout.getTimeUnit();
-                    RemoveTask task = new RemoveTask(id);
+                    RemoveTask task = new RemoveTask(id, System.currentTimeMillis() + unit.toMillis(value));
                     // Make sure the expiration future map insertion happens before map removal (during task execution).
                     synchronized (task) {
                         this.expirationFutures.put(id, this.executor.schedule(task, value, unit));
@@ -188,16 +192,40 @@ public class SimpleCache<K, V extends Identifiable<K>> implements Cache<K, V> {
         return this.getCacheSize();
     }
 
+    @Override
+    public long getExpirationLag() {
+        long count = this.expiredCount.get();
+        return (count > 0) ? this.totalExpirationLag.get() / count : 0;
+    }
+
+    @Override
+    public long getMaxExpirationLag() {
+        return this.maxExpirationLag.get();
+    }
+
+    void recordMaxLag(long lag) {
+        long max = this.maxExpirationLag.get();
+        while (lag > max && !this.maxExpirationLag.compareAndSet(max, lag)) {
+            max = this.maxExpirationLag.get();
+        }
+    }
+
     class RemoveTask implements Runnable {
         private final K key;
+        private final long expiration;
 
-        RemoveTask(K key) {
+        RemoveTask(K key, long expiration) {
             this.key = key;
+            this.expiration = expiration;
         }
 
         @Override
         public synchronized void run() {
             if (!Thread.currentThread().isInterrupted()) {
+                long lag = Math.max(System.currentTimeMillis() - this.expiration, 0);
+                SimpleCache.this.totalExpirationLag.addAndGet(lag);
+                SimpleCache.this.recordMaxLag(lag);
+                SimpleCache.this.expiredCount.incrementAndGet();
                 SimpleCache.this.remove(this.key);
             }
             SimpleCache.this.expirationFutures.remove(this.key);
@@ -23,6 +23,7 @@ package org.jboss.as.ejb3.component.concurrent;
 
 import org.jboss.as.ee.component.interceptors.InvocationType;
 import org.jboss.as.ee.concurrent.handle.ContextHandleFactory;
+import org.jboss.as.ee.concurrent.handle.NullContextHandle;
 import org.jboss.as.ee.concurrent.handle.ResetContextHandle;
 import org.jboss.as.ee.concurrent.handle.SetupContextHandle;
 import org.jboss.as.ejb3.context.CurrentInvocationContext;
@@ -49,7 +50,9 @@ public class EJBContextHandleFactory implements ContextHandleFactory {
 
     @Override
     public SetupContextHandle saveContext(ContextService contextService, Map<String, String> contextObjectProperties) {
-        return new EJBContextHandle();
+        final InterceptorContext interceptorContext = CurrentInvocationContext.get();
+        // outside of an ejb invocation there is no context to save
+        return interceptorContext != null ? new EJBContextHandle(interceptorContext) : NullContextHandle.INSTANCE;
     }
 
     @Override
@@ -76,15 +79,10 @@ public class EJBContextHandleFactory implements ContextHandleFactory {
 
         private final transient InterceptorContext interceptorContext;
 
-        private EJBContextHandle() {
-            final InterceptorContext interceptorContext = CurrentInvocationContext.get();
-            if(interceptorContext != null) {
-                this.interceptorContext = interceptorContext.clone();
-                // overwrite invocation type so EE concurrency tasks have special access to resources such as the user tx
-                this.interceptorContext.putPrivateData(InvocationType.class, InvocationType.CONCURRENT_CONTEXT);
-            } else {
-                this.interceptorContext = null;
-            }
+        private EJBContextHandle(InterceptorContext interceptorContext) {
+            this.interceptorContext = interceptorContext.clone();
+            // overwrite invocation type so EE concurrency tasks have special access to resources such as the user tx
+            this.interceptorContext.putPrivateData(InvocationType.class, InvocationType.CONCURRENT_CONTEXT);
         }
 
         @Override
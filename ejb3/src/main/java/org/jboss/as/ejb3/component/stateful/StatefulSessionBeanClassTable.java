@@ -50,7 +50,7 @@ import org.jboss.ejb.client.SessionID;
  */
 public class StatefulSessionBeanClassTable extends SimpleClassTable {
 
-    private static Class<?>[] classes = new Class<?>[] {
+    static final Class<?>[] CLASSES = new Class<?>[] {
         SessionContext.class,
         UserTransaction.class,
         EntityManager.class,
@@ -78,6 +78,6 @@ public class StatefulSessionBeanClassTable extends SimpleClassTable {
     };
 
     public StatefulSessionBeanClassTable() {
-        super(classes);
+        super(CLASSES);
     }
 }
@@ -21,15 +21,17 @@
  */
 package org.jboss.as.ejb3.component.stateful;
 
+import java.util.Collection;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
+import org.jboss.as.clustering.marshalling.DynamicClassTable;
 import org.jboss.as.clustering.marshalling.MarshallingConfigurationFactory;
 import org.jboss.as.clustering.marshalling.VersionedMarshallingConfiguration;
 import org.jboss.as.ejb3.logging.EjbLogger;
 import org.jboss.as.ejb3.deployment.ModuleDeployment;
 import org.jboss.marshalling.MarshallingConfiguration;
-import org.jboss.modules.ModuleLoader;
+import org.jboss.modules.Module;
 import org.jboss.msc.service.Service;
 import org.jboss.msc.service.ServiceName;
 import org.jboss.msc.service.StartContext;
@@ -45,25 +47,37 @@ public class VersionedMarshallingConfigurationService implements Service<Version
         return deploymentUnitServiceName.append("marshalling");
     }
 
-    private static final int CURRENT_VERSION = 1;
+    // Version 1 only recognizes the classes of the stateful session bean container, version 2 also recognizes the serializable classes of the deployment.
+    // Older releases cannot read version 2, so it is only written if enabled via MarshallingConfigurationFactory.DEPLOYMENT_CLASS_TABLE_ENABLED.
+    private static final int DEFAULT_VERSION = 1;
+    private static final int DEPLOYMENT_CLASS_TABLE_VERSION = 2;
 
     private final Map<Integer, MarshallingConfiguration> configurations = new ConcurrentHashMap<>();
     private final Value<ModuleDeployment> deployment;
-    private final Value<ModuleLoader> loader;
+    private final Value<Module> module;
+    private final Collection<String> serializableClassNames;
+    private final int currentVersion = MarshallingConfigurationFactory.isDeploymentClassTableEnabled() ? DEPLOYMENT_CLASS_TABLE_VERSION : DEFAULT_VERSION;
 
-    public VersionedMarshallingConfigurationService(Value<ModuleDeployment> deployment, Value<ModuleLoader> loader) {
+    public VersionedMarshallingConfigurationService(Value<ModuleDeployment> deployment, Value<Module> module, Collection<String> serializableClassNames) {
         this.deployment = deployment;
-        this.loader = loader;
+        this.module = module;
+        this.serializableClassNames = serializableClassNames;
     }
 
     @Override
     public void start(StartContext context) {
-        MarshallingConfiguration config = MarshallingConfigurationFactory.createMarshallingConfiguration(this.loader.getValue());
+        Module module = this.module.getValue();
+        MarshallingConfiguration config = MarshallingConfigurationFactory.createMarshallingConfiguration(module.getModuleLoader());
         config.setSerializabilityChecker(new StatefulSessionBeanSerializabilityChecker(this.deployment.getValue()));
         config.setClassTable(new StatefulSessionBeanClassTable());
         config.setObjectTable(new EJBClientContextIdentifierObjectTable());
+        this.configurations.put(DEFAULT_VERSION, config);
 
-        this.configurations.put(CURRENT_VERSION, config);
+        DynamicClassTable table = new DynamicClassTable(module.getClassLoader(), this.serializableClassNames, StatefulSessionBeanClassTable.CLASSES);
+        MarshallingConfiguration deploymentConfig = MarshallingConfigurationFactory.createMarshallingConfiguration(module.getModuleLoader(), table);
+        deploymentConfig.setSerializabilityChecker(new StatefulSessionBeanSerializabilityChecker(this.deployment.getValue()));
+        deploymentConfig.setObjectTable(new EJBClientContextIdentifierObjectTable());
+        this.configurations.put(DEPLOYMENT_CLASS_TABLE_VERSION, deploymentConfig);
     }
 
     @Override
@@ -78,7 +92,7 @@ public class VersionedMarshallingConfigurationService implements Service<Version
 
     @Override
     public int getCurrentMarshallingVersion() {
-        return CURRENT_VERSION;
+        return this.currentVersion;
     }
 
     @Override
@@ -3028,4 +3028,40 @@ public interface EjbLogger extends BasicLogger {
 
     @Message(id = 464, value = "The \"" + EJB3SubsystemModel.DISABLE_DEFAULT_EJB_PERMISSIONS + "\" attribute may not be set to true")
     OperationFailedException disableDefaultEjbPermissionsCannotBeTrue();
+
+    /**
+     * Logs an error message indicating that a task scheduled on the timer wheel threw an exception
+     */
+    @LogMessage(level = ERROR)
+    @Message(id = 465, value = "Failed to run scheduled timer task %s")
+    void failedToRunScheduledTimerTask(Object task, @Cause Throwable cause);
+
+    /**
+     * Logs a warning message indicating that the pending timer changes could not be written to the database
+     */
+    @LogMessage(level = WARN)
+    @Message(id = 466, value = "Failed to write %d pending timer changes to the database, they will be retried")
+    void timerWriteBehindFlushFailed(int count, @Cause Throwable cause);
+
+    /**
+     * Logs a warning message indicating that the rows of removed timers could not be deleted from the database
+     */
+    @LogMessage(level = WARN)
+    @Message(id = 467, value = "Failed to purge cancelled and expired timers of partition %s from the database")
+    void failedToPurgeRemovedTimers(String partition, @Cause Throwable cause);
+
+    /**
+     * Logs a warning message indicating that a timer journal segment ends with an incomplete or corrupt record
+     */
+    @LogMessage(level = WARN)
+    @Message(id = 468, value = "Timer journal segment %s is incomplete or corrupt after offset %d, the remaining records are ignored")
+    void timerJournalTruncated(File segment, long offset);
+
+    /**
+     * Creates an exception indicating that a bean instance pool of another type with the same name already exists
+     *
+     * @return an {@link OperationFailedException} for the error.
+     */
+    @Message(id = 469, value = "A bean instance pool named %s is already defined as a %s")
+    OperationFailedException beanInstancePoolAlreadyDefined(String poolName, String poolType);
 }
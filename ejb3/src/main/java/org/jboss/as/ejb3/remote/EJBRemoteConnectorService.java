@@ -24,6 +24,7 @@ package org.jboss.as.ejb3.remote;
 import org.jboss.as.ejb3.logging.EjbLogger;
 import org.jboss.as.ejb3.deployment.DeploymentRepository;
 import org.jboss.as.ejb3.remote.protocol.versionone.ChannelAssociation;
+import org.jboss.as.ejb3.remote.protocol.versionone.ChannelStatistics;
 import org.jboss.as.ejb3.remote.protocol.versionone.VersionOneProtocolChannelReceiver;
 import org.jboss.as.ejb3.remote.protocol.versiontwo.VersionTwoProtocolChannelReceiver;
 import org.jboss.as.network.ClientMapping;
@@ -61,6 +62,8 @@ import java.net.InetSocketAddress;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 
 /**
@@ -86,6 +89,9 @@ public class EJBRemoteConnectorService implements Service<EJBRemoteConnectorServ
     private final byte serverProtocolVersion;
     private final String[] supportedMarshallingStrategies;
     private final OptionMap channelCreationOptions;
+    // the statistics of the open channels, and the sum of the statistics of the channels which were closed
+    private final Set<ChannelStatistics> openChannelStatistics = Collections.newSetFromMap(new ConcurrentHashMap<ChannelStatistics, Boolean>());
+    private final ChannelStatistics closedChannelStatistics = new ChannelStatistics();
 
     public EJBRemoteConnectorService(final byte serverProtocolVersion, final String[] supportedMarshallingStrategies) {
         this(serverProtocolVersion, supportedMarshallingStrategies, OptionMap.EMPTY);
@@ -124,6 +130,29 @@ public class EJBRemoteConnectorService implements Service<EJBRemoteConnectorServ
         EJBClientTransactionContext.setSelector(new ConstantContextSelector<EJBClientTransactionContext>(null));
     }
 
+    /**
+     * Returns the number of open EJB remoting channels
+     *
+     * @return
+     */
+    public int getChannelCount() {
+        return this.openChannelStatistics.size();
+    }
+
+    /**
+     * Returns the invocation statistics of all channels, open or closed, that were opened since this service started
+     *
+     * @return
+     */
+    public ChannelStatistics getStatistics() {
+        final ChannelStatistics statistics = new ChannelStatistics();
+        statistics.add(this.closedChannelStatistics);
+        for (ChannelStatistics channelStatistics : this.openChannelStatistics) {
+            statistics.add(channelStatistics);
+        }
+        return statistics;
+    }
+
     public String getProtocol() {
         return remotingConnectorInfoInjectedValue.getValue().getProtocol();
     }
@@ -185,13 +214,17 @@ public class EJBRemoteConnectorService implements Service<EJBRemoteConnectorServ
         @Override
         public void channelOpened(Channel channel) {
             final ChannelAssociation channelAssociation = new ChannelAssociation(channel);
+            final ChannelStatistics statistics = channelAssociation.getStatistics();
+            EJBRemoteConnectorService.this.openChannelStatistics.add(statistics);
 
             EjbLogger.ROOT_LOGGER.tracef("Welcome %s to the " + EJB_CHANNEL_NAME + " channel", channel);
             channel.addCloseHandler(new CloseHandler<Channel>() {
                 @Override
                 public void handleClose(Channel closed, IOException exception) {
-                    // do nothing
                     EjbLogger.ROOT_LOGGER.tracef("channel %s closed", closed);
+                    if (EJBRemoteConnectorService.this.openChannelStatistics.remove(statistics)) {
+                        EJBRemoteConnectorService.this.closedChannelStatistics.add(statistics);
+                    }
                 }
             });
             // send the server version and supported marshalling types to the client
@@ -190,6 +190,19 @@ public abstract class AbstractMessageHandler implements MessageHandler {
      */
     protected org.jboss.marshalling.Marshaller prepareForMarshalling(final org.jboss.marshalling.MarshallerFactory marshallerFactory, final DataOutput dataOutput) throws IOException {
         final org.jboss.marshalling.Marshaller marshaller = this.getMarshaller(marshallerFactory);
+        this.startMarshalling(marshaller, dataOutput);
+        return marshaller;
+    }
+
+    /**
+     * Starts the passed {@link org.jboss.marshalling.Marshaller}, which can be a marshaller that previously {@link org.jboss.marshalling.Marshaller#finish() finished}
+     * marshalling to another output, so that it marshalls to the passed {@link java.io.DataOutput dataOutput}
+     *
+     * @param marshaller The marshaller
+     * @param dataOutput The {@link java.io.DataOutput} to which the data will be marshalled
+     * @throws IOException
+     */
+    protected void startMarshalling(final org.jboss.marshalling.Marshaller marshaller, final DataOutput dataOutput) throws IOException {
         final OutputStream outputStream = new OutputStream() {
             @Override
             public void write(int b) throws IOException {
@@ -210,8 +223,6 @@ public abstract class AbstractMessageHandler implements MessageHandler {
         final ByteOutput byteOutput = Marshalling.createByteOutput(outputStream);
         // start the marshaller
         marshaller.start(byteOutput);
-
-        return marshaller;
     }
 
     /**
@@ -221,7 +232,7 @@ public abstract class AbstractMessageHandler implements MessageHandler {
      * @return
      * @throws IOException
      */
-    private org.jboss.marshalling.Marshaller getMarshaller(final org.jboss.marshalling.MarshallerFactory marshallerFactory) throws IOException {
+    protected org.jboss.marshalling.Marshaller getMarshaller(final org.jboss.marshalling.MarshallerFactory marshallerFactory) throws IOException {
         final MarshallingConfiguration marshallingConfiguration = new MarshallingConfiguration();
         marshallingConfiguration.setClassTable(ProtocolV1ClassTable.INSTANCE);
         marshallingConfiguration.setObjectTable(ProtocolV1ObjectTable.INSTANCE);
@@ -242,6 +253,19 @@ public abstract class AbstractMessageHandler implements MessageHandler {
      */
     protected Unmarshaller prepareForUnMarshalling(final MarshallerFactory marshallerFactory, final ClassResolver classResolver, final DataInputStream dataInput) throws IOException {
         final Unmarshaller unmarshaller = this.getUnMarshaller(marshallerFactory, classResolver);
+        this.startUnMarshalling(unmarshaller, dataInput);
+        return unmarshaller;
+    }
+
+    /**
+     * Starts the passed {@link org.jboss.marshalling.Unmarshaller}, which can be an unmarshaller that previously {@link org.jboss.marshalling.Unmarshaller#finish() finished}
+     * unmarshalling from another input, so that it unmarshalls from the passed {@link java.io.DataInput dataInput}
+     *
+     * @param unmarshaller The unmarshaller
+     * @param dataInput    The data input from which to unmarshall
+     * @throws IOException
+     */
+    protected void startUnMarshalling(final Unmarshaller unmarshaller, final DataInputStream dataInput) throws IOException {
         final InputStream is = new InputStream() {
             @Override
             public int read() throws IOException {
@@ -267,8 +291,6 @@ public abstract class AbstractMessageHandler implements MessageHandler {
         final ByteInput byteInput = Marshalling.createByteInput(is);
         // start the unmarshaller
         unmarshaller.start(byteInput);
-
-        return unmarshaller;
     }
 
     /**
@@ -278,7 +300,7 @@ public abstract class AbstractMessageHandler implements MessageHandler {
      * @return
      * @throws IOException
      */
-    private Unmarshaller getUnMarshaller(final MarshallerFactory marshallerFactory, final ClassResolver classResolver) throws IOException {
+    protected Unmarshaller getUnMarshaller(final MarshallerFactory marshallerFactory, final ClassResolver classResolver) throws IOException {
         final MarshallingConfiguration marshallingConfiguration = new MarshallingConfiguration();
         marshallingConfiguration.setVersion(2);
         marshallingConfiguration.setClassTable(ProtocolV1ClassTable.INSTANCE);
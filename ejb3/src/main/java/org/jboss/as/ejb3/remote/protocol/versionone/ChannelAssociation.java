@@ -42,6 +42,8 @@ public class ChannelAssociation {
     // to make sure that only a limited number of simultaneous writes are allowed
     private final Semaphore channelWriteSemaphore;
 
+    private final ChannelStatistics statistics = new ChannelStatistics();
+
     public ChannelAssociation(final Channel channel) {
         this.channel = channel;
 
@@ -92,4 +94,12 @@ public class ChannelAssociation {
         return this.channel;
     }
 
+    /**
+     * Returns the invocation statistics of the {@link Channel} represented by this {@link ChannelAssociation}
+     *
+     * @return
+     */
+    public ChannelStatistics getStatistics() {
+        return this.statistics;
+    }
 }
@@ -0,0 +1,76 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright (c) 2014, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.remote.protocol.versionone;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Invocation statistics of an EJB remoting channel, or of several channels once they are {@link #add(ChannelStatistics) added} up.
+ */
+public class ChannelStatistics {
+
+    private final AtomicLong invocations = new AtomicLong();
+    private final AtomicLong totalInvocationTime = new AtomicLong();
+    private final AtomicLong maxInvocationTime = new AtomicLong();
+
+    /**
+     * Records a completed invocation.
+     *
+     * @param nanos the time in nanoseconds from the arrival of the invocation message until the response was written
+     */
+    public void invocationCompleted(final long nanos) {
+        this.invocations.incrementAndGet();
+        this.totalInvocationTime.addAndGet(nanos);
+        long max = this.maxInvocationTime.get();
+        while (nanos > max && !this.maxInvocationTime.compareAndSet(max, nanos)) {
+            max = this.maxInvocationTime.get();
+        }
+    }
+
+    /**
+     * Adds the invocations recorded by the passed statistics to these statistics
+     *
+     * @param statistics the statistics of another channel
+     */
+    public void add(final ChannelStatistics statistics) {
+        this.invocations.addAndGet(statistics.invocations.get());
+        this.totalInvocationTime.addAndGet(statistics.totalInvocationTime.get());
+        final long nanos = statistics.maxInvocationTime.get();
+        long max = this.maxInvocationTime.get();
+        while (nanos > max && !this.maxInvocationTime.compareAndSet(max, nanos)) {
+            max = this.maxInvocationTime.get();
+        }
+    }
+
+    public long getInvocationCount() {
+        return this.invocations.get();
+    }
+
+    public long getTotalInvocationTime(final TimeUnit unit) {
+        return unit.convert(this.totalInvocationTime.get(), TimeUnit.NANOSECONDS);
+    }
+
+    public long getMaxInvocationTime(final TimeUnit unit) {
+        return unit.convert(this.maxInvocationTime.get(), TimeUnit.NANOSECONDS);
+    }
+}
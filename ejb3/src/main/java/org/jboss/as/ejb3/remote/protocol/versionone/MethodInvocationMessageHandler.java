@@ -23,6 +23,7 @@
 package org.jboss.as.ejb3.remote.protocol.versionone;
 
 import java.io.DataInputStream;
+import java.io.DataOutput;
 import java.io.DataOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
@@ -30,7 +31,9 @@ import java.io.ObjectStreamException;
 import java.lang.reflect.Method;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
 
@@ -73,9 +76,14 @@ class MethodInvocationMessageHandler extends EJBIdentifierBasedMessageHandler {
     private static final byte HEADER_METHOD_INVOCATION_RESPONSE = 0x05;
     private static final byte HEADER_ASYNC_METHOD_NOTIFICATION = 0x0E;
 
+    // the number of idle unmarshallers and marshallers that are kept for reuse by the handler of a channel
+    static final int MARSHALLER_POOL_SIZE = 8;
+
     private final ExecutorService executorService;
     private final MarshallerFactory marshallerFactory;
     private final RemoteAsyncInvocationCancelStatusService remoteAsyncInvocationCancelStatus;
+    private final Queue<PooledUnmarshaller> unmarshallers = new ArrayBlockingQueue<PooledUnmarshaller>(MARSHALLER_POOL_SIZE);
+    private final Queue<Marshaller> marshallers = new ArrayBlockingQueue<Marshaller>(MARSHALLER_POOL_SIZE);
 
     MethodInvocationMessageHandler(final DeploymentRepository deploymentRepository, final org.jboss.marshalling.MarshallerFactory marshallerFactory, final ExecutorService executorService,
                                    final RemoteAsyncInvocationCancelStatusService asyncInvocationCancelStatus) {
@@ -87,6 +95,7 @@ class MethodInvocationMessageHandler extends EJBIdentifierBasedMessageHandler {
 
     @Override
     public void processMessage(final ChannelAssociation channelAssociation, final InputStream inputStream) throws IOException {
+        final long start = System.nanoTime();
 
         final DataInputStream input = new DataInputStream(inputStream);
         // read the invocation id
@@ -105,9 +114,11 @@ class MethodInvocationMessageHandler extends EJBIdentifierBasedMessageHandler {
 
         // read the Locator
         // we use a mutable ClassResolver, so that we can switch to a different (and correct deployment CL)
-        // midway through the unmarshalling of the stream
-        final ClassLoaderSwitchingClassResolver classResolver = new ClassLoaderSwitchingClassResolver(Thread.currentThread().getContextClassLoader());
-        final Unmarshaller unmarshaller = this.prepareForUnMarshalling(this.marshallerFactory, classResolver, input);
+        // midway through the unmarshalling of the stream. Unmarshallers are reused, along with their ClassResolver,
+        // once they have finished unmarshalling an invocation
+        final PooledUnmarshaller pooledUnmarshaller = this.startPooledUnmarshaller(input, Thread.currentThread().getContextClassLoader());
+        final ClassLoaderSwitchingClassResolver classResolver = pooledUnmarshaller.classResolver;
+        final Unmarshaller unmarshaller = pooledUnmarshaller.unmarshaller;
         // read the EJB info
         final String appName;
         final String moduleName;
@@ -177,7 +188,7 @@ class MethodInvocationMessageHandler extends EJBIdentifierBasedMessageHandler {
                 return;
             }
             // done with unmarshalling
-            unmarshaller.finish();
+            this.finishPooledUnmarshaller(pooledUnmarshaller);
 
             runnable = new Runnable() {
 
@@ -261,7 +272,7 @@ class MethodInvocationMessageHandler extends EJBIdentifierBasedMessageHandler {
             WildFlySecurityManager.setCurrentContextClassLoaderPrivileged(tccl);
         }
         // invoke the method and write out the response on a separate thread
-        executorService.submit(runnable);
+        executorService.submit(new StatisticsRecordingTask(runnable, channelAssociation.getStatistics(), start));
     }
 
     private Affinity getWeakAffinity(final StatefulSessionComponent statefulSessionComponent, final StatefulEJBLocator<?> statefulEJBLocator) {
@@ -370,12 +381,12 @@ class MethodInvocationMessageHandler extends EJBIdentifierBasedMessageHandler {
             // write the invocation id
             outputStream.writeShort(invocationId);
             // write out the result
-            final Marshaller marshaller = this.prepareForMarshalling(this.marshallerFactory, outputStream);
+            final Marshaller marshaller = this.startPooledMarshaller(outputStream);
             marshaller.writeObject(result);
             // write the attachments
             this.writeAttachments(marshaller, attachments);
-            // finish marshalling
-            marshaller.finish();
+            // finish marshalling. A marshaller which failed is not reused
+            this.finishPooledMarshaller(marshaller);
         } finally {
             channelAssociation.releaseChannelMessageOutputStream(messageOutputStream);
             outputStream.close();
@@ -403,10 +414,109 @@ class MethodInvocationMessageHandler extends EJBIdentifierBasedMessageHandler {
         }
     }
 
+    /**
+     * Starts an idle unmarshaller of this handler, or a new one if none is idle, on the passed input
+     *
+     * @param input       The data input from which to unmarshall
+     * @param classLoader The class loader which the unmarshaller resolves classes with, until it is switched
+     * @return
+     * @throws IOException
+     */
+    PooledUnmarshaller startPooledUnmarshaller(final DataInputStream input, final ClassLoader classLoader) throws IOException {
+        PooledUnmarshaller pooledUnmarshaller = this.unmarshallers.poll();
+        if (pooledUnmarshaller == null) {
+            pooledUnmarshaller = new PooledUnmarshaller();
+        }
+        pooledUnmarshaller.classResolver.switchClassLoader(classLoader);
+        this.startUnMarshalling(pooledUnmarshaller.unmarshaller, input);
+        return pooledUnmarshaller;
+    }
+
+    /**
+     * Finishes an unmarshaller started by {@link #startPooledUnmarshaller(DataInputStream, ClassLoader)}, and keeps it
+     * for reuse unless enough unmarshallers are idle
+     *
+     * @param pooledUnmarshaller The unmarshaller
+     * @throws IOException
+     */
+    void finishPooledUnmarshaller(final PooledUnmarshaller pooledUnmarshaller) throws IOException {
+        pooledUnmarshaller.unmarshaller.finish();
+        // don't hold on to the deployment CL while the unmarshaller is idle
+        pooledUnmarshaller.classResolver.switchClassLoader(null);
+        this.unmarshallers.offer(pooledUnmarshaller);
+    }
+
+    /**
+     * Starts an idle marshaller of this handler, or a new one if none is idle, on the passed output
+     *
+     * @param output The {@link DataOutput} to which the data will be marshalled
+     * @return
+     * @throws IOException
+     */
+    Marshaller startPooledMarshaller(final DataOutput output) throws IOException {
+        Marshaller marshaller = this.marshallers.poll();
+        if (marshaller == null) {
+            marshaller = this.getMarshaller(this.marshallerFactory);
+        }
+        this.startMarshalling(marshaller, output);
+        return marshaller;
+    }
+
+    /**
+     * Finishes a marshaller started by {@link #startPooledMarshaller(DataOutput)}, and keeps it for reuse unless enough
+     * marshallers are idle
+     *
+     * @param marshaller The marshaller
+     * @throws IOException
+     */
+    void finishPooledMarshaller(final Marshaller marshaller) throws IOException {
+        marshaller.finish();
+        this.marshallers.offer(marshaller);
+    }
+
+    /**
+     * Records the time taken by an invocation, from the arrival of its message until its response was written, in the
+     * statistics of the channel
+     */
+    private static class StatisticsRecordingTask implements Runnable {
+
+        private final Runnable task;
+        private final ChannelStatistics statistics;
+        private final long start;
+
+        StatisticsRecordingTask(final Runnable task, final ChannelStatistics statistics, final long start) {
+            this.task = task;
+            this.statistics = statistics;
+            this.start = start;
+        }
+
+        @Override
+        public void run() {
+            try {
+                this.task.run();
+            } finally {
+                this.statistics.invocationCompleted(System.nanoTime() - this.start);
+            }
+        }
+    }
+
+    /**
+     * An {@link Unmarshaller} along with the {@link ClassLoaderSwitchingClassResolver} it was created with
+     */
+    class PooledUnmarshaller {
+
+        final ClassLoaderSwitchingClassResolver classResolver = new ClassLoaderSwitchingClassResolver(null);
+        final Unmarshaller unmarshaller;
+
+        PooledUnmarshaller() throws IOException {
+            this.unmarshaller = MethodInvocationMessageHandler.this.getUnMarshaller(MethodInvocationMessageHandler.this.marshallerFactory, this.classResolver);
+        }
+    }
+
     /**
      * A mutable {@link org.jboss.marshalling.ClassResolver}
      */
-    private class ClassLoaderSwitchingClassResolver extends AbstractClassResolver {
+    class ClassLoaderSwitchingClassResolver extends AbstractClassResolver {
 
         private ClassLoader currentClassLoader;
 
@@ -32,6 +32,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 import org.jboss.as.ejb3.logging.EjbLogger;
 import org.jboss.as.ejb3.deployment.DeploymentModuleIdentifier;
@@ -75,6 +76,9 @@ public class VersionOneProtocolChannelReceiver implements Channel.Receiver, Depl
     protected final RegistryCollector<String, List<ClientMapping>> clientMappingRegistryCollector;
     protected final Set<ClusterTopologyUpdateListener> clusterTopologyUpdateListeners = Collections.synchronizedSet(new HashSet<ClusterTopologyUpdateListener>());
     protected final RemoteAsyncInvocationCancelStatusService remoteAsyncInvocationCancelStatus;
+    // the message handlers of this channel, by header. Message handlers don't hold any per message state, so they are
+    // created on first use and then reused for all messages with the same header
+    private final AtomicReferenceArray<MessageHandler> messageHandlers = new AtomicReferenceArray<MessageHandler>(256);
 
     public VersionOneProtocolChannelReceiver(final ChannelAssociation channelAssociation, final DeploymentRepository deploymentRepository,
                                              final EJBRemoteTransactionsRepository transactionsRepository, final RegistryCollector<String, List<ClientMapping>> clientMappingRegistryCollector,
@@ -186,13 +190,26 @@ public class VersionOneProtocolChannelReceiver implements Channel.Receiver, Depl
         }
     }
 
+    MessageHandler getCachedMessageHandler(final byte header) {
+        final int index = header & 0xFF;
+        final MessageHandler cached = this.messageHandlers.get(index);
+        if (cached != null) {
+            return cached;
+        }
+        final MessageHandler messageHandler = getMessageHandler(header);
+        if (messageHandler == null || this.messageHandlers.compareAndSet(index, null, messageHandler)) {
+            return messageHandler;
+        }
+        return this.messageHandlers.get(index);
+    }
+
     protected void processMessage(final Channel channel, final InputStream inputStream) throws IOException {
         // read the first byte to see what type of a message it is
         final int header = inputStream.read();
         if (EjbLogger.ROOT_LOGGER.isTraceEnabled()) {
             EjbLogger.ROOT_LOGGER.trace("Got message with header 0x" + Integer.toHexString(header) + " on channel " + channel);
         }
-        final MessageHandler messageHandler = getMessageHandler((byte) header);
+        final MessageHandler messageHandler = getCachedMessageHandler((byte) header);
         if (messageHandler == null) {
             // enroll for next message (whenever it's available)
             channel.receiveMessage(this);
@@ -26,19 +26,28 @@ import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.Map;
 
+import org.jboss.as.controller.AbstractRuntimeOnlyHandler;
 import org.jboss.as.controller.AttributeDefinition;
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.PathAddress;
 import org.jboss.as.controller.ReloadRequiredWriteAttributeHandler;
 import org.jboss.as.controller.ServiceRemoveStepHandler;
 import org.jboss.as.controller.SimpleAttributeDefinition;
 import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
 import org.jboss.as.controller.SimpleResourceDefinition;
+import org.jboss.as.controller.client.helpers.MeasurementUnit;
+import org.jboss.as.controller.descriptions.ModelDescriptionConstants;
+import org.jboss.as.controller.operations.validation.IntRangeValidator;
 import org.jboss.as.controller.operations.validation.ModelTypeValidator;
 import org.jboss.as.controller.operations.validation.StringLengthValidator;
 import org.jboss.as.controller.registry.AttributeAccess;
 import org.jboss.as.controller.registry.ManagementResourceRegistration;
 import org.jboss.as.ejb3.timerservice.persistence.TimerPersistence;
+import org.jboss.as.ejb3.timerservice.persistence.database.DatabaseTimerPersistence;
 import org.jboss.dmr.ModelNode;
 import org.jboss.dmr.ModelType;
+import org.jboss.msc.service.ServiceController;
 
 /**
  * {@link org.jboss.as.controller.ResourceDefinition} for the databse data store resource.
@@ -85,6 +94,68 @@ public class DatabaseDataStoreResourceDefinition extends SimpleResourceDefinitio
                     .setDefaultValue(new ModelNode(true))
                     .build();
 
+    public static final SimpleAttributeDefinition WRITE_BEHIND_BATCH_SIZE =
+            new SimpleAttributeDefinitionBuilder(EJB3SubsystemModel.WRITE_BEHIND_BATCH_SIZE, ModelType.INT, true)
+                    .setAllowExpression(true)
+                    .setFlags(AttributeAccess.Flag.RESTART_RESOURCE_SERVICES)
+                    .setValidator(new IntRangeValidator(0, Integer.MAX_VALUE, true, true))
+                    .setDefaultValue(new ModelNode(0))
+                    .build();
+
+    public static final SimpleAttributeDefinition WRITE_BEHIND_FLUSH_INTERVAL =
+            new SimpleAttributeDefinitionBuilder(EJB3SubsystemModel.WRITE_BEHIND_FLUSH_INTERVAL, ModelType.INT, true)
+                    .setAllowExpression(true)
+                    .setFlags(AttributeAccess.Flag.RESTART_RESOURCE_SERVICES)
+                    .setValidator(new IntRangeValidator(1, Integer.MAX_VALUE, true, true))
+                    .setDefaultValue(new ModelNode(100))
+                    .build();
+
+    public static final SimpleAttributeDefinition KEEP_REMOVED_TIMERS =
+            new SimpleAttributeDefinitionBuilder(EJB3SubsystemModel.KEEP_REMOVED_TIMERS, ModelType.BOOLEAN, true)
+                    .setAllowExpression(true)
+                    .setFlags(AttributeAccess.Flag.RESTART_RESOURCE_SERVICES)
+                    .setDefaultValue(new ModelNode(false))
+                    .build();
+
+    public static final SimpleAttributeDefinition REFRESH_CHANGE_WINDOW =
+            new SimpleAttributeDefinitionBuilder(EJB3SubsystemModel.REFRESH_CHANGE_WINDOW, ModelType.INT, true)
+                    .setAllowExpression(true)
+                    .setFlags(AttributeAccess.Flag.RESTART_RESOURCE_SERVICES)
+                    .setValidator(new IntRangeValidator(0, Integer.MAX_VALUE, true, true))
+                    .setMeasurementUnit(MeasurementUnit.MILLISECONDS)
+                    .setDefaultValue(new ModelNode(300000))
+                    .build();
+
+    static final SimpleAttributeDefinition WRITE_BEHIND_FLUSH_COUNT =
+            new SimpleAttributeDefinitionBuilder(EJB3SubsystemModel.WRITE_BEHIND_FLUSH_COUNT, ModelType.LONG)
+                    .setAllowNull(false)
+                    .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME)
+                    .build();
+
+    static final SimpleAttributeDefinition WRITE_BEHIND_AVERAGE_BATCH_SIZE =
+            new SimpleAttributeDefinitionBuilder(EJB3SubsystemModel.WRITE_BEHIND_AVERAGE_BATCH_SIZE, ModelType.LONG)
+                    .setAllowNull(false)
+                    .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME)
+                    .build();
+
+    static final SimpleAttributeDefinition WRITE_BEHIND_AVERAGE_FLUSH_TIME =
+            new SimpleAttributeDefinitionBuilder(EJB3SubsystemModel.WRITE_BEHIND_AVERAGE_FLUSH_TIME, ModelType.LONG)
+                    .setAllowNull(false)
+                    .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME)
+                    .build();
+
+    static final SimpleAttributeDefinition WRITE_BEHIND_MAX_FLUSH_TIME =
+            new SimpleAttributeDefinitionBuilder(EJB3SubsystemModel.WRITE_BEHIND_MAX_FLUSH_TIME, ModelType.LONG)
+                    .setAllowNull(false)
+                    .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME)
+                    .build();
+
+    static final SimpleAttributeDefinition WRITE_BEHIND_PENDING_WRITES =
+            new SimpleAttributeDefinitionBuilder(EJB3SubsystemModel.WRITE_BEHIND_PENDING_WRITES, ModelType.INT)
+                    .setAllowNull(false)
+                    .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME)
+                    .build();
+
     public static final Map<String, AttributeDefinition> ATTRIBUTES ;
 
     static {
@@ -94,6 +165,10 @@ public class DatabaseDataStoreResourceDefinition extends SimpleResourceDefinitio
         map.put(PARTITION.getName(), PARTITION);
         map.put(REFRESH_INTERVAL.getName(), REFRESH_INTERVAL);
         map.put(ALLOW_EXECUTION.getName(), ALLOW_EXECUTION);
+        map.put(WRITE_BEHIND_BATCH_SIZE.getName(), WRITE_BEHIND_BATCH_SIZE);
+        map.put(WRITE_BEHIND_FLUSH_INTERVAL.getName(), WRITE_BEHIND_FLUSH_INTERVAL);
+        map.put(KEEP_REMOVED_TIMERS.getName(), KEEP_REMOVED_TIMERS);
+        map.put(REFRESH_CHANGE_WINDOW.getName(), REFRESH_CHANGE_WINDOW);
 
         ATTRIBUTES = Collections.unmodifiableMap(map);
     }
@@ -110,5 +185,50 @@ public class DatabaseDataStoreResourceDefinition extends SimpleResourceDefinitio
         for (AttributeDefinition attr : ATTRIBUTES.values()) {
             resourceRegistration.registerReadWriteAttribute(attr, null, new ReloadRequiredWriteAttributeHandler(attr));
         }
+        resourceRegistration.registerMetric(WRITE_BEHIND_FLUSH_COUNT, new WriteBehindMetricsHandler() {
+            @Override
+            protected void executeReadMetricStep(final OperationContext context, final DatabaseTimerPersistence persistence) {
+                context.getResult().set(persistence.getWriteBehindFlushCount());
+            }
+        });
+        resourceRegistration.registerMetric(WRITE_BEHIND_AVERAGE_BATCH_SIZE, new WriteBehindMetricsHandler() {
+            @Override
+            protected void executeReadMetricStep(final OperationContext context, final DatabaseTimerPersistence persistence) {
+                context.getResult().set(persistence.getWriteBehindAverageBatchSize());
+            }
+        });
+        resourceRegistration.registerMetric(WRITE_BEHIND_AVERAGE_FLUSH_TIME, new WriteBehindMetricsHandler() {
+            @Override
+            protected void executeReadMetricStep(final OperationContext context, final DatabaseTimerPersistence persistence) {
+                context.getResult().set(persistence.getWriteBehindAverageFlushTime());
+            }
+        });
+        resourceRegistration.registerMetric(WRITE_BEHIND_MAX_FLUSH_TIME, new WriteBehindMetricsHandler() {
+            @Override
+            protected void executeReadMetricStep(final OperationContext context, final DatabaseTimerPersistence persistence) {
+                context.getResult().set(persistence.getWriteBehindMaxFlushTime());
+            }
+        });
+        resourceRegistration.registerMetric(WRITE_BEHIND_PENDING_WRITES, new WriteBehindMetricsHandler() {
+            @Override
+            protected void executeReadMetricStep(final OperationContext context, final DatabaseTimerPersistence persistence) {
+                context.getResult().set(persistence.getWriteBehindPendingWrites());
+            }
+        });
+    }
+
+    private abstract static class WriteBehindMetricsHandler extends AbstractRuntimeOnlyHandler {
+
+        protected abstract void executeReadMetricStep(final OperationContext context, final DatabaseTimerPersistence persistence);
+
+        @Override
+        protected void executeRuntimeStep(final OperationContext context, final ModelNode operation) throws OperationFailedException {
+            final String name = PathAddress.pathAddress(operation.require(ModelDescriptionConstants.OP_ADDR)).getLastElement().getValue();
+            final ServiceController<?> controller = context.getServiceRegistry(false).getService(TimerPersistence.SERVICE_NAME.append(name));
+            if (controller != null && controller.getState() == ServiceController.State.UP) {
+                executeReadMetricStep(context, (DatabaseTimerPersistence) controller.getValue());
+            }
+            context.stepCompleted();
+        }
     }
 }
@@ -25,8 +25,12 @@ package org.jboss.as.ejb3.subsystem;
 import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
+import org.jboss.as.controller.AbstractRuntimeOnlyHandler;
 import org.jboss.as.controller.AttributeDefinition;
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
 import org.jboss.as.controller.ReloadRequiredWriteAttributeHandler;
 import org.jboss.as.controller.SimpleAttributeDefinition;
 import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
@@ -35,7 +39,11 @@ import org.jboss.as.controller.registry.AttributeAccess;
 import org.jboss.as.controller.registry.ManagementResourceRegistration;
 import org.jboss.as.controller.registry.OperationEntry;
 import org.jboss.as.controller.transform.description.ResourceTransformationDescriptionBuilder;
+import org.jboss.as.ejb3.remote.EJBRemoteConnectorService;
+import org.jboss.as.ejb3.remote.protocol.versionone.ChannelStatistics;
+import org.jboss.dmr.ModelNode;
 import org.jboss.dmr.ModelType;
+import org.jboss.msc.service.ServiceController;
 
 /**
  * A {@link org.jboss.as.controller.ResourceDefinition} for the EJB remote service
@@ -44,8 +52,6 @@ import org.jboss.dmr.ModelType;
  */
 public class EJB3RemoteResourceDefinition extends SimpleResourceDefinition {
 
-    public static final EJB3RemoteResourceDefinition INSTANCE = new EJB3RemoteResourceDefinition();
-
     static final SimpleAttributeDefinition CONNECTOR_REF =
             new SimpleAttributeDefinitionBuilder(EJB3SubsystemModel.CONNECTOR_REF, ModelType.STRING, true)
                     .setAllowExpression(true)
@@ -58,6 +64,33 @@ public class EJB3RemoteResourceDefinition extends SimpleResourceDefinition {
                     .setFlags(AttributeAccess.Flag.RESTART_ALL_SERVICES)
                     .build();
 
+    static final SimpleAttributeDefinition CHANNEL_COUNT =
+            new SimpleAttributeDefinitionBuilder(EJB3SubsystemModel.CHANNEL_COUNT, ModelType.INT)
+                    .setAllowNull(false)
+                    .setDefaultValue(new ModelNode(0))
+                    .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME)
+                    .build();
+
+    static final SimpleAttributeDefinition INVOCATION_COUNT =
+            new SimpleAttributeDefinitionBuilder(EJB3SubsystemModel.INVOCATION_COUNT, ModelType.LONG)
+                    .setAllowNull(false)
+                    .setDefaultValue(new ModelNode(0L))
+                    .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME)
+                    .build();
+
+    static final SimpleAttributeDefinition AVERAGE_INVOCATION_TIME =
+            new SimpleAttributeDefinitionBuilder(EJB3SubsystemModel.AVERAGE_INVOCATION_TIME, ModelType.LONG)
+                    .setAllowNull(false)
+                    .setDefaultValue(new ModelNode(0L))
+                    .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME)
+                    .build();
+
+    static final SimpleAttributeDefinition MAX_INVOCATION_TIME =
+            new SimpleAttributeDefinitionBuilder(EJB3SubsystemModel.MAX_INVOCATION_TIME, ModelType.LONG)
+                    .setAllowNull(false)
+                    .setDefaultValue(new ModelNode(0L))
+                    .setFlags(AttributeAccess.Flag.STORAGE_RUNTIME)
+                    .build();
 
     private static final Map<String, AttributeDefinition> ATTRIBUTES;
 
@@ -70,12 +103,15 @@ public class EJB3RemoteResourceDefinition extends SimpleResourceDefinition {
     }
 
 
-    private EJB3RemoteResourceDefinition() {
+    private final boolean registerRuntimeOnly;
+
+    EJB3RemoteResourceDefinition(final boolean registerRuntimeOnly) {
         super(EJB3SubsystemModel.REMOTE_SERVICE_PATH,
                 EJB3Extension.getResourceDescriptionResolver(EJB3SubsystemModel.REMOTE),
                 EJB3RemoteServiceAdd.INSTANCE, EJB3RemoteServiceRemove.INSTANCE,
                 // WFLY-3438
                 OperationEntry.Flag.RESTART_ALL_SERVICES, OperationEntry.Flag.RESTART_ALL_SERVICES);
+        this.registerRuntimeOnly = registerRuntimeOnly;
     }
 
     @Override
@@ -84,6 +120,35 @@ public class EJB3RemoteResourceDefinition extends SimpleResourceDefinition {
             // TODO: Make this read-write attribute
             resourceRegistration.registerReadWriteAttribute(attr, null, new ReloadRequiredWriteAttributeHandler(attr));
         }
+        if (!this.registerRuntimeOnly) {
+            return;
+        }
+        resourceRegistration.registerMetric(CHANNEL_COUNT, new RemoteConnectorMetricsHandler(CHANNEL_COUNT) {
+            @Override
+            protected void executeReadMetricStep(final OperationContext context, final EJBRemoteConnectorService service) {
+                context.getResult().set(service.getChannelCount());
+            }
+        });
+        resourceRegistration.registerMetric(INVOCATION_COUNT, new RemoteConnectorMetricsHandler(INVOCATION_COUNT) {
+            @Override
+            protected void executeReadMetricStep(final OperationContext context, final EJBRemoteConnectorService service) {
+                context.getResult().set(service.getStatistics().getInvocationCount());
+            }
+        });
+        resourceRegistration.registerMetric(AVERAGE_INVOCATION_TIME, new RemoteConnectorMetricsHandler(AVERAGE_INVOCATION_TIME) {
+            @Override
+            protected void executeReadMetricStep(final OperationContext context, final EJBRemoteConnectorService service) {
+                final ChannelStatistics statistics = service.getStatistics();
+                final long invocations = statistics.getInvocationCount();
+                context.getResult().set(invocations > 0 ? statistics.getTotalInvocationTime(TimeUnit.MILLISECONDS) / invocations : 0L);
+            }
+        });
+        resourceRegistration.registerMetric(MAX_INVOCATION_TIME, new RemoteConnectorMetricsHandler(MAX_INVOCATION_TIME) {
+            @Override
+            protected void executeReadMetricStep(final OperationContext context, final EJBRemoteConnectorService service) {
+                context.getResult().set(service.getStatistics().getMaxInvocationTime(TimeUnit.MILLISECONDS));
+            }
+        });
     }
 
     @Override
@@ -93,6 +158,29 @@ public class EJB3RemoteResourceDefinition extends SimpleResourceDefinition {
         resourceRegistration.registerSubModel(new ChannelCreationOptionResource());
     }
 
+    private abstract static class RemoteConnectorMetricsHandler extends AbstractRuntimeOnlyHandler {
+
+        private final SimpleAttributeDefinition metric;
+
+        RemoteConnectorMetricsHandler(final SimpleAttributeDefinition metric) {
+            this.metric = metric;
+        }
+
+        protected abstract void executeReadMetricStep(final OperationContext context, final EJBRemoteConnectorService service);
+
+        @Override
+        protected void executeRuntimeStep(final OperationContext context, final ModelNode operation) throws OperationFailedException {
+            final ServiceController<?> controller = context.getServiceRegistry(false).getService(EJBRemoteConnectorService.SERVICE_NAME);
+            if (controller != null && controller.getState() == ServiceController.State.UP) {
+                executeReadMetricStep(context, (EJBRemoteConnectorService) controller.getValue());
+            } else {
+                // no channels, and no invocations, while the connector is not up
+                context.getResult().set(this.metric.getDefaultValue());
+            }
+            context.stepCompleted();
+        }
+    }
+
     static void registerTransformers_1_1_0(ResourceTransformationDescriptionBuilder builder) {
         ChannelCreationOptionResource.registerTransformers_1_1_0(builder.addChildResource(EJB3SubsystemModel.REMOTE_SERVICE_PATH));
     }
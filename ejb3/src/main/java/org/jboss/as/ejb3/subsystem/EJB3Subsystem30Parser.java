@@ -25,6 +25,7 @@ package org.jboss.as.ejb3.subsystem;
 import org.jboss.dmr.ModelNode;
 import org.jboss.staxmapper.XMLExtendedStreamReader;
 
+import javax.xml.stream.XMLStreamConstants;
 import javax.xml.stream.XMLStreamException;
 import java.util.EnumSet;
 import java.util.List;
@@ -34,11 +35,16 @@ import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ADD
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SUBSYSTEM;
 import static org.jboss.as.controller.parsing.ParseUtils.missingRequired;
+import static org.jboss.as.controller.parsing.ParseUtils.requireNoAttributes;
 import static org.jboss.as.controller.parsing.ParseUtils.requireNoContent;
 import static org.jboss.as.controller.parsing.ParseUtils.requireNoNamespaceAttribute;
 import static org.jboss.as.controller.parsing.ParseUtils.unexpectedAttribute;
+import static org.jboss.as.controller.parsing.ParseUtils.unexpectedElement;
 import static org.jboss.as.ejb3.subsystem.EJB3SubsystemModel.DATABASE_DATA_STORE;
+import static org.jboss.as.ejb3.subsystem.EJB3SubsystemModel.FILE_DATA_STORE;
 import static org.jboss.as.ejb3.subsystem.EJB3SubsystemModel.SERVICE;
+import static org.jboss.as.ejb3.subsystem.EJB3SubsystemModel.STRICT_MAX_BEAN_INSTANCE_POOL;
+import static org.jboss.as.ejb3.subsystem.EJB3SubsystemModel.STRIPED_MAX_BEAN_INSTANCE_POOL;
 import static org.jboss.as.ejb3.subsystem.EJB3SubsystemModel.TIMER_SERVICE;
 
 
@@ -56,6 +62,51 @@ public class EJB3Subsystem30Parser extends EJB3Subsystem20Parser {
         return EJB3SubsystemNamespace.EJB3_3_0;
     }
 
+    @Override
+    protected void parseFileDataStore(final XMLExtendedStreamReader reader, final List<ModelNode> operations) throws XMLStreamException {
+        String name = null;
+
+        final ModelNode fileDataStore = new ModelNode();
+        final EnumSet<EJB3SubsystemXMLAttribute> required = EnumSet.of(EJB3SubsystemXMLAttribute.NAME, EJB3SubsystemXMLAttribute.PATH);
+        final int count = reader.getAttributeCount();
+        for (int i = 0; i < count; i++) {
+            requireNoNamespaceAttribute(reader, i);
+            final String value = reader.getAttributeValue(i);
+            final EJB3SubsystemXMLAttribute attribute = EJB3SubsystemXMLAttribute.forName(reader.getAttributeLocalName(i));
+            required.remove(attribute);
+            switch (attribute) {
+                case NAME:
+                    if (name != null) {
+                        throw unexpectedAttribute(reader, i);
+                    }
+                    name = reader.getAttributeValue(i);
+                    break;
+                case PATH:
+                    FileDataStoreResourceDefinition.PATH.parseAndSetParameter(value, fileDataStore, reader);
+                    break;
+                case RELATIVE_TO:
+                    FileDataStoreResourceDefinition.RELATIVE_TO.parseAndSetParameter(value, fileDataStore, reader);
+                    break;
+                case SYNC_ON_COMMIT:
+                    FileDataStoreResourceDefinition.SYNC_ON_COMMIT.parseAndSetParameter(value, fileDataStore, reader);
+                    break;
+                default:
+                    throw unexpectedAttribute(reader, i);
+            }
+        }
+        if (!required.isEmpty()) {
+            throw missingRequired(reader, required);
+        }
+        final ModelNode address = new ModelNode();
+        address.add(SUBSYSTEM, EJB3Extension.SUBSYSTEM_NAME);
+        address.add(SERVICE, TIMER_SERVICE);
+        address.add(FILE_DATA_STORE, name);
+        fileDataStore.get(OP).set(ADD);
+        fileDataStore.get(ADDRESS).set(address);
+        operations.add(fileDataStore);
+        requireNoContent(reader);
+    }
+
     @Override
     protected void parseDatabaseDataStore(final XMLExtendedStreamReader reader, final List<ModelNode> operations) throws XMLStreamException {
         String name = null;
@@ -90,6 +141,18 @@ public class EJB3Subsystem30Parser extends EJB3Subsystem20Parser {
                 case ALLOW_EXECUTION:
                     DatabaseDataStoreResourceDefinition.ALLOW_EXECUTION.parseAndSetParameter(value, databaseDataStore, reader);
                     break;
+                case WRITE_BEHIND_BATCH_SIZE:
+                    DatabaseDataStoreResourceDefinition.WRITE_BEHIND_BATCH_SIZE.parseAndSetParameter(value, databaseDataStore, reader);
+                    break;
+                case WRITE_BEHIND_FLUSH_INTERVAL:
+                    DatabaseDataStoreResourceDefinition.WRITE_BEHIND_FLUSH_INTERVAL.parseAndSetParameter(value, databaseDataStore, reader);
+                    break;
+                case KEEP_REMOVED_TIMERS:
+                    DatabaseDataStoreResourceDefinition.KEEP_REMOVED_TIMERS.parseAndSetParameter(value, databaseDataStore, reader);
+                    break;
+                case REFRESH_CHANGE_WINDOW:
+                    DatabaseDataStoreResourceDefinition.REFRESH_CHANGE_WINDOW.parseAndSetParameter(value, databaseDataStore, reader);
+                    break;
                 default:
                     throw unexpectedAttribute(reader, i);
             }
@@ -107,4 +170,25 @@ public class EJB3Subsystem30Parser extends EJB3Subsystem20Parser {
         requireNoContent(reader);
     }
 
+    @Override
+    protected void parseBeanInstancePools(final XMLExtendedStreamReader reader, List<ModelNode> operations) throws XMLStreamException {
+        // no attributes expected
+        requireNoAttributes(reader);
+
+        while (reader.hasNext() && reader.nextTag() != XMLStreamConstants.END_ELEMENT) {
+            switch (EJB3SubsystemXMLElement.forName(reader.getLocalName())) {
+                case STRICT_MAX_POOL: {
+                    this.parseMaxPool(reader, operations, STRICT_MAX_BEAN_INSTANCE_POOL);
+                    break;
+                }
+                case STRIPED_MAX_POOL: {
+                    this.parseMaxPool(reader, operations, STRIPED_MAX_BEAN_INSTANCE_POOL);
+                    break;
+                }
+                default: {
+                    throw unexpectedElement(reader);
+                }
+            }
+        }
+    }
 }
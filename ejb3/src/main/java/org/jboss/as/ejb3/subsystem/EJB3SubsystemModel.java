@@ -61,12 +61,14 @@ public interface EJB3SubsystemModel {
 
     String MAX_POOL_SIZE = "max-pool-size";
     String STRICT_MAX_BEAN_INSTANCE_POOL = "strict-max-bean-instance-pool";
+    String STRIPED_MAX_BEAN_INSTANCE_POOL = "striped-max-bean-instance-pool";
 
     String MAX_THREADS = "max-threads";
     String KEEPALIVE_TIME = "keepalive-time";
 
     String RELATIVE_TO = "relative-to";
     String PATH = "path";
+    String SYNC_ON_COMMIT = "sync-on-commit";
 
     String DEFAULT_SINGLETON_BEAN_ACCESS_TIMEOUT = "default-singleton-bean-access-timeout";
     String DEFAULT_STATEFUL_BEAN_ACCESS_TIMEOUT = "default-stateful-bean-access-timeout";
@@ -108,7 +110,21 @@ public interface EJB3SubsystemModel {
     String DATABASE_DATA_STORE = "database-data-store";
     String PARTITION  = "partition";
     String REFRESH_INTERVAL = "refresh-interval";
+    String REFRESH_CHANGE_WINDOW = "refresh-change-window";
+    String KEEP_REMOVED_TIMERS = "keep-removed-timers";
     String ALLOW_EXECUTION = "allow-execution";
+    String WRITE_BEHIND_BATCH_SIZE = "write-behind-batch-size";
+    String WRITE_BEHIND_FLUSH_INTERVAL = "write-behind-flush-interval";
+    String WRITE_BEHIND_FLUSH_COUNT = "write-behind-flush-count";
+    String WRITE_BEHIND_AVERAGE_BATCH_SIZE = "write-behind-average-batch-size";
+    String WRITE_BEHIND_AVERAGE_FLUSH_TIME = "write-behind-average-flush-time";
+    String WRITE_BEHIND_MAX_FLUSH_TIME = "write-behind-max-flush-time";
+    String WRITE_BEHIND_PENDING_WRITES = "write-behind-pending-writes";
+
+    String CHANNEL_COUNT = "channel-count";
+    String INVOCATION_COUNT = "invocation-count";
+    String AVERAGE_INVOCATION_TIME = "average-invocation-time";
+    String MAX_INVOCATION_TIME = "max-invocation-time";
 
     PathElement REMOTE_SERVICE_PATH = PathElement.pathElement(SERVICE, REMOTE);
     PathElement ASYNC_SERVICE_PATH = PathElement.pathElement(SERVICE, ASYNC);
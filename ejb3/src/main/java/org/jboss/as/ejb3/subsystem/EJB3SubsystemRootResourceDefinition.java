@@ -232,7 +232,7 @@ public class EJB3SubsystemRootResourceDefinition extends SimpleResourceDefinitio
     public void registerChildren(ManagementResourceRegistration subsystemRegistration) {
 
         // subsystem=ejb3/service=remote
-        subsystemRegistration.registerSubModel(EJB3RemoteResourceDefinition.INSTANCE);
+        subsystemRegistration.registerSubModel(new EJB3RemoteResourceDefinition(registerRuntimeOnly));
 
         // subsystem=ejb3/service=async
         subsystemRegistration.registerSubModel(EJB3AsyncResourceDefinition.INSTANCE);
@@ -240,6 +240,9 @@ public class EJB3SubsystemRootResourceDefinition extends SimpleResourceDefinitio
         // subsystem=ejb3/strict-max-bean-instance-pool=*
         subsystemRegistration.registerSubModel(StrictMaxPoolResourceDefinition.INSTANCE);
 
+        // subsystem=ejb3/striped-max-bean-instance-pool=*
+        subsystemRegistration.registerSubModel(StripedMaxPoolResourceDefinition.INSTANCE);
+
         subsystemRegistration.registerSubModel(CacheFactoryResourceDefinition.INSTANCE);
         subsystemRegistration.registerSubModel(PassivationStoreResourceDefinition.INSTANCE);
         subsystemRegistration.registerSubModel(FilePassivationStoreResourceDefinition.INSTANCE);
@@ -295,6 +298,7 @@ public class EJB3SubsystemRootResourceDefinition extends SimpleResourceDefinitio
         EJB3RemoteResourceDefinition.registerTransformers_1_1_0(builder);
         UnboundedQueueThreadPoolResourceDefinition.registerTransformers1_0(builder, EJB3SubsystemModel.THREAD_POOL);
         StrictMaxPoolResourceDefinition.registerTransformers_1_1_0(builder);
+        StripedMaxPoolResourceDefinition.registerTransformers_1_x(builder);
         PassivationStoreResourceDefinition.registerTransformers_1_1_0(builder);
         FilePassivationStoreResourceDefinition.registerTransformers_1_1_0(builder);
         ClusterPassivationStoreResourceDefinition.registerTransformers_1_1_0(builder);
@@ -321,6 +325,7 @@ public class EJB3SubsystemRootResourceDefinition extends SimpleResourceDefinitio
         builder.getAttributeBuilder().setDiscard(new DiscardAttributeChecker.DiscardAttributeValueChecker(new ModelNode(false)), EJB3SubsystemRootResourceDefinition.DISABLE_DEFAULT_EJB_PERMISSIONS);
         PassivationStoreResourceDefinition.registerTransformers_1_2_0(builder);
         TimerServiceResourceDefinition.registerTransformers_1_2_0(builder);
+        StripedMaxPoolResourceDefinition.registerTransformers_1_x(builder);
         TransformationDescription.Tools.register(builder.build(), subsystemRegistration, subsystem12);
     }
 
@@ -57,6 +57,7 @@ public enum EJB3SubsystemXMLAttribute {
     INSTANCE_ACQUISITION_TIMEOUT("instance-acquisition-timeout"),
     INSTANCE_ACQUISITION_TIMEOUT_UNIT("instance-acquisition-timeout-unit"),
 
+    KEEP_REMOVED_TIMERS("keep-removed-timers"),
     KEEPALIVE_TIME("keepalive-time"),
 
     MAX_POOL_SIZE("max-pool-size"),
@@ -67,6 +68,7 @@ public enum EJB3SubsystemXMLAttribute {
 
     PARTITION("partition"),
     REFRESH_INTERVAL("refresh-interval"),
+    REFRESH_CHANGE_WINDOW("refresh-change-window"),
     PASS_BY_VALUE("pass-by-value"),
     @Deprecated PASSIVATE_EVENTS_ON_REPLICATE("passivate-events-on-replicate"),
     PASSIVATION_DISABLED_CACHE_REF("passivation-disabled-cache-ref"),
@@ -79,6 +81,7 @@ public enum EJB3SubsystemXMLAttribute {
 
     @Deprecated SESSIONS_PATH("sessions-path"),
     @Deprecated SUBDIRECTORY_COUNT("subdirectory-count"),
+    SYNC_ON_COMMIT("sync-on-commit"),
 
     THREAD_POOL_NAME("thread-pool-name"),
     TYPE("type"),
@@ -86,6 +89,9 @@ public enum EJB3SubsystemXMLAttribute {
     USE_QUALIFIED_NAME("use-qualified-name"),
 
     VALUE("value"),
+
+    WRITE_BEHIND_BATCH_SIZE("write-behind-batch-size"),
+    WRITE_BEHIND_FLUSH_INTERVAL("write-behind-flush-interval"),
     ;
 
     private final String name;
@@ -125,7 +125,7 @@ public class EJB3SubsystemXMLPersister implements XMLElementWriter<SubsystemMars
             writer.writeEndElement();
         }
         // write the pools element
-        if (model.hasDefined(EJB3SubsystemModel.STRICT_MAX_BEAN_INSTANCE_POOL)) {
+        if (model.hasDefined(EJB3SubsystemModel.STRICT_MAX_BEAN_INSTANCE_POOL) || model.hasDefined(EJB3SubsystemModel.STRIPED_MAX_BEAN_INSTANCE_POOL)) {
             // <pools>
             writer.writeStartElement(EJB3SubsystemXMLElement.POOLS.getLocalName());
             // <bean-instance-pools>
@@ -380,6 +380,17 @@ public class EJB3SubsystemXMLPersister implements XMLElementWriter<SubsystemMars
                 writer.writeEndElement();
             }
         }
+        if (beanInstancePoolModelNode.hasDefined(EJB3SubsystemModel.STRIPED_MAX_BEAN_INSTANCE_POOL)) {
+            final List<Property> stripedMaxPools = beanInstancePoolModelNode.get(EJB3SubsystemModel.STRIPED_MAX_BEAN_INSTANCE_POOL).asPropertyList();
+            for (Property property : stripedMaxPools) {
+                // <striped-max-pool>
+                writer.writeStartElement(EJB3SubsystemXMLElement.STRIPED_MAX_POOL.getLocalName());
+                // contents of striped-max-pool are the same as those of strict-max-pool
+                this.writeStrictMaxPoolConfig(writer, property);
+                // </striped-max-pool>
+                writer.writeEndElement();
+            }
+        }
     }
 
     private void writeStrictMaxPoolConfig(final XMLExtendedStreamWriter writer, final Property strictMaxPoolModel) throws XMLStreamException {
@@ -490,6 +501,10 @@ public class EJB3SubsystemXMLPersister implements XMLElementWriter<SubsystemMars
                 DatabaseDataStoreResourceDefinition.PARTITION.marshallAsAttribute(store, writer);
                 DatabaseDataStoreResourceDefinition.REFRESH_INTERVAL.marshallAsAttribute(store, writer);
                 DatabaseDataStoreResourceDefinition.ALLOW_EXECUTION.marshallAsAttribute(store, writer);
+                DatabaseDataStoreResourceDefinition.WRITE_BEHIND_BATCH_SIZE.marshallAsAttribute(store, writer);
+                DatabaseDataStoreResourceDefinition.WRITE_BEHIND_FLUSH_INTERVAL.marshallAsAttribute(store, writer);
+                DatabaseDataStoreResourceDefinition.KEEP_REMOVED_TIMERS.marshallAsAttribute(store, writer);
+                DatabaseDataStoreResourceDefinition.REFRESH_CHANGE_WINDOW.marshallAsAttribute(store, writer);
                 writer.writeEndElement();
             }
         }
@@ -504,6 +519,7 @@ public class EJB3SubsystemXMLPersister implements XMLElementWriter<SubsystemMars
                 writer.writeAttribute(EJB3SubsystemXMLAttribute.NAME.getLocalName(), property.getName());
                 FileDataStoreResourceDefinition.PATH.marshallAsAttribute(store, writer);
                 FileDataStoreResourceDefinition.RELATIVE_TO.marshallAsAttribute(store, writer);
+                FileDataStoreResourceDefinition.SYNC_ON_COMMIT.marshallAsAttribute(store, writer);
                 writer.writeEndElement();
             }
         }
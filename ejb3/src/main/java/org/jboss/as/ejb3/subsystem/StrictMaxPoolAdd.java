@@ -27,11 +27,14 @@ import org.jboss.as.controller.AttributeDefinition;
 import org.jboss.as.controller.OperationContext;
 import org.jboss.as.controller.OperationFailedException;
 import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.PathElement;
 import org.jboss.as.controller.ServiceVerificationHandler;
 import org.jboss.as.controller.descriptions.ModelDescriptionConstants;
+import org.jboss.as.controller.registry.Resource;
 import org.jboss.as.ejb3.component.pool.PoolConfig;
 import org.jboss.as.ejb3.component.pool.PoolConfigService;
 import org.jboss.as.ejb3.component.pool.StrictMaxPoolConfig;
+import org.jboss.as.ejb3.logging.EjbLogger;
 import org.jboss.dmr.ModelNode;
 import org.jboss.msc.service.ServiceBuilder;
 import org.jboss.msc.service.ServiceController;
@@ -64,6 +67,22 @@ public class StrictMaxPoolAdd extends AbstractAddStepHandler {
         }
     }
 
+    /**
+     * Populates the model of the pool, after checking that no pool of the other type has the same name, since the
+     * configurations of both types of pools are installed under the same service names.
+     */
+    @Override
+    protected void populateModel(OperationContext context, ModelNode operation, Resource resource) throws OperationFailedException {
+        final PathAddress address = PathAddress.pathAddress(operation.get(ModelDescriptionConstants.ADDRESS));
+        final PathElement pool = address.getLastElement();
+        final String otherType = EJB3SubsystemModel.STRICT_MAX_BEAN_INSTANCE_POOL.equals(pool.getKey()) ? EJB3SubsystemModel.STRIPED_MAX_BEAN_INSTANCE_POOL : EJB3SubsystemModel.STRICT_MAX_BEAN_INSTANCE_POOL;
+        final Resource parent = context.readResourceFromRoot(address.getParent(), false);
+        if (parent.hasChild(PathElement.pathElement(otherType, pool.getValue()))) {
+            throw EjbLogger.ROOT_LOGGER.beanInstancePoolAlreadyDefined(pool.getValue(), otherType);
+        }
+        super.populateModel(context, operation, resource);
+    }
+
     @Override
     protected void performRuntime(OperationContext context, ModelNode operation, ModelNode strictMaxPoolModel,
                                   ServiceVerificationHandler verificationHandler,
@@ -81,7 +100,7 @@ public class StrictMaxPoolAdd extends AbstractAddStepHandler {
         final long timeout = StrictMaxPoolResourceDefinition.INSTANCE_ACQUISITION_TIMEOUT.resolveModelAttribute(context, strictMaxPoolModel).asLong();
         final String unit = StrictMaxPoolResourceDefinition.INSTANCE_ACQUISITION_TIMEOUT_UNIT.resolveModelAttribute(context, strictMaxPoolModel).asString();
         // create the pool config
-        final PoolConfig strictMaxPoolConfig = new StrictMaxPoolConfig(poolName, maxPoolSize, timeout, TimeUnit.valueOf(unit));
+        final PoolConfig strictMaxPoolConfig = this.createPoolConfig(poolName, maxPoolSize, timeout, TimeUnit.valueOf(unit));
         // create and install the service
         final PoolConfigService poolConfigService = new PoolConfigService(strictMaxPoolConfig);
         final ServiceName serviceName = PoolConfigService.EJB_POOL_CONFIG_BASE_SERVICE_NAME.append(poolName);
@@ -92,4 +111,8 @@ public class StrictMaxPoolAdd extends AbstractAddStepHandler {
         return svcBuilder.install();
     }
 
+    PoolConfig createPoolConfig(String poolName, int maxPoolSize, long timeout, TimeUnit unit) {
+        return new StrictMaxPoolConfig(poolName, maxPoolSize, timeout, unit);
+    }
+
 }
@@ -34,6 +34,7 @@ import org.jboss.as.ejb3.deployment.processors.AroundTimeoutAnnotationParsingPro
 import org.jboss.as.ejb3.deployment.processors.TimerServiceDeploymentProcessor;
 import org.jboss.as.ejb3.deployment.processors.annotation.TimerServiceAnnotationProcessor;
 import org.jboss.as.ejb3.deployment.processors.merging.TimerMethodMergingProcessor;
+import org.jboss.as.ejb3.timerservice.HashedWheelTimer;
 import org.jboss.as.server.AbstractDeploymentChainStep;
 import org.jboss.as.server.DeploymentProcessorTarget;
 import org.jboss.as.server.deployment.Phase;
@@ -95,6 +96,8 @@ public class TimerServiceAdd extends AbstractBoottimeAddStepHandler {
 
         newControllers.add(context.getServiceTarget().addService(TimerServiceDeploymentProcessor.TIMER_SERVICE_NAME, new TimerValueService())
                 .install());
+        newControllers.add(context.getServiceTarget().addService(TimerServiceDeploymentProcessor.TIMER_WHEEL_SERVICE_NAME, new TimerWheelService())
+                .install());
 
     }
 
@@ -118,4 +121,26 @@ public class TimerServiceAdd extends AbstractBoottimeAddStepHandler {
             return timer;
         }
     }
+
+    private static final class TimerWheelService implements Service<HashedWheelTimer> {
+
+        private HashedWheelTimer timer;
+
+        @Override
+        public synchronized void start(final StartContext context) throws StartException {
+            timer = new HashedWheelTimer("EJB timer wheel");
+            timer.start();
+        }
+
+        @Override
+        public synchronized void stop(final StopContext context) {
+            timer.stop();
+            timer = null;
+        }
+
+        @Override
+        public synchronized HashedWheelTimer getValue() throws IllegalStateException, IllegalArgumentException {
+            return timer;
+        }
+    }
 }
@@ -137,6 +137,10 @@ public class TimerServiceResourceDefinition extends SimpleResourceDefinition {
                 return builder.getCurrent();
             }
         });
+        fileDataStore = fileDataStore.getAttributeBuilder()
+                .setDiscard(new DiscardAttributeChecker.DiscardAttributeValueChecker(new ModelNode(false)), FileDataStoreResourceDefinition.SYNC_ON_COMMIT)
+                .addRejectCheck(RejectAttributeChecker.DEFINED, FileDataStoreResourceDefinition.SYNC_ON_COMMIT)
+                .end();
 
         if (rejectPathExpressions) {
             fileDataStore = fileDataStore.getAttributeBuilder()
@@ -0,0 +1,397 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.timerservice;
+
+import static org.jboss.as.ejb3.logging.EjbLogger.ROOT_LOGGER;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A hashed timing wheel used to schedule the timeouts of EJB timers.
+ * <p/>
+ * Scheduling and cancelling a timeout are constant time operations that only enqueue the timeout on a lock-free
+ * queue; a single worker thread moves new timeouts into their bucket and, on every tick, fires the timeouts of the
+ * current bucket whose deadline has passed. Timeouts further away than one rotation of the wheel are kept in their
+ * bucket with a count of the remaining rotations. Fired tasks are expected to hand their actual work off to an
+ * executor, as the worker thread must not be blocked.
+ * <p/>
+ * A timeout never fires before its deadline, but may fire up to one tick after it.
+ */
+public class HashedWheelTimer {
+
+    public static final long DEFAULT_TICK_DURATION = 10;
+    public static final int DEFAULT_TICKS_PER_WHEEL = 1024;
+
+    private final String name;
+    private final long tickDuration;
+    private final Bucket[] wheel;
+    private final int mask;
+    private final Queue<Timeout> pendingTimeouts = new ConcurrentLinkedQueue<Timeout>();
+    private final Queue<Timeout> cancelledTimeouts = new ConcurrentLinkedQueue<Timeout>();
+
+    private volatile Thread workerThread;
+    private volatile long startTime;
+    // only accessed by the worker thread
+    private long tick;
+
+    public HashedWheelTimer(String name) {
+        this(name, DEFAULT_TICK_DURATION, TimeUnit.MILLISECONDS, DEFAULT_TICKS_PER_WHEEL);
+    }
+
+    /**
+     * @param name the name of the worker thread
+     * @param tickDuration the duration of one tick, i.e. the resolution of the timer
+     * @param unit the unit of the tick duration
+     * @param ticksPerWheel the number of buckets, rounded up to a power of two
+     */
+    public HashedWheelTimer(String name, long tickDuration, TimeUnit unit, int ticksPerWheel) {
+        if (tickDuration <= 0) {
+            throw new IllegalArgumentException("tickDuration must be greater than 0: " + tickDuration);
+        }
+        if (ticksPerWheel <= 0 || ticksPerWheel > (1 << 30)) {
+            throw new IllegalArgumentException("ticksPerWheel must be between 1 and 2^30: " + ticksPerWheel);
+        }
+        this.name = name;
+        this.tickDuration = unit.toNanos(tickDuration);
+        int size = Integer.highestOneBit(ticksPerWheel);
+        if (size < ticksPerWheel) {
+            size <<= 1;
+        }
+        this.wheel = new Bucket[size];
+        for (int i = 0; i < size; ++i) {
+            this.wheel[i] = new Bucket();
+        }
+        this.mask = size - 1;
+    }
+
+    public synchronized void start() {
+        if (this.workerThread != null) {
+            return;
+        }
+        this.startTime = System.nanoTime();
+        this.tick = 0;
+        final Thread thread = new Thread(new Worker(), this.name);
+        thread.setDaemon(true);
+        this.workerThread = thread;
+        thread.start();
+    }
+
+    public synchronized void stop() {
+        final Thread thread = this.workerThread;
+        if (thread == null) {
+            return;
+        }
+        this.workerThread = null;
+        thread.interrupt();
+        boolean interrupted = false;
+        while (thread.isAlive()) {
+            try {
+                thread.join(100);
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        // drop everything that was still scheduled
+        for (Bucket bucket : this.wheel) {
+            bucket.clear();
+        }
+        this.pendingTimeouts.clear();
+        this.cancelledTimeouts.clear();
+    }
+
+    /**
+     * Schedules a task to run once after the given delay.
+     *
+     * @param task the task
+     * @param delay the delay in milliseconds
+     * @return a handle that can be used to cancel the task
+     */
+    public Timeout schedule(Runnable task, long delay) {
+        return this.schedule(task, delay, 0);
+    }
+
+    /**
+     * Schedules a task to run repeatedly at a fixed rate, starting after the given delay. As with
+     * {@link java.util.Timer#scheduleAtFixedRate(java.util.TimerTask, long, long)} each execution is scheduled
+     * relative to the scheduled time of the first one, so late executions do not cause drift.
+     *
+     * @param task the task
+     * @param delay the delay in milliseconds before the first execution
+     * @param period the period in milliseconds between executions
+     * @return a handle that can be used to cancel all future executions
+     */
+    public Timeout scheduleAtFixedRate(Runnable task, long delay, long period) {
+        if (period <= 0) {
+            throw new IllegalArgumentException("period must be greater than 0: " + period);
+        }
+        return this.schedule(task, delay, period);
+    }
+
+    private Timeout schedule(Runnable task, long delay, long period) {
+        if (this.workerThread == null) {
+            throw new IllegalStateException(this.name + " is not started");
+        }
+        final long deadline = System.nanoTime() - this.startTime + TimeUnit.MILLISECONDS.toNanos(Math.max(delay, 0L));
+        final Timeout timeout = new Timeout(this, task, deadline, TimeUnit.MILLISECONDS.toNanos(period));
+        this.pendingTimeouts.add(timeout);
+        return timeout;
+    }
+
+    /**
+     * @return the number of timeouts that are scheduled or about to be scheduled
+     */
+    public int getPendingTimeouts() {
+        int count = this.pendingTimeouts.size();
+        for (Bucket bucket : this.wheel) {
+            count += bucket.size;
+        }
+        return count;
+    }
+
+    private final class Worker implements Runnable {
+
+        @Override
+        public void run() {
+            while (HashedWheelTimer.this.workerThread == Thread.currentThread()) {
+                final long deadline = this.waitForNextTick();
+                if (deadline < 0) {
+                    break;
+                }
+                HashedWheelTimer.this.removeCancelledTimeouts();
+                HashedWheelTimer.this.transferPendingTimeouts();
+                HashedWheelTimer.this.wheel[(int) (HashedWheelTimer.this.tick & HashedWheelTimer.this.mask)].expireTimeouts(deadline);
+                HashedWheelTimer.this.tick++;
+            }
+        }
+
+        /**
+         * Sleeps until the end of the current tick.
+         *
+         * @return the end of the current tick relative to the start time, or -1 if the timer was stopped
+         */
+        private long waitForNextTick() {
+            final long deadline = HashedWheelTimer.this.tickDuration * (HashedWheelTimer.this.tick + 1);
+            while (true) {
+                final long currentTime = System.nanoTime() - HashedWheelTimer.this.startTime;
+                final long sleepTime = deadline - currentTime;
+                if (sleepTime <= 0) {
+                    return currentTime;
+                }
+                try {
+                    TimeUnit.NANOSECONDS.sleep(sleepTime);
+                } catch (InterruptedException e) {
+                    if (HashedWheelTimer.this.workerThread != Thread.currentThread()) {
+                        return -1;
+                    }
+                }
+            }
+        }
+    }
+
+    private void transferPendingTimeouts() {
+        // bound the work done per tick, so that a burst of new timers cannot starve the current bucket
+        for (int i = 0; i < 100000; ++i) {
+            final Timeout timeout = this.pendingTimeouts.poll();
+            if (timeout == null) {
+                break;
+            }
+            if (timeout.state.get() == Timeout.ST_INIT) {
+                // the current bucket is expired after the transfer, so it counts as a round
+                this.addToWheel(timeout, this.tick);
+            }
+        }
+    }
+
+    private void removeCancelledTimeouts() {
+        for (Timeout timeout = this.cancelledTimeouts.poll(); timeout != null; timeout = this.cancelledTimeouts.poll()) {
+            if (timeout.bucket != null) {
+                timeout.bucket.remove(timeout);
+            }
+        }
+    }
+
+    /**
+     * Adds a timeout to the bucket of its deadline. Only called by the worker thread.
+     *
+     * @param timeout the timeout
+     * @param firstTick the first tick whose bucket will be expired after the addition
+     */
+    void addToWheel(Timeout timeout, long firstTick) {
+        final long calculated = timeout.deadline / this.tickDuration;
+        // timeouts in the past go into the first bucket
+        final long ticks = Math.max(calculated, firstTick);
+        timeout.remainingRounds = (ticks - firstTick) / this.wheel.length;
+        this.wheel[(int) (ticks & this.mask)].add(timeout);
+    }
+
+    /**
+     * The handle of a scheduled task.
+     */
+    public static final class Timeout {
+        static final int ST_INIT = 0;
+        static final int ST_CANCELLED = 1;
+        static final int ST_EXPIRED = 2;
+
+        final HashedWheelTimer timer;
+        final Runnable task;
+        final long period;
+        final AtomicInteger state = new AtomicInteger(ST_INIT);
+        // the following are only accessed by the worker thread
+        long deadline;
+        long remainingRounds;
+        Bucket bucket;
+        Timeout next;
+        Timeout prev;
+
+        Timeout(HashedWheelTimer timer, Runnable task, long deadline, long period) {
+            this.timer = timer;
+            this.task = task;
+            this.deadline = deadline;
+            this.period = period;
+        }
+
+        /**
+         * Cancels this timeout. A task that is already running is not interrupted.
+         *
+         * @return true if this call cancelled the timeout, false if it had already been cancelled or had expired
+         */
+        public boolean cancel() {
+            if (!this.state.compareAndSet(ST_INIT, ST_CANCELLED)) {
+                return false;
+            }
+            // let the worker unlink it on the next tick
+            this.timer.cancelledTimeouts.add(this);
+            return true;
+        }
+
+        public boolean isCancelled() {
+            return this.state.get() == ST_CANCELLED;
+        }
+
+        void expire() {
+            if (this.period == 0 && !this.state.compareAndSet(ST_INIT, ST_EXPIRED)) {
+                return;
+            }
+            if (this.period != 0 && this.state.get() != ST_INIT) {
+                return;
+            }
+            try {
+                this.task.run();
+            } catch (Throwable t) {
+                ROOT_LOGGER.failedToRunScheduledTimerTask(this.task, t);
+            }
+        }
+    }
+
+    /**
+     * A doubly linked list of the timeouts that hash to one slot of the wheel. Only accessed by the worker thread.
+     */
+    private final class Bucket {
+        private Timeout head;
+        private Timeout tail;
+        volatile int size;
+
+        void add(Timeout timeout) {
+            timeout.bucket = this;
+            if (this.head == null) {
+                this.head = this.tail = timeout;
+            } else {
+                this.tail.next = timeout;
+                timeout.prev = this.tail;
+                this.tail = timeout;
+            }
+            this.size++;
+        }
+
+        void expireTimeouts(long deadline) {
+            // periodic timeouts are re-added once the whole bucket was expired, so that they are not visited twice
+            Timeout rescheduled = null;
+            Timeout timeout = this.head;
+            while (timeout != null) {
+                final Timeout next = timeout.next;
+                if (timeout.isCancelled()) {
+                    this.remove(timeout);
+                } else if (timeout.remainingRounds <= 0 && timeout.deadline <= deadline) {
+                    this.remove(timeout);
+                    timeout.expire();
+                    if (timeout.period != 0 && timeout.state.get() == Timeout.ST_INIT) {
+                        timeout.deadline += timeout.period;
+                        timeout.next = rescheduled;
+                        rescheduled = timeout;
+                    }
+                } else {
+                    timeout.remainingRounds--;
+                }
+                timeout = next;
+            }
+            while (rescheduled != null) {
+                final Timeout next = rescheduled.next;
+                rescheduled.next = null;
+                // this bucket has been expired for the current tick, so the rounds count from the next one
+                HashedWheelTimer.this.addToWheel(rescheduled, HashedWheelTimer.this.tick + 1);
+                rescheduled = next;
+            }
+        }
+
+        void remove(Timeout timeout) {
+            if (timeout.bucket != this) {
+                return;
+            }
+            final Timeout next = timeout.next;
+            if (timeout.prev != null) {
+                timeout.prev.next = next;
+            }
+            if (next != null) {
+                next.prev = timeout.prev;
+            }
+            if (timeout == this.head) {
+                this.head = next;
+            }
+            if (timeout == this.tail) {
+                this.tail = timeout.prev;
+            }
+            timeout.prev = null;
+            timeout.next = null;
+            timeout.bucket = null;
+            this.size--;
+        }
+
+        void clear() {
+            Timeout timeout = this.head;
+            while (timeout != null) {
+                final Timeout next = timeout.next;
+                timeout.prev = null;
+                timeout.next = null;
+                timeout.bucket = null;
+                timeout = next;
+            }
+            this.head = this.tail = null;
+            this.size = 0;
+        }
+    }
+}
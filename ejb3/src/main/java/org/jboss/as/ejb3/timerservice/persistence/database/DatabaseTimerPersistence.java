@@ -42,21 +42,30 @@ import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
 import java.util.Timer;
 import java.util.TimerTask;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
 import javax.sql.DataSource;
 import javax.transaction.HeuristicMixedException;
 import javax.transaction.HeuristicRollbackException;
 import javax.transaction.NotSupportedException;
 import javax.transaction.RollbackException;
+import javax.transaction.Status;
+import javax.transaction.Synchronization;
 import javax.transaction.SystemException;
 import javax.transaction.TransactionManager;
+import javax.transaction.TransactionSynchronizationRegistry;
 
+import org.jboss.as.ejb3.component.stateful.CurrentSynchronizationCallback;
 import org.jboss.as.ejb3.logging.EjbLogger;
 import org.jboss.as.ejb3.timerservice.CalendarTimer;
 import org.jboss.as.ejb3.timerservice.TimerImpl;
@@ -97,8 +106,9 @@ public class DatabaseTimerPersistence implements TimerPersistence, Service<Datab
     private final Map<String, TimerChangeListener> changeListeners = Collections.synchronizedMap(new HashMap<String, TimerChangeListener>());
 
     private final InjectedValue<java.util.Timer> timerInjectedValue = new InjectedValue<java.util.Timer>();
+    private final InjectedValue<TransactionSynchronizationRegistry> transactionSynchronizationRegistry = new InjectedValue<TransactionSynchronizationRegistry>();
 
-    private final Map<String, Set<String>> knownTimerIds = new HashMap<>();
+    private final ConcurrentMap<String, Set<String>> knownTimerIds = new ConcurrentHashMap<>();
 
     private final String name;
     /** Identifier for the database dialect to be used for the timer-sql.properties */
@@ -110,28 +120,78 @@ public class DatabaseTimerPersistence implements TimerPersistence, Service<Datab
     private final int refreshInterval;
     /** Flag whether this instance should execute persistent timers*/
     private final boolean allowExecution;
+    /** Number of pending writes that triggers a write-behind flush, or 0 if timer changes are written through */
+    private final int writeBehindBatchSize;
+    /** Interval in millis between write-behind flushes */
+    private final int writeBehindFlushInterval;
+    /** If cancelled and expired timers are kept until they are purged, so that refresh only needs to load changed rows */
+    private final boolean keepRemovedTimers;
+    /** How far a refresh looks back before the last change it has seen */
+    private final long changeWindow;
+    /** Latest pending write-behind change of each timer */
+    private final TimerWriteBehindQueue<TimerImpl> pendingWrites = new TimerWriteBehindQueue<>();
+    /** Serializes write-behind flushes. Timer changes never wait on it, except to make a pending change visible to the database. */
+    private final Object flushLock = new Object();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+    private final AtomicLong flushCount = new AtomicLong();
+    private final AtomicLong flushedWrites = new AtomicLong();
+    private final AtomicLong totalFlushTime = new AtomicLong();
+    private final AtomicLong maxFlushTime = new AtomicLong();
     private volatile ManagedReference managedReference;
     private volatile DataSource dataSource;
     private volatile Properties sql;
     private MarshallerFactory factory;
     private MarshallingConfiguration configuration;
     private RefreshTask refreshTask;
+    private FlushTask flushTask;
+    private PurgeTask purgeTask;
+    /** Most recent modification stamp seen for each timed object, refresh only loads rows changed after it */
+    private final ConcurrentMap<String, Timestamp> lastModified = new ConcurrentHashMap<>();
 
     /** Names for the different SQL commands stored in the properties*/
     private static final String CREATE_TABLE = "create-table";
     private static final String CREATE_TIMER = "create-timer";
     private static final String UPDATE_TIMER = "update-timer";
+    private static final String CREATE_STAMPED_TIMER = "create-stamped-timer";
+    private static final String UPDATE_STAMPED_TIMER = "update-stamped-timer";
     private static final String LOAD_ALL_TIMERS = "load-all-timers";
     private static final String LOAD_TIMER = "load-timer";
+    private static final String REMOVE_TIMER = "remove-timer";
     private static final String DELETE_TIMER = "delete-timer";
+    private static final String PURGE_REMOVED_TIMERS = "purge-removed-timers";
+    private static final String LOAD_CHANGED_TIMERS = "load-changed-timers";
+    private static final String LOAD_LAST_MODIFIED = "load-last-modified";
+    private static final String ADD_LAST_MODIFIED = "add-last-modified";
     private static final String UPDATE_RUNNING = "update-running";
+    private static final String CURRENT_TIMESTAMP = "current-timestamp";
+
+    /** The timer table and the column that the statements above stamp with the time a row changed */
+    private static final String TIMER_TABLE = "JBOSS_EJB_TIMER";
+    private static final String LAST_MODIFIED_COLUMN = "LAST_MODIFIED";
+
+    /** The default transaction timeout bounds how long a transaction can carry an older stamp than the last one seen */
+    private static final int DEFAULT_CHANGE_WINDOW = (int) TimeUnit.MINUTES.toMillis(5);
 
     public DatabaseTimerPersistence(final String name, final String database, String partition, int refreshInterval, boolean allowExecution) {
+        this(name, database, partition, refreshInterval, allowExecution, 0, 0);
+    }
+
+    public DatabaseTimerPersistence(final String name, final String database, String partition, int refreshInterval, boolean allowExecution,
+                                    int writeBehindBatchSize, int writeBehindFlushInterval) {
+        this(name, database, partition, refreshInterval, allowExecution, writeBehindBatchSize, writeBehindFlushInterval, false, DEFAULT_CHANGE_WINDOW);
+    }
+
+    public DatabaseTimerPersistence(final String name, final String database, String partition, int refreshInterval, boolean allowExecution,
+                                    int writeBehindBatchSize, int writeBehindFlushInterval, boolean keepRemovedTimers, int changeWindow) {
         this.name = name;
         this.database = database;
         this.partition = partition;
         this.refreshInterval = refreshInterval;
         this.allowExecution = allowExecution;
+        this.writeBehindBatchSize = writeBehindBatchSize;
+        this.writeBehindFlushInterval = writeBehindFlushInterval;
+        this.keepRemovedTimers = keepRemovedTimers;
+        this.changeWindow = changeWindow;
     }
 
     @Override
@@ -159,6 +219,15 @@ public class DatabaseTimerPersistence implements TimerPersistence, Service<Datab
             refreshTask = new RefreshTask();
             timerInjectedValue.getValue().schedule(refreshTask, refreshInterval, refreshInterval);
         }
+        if (keepRemovedTimers) {
+            final long retention = TimerRefresh.removedTimerRetention(refreshInterval, changeWindow);
+            purgeTask = new PurgeTask();
+            timerInjectedValue.getValue().schedule(purgeTask, retention, retention);
+        }
+        if (isWriteBehind() && writeBehindFlushInterval > 0) {
+            flushTask = new FlushTask();
+            timerInjectedValue.getValue().schedule(flushTask, writeBehindFlushInterval, writeBehindFlushInterval);
+        }
     }
 
     @Override
@@ -166,10 +235,23 @@ public class DatabaseTimerPersistence implements TimerPersistence, Service<Datab
         if (refreshTask != null) {
             refreshTask.cancel();
         }
+        if (purgeTask != null) {
+            purgeTask.cancel();
+            purgeTask = null;
+        }
+        if (flushTask != null) {
+            flushTask.cancel();
+            flushTask = null;
+        }
+        // write out whatever is still pending while the datasource is available
+        flush();
         knownTimerIds.clear();
-        managedReference.release();
-        managedReference = null;
-        dataSource = null;
+        lastModified.clear();
+        synchronized (flushLock) {
+            managedReference.release();
+            managedReference = null;
+            dataSource = null;
+        }
     }
 
     /**
@@ -297,6 +379,46 @@ public class DatabaseTimerPersistence implements TimerPersistence, Service<Datab
             safeClose(statement);
             safeClose(connection);
         }
+        if (keepRemovedTimers) {
+            checkLastModifiedColumn();
+        }
+    }
+
+    /**
+     * Adds the LAST_MODIFIED column, which the incremental refresh relies on, to a timer table that was created without
+     * it. The schema is left alone unless removed timers are kept, since the other statements do not use the column.
+     */
+    private void checkLastModifiedColumn() {
+        Connection connection = null;
+        Statement statement = null;
+        ResultSet resultSet = null;
+        try {
+            connection = dataSource.getConnection();
+            DatabaseMetaData metaData = connection.getMetaData();
+            // unquoted identifiers are stored in the case the database folds them to
+            final boolean lowerCase = metaData.storesLowerCaseIdentifiers();
+            final String table = lowerCase ? TIMER_TABLE.toLowerCase(Locale.ENGLISH) : TIMER_TABLE;
+            final String column = lowerCase ? LAST_MODIFIED_COLUMN.toLowerCase(Locale.ENGLISH) : LAST_MODIFIED_COLUMN;
+            resultSet = metaData.getColumns(null, null, table, column);
+            if (resultSet.next()) {
+                return;
+            }
+            String[] statements = sql(ADD_LAST_MODIFIED).split(";");
+            for (final String sql : statements) {
+                try {
+                    statement = connection.createStatement();
+                    statement.executeUpdate(sql);
+                } finally {
+                    safeClose(statement);
+                }
+            }
+        } catch (SQLException e) {
+            EjbLogger.ROOT_LOGGER.couldNotCreateTable(e);
+        } finally {
+            safeClose(resultSet);
+            safeClose(statement);
+            safeClose(connection);
+        }
     }
 
     private String sql(final String key) {
@@ -311,14 +433,16 @@ public class DatabaseTimerPersistence implements TimerPersistence, Service<Datab
 
     @Override
     public void addTimer(final TimerImpl timerEntity) {
-        String createTimer = sql(CREATE_TIMER);
+        knownTimerIds.get(timerEntity.getTimedObjectId()).add(timerEntity.getId());
+        if (isWriteBehind()) {
+            writeBehind(timerEntity, true);
+            return;
+        }
+        String createTimer = sql(createTimerStatement());
         Connection connection = null;
         PreparedStatement statement = null;
         ResultSet resultSet = null;
         try {
-            synchronized (this) {
-                knownTimerIds.get(timerEntity.getTimedObjectId()).add(timerEntity.getId());
-            }
             connection = dataSource.getConnection();
             statement = connection.prepareStatement(createTimer);
             statementParameters(timerEntity, statement);
@@ -334,6 +458,16 @@ public class DatabaseTimerPersistence implements TimerPersistence, Service<Datab
 
     @Override
     public void persistTimer(final TimerImpl timerEntity) {
+        if (isWriteBehind()) {
+            if (timerEntity.getState() == TimerState.CANCELED ||
+                    timerEntity.getState() == TimerState.EXPIRED) {
+                knownTimerIds.get(timerEntity.getTimedObjectId()).remove(timerEntity.getId());
+            } else {
+                knownTimerIds.get(timerEntity.getTimedObjectId()).add(timerEntity.getId());
+            }
+            writeBehind(timerEntity, false);
+            return;
+        }
         Connection connection = null;
         PreparedStatement statement = null;
         ResultSet resultSet = null;
@@ -341,27 +475,16 @@ public class DatabaseTimerPersistence implements TimerPersistence, Service<Datab
             connection = dataSource.getConnection();
             if (timerEntity.getState() == TimerState.CANCELED ||
                     timerEntity.getState() == TimerState.EXPIRED) {
-                String deleteTimer = sql(DELETE_TIMER);
-                statement = connection.prepareStatement(deleteTimer);
-                statement.setString(1, timerEntity.getTimedObjectId());
-                statement.setString(2, timerEntity.getId());
-                statement.setString(3, partition);
+                String removeTimer = sql(removeTimerStatement());
+                statement = connection.prepareStatement(removeTimer);
+                removeStatementParameters(timerEntity, statement);
                 statement.execute();
-                synchronized (this) {
-                    knownTimerIds.get(timerEntity.getTimedObjectId()).remove(timerEntity.getId());
-                }
+                knownTimerIds.get(timerEntity.getTimedObjectId()).remove(timerEntity.getId());
             } else {
-                synchronized (this) {
-                    knownTimerIds.get(timerEntity.getTimedObjectId()).add(timerEntity.getId());
-                }
-                String updateTimer = sql(UPDATE_TIMER);
+                knownTimerIds.get(timerEntity.getTimedObjectId()).add(timerEntity.getId());
+                String updateTimer = sql(updateTimerStatement());
                 statement = connection.prepareStatement(updateTimer);
-                statement.setTimestamp(1, timestamp(timerEntity.getNextExpiration()));
-                statement.setTimestamp(2, timestamp(timerEntity.getPreviousRun()));
-                statement.setString(3, timerEntity.getState().name());
-                statement.setString(4, timerEntity.getTimedObjectId());
-                statement.setString(5, timerEntity.getId());
-                statement.setString(6, partition);
+                updateStatementParameters(timerEntity, statement);
                 statement.execute();
             }
         } catch (SQLException e) {
@@ -379,6 +502,10 @@ public class DatabaseTimerPersistence implements TimerPersistence, Service<Datab
             //timers never execute on this node
             return false;
         }
+        if (pendingWrites.contains(timer.getId())) {
+            // the row has to be up to date before it can be claimed
+            flush();
+        }
         String loadTimer = sql(UPDATE_RUNNING);
         Connection connection = null;
         PreparedStatement statement = null;
@@ -428,18 +555,31 @@ public class DatabaseTimerPersistence implements TimerPersistence, Service<Datab
     }
 
     @Override
-    public synchronized void timerUndeployed(final String timedObjectId) {
+    public void timerUndeployed(final String timedObjectId) {
         knownTimerIds.remove(timedObjectId);
+        lastModified.remove(timedObjectId);
     }
 
     @Override
     public List<TimerImpl> loadActiveTimers(final String timedObjectId, final TimerServiceImpl timerService) {
+        flush();
         String loadTimer = sql(LOAD_ALL_TIMERS);
         Connection connection = null;
         PreparedStatement statement = null;
         ResultSet resultSet = null;
         try {
             connection = dataSource.getConnection();
+            Timestamp modified = null;
+            if (keepRemovedTimers) {
+                // read before loading the timers, so that the first refresh sees anything written in between
+                statement = connection.prepareStatement(sql(LOAD_LAST_MODIFIED));
+                statement.setString(1, timedObjectId);
+                statement.setString(2, partition);
+                resultSet = statement.executeQuery();
+                modified = resultSet.next() ? resultSet.getTimestamp(1) : null;
+                safeClose(resultSet);
+                safeClose(statement);
+            }
             statement = connection.prepareStatement(loadTimer);
             statement.setString(1, timedObjectId);
             statement.setString(2, partition);
@@ -455,13 +595,12 @@ public class DatabaseTimerPersistence implements TimerPersistence, Service<Datab
                     EjbLogger.ROOT_LOGGER.timerReinstatementFailed(resultSet.getString(2), resultSet.getString(1), e);
                 }
             }
-            synchronized (this) {
-                Set<String> ids = new HashSet<>();
-                for (TimerImpl timer : timers) {
-                    ids.add(timer.getId());
-                }
-                knownTimerIds.put(timedObjectId, ids);
+            Set<String> ids = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+            for (TimerImpl timer : timers) {
+                ids.add(timer.getId());
             }
+            knownTimerIds.put(timedObjectId, ids);
+            lastModified.put(timedObjectId, modified == null ? new Timestamp(0) : modified);
 
             return timers;
         } catch (SQLException e) {
@@ -600,6 +739,236 @@ public class DatabaseTimerPersistence implements TimerPersistence, Service<Datab
         statement.setString(25, partition);
     }
 
+    private void updateStatementParameters(final TimerImpl timerEntity, final PreparedStatement statement) throws SQLException {
+        statement.setTimestamp(1, timestamp(timerEntity.getNextExpiration()));
+        statement.setTimestamp(2, timestamp(timerEntity.getPreviousRun()));
+        statement.setString(3, timerEntity.getState().name());
+        statement.setString(4, timerEntity.getTimedObjectId());
+        statement.setString(5, timerEntity.getId());
+        statement.setString(6, partition);
+    }
+
+    private void removeStatementParameters(final TimerImpl timerEntity, final PreparedStatement statement) throws SQLException {
+        int index = 1;
+        if (keepRemovedTimers) {
+            statement.setString(index++, timerEntity.getState().name());
+        }
+        statement.setString(index++, timerEntity.getTimedObjectId());
+        statement.setString(index++, timerEntity.getId());
+        statement.setString(index, partition);
+    }
+
+    /**
+     * Older servers that share the partition treat the rows of removed timers as live timers, so the rows are only kept
+     * once this has been enabled for every server.
+     *
+     * @return the statement that removes a cancelled or expired timer
+     */
+    private String removeTimerStatement() {
+        // the row is kept until it is purged, so that the refresh of other nodes sees the removal
+        return keepRemovedTimers ? REMOVE_TIMER : DELETE_TIMER;
+    }
+
+    /**
+     * Rows are only stamped with the time they changed when removed timers are kept, since only the incremental refresh
+     * reads the stamp and a table created by an earlier version only has the column once that is enabled.
+     *
+     * @return the statement that inserts a timer
+     */
+    private String createTimerStatement() {
+        return keepRemovedTimers ? CREATE_STAMPED_TIMER : CREATE_TIMER;
+    }
+
+    /**
+     * @return the statement that updates a timer
+     * @see #createTimerStatement()
+     */
+    private String updateTimerStatement() {
+        return keepRemovedTimers ? UPDATE_STAMPED_TIMER : UPDATE_TIMER;
+    }
+
+    private boolean isWriteBehind() {
+        return writeBehindBatchSize > 0;
+    }
+
+    /**
+     * Queues the change of a timer to be written by the next write-behind flush. If a transaction is active the change
+     * is only queued once it commits.
+     */
+    private void writeBehind(final TimerImpl timer, final boolean newTimer) {
+        final TransactionSynchronizationRegistry tsr = transactionSynchronizationRegistry.getOptionalValue();
+        if (tsr != null && tsr.getTransactionKey() != null
+                && CurrentSynchronizationCallback.get() != CurrentSynchronizationCallback.CallbackType.BEFORE_COMPLETION) {
+            final int status = tsr.getTransactionStatus();
+            if (status == Status.STATUS_MARKED_ROLLBACK || status == Status.STATUS_ROLLEDBACK ||
+                    status == Status.STATUS_ROLLING_BACK) {
+                //no need to persist anyway
+                return;
+            }
+            if (status == Status.STATUS_ACTIVE) {
+                final String key = "org.jboss.as.ejb3.timerWriteBehindKey." + timer.getId();
+                final PendingWrite existing = (PendingWrite) tsr.getResource(key);
+                if (existing == null) {
+                    tsr.registerInterposedSynchronization(new WriteBehindTransactionSynchronization(tsr, key));
+                }
+                //keep the most recent version of the timer, and remember if it was created in this transaction
+                tsr.putResource(key, new PendingWrite(timer, newTimer || (existing != null && existing.newTimer)));
+                return;
+            }
+        }
+        queueWrite(timer, newTimer);
+    }
+
+    private void queueWrite(final TimerImpl timer, final boolean newTimer) {
+        enqueue(timer, newTimer);
+        if (pendingWrites.size() >= writeBehindBatchSize && flushScheduled.compareAndSet(false, true)) {
+            timerInjectedValue.getValue().schedule(new TimerTask() {
+                @Override
+                public void run() {
+                    flushScheduled.set(false);
+                    flush();
+                }
+            }, 0);
+        }
+    }
+
+    private void enqueue(final TimerImpl timer, final boolean newTimer) {
+        final boolean removed = timer.getState() == TimerState.CANCELED || timer.getState() == TimerState.EXPIRED;
+        pendingWrites.enqueue(timer.getId(), timer, removed, newTimer);
+    }
+
+    /**
+     * Writes all pending write-behind changes to the database, using one JDBC batch per statement type in a single
+     * local transaction. Changes that could not be written are queued again, unless superseded in the meantime.
+     */
+    void flush() {
+        if (pendingWrites.isEmpty()) {
+            return;
+        }
+        synchronized (flushLock) {
+            if (this.dataSource == null) {
+                return;
+            }
+            final DataSource dataSource = this.dataSource;
+            final long start = System.nanoTime();
+            final List<TimerWriteBehindQueue.Entry<TimerImpl>> inserts = new ArrayList<>();
+            final List<TimerWriteBehindQueue.Entry<TimerImpl>> updates = new ArrayList<>();
+            final List<TimerWriteBehindQueue.Entry<TimerImpl>> deletes = new ArrayList<>();
+            for (TimerWriteBehindQueue.Entry<TimerImpl> write : pendingWrites.drain()) {
+                if (write.removed) {
+                    deletes.add(write);
+                } else if (write.newTimer) {
+                    inserts.add(write);
+                } else {
+                    updates.add(write);
+                }
+            }
+            final int count = inserts.size() + updates.size() + deletes.size();
+            if (count == 0) {
+                return;
+            }
+            Connection connection = null;
+            try {
+                connection = dataSource.getConnection();
+                final boolean autoCommit = connection.getAutoCommit();
+                connection.setAutoCommit(false);
+                try {
+                    executeBatch(connection, createTimerStatement(), inserts);
+                    executeBatch(connection, updateTimerStatement(), updates);
+                    executeBatch(connection, removeTimerStatement(), deletes);
+                    connection.commit();
+                } catch (SQLException e) {
+                    connection.rollback();
+                    throw e;
+                } finally {
+                    connection.setAutoCommit(autoCommit);
+                }
+                final long time = System.nanoTime() - start;
+                flushCount.incrementAndGet();
+                flushedWrites.addAndGet(count);
+                totalFlushTime.addAndGet(time);
+                long max = maxFlushTime.get();
+                while (time > max && !maxFlushTime.compareAndSet(max, time)) {
+                    max = maxFlushTime.get();
+                }
+            } catch (SQLException e) {
+                EjbLogger.ROOT_LOGGER.timerWriteBehindFlushFailed(count, e);
+                requeue(inserts);
+                requeue(updates);
+                requeue(deletes);
+            } finally {
+                safeClose(connection);
+            }
+        }
+    }
+
+    private void executeBatch(final Connection connection, final String statementName, final List<TimerWriteBehindQueue.Entry<TimerImpl>> writes) throws SQLException {
+        if (writes.isEmpty()) {
+            return;
+        }
+        PreparedStatement statement = null;
+        try {
+            statement = connection.prepareStatement(sql(statementName));
+            for (TimerWriteBehindQueue.Entry<TimerImpl> write : writes) {
+                if (CREATE_TIMER.equals(statementName) || CREATE_STAMPED_TIMER.equals(statementName)) {
+                    statementParameters(write.timer, statement);
+                } else if (REMOVE_TIMER.equals(statementName) || DELETE_TIMER.equals(statementName)) {
+                    removeStatementParameters(write.timer, statement);
+                } else {
+                    updateStatementParameters(write.timer, statement);
+                }
+                statement.addBatch();
+            }
+            statement.executeBatch();
+        } finally {
+            safeClose(statement);
+        }
+    }
+
+    private void requeue(final List<TimerWriteBehindQueue.Entry<TimerImpl>> writes) {
+        //retried by the next periodic flush, so that a failing database is not hammered
+        for (TimerWriteBehindQueue.Entry<TimerImpl> write : writes) {
+            pendingWrites.requeue(write);
+        }
+    }
+
+    /**
+     * @return the number of write-behind flushes that have been written to the database
+     */
+    public long getWriteBehindFlushCount() {
+        return flushCount.get();
+    }
+
+    /**
+     * @return the average number of timer changes written per write-behind flush
+     */
+    public long getWriteBehindAverageBatchSize() {
+        final long count = flushCount.get();
+        return count == 0 ? 0 : flushedWrites.get() / count;
+    }
+
+    /**
+     * @return the average time in milliseconds taken by a write-behind flush
+     */
+    public long getWriteBehindAverageFlushTime() {
+        final long count = flushCount.get();
+        return count == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(totalFlushTime.get() / count);
+    }
+
+    /**
+     * @return the longest time in milliseconds taken by a write-behind flush
+     */
+    public long getWriteBehindMaxFlushTime() {
+        return TimeUnit.NANOSECONDS.toMillis(maxFlushTime.get());
+    }
+
+    /**
+     * @return the number of timer changes waiting to be written
+     */
+    public int getWriteBehindPendingWrites() {
+        return pendingWrites.size();
+    }
+
     private String serialize(final Serializable serializable) {
         if (serializable == null) {
             return null;
@@ -657,6 +1026,10 @@ public class DatabaseTimerPersistence implements TimerPersistence, Service<Datab
         return timerInjectedValue;
     }
 
+    public InjectedValue<TransactionSynchronizationRegistry> getTransactionSynchronizationRegistry() {
+        return transactionSynchronizationRegistry;
+    }
+
     private static void safeClose(final Closeable resource) {
         try {
             if (resource != null) {
@@ -705,57 +1078,19 @@ public class DatabaseTimerPersistence implements TimerPersistence, Service<Datab
         public void run() {
             if (running.compareAndSet(false, true)) {
                 try {
-                    Set<String> timedObjects;
-                    synchronized (DatabaseTimerPersistence.this) {
-                        timedObjects = new HashSet<>(knownTimerIds.keySet());
-                    }
+                    // pending writes would otherwise look like timers that were added or removed by another node
+                    flush();
+                    Set<String> timedObjects = new HashSet<>(knownTimerIds.keySet());
                     for (String timedObjectId : timedObjects) {
                         TimerChangeListener listener = changeListeners.get(timedObjectId);
-                        if (listener == null) {
+                        final Set<String> known = knownTimerIds.get(timedObjectId);
+                        if (listener == null || known == null) {
                             continue;
                         }
-                        final Set<String> existing;
-                        synchronized (DatabaseTimerPersistence.this) {
-                            existing = new HashSet<>(knownTimerIds.get(timedObjectId));
-                        }
-                        String loadTimer = sql(LOAD_ALL_TIMERS);
-                        Connection connection = null;
-                        PreparedStatement statement = null;
-                        ResultSet resultSet = null;
-                        try {
-                            connection = dataSource.getConnection();
-                            statement = connection.prepareStatement(loadTimer);
-                            statement.setString(1, timedObjectId);
-                            statement.setString(2, partition);
-                            resultSet = statement.executeQuery();
-                            while (resultSet.next()) {
-                                try {
-                                    String id = resultSet.getString(1);
-                                    if (!existing.remove(id)) {
-                                        synchronized (DatabaseTimerPersistence.this) {
-                                            knownTimerIds.get(timedObjectId).add(id);
-                                        }
-                                        final TimerImpl timerImpl = timerFromResult(resultSet, listener.getTimerService());
-                                        listener.timerAdded(timerImpl);
-                                    }
-                                } catch (Exception e) {
-                                    EjbLogger.ROOT_LOGGER.timerReinstatementFailed(resultSet.getString(2), resultSet.getString(1), e);
-                                }
-                            }
-
-                            synchronized (DatabaseTimerPersistence.this) {
-                                Set<String> timers = knownTimerIds.get(timedObjectId);
-                                for (String timer : existing) {
-                                    timers.remove(timer);
-                                    listener.timerRemoved(timer);
-                                }
-                            }
-                        } catch (SQLException e) {
-                            EjbLogger.ROOT_LOGGER.failedToRefreshTimers(timedObjectId);
-                        } finally {
-                            safeClose(resultSet);
-                            safeClose(statement);
-                            safeClose(connection);
+                        if (keepRemovedTimers) {
+                            refreshChanged(timedObjectId, listener, known);
+                        } else {
+                            refreshAll(timedObjectId, listener, known);
                         }
                     }
                 } finally {
@@ -764,5 +1099,175 @@ public class DatabaseTimerPersistence implements TimerPersistence, Service<Datab
             }
 
         }
+
+        /**
+         * Loads only the rows that changed since the last refresh, removed timers show up as rows in a removed state.
+         */
+        private void refreshChanged(final String timedObjectId, final TimerChangeListener listener, final Set<String> known) {
+            final Timestamp since = lastModified.get(timedObjectId);
+            if (since == null) {
+                return;
+            }
+            String loadTimer = sql(LOAD_CHANGED_TIMERS);
+            Connection connection = null;
+            PreparedStatement statement = null;
+            ResultSet resultSet = null;
+            try {
+                connection = dataSource.getConnection();
+                statement = connection.prepareStatement(loadTimer);
+                statement.setString(1, timedObjectId);
+                statement.setString(2, partition);
+                statement.setTimestamp(3, TimerRefresh.changedSince(since, changeWindow));
+                resultSet = statement.executeQuery();
+                Timestamp latest = since;
+                while (resultSet.next()) {
+                    try {
+                        latest = TimerRefresh.latest(latest, resultSet.getTimestamp(25));
+                        String id = resultSet.getString(1);
+                        switch (TimerRefresh.apply(known, id, TimerState.valueOf(resultSet.getString(9)))) {
+                            case ADDED:
+                                listener.timerAdded(timerFromResult(resultSet, listener.getTimerService()));
+                                break;
+                            case REMOVED:
+                                listener.timerRemoved(id);
+                                break;
+                            default:
+                                break;
+                        }
+                    } catch (Exception e) {
+                        EjbLogger.ROOT_LOGGER.timerReinstatementFailed(resultSet.getString(2), resultSet.getString(1), e);
+                    }
+                }
+                lastModified.replace(timedObjectId, since, latest);
+            } catch (SQLException e) {
+                EjbLogger.ROOT_LOGGER.failedToRefreshTimers(timedObjectId);
+            } finally {
+                safeClose(resultSet);
+                safeClose(statement);
+                safeClose(connection);
+            }
+        }
+
+        /**
+         * Loads all timers, removed timers are the known timers that are no longer in the table.
+         */
+        private void refreshAll(final String timedObjectId, final TimerChangeListener listener, final Set<String> known) {
+            final Set<String> existing = new HashSet<>(known);
+            String loadTimer = sql(LOAD_ALL_TIMERS);
+            Connection connection = null;
+            PreparedStatement statement = null;
+            ResultSet resultSet = null;
+            try {
+                connection = dataSource.getConnection();
+                statement = connection.prepareStatement(loadTimer);
+                statement.setString(1, timedObjectId);
+                statement.setString(2, partition);
+                resultSet = statement.executeQuery();
+                while (resultSet.next()) {
+                    try {
+                        String id = resultSet.getString(1);
+                        if (!existing.remove(id) && known.add(id)) {
+                            final TimerImpl timerImpl = timerFromResult(resultSet, listener.getTimerService());
+                            listener.timerAdded(timerImpl);
+                        }
+                    } catch (Exception e) {
+                        EjbLogger.ROOT_LOGGER.timerReinstatementFailed(resultSet.getString(2), resultSet.getString(1), e);
+                    }
+                }
+                for (String timer : existing) {
+                    if (known.remove(timer)) {
+                        listener.timerRemoved(timer);
+                    }
+                }
+            } catch (SQLException e) {
+                EjbLogger.ROOT_LOGGER.failedToRefreshTimers(timedObjectId);
+            } finally {
+                safeClose(resultSet);
+                safeClose(statement);
+                safeClose(connection);
+            }
+        }
+    }
+
+    /**
+     * Deletes the rows of timers that have been cancelled or have expired, once every node has had the chance to see
+     * the removal.
+     */
+    private class PurgeTask extends TimerTask {
+
+        @Override
+        public void run() {
+            Connection connection = null;
+            PreparedStatement statement = null;
+            ResultSet resultSet = null;
+            try {
+                connection = dataSource.getConnection();
+                statement = connection.prepareStatement(sql(CURRENT_TIMESTAMP));
+                resultSet = statement.executeQuery();
+                if (!resultSet.next()) {
+                    return;
+                }
+                final Timestamp now = resultSet.getTimestamp(1);
+                safeClose(resultSet);
+                safeClose(statement);
+                statement = connection.prepareStatement(sql(PURGE_REMOVED_TIMERS));
+                statement.setString(1, partition);
+                statement.setTimestamp(2, TimerRefresh.purgeCutoff(now, TimerRefresh.removedTimerRetention(refreshInterval, changeWindow)));
+                statement.executeUpdate();
+            } catch (SQLException e) {
+                EjbLogger.ROOT_LOGGER.failedToPurgeRemovedTimers(partition, e);
+            } finally {
+                safeClose(resultSet);
+                safeClose(statement);
+                safeClose(connection);
+            }
+        }
+    }
+
+    /**
+     * A timer change made by a transaction that has not completed yet.
+     */
+    private static final class PendingWrite {
+        final TimerImpl timer;
+        /** true if the timer does not exist in the database yet */
+        final boolean newTimer;
+
+        PendingWrite(final TimerImpl timer, final boolean newTimer) {
+            this.timer = timer;
+            this.newTimer = newTimer;
+        }
+    }
+
+    private class FlushTask extends TimerTask {
+
+        @Override
+        public void run() {
+            flush();
+        }
+    }
+
+    private final class WriteBehindTransactionSynchronization implements Synchronization {
+
+        private final TransactionSynchronizationRegistry tsr;
+        private final String key;
+        private volatile PendingWrite write;
+
+        WriteBehindTransactionSynchronization(final TransactionSynchronizationRegistry tsr, final String key) {
+            this.tsr = tsr;
+            this.key = key;
+        }
+
+        @Override
+        public void beforeCompletion() {
+            //get the latest version of the entity
+            write = (PendingWrite) tsr.getResource(key);
+        }
+
+        @Override
+        public void afterCompletion(final int status) {
+            if (status == Status.STATUS_COMMITTED && write != null) {
+                queueWrite(write.timer, write.newTimer);
+            }
+        }
     }
 }
@@ -0,0 +1,95 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.timerservice.persistence.database;
+
+import java.sql.Timestamp;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.as.ejb3.timerservice.TimerState;
+
+/**
+ * Works out what the rows read by a refresh mean for the timers that a node knows about, when cancelled and expired
+ * timers are kept in the database until they are purged.
+ */
+final class TimerRefresh {
+
+    /** Minimum time that the rows of cancelled and expired timers are kept, so that every node can see the removal */
+    static final long MIN_REMOVED_TIMER_RETENTION = TimeUnit.HOURS.toMillis(1);
+
+    enum Change {
+        ADDED,
+        REMOVED,
+        NONE,
+    }
+
+    private TimerRefresh() {
+    }
+
+    /**
+     * Rows are stamped by the database when they are written, so a transaction that commits after a refresh can still
+     * carry an older stamp than the last one seen. The refresh looks back by the change window to pick those up.
+     *
+     * @return the stamp after which a refresh has to load changed rows
+     */
+    static Timestamp changedSince(final Timestamp lastSeen, final long changeWindow) {
+        return new Timestamp(lastSeen.getTime() - changeWindow);
+    }
+
+    /**
+     * Applies a changed row to the timers known for its timed object. Rows in the look back window are read again by
+     * the next refresh, so a change is only reported the first time it is seen.
+     *
+     * @return what the row changed for the known timers
+     */
+    static Change apply(final Set<String> known, final String id, final TimerState state) {
+        if (state == TimerState.CANCELED || state == TimerState.EXPIRED) {
+            return known.remove(id) ? Change.REMOVED : Change.NONE;
+        }
+        return known.add(id) ? Change.ADDED : Change.NONE;
+    }
+
+    /**
+     * @return the most recent of the two stamps, the row stamp may be null for rows written before the column existed
+     */
+    static Timestamp latest(final Timestamp latest, final Timestamp modified) {
+        return modified != null && modified.after(latest) ? modified : latest;
+    }
+
+    /**
+     * @return how long the rows of cancelled and expired timers are kept, which has to exceed the longest time between
+     * two refreshes plus the change window
+     */
+    static long removedTimerRetention(final int refreshInterval, final long changeWindow) {
+        return Math.max(MIN_REMOVED_TIMER_RETENTION, 2L * refreshInterval + changeWindow);
+    }
+
+    /**
+     * The rows are stamped with the clock of the database, so the cutoff is taken from the same clock rather than from
+     * the clock of this node, which may be skewed.
+     *
+     * @return the stamp before which the rows of removed timers can be deleted
+     */
+    static Timestamp purgeCutoff(final Timestamp databaseTime, final long retention) {
+        return new Timestamp(databaseTime.getTime() - retention);
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.timerservice.persistence.database;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The timer changes that have not been written to the database yet. Only the most recent change of each timer is
+ * kept, and a timer that is removed before it was ever written is dropped altogether.
+ *
+ * @param <T> the type of the timers
+ */
+final class TimerWriteBehindQueue<T> {
+
+    private final ConcurrentMap<String, Entry<T>> pending = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+
+    /**
+     * Queues the change of a timer, replacing any change of the same timer that is still pending.
+     *
+     * @param id the timer id
+     * @param timer the timer
+     * @param removed true if the timer was cancelled or has expired
+     * @param newTimer true if the timer does not exist in the database yet
+     */
+    void enqueue(final String id, final T timer, final boolean removed, final boolean newTimer) {
+        while (true) {
+            final Entry<T> existing = this.pending.get(id);
+            // a timer that was never written does not need to be deleted, and one that was never written must be inserted
+            final boolean insert = newTimer || (existing != null && existing.newTimer);
+            if (removed && insert) {
+                if (existing == null || this.pending.remove(id, existing)) {
+                    return;
+                }
+            } else {
+                final Entry<T> entry = new Entry<>(id, timer, removed, insert, this.sequence.incrementAndGet());
+                if (existing == null ? this.pending.putIfAbsent(id, entry) == null : this.pending.replace(id, existing, entry)) {
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Queues again a change that could not be written, unless a more recent change of the same timer was queued in the
+     * meantime. If the failed change was the insertion of the timer, the more recent change becomes one.
+     *
+     * @param entry the change that could not be written
+     */
+    void requeue(final Entry<T> entry) {
+        while (true) {
+            final Entry<T> existing = this.pending.get(entry.id);
+            if (existing == null) {
+                if (this.pending.putIfAbsent(entry.id, entry) == null) {
+                    return;
+                }
+            } else if (!entry.newTimer || existing.newTimer) {
+                return;
+            } else if (existing.removed) {
+                // the timer was removed before it was ever written
+                if (this.pending.remove(entry.id, existing)) {
+                    return;
+                }
+            } else if (this.pending.replace(entry.id, existing, new Entry<>(existing.id, existing.timer, false, true, existing.sequence))) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Removes all pending changes, in the order of the most recent change of each timer.
+     *
+     * @return the changes, never null
+     */
+    List<Entry<T>> drain() {
+        if (this.pending.isEmpty()) {
+            return Collections.emptyList();
+        }
+        final List<Entry<T>> entries = new ArrayList<>(this.pending.size());
+        for (Entry<T> entry : this.pending.values()) {
+            if (this.pending.remove(entry.id, entry)) {
+                entries.add(entry);
+            }
+        }
+        Collections.sort(entries, SEQUENCE_ORDER);
+        return entries;
+    }
+
+    boolean contains(final String id) {
+        return this.pending.containsKey(id);
+    }
+
+    boolean isEmpty() {
+        return this.pending.isEmpty();
+    }
+
+    int size() {
+        return this.pending.size();
+    }
+
+    private static final Comparator<Entry<?>> SEQUENCE_ORDER = new Comparator<Entry<?>>() {
+        @Override
+        public int compare(final Entry<?> entry1, final Entry<?> entry2) {
+            return Long.compare(entry1.sequence, entry2.sequence);
+        }
+    };
+
+    /**
+     * A timer change that has not been written to the database yet.
+     */
+    static final class Entry<T> {
+        final String id;
+        final T timer;
+        /** true if the timer was cancelled or has expired, and its row has to be removed */
+        final boolean removed;
+        /** true if the timer does not exist in the database yet */
+        final boolean newTimer;
+        final long sequence;
+
+        Entry(final String id, final T timer, final boolean removed, final boolean newTimer, final long sequence) {
+            this.id = id;
+            this.timer = timer;
+            this.removed = removed;
+            this.newTimer = newTimer;
+            this.sequence = sequence;
+        }
+    }
+}
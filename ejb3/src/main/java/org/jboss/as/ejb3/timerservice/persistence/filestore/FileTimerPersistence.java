@@ -48,19 +48,16 @@ import javax.transaction.TransactionManager;
 import javax.transaction.TransactionSynchronizationRegistry;
 import javax.xml.namespace.QName;
 import javax.xml.stream.XMLInputFactory;
-import javax.xml.stream.XMLOutputFactory;
 import javax.xml.stream.XMLStreamReader;
 import javax.xml.stream.XMLStreamWriter;
 import java.io.Closeable;
 import java.io.File;
 import java.io.FileInputStream;
-import java.io.FileOutputStream;
 import java.io.FilePermission;
 import java.io.IOException;
 import java.lang.reflect.Constructor;
 import java.security.PrivilegedAction;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -75,6 +72,11 @@ import static org.jboss.as.ejb3.logging.EjbLogger.ROOT_LOGGER;
 /**
  * File based persistent timer store.
  * <p/>
+ * The timers of each timed object are kept in a {@link TimerJournal} in their own directory, so that persisting a
+ * timer appends a single record instead of rewriting or re-reading any files. Timers stored in the older one file per
+ * timer XML format, or in the legacy serialized format, are moved into the journal the first time the timed object is
+ * loaded.
+ * <p/>
  * TODO: this is fairly hackey at the moment, it should be registered as an XA resource to support proper XA semantics
  *
  * @author Stuart Douglas
@@ -85,8 +87,10 @@ public class FileTimerPersistence implements TimerPersistence, Service<FileTimer
     private static final XMLInputFactory INPUT_FACTORY = XMLInputFactory.newInstance();
 
     private final boolean createIfNotExists;
+    private final boolean syncOnCommit;
     private MarshallerFactory factory;
     private MarshallingConfiguration configuration;
+    private TimerJournalFormat format;
     private final InjectedValue<TransactionManager> transactionManager = new InjectedValue<TransactionManager>();
     private final InjectedValue<TransactionSynchronizationRegistry> transactionSynchronizationRegistry = new InjectedValue<TransactionSynchronizationRegistry>();
     private final InjectedValue<ModuleLoader> moduleLoader = new InjectedValue<ModuleLoader>();
@@ -98,13 +102,22 @@ public class FileTimerPersistence implements TimerPersistence, Service<FileTimer
 
     private final ConcurrentMap<String, Lock> locks = new ConcurrentHashMap<String, Lock>();
     private final ConcurrentMap<String, String> directories = new ConcurrentHashMap<String, String>();
+    private final ConcurrentMap<String, TimerJournal> journals = new ConcurrentHashMap<String, TimerJournal>();
 
     public FileTimerPersistence(final boolean createIfNotExists, final String path, final String pathRelativeTo) {
+        this(createIfNotExists, path, pathRelativeTo, false);
+    }
+
+    /**
+     * @param syncOnCommit whether a timer change is forced to disk before the commit of the transaction that made it returns
+     */
+    public FileTimerPersistence(final boolean createIfNotExists, final String path, final String pathRelativeTo, final boolean syncOnCommit) {
         final SecurityManager sm = System.getSecurityManager();
         if (sm != null) {
             sm.checkPermission(FILE_PERMISSION);
         }
         this.createIfNotExists = createIfNotExists;
+        this.syncOnCommit = syncOnCommit;
         this.path = path;
         this.pathRelativeTo = pathRelativeTo;
     }
@@ -130,6 +143,7 @@ public class FileTimerPersistence implements TimerPersistence, Service<FileTimer
 
         this.configuration = configuration;
         this.factory = factory;
+        this.format = new TimerJournalFormat(factory, configuration);
         if (pathRelativeTo != null) {
             callbackHandle = pathManager.getValue().registerCallback(pathRelativeTo, PathManager.ReloadServerCallback.create(), PathManager.Event.UPDATED, PathManager.Event.REMOVED);
         }
@@ -150,6 +164,10 @@ public class FileTimerPersistence implements TimerPersistence, Service<FileTimer
 
     @Override
     public void stop(final StopContext context) {
+        for (TimerJournal journal : journals.values()) {
+            safeClose(journal);
+        }
+        journals.clear();
         locks.clear();
         directories.clear();
         if (callbackHandle != null) {
@@ -157,6 +175,7 @@ public class FileTimerPersistence implements TimerPersistence, Service<FileTimer
         }
         factory = null;
         configuration = null;
+        format = null;
     }
 
     @Override
@@ -201,6 +220,9 @@ public class FileTimerPersistence implements TimerPersistence, Service<FileTimer
 
     private void persistTimer(final TimerImpl timer, boolean newTimer) {
         final Lock lock = getLock(timer.getTimedObjectId());
+        TimerJournal journal = null;
+        long ticket = 0;
+        lock.lock();
         try {
             final int status = transactionManager.getValue().getStatus();
             if (status == Status.STATUS_MARKED_ROLLBACK || status == Status.STATUS_ROLLEDBACK ||
@@ -209,21 +231,11 @@ public class FileTimerPersistence implements TimerPersistence, Service<FileTimer
                 return;
             }
 
-            lock.lock();
             if (status == Status.STATUS_NO_TRANSACTION ||
                     status == Status.STATUS_UNKNOWN || isBeforeCompletion()
                     || status == Status.STATUS_COMMITTED) {
-                Map<String, TimerImpl> map = getTimers(timer.getTimedObjectId(), timer.getTimerService());
-                if (timer.getState() == TimerState.CANCELED ||
-                        timer.getState() == TimerState.EXPIRED) {
-                    map.remove(timer.getId());
-                    writeFile(timer);
-                } else if (newTimer || map.containsKey(timer.getId())) {
-                    //if it is not a new timer and is not in the map then it has
-                    //been removed by another thread.
-                    map.put(timer.getId(), timer);
-                    writeFile(timer);
-                }
+                journal = getJournal(timer.getTimedObjectId(), timer.getTimerService());
+                ticket = writeTimer(journal, timer, newTimer);
             } else {
 
                 final String key = timerTransactionKey(timer);
@@ -240,6 +252,8 @@ public class FileTimerPersistence implements TimerPersistence, Service<FileTimer
         } finally {
             lock.unlock();
         }
+        // the fsync happens outside of the lock, so that concurrent writers can share it
+        sync(journal, ticket);
     }
 
     private String timerTransactionKey(final TimerImpl TimerImpl) {
@@ -253,6 +267,10 @@ public class FileTimerPersistence implements TimerPersistence, Service<FileTimer
             lock.lock();
             locks.remove(timedObjectId);
             directories.remove(timedObjectId);
+            final TimerJournal journal = journals.remove(timedObjectId);
+            if (journal != null) {
+                safeClose(journal);
+            }
         } finally {
             lock.unlock();
         }
@@ -272,13 +290,20 @@ public class FileTimerPersistence implements TimerPersistence, Service<FileTimer
         final Lock lock = getLock(timedObjectId);
         try {
             lock.lock();
-            final Map<String, TimerImpl> timers = getTimers(timedObjectId, timerService);
+            final Map<String, byte[]> timers = getJournal(timedObjectId, timerService).read();
+            final ClassLoader classLoader = timerService.getTimedObjectInvoker().getValue().getClassLoader();
 
             final List<TimerImpl> entities = new ArrayList<TimerImpl>();
-            for (Map.Entry<String, TimerImpl> entry : timers.entrySet()) {
-                entities.add(mostRecentEntityVersion(entry.getValue()));
+            for (Map.Entry<String, byte[]> entry : timers.entrySet()) {
+                try {
+                    entities.add(mostRecentEntityVersion(format.read(entry.getValue(), timerService, classLoader)));
+                } catch (Exception e) {
+                    ROOT_LOGGER.timerReinstatementFailed(timedObjectId, entry.getKey(), e);
+                }
             }
             return entities;
+        } catch (IOException e) {
+            throw new RuntimeException(e);
         } finally {
             lock.unlock();
         }
@@ -325,24 +350,60 @@ public class FileTimerPersistence implements TimerPersistence, Service<FileTimer
     }
 
     /**
-     * Gets the timer map, loading from the persistent store if necessary. Should be called under lock
+     * Gets the journal of a timed object, opening it if necessary. Should be called under lock
      *
      * @param timedObjectId The timed object id
-     * @return The timers for the object
+     * @return The journal of the object
      */
-    private Map<String, TimerImpl> getTimers(final String timedObjectId, final TimerServiceImpl timerService) {
-        return loadTimersFromFile(timedObjectId, timerService);
+    private TimerJournal getJournal(final String timedObjectId, final TimerServiceImpl timerService) {
+        TimerJournal journal = journals.get(timedObjectId);
+        if (journal == null) {
+            final String directory = getDirectory(timedObjectId);
+            journal = new TimerJournal(new File(directory), TimerJournal.DEFAULT_SEGMENT_SIZE, syncOnCommit);
+            try {
+                journal.replay();
+                migrateTimers(journal, timedObjectId, timerService, directory);
+            } catch (IOException e) {
+                safeClose(journal);
+                throw new RuntimeException(e);
+            }
+            journals.put(timedObjectId, journal);
+        }
+        return journal;
     }
 
-    private Map<String, TimerImpl> loadTimersFromFile(String timedObjectId, TimerServiceImpl timerService) {
-        Map<String, TimerImpl> timers = new HashMap<>();
-        String directory = getDirectory(timedObjectId);
-
+    /**
+     * Moves the timers stored in the legacy and the XML formats into the journal. The journal is forced to disk before
+     * the XML files are deleted, so a crash during the migration never loses a timer.
+     */
+    private void migrateTimers(TimerJournal journal, String timedObjectId, TimerServiceImpl timerService, String directory) throws IOException {
+        final Map<String, TimerImpl> timers = new HashMap<>();
+        //the legacy code handling code will write a marker file, to make sure that the old timers will not be loaded on next restart.
         timers.putAll(LegacyFileStore.loadTimersFromFile(timedObjectId, timerService, directory, factory, configuration));
-        for(Map.Entry<String, TimerImpl> entry : timers.entrySet()) {
-            writeFile(entry.getValue()); //write legacy timers into the new format
-            //the legacy code handling code will write a marker file, to make sure that the old timers will not be loaded on next restart.
+        final List<File> files = new ArrayList<>();
+        timers.putAll(loadTimersFromXml(directory, timerService, files));
+        if (timers.isEmpty() && files.isEmpty()) {
+            return;
         }
+        for (TimerImpl timer : timers.values()) {
+            // if we crashed half way through an earlier migration the journal already has these, and may have newer versions
+            if (!journal.contains(timer.getId())) {
+                journal.put(timer.getId(), format.write(timer));
+            }
+        }
+        journal.force();
+        for (File file : files) {
+            file.delete();
+        }
+    }
+
+    /**
+     * Loads the timers stored one per XML file, which is how timers were stored before the journal.
+     *
+     * @param loaded the files that were read successfully are added to this list
+     */
+    private Map<String, TimerImpl> loadTimersFromXml(String directory, TimerServiceImpl timerService, List<File> loaded) {
+        Map<String, TimerImpl> timers = new HashMap<>();
         final File file = new File(directory);
         if (!file.exists()) {
             //no timers exist yet
@@ -372,6 +433,7 @@ public class FileTimerPersistence implements TimerPersistence, Service<FileTimer
                     for (TimerImpl timer : timerList) {
                         timers.put(timer.getId(), timer);
                     }
+                    loaded.add(timerFile);
                 } finally {
                     safeClose(in);
                 }
@@ -397,9 +459,35 @@ public class FileTimerPersistence implements TimerPersistence, Service<FileTimer
         return mapper;
     }
 
+    /**
+     * Appends the change of a timer to the journal. Should be called under lock
+     *
+     * @return the ticket to sync, or 0 if nothing was written
+     */
+    private long writeTimer(TimerJournal journal, TimerImpl timer, boolean newTimer) {
+        try {
+            if (timer.getState() == TimerState.CANCELED ||
+                    timer.getState() == TimerState.EXPIRED) {
+                return journal.remove(timer.getId());
+            } else if (newTimer || journal.contains(timer.getId())) {
+                //if it is not a new timer and is not in the journal then it has
+                //been removed by another thread.
+                return journal.put(timer.getId(), format.write(timer));
+            }
+            return 0;
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
 
-    private File fileName(String timedObjectId, String timerId) {
-        return new File(getDirectory(timedObjectId) + File.separator + timerId.replace(File.separator, "-") + ".xml");
+    private static void sync(TimerJournal journal, long ticket) {
+        if (ticket > 0) {
+            try {
+                journal.sync(ticket);
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        }
     }
 
     /**
@@ -453,24 +541,18 @@ public class FileTimerPersistence implements TimerPersistence, Service<FileTimer
                     if (timer == null) {
                         return null;
                     }
+                    TimerJournal journal = null;
+                    long ticket = 0;
                     try {
                         lock.lock();
                         if (status == Status.STATUS_COMMITTED) {
-                            final Map<String, TimerImpl> map = getTimers(timer.getTimedObjectId(), timer.getTimerService());
-                            if (timer.getState() == TimerState.CANCELED ||
-                                    timer.getState() == TimerState.EXPIRED) {
-                                map.remove(timer.getId());
-                            } else {
-                                if (newTimer || map.containsKey(timer.getId())) {
-                                    //if an existing timer is not in the map it has been cancelled by another thread
-                                    map.put(timer.getId(), timer);
-                                }
-                            }
-                            writeFile(timer);
+                            journal = getJournal(timer.getTimedObjectId(), timer.getTimerService());
+                            ticket = writeTimer(journal, timer, newTimer);
                         }
                     } finally {
                         lock.unlock();
                     }
+                    sync(journal, ticket);
                     return null;
                 }
             });
@@ -479,34 +561,6 @@ public class FileTimerPersistence implements TimerPersistence, Service<FileTimer
 
     }
 
-    private void writeFile(TimerImpl timer) {
-        final File file = fileName(timer.getTimedObjectId(), timer.getId());
-
-        //if the timer is expired or cancelled delete the file
-        if (timer.getState() == TimerState.CANCELED ||
-                timer.getState() == TimerState.EXPIRED) {
-            if (file.exists()) {
-                file.delete();
-            }
-            return;
-        }
-        try {
-            FileOutputStream out = new FileOutputStream(file);
-
-            try {
-                XMLStreamWriter writer = XMLOutputFactory.newInstance().createXMLStreamWriter(out);
-                XMLMapper mapper = createMapper(timer.getTimerService());
-                mapper.deparseDocument(new EjbTimerXmlPersister(factory, configuration), Collections.singletonList(timer), writer);
-                writer.flush();
-                writer.close();
-            } finally {
-                safeClose(out);
-            }
-        } catch (Exception e) {
-            throw new RuntimeException(e);
-        }
-    }
-
     public InjectedValue<TransactionManager> getTransactionManager() {
         return transactionManager;
     }
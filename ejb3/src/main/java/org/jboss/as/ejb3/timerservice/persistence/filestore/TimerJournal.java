@@ -0,0 +1,461 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.timerservice.persistence.filestore;
+
+import static org.jboss.as.ejb3.logging.EjbLogger.ROOT_LOGGER;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.zip.CRC32;
+
+/**
+ * An append-only journal of the persistent timers of one timed object.
+ * <p/>
+ * Every change of a timer is appended as one record to the active segment file:
+ * <pre>
+ * int length | int crc32 | byte type | int id length | id (UTF-8) | payload
+ * </pre>
+ * where length and checksum cover everything after the checksum. Segments are named
+ * <code>journal-&lt;sequence&gt;.log</code> and are replayed in sequence order, the last record of a timer wins. A
+ * record that is cut short or fails its checksum ends the replay of its segment, which is what a crash in the middle of
+ * a write leaves behind. Once most of the journal consists of superseded records, the live records are copied into a
+ * new segment and the older segments are deleted.
+ * <p/>
+ * If sync is enabled, {@link #sync(long)} forces the journal to disk. Callers that append concurrently share a single
+ * force, so the number of fsyncs does not grow with the number of committing transactions.
+ */
+final class TimerJournal implements Closeable {
+
+    static final String SEGMENT_PREFIX = "journal-";
+    static final String SEGMENT_SUFFIX = ".log";
+    static final long DEFAULT_SEGMENT_SIZE = 4 * 1024 * 1024;
+
+    private static final byte PUT = 1;
+    private static final byte REMOVE = 2;
+    private static final int HEADER_SIZE = 8;
+    // the whole record, header included, has to fit in the int length of its location
+    private static final int MAX_RECORD_LENGTH = Integer.MAX_VALUE - HEADER_SIZE;
+    private static final int READ_BUFFER_SIZE = 8192;
+
+    private final File directory;
+    private final long segmentSize;
+    private final boolean sync;
+
+    // the following are guarded by this
+    private final TreeMap<Long, FileChannel> segments = new TreeMap<Long, FileChannel>();
+    private Map<String, Location> live = new HashMap<String, Location>();
+    private long sequence;
+    private long activeSize;
+    private long totalSize;
+    private long liveSize;
+    private volatile long appended;
+
+    // the active channel is only replaced while holding both this and the sync lock, always acquired in that order
+    private final Object syncLock = new Object();
+    private FileChannel active;
+    private volatile long synced;
+
+    TimerJournal(File directory, long segmentSize, boolean sync) {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.sync = sync;
+    }
+
+    /**
+     * Opens all segments and rebuilds the index of live records. Must be called once, before anything else.
+     */
+    synchronized void replay() throws IOException {
+        final File[] files = this.directory.listFiles();
+        final TreeMap<Long, File> found = new TreeMap<Long, File>();
+        if (files != null) {
+            for (File file : files) {
+                final long sequence = sequenceOf(file.getName());
+                if (sequence > 0) {
+                    found.put(sequence, file);
+                }
+            }
+        }
+        for (Map.Entry<Long, File> entry : found.entrySet()) {
+            final FileChannel channel = new RandomAccessFile(entry.getValue(), "rw").getChannel();
+            this.segments.put(entry.getKey(), channel);
+            final long valid = this.replaySegment(entry.getKey(), channel);
+            if (valid < channel.size()) {
+                ROOT_LOGGER.timerJournalTruncated(entry.getValue(), valid);
+                if (entry.getKey().equals(found.lastKey())) {
+                    // drop the torn tail, so that new records are appended after the last complete one
+                    channel.truncate(valid);
+                }
+            }
+            this.totalSize += valid;
+        }
+        if (this.segments.isEmpty()) {
+            this.openSegment(1);
+        } else {
+            this.sequence = this.segments.lastKey();
+            this.active = this.segments.lastEntry().getValue();
+            this.activeSize = this.active.size();
+        }
+    }
+
+    /**
+     * Reads the records of a segment one by one, first the header of a record and then its body, so that only a single
+     * record is held in memory at a time and segments of any size can be replayed. The payload is not kept, it is only
+     * read to verify the checksum.
+     *
+     * @return the number of bytes of the segment that hold complete records
+     */
+    private long replaySegment(long sequence, FileChannel channel) throws IOException {
+        final long size = channel.size();
+        final ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE + 5);
+        final ByteBuffer buffer = ByteBuffer.allocate(READ_BUFFER_SIZE);
+        final CRC32 crc = new CRC32();
+        long offset = 0;
+        while (size - offset >= header.capacity()) {
+            header.clear();
+            readFully(channel, header, offset);
+            final int length = header.getInt(0);
+            final int checksum = header.getInt(4);
+            // a length that runs past the end of the segment is a torn or corrupt record
+            if (length < 5 || length > MAX_RECORD_LENGTH || length > size - offset - HEADER_SIZE) {
+                return offset;
+            }
+            final byte type = header.get(HEADER_SIZE);
+            final int idLength = header.getInt(HEADER_SIZE + 1);
+            if (idLength < 0 || idLength > length - 5) {
+                return offset;
+            }
+            crc.reset();
+            crc.update(header.array(), HEADER_SIZE, 5);
+            final byte[] idBytes = new byte[idLength];
+            readFully(channel, ByteBuffer.wrap(idBytes), offset + header.capacity());
+            crc.update(idBytes, 0, idLength);
+            final long end = offset + HEADER_SIZE + length;
+            long position = offset + header.capacity() + idLength;
+            while (position < end) {
+                buffer.clear();
+                buffer.limit((int) Math.min(buffer.capacity(), end - position));
+                readFully(channel, buffer, position);
+                crc.update(buffer.array(), 0, buffer.limit());
+                position += buffer.limit();
+            }
+            if ((int) crc.getValue() != checksum) {
+                return offset;
+            }
+            final String id = new String(idBytes, StandardCharsets.UTF_8);
+            final Location previous;
+            if (type == PUT) {
+                previous = this.live.put(id, new Location(sequence, offset, HEADER_SIZE + length, HEADER_SIZE + 5 + idLength));
+                this.liveSize += HEADER_SIZE + length;
+            } else {
+                previous = this.live.remove(id);
+            }
+            if (previous != null) {
+                this.liveSize -= previous.length;
+            }
+            offset = end;
+        }
+        return offset;
+    }
+
+    synchronized boolean contains(String id) {
+        return this.live.containsKey(id);
+    }
+
+    /**
+     * Appends the new state of a timer.
+     *
+     * @return a ticket to pass to {@link #sync(long)}
+     */
+    synchronized long put(String id, byte[] payload) throws IOException {
+        final Location location = this.append(PUT, id, payload);
+        final Location previous = this.live.put(id, location);
+        this.liveSize += location.length;
+        if (previous != null) {
+            this.liveSize -= previous.length;
+        }
+        this.compactIfNeeded();
+        return this.appended;
+    }
+
+    /**
+     * Appends the removal of a timer, if the journal holds it.
+     *
+     * @return a ticket to pass to {@link #sync(long)}
+     */
+    synchronized long remove(String id) throws IOException {
+        final Location previous = this.live.remove(id);
+        if (previous == null) {
+            return 0;
+        }
+        this.liveSize -= previous.length;
+        this.append(REMOVE, id, new byte[0]);
+        this.compactIfNeeded();
+        return this.appended;
+    }
+
+    /**
+     * Reads the payloads of all live timers.
+     */
+    synchronized Map<String, byte[]> read() throws IOException {
+        final Map<String, byte[]> result = new LinkedHashMap<String, byte[]>();
+        for (Map.Entry<String, Location> entry : this.live.entrySet()) {
+            final Location location = entry.getValue();
+            final ByteBuffer buffer = ByteBuffer.allocate(location.length - location.payloadOffset);
+            readFully(this.segments.get(location.segment), buffer, location.offset + location.payloadOffset);
+            result.put(entry.getKey(), buffer.array());
+        }
+        return result;
+    }
+
+    /**
+     * Makes sure that everything up to the given ticket has been forced to disk, if sync is enabled. Whoever gets the
+     * lock first forces everything appended so far, on behalf of all callers waiting behind it.
+     */
+    void sync(long ticket) throws IOException {
+        if (!this.sync || ticket <= this.synced) {
+            return;
+        }
+        synchronized (this.syncLock) {
+            if (ticket <= this.synced || this.active == null) {
+                return;
+            }
+            // no roll can happen while we hold the sync lock, so every record counted here is in the active segment
+            final long target = this.appended;
+            this.active.force(false);
+            this.synced = target;
+        }
+    }
+
+    /**
+     * Forces everything appended so far to disk, whether or not sync is enabled.
+     */
+    synchronized void force() throws IOException {
+        synchronized (this.syncLock) {
+            for (FileChannel channel : this.segments.values()) {
+                channel.force(false);
+            }
+            this.synced = this.appended;
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        synchronized (this.syncLock) {
+            for (FileChannel channel : this.segments.values()) {
+                safeClose(channel);
+            }
+            this.segments.clear();
+            this.live.clear();
+            this.active = null;
+        }
+    }
+
+    // must be called while holding this
+    private Location append(byte type, String id, byte[] payload) throws IOException {
+        final byte[] idBytes = id.getBytes(StandardCharsets.UTF_8);
+        final int length = 5 + idBytes.length + payload.length;
+        final ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + length);
+        buffer.putInt(length);
+        buffer.putInt(0);
+        buffer.put(type);
+        buffer.putInt(idBytes.length);
+        buffer.put(idBytes);
+        buffer.put(payload);
+        final CRC32 crc = new CRC32();
+        crc.update(buffer.array(), HEADER_SIZE, length);
+        buffer.putInt(4, (int) crc.getValue());
+        buffer.flip();
+
+        if (this.activeSize > 0 && this.activeSize + buffer.remaining() > this.segmentSize) {
+            this.roll();
+        }
+        final long offset = this.activeSize;
+        writeFully(this.active, buffer, offset);
+        this.activeSize += buffer.capacity();
+        this.totalSize += buffer.capacity();
+        this.appended++;
+        return new Location(this.sequence, offset, buffer.capacity(), HEADER_SIZE + 5 + idBytes.length);
+    }
+
+    private void roll() throws IOException {
+        synchronized (this.syncLock) {
+            if (this.sync) {
+                // only the active segment is forced by sync(), so the one we leave behind must be complete on disk
+                this.active.force(false);
+            }
+            this.openSegment(this.sequence + 1);
+            if (this.sync) {
+                // the records synced into the new segment are lost if its directory entry is not
+                this.syncDirectory();
+            }
+        }
+    }
+
+    private void openSegment(long sequence) throws IOException {
+        final FileChannel channel = new RandomAccessFile(new File(this.directory, segmentName(sequence)), "rw").getChannel();
+        this.segments.put(sequence, channel);
+        this.sequence = sequence;
+        this.active = channel;
+        this.activeSize = channel.size();
+    }
+
+    private void compactIfNeeded() throws IOException {
+        if (this.totalSize > this.segmentSize && this.liveSize * 2 < this.totalSize) {
+            this.compact();
+        }
+    }
+
+    /**
+     * Copies the live records into a new segment and deletes all older segments. The new segment and its directory
+     * entry are forced before anything is deleted, and it has the highest sequence, so a crash at any point leaves a
+     * journal that replays to the same state. The directory is forced again once the older segments are deleted, so
+     * that they do not come back after a crash.
+     */
+    private void compact() throws IOException {
+        final long target = this.sequence + 1;
+        final File file = new File(this.directory, segmentName(target));
+        final FileChannel channel = new RandomAccessFile(file, "rw").getChannel();
+        final Map<String, Location> moved = new HashMap<String, Location>();
+        long position = 0;
+        try {
+            for (Map.Entry<String, Location> entry : this.live.entrySet()) {
+                final Location location = entry.getValue();
+                final ByteBuffer buffer = ByteBuffer.allocate(location.length);
+                readFully(this.segments.get(location.segment), buffer, location.offset);
+                buffer.flip();
+                writeFully(channel, buffer, position);
+                moved.put(entry.getKey(), new Location(target, position, location.length, location.payloadOffset));
+                position += location.length;
+            }
+            channel.force(false);
+            this.syncDirectory();
+        } catch (IOException e) {
+            safeClose(channel);
+            file.delete();
+            throw e;
+        }
+        synchronized (this.syncLock) {
+            for (Map.Entry<Long, FileChannel> entry : this.segments.entrySet()) {
+                safeClose(entry.getValue());
+                new File(this.directory, segmentName(entry.getKey())).delete();
+            }
+            this.segments.clear();
+            this.segments.put(target, channel);
+            this.sequence = target;
+            this.active = channel;
+            this.activeSize = position;
+            this.synced = this.appended;
+        }
+        this.syncDirectory();
+        this.live = moved;
+        this.totalSize = position;
+        this.liveSize = position;
+    }
+
+    /**
+     * Forces the entries of the journal directory to disk, which makes files that were created or deleted durable.
+     * Platforms that cannot open a directory, such as Windows, do not need this, so failing to open it is ignored.
+     */
+    private void syncDirectory() throws IOException {
+        final FileChannel channel;
+        try {
+            channel = FileChannel.open(this.directory.toPath(), StandardOpenOption.READ);
+        } catch (IOException e) {
+            return;
+        }
+        try {
+            channel.force(true);
+        } finally {
+            safeClose(channel);
+        }
+    }
+
+    static String segmentName(long sequence) {
+        return SEGMENT_PREFIX + sequence + SEGMENT_SUFFIX;
+    }
+
+    /**
+     * @return the sequence of the segment with the given file name, or -1 if it is not a segment
+     */
+    static long sequenceOf(String name) {
+        if (!name.startsWith(SEGMENT_PREFIX) || !name.endsWith(SEGMENT_SUFFIX)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            final int read = channel.read(buffer, position);
+            if (read < 0) {
+                throw new EOFException();
+            }
+            position += read;
+        }
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+    }
+
+    private static void safeClose(final Closeable closeable) {
+        try {
+            closeable.close();
+        } catch (IOException e) {
+            // ignore
+        }
+    }
+
+    /**
+     * Where the record of a live timer is stored.
+     */
+    private static final class Location {
+        final long segment;
+        final long offset;
+        final int length;
+        final int payloadOffset;
+
+        Location(long segment, long offset, int length, int payloadOffset) {
+            this.segment = segment;
+            this.offset = offset;
+            this.length = length;
+            this.payloadOffset = payloadOffset;
+        }
+    }
+}
@@ -0,0 +1,216 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.timerservice.persistence.filestore;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.Serializable;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.util.Date;
+
+import javax.ejb.ScheduleExpression;
+
+import org.jboss.as.ejb3.timerservice.CalendarTimer;
+import org.jboss.as.ejb3.timerservice.TimerImpl;
+import org.jboss.as.ejb3.timerservice.TimerServiceImpl;
+import org.jboss.as.ejb3.timerservice.TimerState;
+import org.jboss.as.ejb3.timerservice.persistence.TimeoutMethod;
+import org.jboss.marshalling.ByteBufferInput;
+import org.jboss.marshalling.Marshaller;
+import org.jboss.marshalling.MarshallerFactory;
+import org.jboss.marshalling.MarshallingConfiguration;
+import org.jboss.marshalling.OutputStreamByteOutput;
+import org.jboss.marshalling.Unmarshaller;
+
+/**
+ * The binary representation of a timer in the {@link TimerJournal}. It holds the same fields as the XML format
+ * written by {@link EjbTimerXmlPersister}, plus the previous run.
+ */
+final class TimerJournalFormat {
+
+    private static final byte VERSION_1 = 1;
+
+    private final MarshallerFactory factory;
+    private final MarshallingConfiguration configuration;
+
+    TimerJournalFormat(MarshallerFactory factory, MarshallingConfiguration configuration) {
+        this.factory = factory;
+        this.configuration = configuration;
+    }
+
+    byte[] write(TimerImpl timer) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        final DataOutputStream out = new DataOutputStream(bytes);
+        out.writeByte(VERSION_1);
+        final boolean calendar = timer instanceof CalendarTimer;
+        out.writeBoolean(calendar);
+        out.writeUTF(timer.getTimedObjectId());
+        out.writeUTF(timer.getId());
+        writeDate(out, timer.getInitialExpiration());
+        out.writeLong(timer.getInterval());
+        writeDate(out, timer.getNextExpiration());
+        writeDate(out, timer.getPreviousRun());
+        out.writeUTF(timer.getState().name());
+        writeBytes(out, this.serialize(timer.getTimerInfo()));
+        writeBytes(out, this.serialize(timer.getPrimaryKey()));
+        if (calendar) {
+            final CalendarTimer calendarTimer = (CalendarTimer) timer;
+            final ScheduleExpression schedule = calendarTimer.getScheduleExpression();
+            writeString(out, schedule.getSecond());
+            writeString(out, schedule.getMinute());
+            writeString(out, schedule.getHour());
+            writeString(out, schedule.getDayOfWeek());
+            writeString(out, schedule.getDayOfMonth());
+            writeString(out, schedule.getMonth());
+            writeString(out, schedule.getYear());
+            writeDate(out, schedule.getStart());
+            writeDate(out, schedule.getEnd());
+            writeString(out, schedule.getTimezone());
+            out.writeBoolean(calendarTimer.isAutoTimer());
+            if (calendarTimer.isAutoTimer()) {
+                final Method method = calendarTimer.getTimeoutMethod();
+                out.writeUTF(method.getDeclaringClass().getName());
+                out.writeUTF(method.getName());
+                final Class<?>[] parameterTypes = method.getParameterTypes();
+                out.writeInt(parameterTypes.length);
+                for (Class<?> parameterType : parameterTypes) {
+                    out.writeUTF(parameterType.getName());
+                }
+            }
+        }
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    TimerImpl read(byte[] data, TimerServiceImpl timerService, ClassLoader classLoader) throws IOException, ClassNotFoundException {
+        final DataInputStream in = new DataInputStream(new ByteArrayInputStream(data));
+        final byte version = in.readByte();
+        if (version != VERSION_1) {
+            throw new IOException("Unsupported timer record version " + version);
+        }
+        final boolean calendar = in.readBoolean();
+        final TimerImpl.Builder builder = calendar ? CalendarTimer.builder() : TimerImpl.builder();
+        builder.setPersistent(true);
+        builder.setTimedObjectId(in.readUTF());
+        builder.setId(in.readUTF());
+        builder.setInitialDate(readDate(in));
+        builder.setRepeatInterval(in.readLong());
+        builder.setNextDate(readDate(in));
+        builder.setPreviousRun(readDate(in));
+        builder.setTimerState(TimerState.valueOf(in.readUTF()));
+        builder.setInfo((Serializable) this.deserialize(readBytes(in)));
+        builder.setPrimaryKey(this.deserialize(readBytes(in)));
+        if (!calendar) {
+            return builder.build(timerService);
+        }
+        final CalendarTimer.Builder calendarBuilder = (CalendarTimer.Builder) builder;
+        calendarBuilder.setScheduleExprSecond(readString(in));
+        calendarBuilder.setScheduleExprMinute(readString(in));
+        calendarBuilder.setScheduleExprHour(readString(in));
+        calendarBuilder.setScheduleExprDayOfWeek(readString(in));
+        calendarBuilder.setScheduleExprDayOfMonth(readString(in));
+        calendarBuilder.setScheduleExprMonth(readString(in));
+        calendarBuilder.setScheduleExprYear(readString(in));
+        calendarBuilder.setScheduleExprStartDate(readDate(in));
+        calendarBuilder.setScheduleExprEndDate(readDate(in));
+        calendarBuilder.setScheduleExprTimezone(readString(in));
+        final boolean autoTimer = in.readBoolean();
+        calendarBuilder.setAutoTimer(autoTimer);
+        if (autoTimer) {
+            final String className = in.readUTF();
+            final String methodName = in.readUTF();
+            final String[] params = new String[in.readInt()];
+            for (int i = 0; i < params.length; ++i) {
+                params[i] = in.readUTF();
+            }
+            calendarBuilder.setTimeoutMethod(CalendarTimer.getTimeoutMethod(new TimeoutMethod(className, methodName, params), classLoader));
+        }
+        return calendarBuilder.build(timerService);
+    }
+
+    private byte[] serialize(Object object) throws IOException {
+        if (object == null) {
+            return null;
+        }
+        final Marshaller marshaller = this.factory.createMarshaller(this.configuration);
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        marshaller.start(new OutputStreamByteOutput(out));
+        marshaller.writeObject(object);
+        marshaller.finish();
+        marshaller.flush();
+        return out.toByteArray();
+    }
+
+    private Object deserialize(byte[] data) throws IOException, ClassNotFoundException {
+        if (data == null) {
+            return null;
+        }
+        final Unmarshaller unmarshaller = this.factory.createUnmarshaller(this.configuration);
+        unmarshaller.start(new ByteBufferInput(ByteBuffer.wrap(data)));
+        try {
+            return unmarshaller.readObject();
+        } finally {
+            unmarshaller.close();
+        }
+    }
+
+    private static void writeDate(DataOutputStream out, Date date) throws IOException {
+        out.writeLong(date == null ? Long.MIN_VALUE : date.getTime());
+    }
+
+    private static Date readDate(DataInputStream in) throws IOException {
+        final long time = in.readLong();
+        return time == Long.MIN_VALUE ? null : new Date(time);
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    private static void writeBytes(DataOutputStream out, byte[] value) throws IOException {
+        out.writeInt(value == null ? -1 : value.length);
+        if (value != null) {
+            out.write(value);
+        }
+    }
+
+    private static byte[] readBytes(DataInputStream in) throws IOException {
+        final int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        final byte[] value = new byte[length];
+        in.readFully(value);
+        return value;
+    }
+}
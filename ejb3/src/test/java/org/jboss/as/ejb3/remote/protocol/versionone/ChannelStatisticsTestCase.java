@@ -0,0 +1,59 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright (c) 2014, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.remote.protocol.versionone;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests {@link ChannelStatistics}.
+ */
+public class ChannelStatisticsTestCase {
+
+    @Test
+    public void testInvocations() {
+        final ChannelStatistics statistics = new ChannelStatistics();
+        statistics.invocationCompleted(TimeUnit.MILLISECONDS.toNanos(10));
+        statistics.invocationCompleted(TimeUnit.MILLISECONDS.toNanos(30));
+        Assert.assertEquals(2, statistics.getInvocationCount());
+        Assert.assertEquals(40, statistics.getTotalInvocationTime(TimeUnit.MILLISECONDS));
+        Assert.assertEquals(30, statistics.getMaxInvocationTime(TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void testAdd() {
+        final ChannelStatistics first = new ChannelStatistics();
+        first.invocationCompleted(TimeUnit.MILLISECONDS.toNanos(50));
+        final ChannelStatistics second = new ChannelStatistics();
+        second.invocationCompleted(TimeUnit.MILLISECONDS.toNanos(20));
+        second.invocationCompleted(TimeUnit.MILLISECONDS.toNanos(20));
+
+        final ChannelStatistics total = new ChannelStatistics();
+        total.add(first);
+        total.add(second);
+        Assert.assertEquals(3, total.getInvocationCount());
+        Assert.assertEquals(90, total.getTotalInvocationTime(TimeUnit.MILLISECONDS));
+        Assert.assertEquals(50, total.getMaxInvocationTime(TimeUnit.MILLISECONDS));
+    }
+}
@@ -0,0 +1,143 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright (c) 2014, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.remote.protocol.versionone;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jboss.as.ejb3.remote.protocol.MessageHandler;
+import org.jboss.marshalling.Marshaller;
+import org.jboss.marshalling.river.RiverMarshallerFactory;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests that the message handlers of a channel, and the marshallers of the method invocation handler, are reused.
+ */
+public class MessageHandlerReuseTestCase {
+
+    private static final byte HEADER_INVOCATION_REQUEST = 0x03;
+    private static final byte HEADER_TX_COMMIT_REQUEST = 0x0F;
+    private static final byte HEADER_UNKNOWN = 0x7F;
+
+    @Test
+    public void testMessageHandlerCache() {
+        final AtomicInteger created = new AtomicInteger();
+        final VersionOneProtocolChannelReceiver receiver = new VersionOneProtocolChannelReceiver(null, null, null, null, new RiverMarshallerFactory(), null, null) {
+            @Override
+            protected MessageHandler getMessageHandler(final byte header) {
+                created.incrementAndGet();
+                return super.getMessageHandler(header);
+            }
+        };
+        final MessageHandler invocationHandler = receiver.getCachedMessageHandler(HEADER_INVOCATION_REQUEST);
+        Assert.assertTrue(invocationHandler instanceof MethodInvocationMessageHandler);
+        Assert.assertSame(invocationHandler, receiver.getCachedMessageHandler(HEADER_INVOCATION_REQUEST));
+        Assert.assertEquals(1, created.get());
+
+        final MessageHandler commitHandler = receiver.getCachedMessageHandler(HEADER_TX_COMMIT_REQUEST);
+        Assert.assertTrue(commitHandler instanceof TransactionRequestHandler);
+        Assert.assertSame(commitHandler, receiver.getCachedMessageHandler(HEADER_TX_COMMIT_REQUEST));
+        Assert.assertEquals(2, created.get());
+
+        // unknown headers have no handler to cache
+        Assert.assertNull(receiver.getCachedMessageHandler(HEADER_UNKNOWN));
+        Assert.assertNull(receiver.getCachedMessageHandler(HEADER_UNKNOWN));
+        Assert.assertEquals(4, created.get());
+    }
+
+    @Test
+    public void testUnmarshallerPool() throws Exception {
+        final MethodInvocationMessageHandler handler = new MethodInvocationMessageHandler(null, new RiverMarshallerFactory(), null, null);
+        final ClassLoader classLoader = this.getClass().getClassLoader();
+        final List<String> value = new ArrayList<String>(Arrays.asList("a", "b"));
+
+        final MethodInvocationMessageHandler.PooledUnmarshaller first = handler.startPooledUnmarshaller(input(handler, value), classLoader);
+        Assert.assertSame(classLoader, first.classResolver.getClassLoader());
+        Assert.assertEquals(value, first.unmarshaller.readObject());
+        handler.finishPooledUnmarshaller(first);
+        // an idle unmarshaller does not pin the class loader of the last invocation
+        Assert.assertNull(first.classResolver.getClassLoader());
+
+        // the idle unmarshaller is reused, and reads a new stream from its start
+        final MethodInvocationMessageHandler.PooledUnmarshaller second = handler.startPooledUnmarshaller(input(handler, "other"), classLoader);
+        Assert.assertSame(first, second);
+        Assert.assertSame(classLoader, second.classResolver.getClassLoader());
+        Assert.assertEquals("other", second.unmarshaller.readObject());
+        handler.finishPooledUnmarshaller(second);
+    }
+
+    @Test
+    public void testUnmarshallerPoolSize() throws Exception {
+        final MethodInvocationMessageHandler handler = new MethodInvocationMessageHandler(null, new RiverMarshallerFactory(), null, null);
+        final List<MethodInvocationMessageHandler.PooledUnmarshaller> started = new ArrayList<MethodInvocationMessageHandler.PooledUnmarshaller>();
+        for (int i = 0; i <= MethodInvocationMessageHandler.MARSHALLER_POOL_SIZE; ++i) {
+            started.add(handler.startPooledUnmarshaller(input(handler, i), null));
+        }
+        for (MethodInvocationMessageHandler.PooledUnmarshaller unmarshaller : started) {
+            unmarshaller.unmarshaller.readObject();
+            handler.finishPooledUnmarshaller(unmarshaller);
+        }
+        // only as many unmarshallers as the pool holds are kept, the last one finished is dropped
+        for (int i = 0; i < MethodInvocationMessageHandler.MARSHALLER_POOL_SIZE; ++i) {
+            Assert.assertSame(started.get(i), handler.startPooledUnmarshaller(input(handler, i), null));
+        }
+        Assert.assertNotSame(started.get(MethodInvocationMessageHandler.MARSHALLER_POOL_SIZE), handler.startPooledUnmarshaller(input(handler, 0), null));
+    }
+
+    @Test
+    public void testMarshallerPool() throws Exception {
+        final MethodInvocationMessageHandler handler = new MethodInvocationMessageHandler(null, new RiverMarshallerFactory(), null, null);
+
+        final ByteArrayOutputStream firstBytes = new ByteArrayOutputStream();
+        final Marshaller first = handler.startPooledMarshaller(new DataOutputStream(firstBytes));
+        first.writeObject("value");
+        handler.finishPooledMarshaller(first);
+
+        // the finished marshaller is reused, and writes the same stream as it did when it was new
+        final ByteArrayOutputStream secondBytes = new ByteArrayOutputStream();
+        final Marshaller second = handler.startPooledMarshaller(new DataOutputStream(secondBytes));
+        Assert.assertSame(first, second);
+        second.writeObject("value");
+        handler.finishPooledMarshaller(second);
+        Assert.assertArrayEquals(firstBytes.toByteArray(), secondBytes.toByteArray());
+
+        // a marshaller which is not finished, because it failed, is not handed out again
+        final Marshaller failed = handler.startPooledMarshaller(new DataOutputStream(new ByteArrayOutputStream()));
+        Assert.assertNotSame(failed, handler.startPooledMarshaller(new DataOutputStream(new ByteArrayOutputStream())));
+    }
+
+    private static DataInputStream input(final MethodInvocationMessageHandler handler, final Object value) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final Marshaller marshaller = handler.startPooledMarshaller(new DataOutputStream(bytes));
+        marshaller.writeObject(value);
+        handler.finishPooledMarshaller(marshaller);
+        return new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+    }
+}
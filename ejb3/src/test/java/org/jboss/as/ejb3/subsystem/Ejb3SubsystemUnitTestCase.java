@@ -31,6 +31,7 @@ import org.jboss.as.controller.AttributeDefinition;
 import org.jboss.as.controller.ModelVersion;
 import org.jboss.as.controller.PathAddress;
 import org.jboss.as.controller.PathElement;
+import org.jboss.as.controller.operations.common.Util;
 import org.jboss.as.model.test.FailedOperationTransformationConfig;
 import org.jboss.as.model.test.ModelFixer;
 import org.jboss.as.model.test.ModelTestControllerVersion;
@@ -275,6 +276,25 @@ public class Ejb3SubsystemUnitTestCase extends AbstractSubsystemBaseTest {
         ModelTestUtils.checkFailedTransformedBootOperations(mainServices, version_1_1_0, xmlOps, failedConfig);
     }
 
+    /**
+     * Tests that a strict and a striped bean instance pool cannot have the same name, since the configurations of both
+     * are installed under the same service names.
+     */
+    @Test
+    public void testRejectPoolNameClash() throws Exception {
+        KernelServices services = createKernelServicesBuilder(createAdditionalInitialization())
+                .setSubsystemXml(getSubsystemXml())
+                .build();
+        Assert.assertTrue(services.isSuccessfulBoot());
+
+        PathAddress subsystemAddress = PathAddress.pathAddress(EJB3Extension.SUBSYSTEM_PATH);
+        services.executeForFailure(Util.createAddOperation(subsystemAddress.append(EJB3SubsystemModel.STRIPED_MAX_BEAN_INSTANCE_POOL, "slsb-strict-max-pool")));
+        services.executeForFailure(Util.createAddOperation(subsystemAddress.append(EJB3SubsystemModel.STRICT_MAX_BEAN_INSTANCE_POOL, "slsb-striped-max-pool")));
+
+        // a pool of the other type with a name of its own is accepted
+        ModelTestUtils.checkOutcome(services.executeOperation(Util.createAddOperation(subsystemAddress.append(EJB3SubsystemModel.STRIPED_MAX_BEAN_INSTANCE_POOL, "mdb-striped-max-pool"))));
+    }
+
     /*
      * Specifies the operations for which we expect transformation failure when:
      * - transforming from current to model version 1.1.0
@@ -0,0 +1,158 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.timerservice;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests {@link HashedWheelTimer}, using a small wheel so that timeouts spanning several rotations are covered.
+ */
+public class HashedWheelTimerTestCase {
+
+    private HashedWheelTimer timer;
+
+    @Before
+    public void setUp() {
+        this.timer = new HashedWheelTimer("test timer wheel", 5, TimeUnit.MILLISECONDS, 8);
+        this.timer.start();
+    }
+
+    @After
+    public void tearDown() {
+        this.timer.stop();
+    }
+
+    @Test
+    public void testSingleAction() throws Exception {
+        final CountDownLatch latch = new CountDownLatch(1);
+        final long start = System.nanoTime();
+        this.timer.schedule(new CountDown(latch), 100);
+        Assert.assertTrue(latch.await(5, TimeUnit.SECONDS));
+        // 100ms spans more than one rotation of the wheel, and must never fire early
+        Assert.assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) >= 100);
+    }
+
+    @Test
+    public void testPastDeadline() throws Exception {
+        final CountDownLatch latch = new CountDownLatch(1);
+        this.timer.schedule(new CountDown(latch), -1000);
+        Assert.assertTrue(latch.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testCancel() throws Exception {
+        final AtomicInteger count = new AtomicInteger();
+        final HashedWheelTimer.Timeout timeout = this.timer.schedule(new Increment(count), 50);
+        Assert.assertTrue(timeout.cancel());
+        Assert.assertFalse(timeout.cancel());
+        Assert.assertTrue(timeout.isCancelled());
+        Thread.sleep(200);
+        Assert.assertEquals(0, count.get());
+        Assert.assertEquals(0, this.timer.getPendingTimeouts());
+    }
+
+    @Test
+    public void testFixedRate() throws Exception {
+        final CountDownLatch latch = new CountDownLatch(5);
+        final HashedWheelTimer.Timeout timeout = this.timer.scheduleAtFixedRate(new CountDown(latch), 0, 20);
+        Assert.assertTrue(latch.await(5, TimeUnit.SECONDS));
+        timeout.cancel();
+        Thread.sleep(50);
+        Assert.assertEquals(0, this.timer.getPendingTimeouts());
+    }
+
+    @Test
+    public void testFixedRateWholeRotation() throws Exception {
+        // the period is exactly one rotation of the wheel, so each execution is re-added to the bucket being expired
+        final long period = 40;
+        final int executions = 10;
+        final List<Long> times = new CopyOnWriteArrayList<Long>();
+        final CountDownLatch latch = new CountDownLatch(executions);
+        final long start = System.nanoTime();
+        final HashedWheelTimer.Timeout timeout = this.timer.scheduleAtFixedRate(new Runnable() {
+            @Override
+            public void run() {
+                times.add(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+                latch.countDown();
+            }
+        }, 0, period);
+        Assert.assertTrue(latch.await(5, TimeUnit.SECONDS));
+        timeout.cancel();
+        for (int i = 0; i < executions; ++i) {
+            // never early, and never a rotation late
+            Assert.assertTrue(times.toString(), times.get(i) >= i * period);
+            Assert.assertTrue(times.toString(), times.get(i) < (i + 1) * period);
+        }
+    }
+
+    @Test
+    public void testManyTimeouts() throws Exception {
+        final CountDownLatch latch = new CountDownLatch(10000);
+        final AtomicInteger cancelled = new AtomicInteger();
+        for (int i = 0; i < 20000; ++i) {
+            final HashedWheelTimer.Timeout timeout = this.timer.schedule(new CountDown(latch), i % 200);
+            if (i % 2 == 1) {
+                timeout.cancel();
+                cancelled.incrementAndGet();
+            }
+        }
+        Assert.assertTrue(latch.await(10, TimeUnit.SECONDS));
+        Assert.assertEquals(10000, cancelled.get());
+        Thread.sleep(50);
+        Assert.assertEquals(0, this.timer.getPendingTimeouts());
+    }
+
+    private static class CountDown implements Runnable {
+        private final CountDownLatch latch;
+
+        CountDown(CountDownLatch latch) {
+            this.latch = latch;
+        }
+
+        @Override
+        public void run() {
+            this.latch.countDown();
+        }
+    }
+
+    private static class Increment implements Runnable {
+        private final AtomicInteger count;
+
+        Increment(AtomicInteger count) {
+            this.count = count;
+        }
+
+        @Override
+        public void run() {
+            this.count.incrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.timerservice.persistence.database;
+
+import java.sql.Timestamp;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.jboss.as.ejb3.timerservice.TimerState;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests {@link TimerRefresh}, how a refresh of the database timer store that keeps removed timers applies changed rows.
+ */
+public class TimerRefreshTestCase {
+
+    private final Set<String> known = new HashSet<>();
+
+    @Test
+    public void testTombstoneRemovesKnownTimer() {
+        this.known.add("a");
+        Assert.assertEquals(TimerRefresh.Change.REMOVED, TimerRefresh.apply(this.known, "a", TimerState.CANCELED));
+        Assert.assertFalse(this.known.contains("a"));
+        // the row is read again by the next refresh while it is in the change window
+        Assert.assertEquals(TimerRefresh.Change.NONE, TimerRefresh.apply(this.known, "a", TimerState.CANCELED));
+        this.known.add("b");
+        Assert.assertEquals(TimerRefresh.Change.REMOVED, TimerRefresh.apply(this.known, "b", TimerState.EXPIRED));
+    }
+
+    @Test
+    public void testTombstoneOfUnknownTimer() {
+        // a timer that was created and removed by another node between two refreshes is never added
+        Assert.assertEquals(TimerRefresh.Change.NONE, TimerRefresh.apply(this.known, "a", TimerState.EXPIRED));
+        Assert.assertTrue(this.known.isEmpty());
+    }
+
+    @Test
+    public void testChangedRowAddsTimerOnce() {
+        Assert.assertEquals(TimerRefresh.Change.ADDED, TimerRefresh.apply(this.known, "a", TimerState.ACTIVE));
+        Assert.assertTrue(this.known.contains("a"));
+        // updates of a known timer, such as a new expiration, do not add it again
+        Assert.assertEquals(TimerRefresh.Change.NONE, TimerRefresh.apply(this.known, "a", TimerState.IN_TIMEOUT));
+        Assert.assertEquals(TimerRefresh.Change.NONE, TimerRefresh.apply(this.known, "a", TimerState.ACTIVE));
+    }
+
+    @Test
+    public void testChangedSince() {
+        Assert.assertEquals(new Timestamp(700), TimerRefresh.changedSince(new Timestamp(1000), 300));
+        Assert.assertEquals(new Timestamp(1000), TimerRefresh.changedSince(new Timestamp(1000), 0));
+    }
+
+    @Test
+    public void testLatest() {
+        Timestamp latest = new Timestamp(1000);
+        Assert.assertSame(latest, TimerRefresh.latest(latest, null));
+        Assert.assertSame(latest, TimerRefresh.latest(latest, new Timestamp(900)));
+        Timestamp later = new Timestamp(1100);
+        Assert.assertSame(later, TimerRefresh.latest(latest, later));
+    }
+
+    @Test
+    public void testRemovedTimerRetention() {
+        Assert.assertEquals(TimerRefresh.MIN_REMOVED_TIMER_RETENTION, TimerRefresh.removedTimerRetention(1000, 300000));
+        long hour = TimerRefresh.MIN_REMOVED_TIMER_RETENTION;
+        Assert.assertEquals(2 * hour + 300000, TimerRefresh.removedTimerRetention((int) hour, 300000));
+    }
+
+    @Test
+    public void testPurgeCutoffUsesDatabaseTime() {
+        Timestamp databaseTime = new Timestamp(10000000);
+        long retention = TimerRefresh.removedTimerRetention(1000, 300000);
+        Timestamp cutoff = TimerRefresh.purgeCutoff(databaseTime, retention);
+        Assert.assertEquals(databaseTime.getTime() - retention, cutoff.getTime());
+        // a row removed just now by another node is kept, whatever the clock of this node says
+        Assert.assertTrue(cutoff.before(databaseTime));
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.timerservice.persistence.database;
+
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests {@link TimerWriteBehindQueue}, the pending changes of the write-behind database timer store.
+ */
+public class TimerWriteBehindQueueTestCase {
+
+    private final TimerWriteBehindQueue<String> queue = new TimerWriteBehindQueue<>();
+
+    @Test
+    public void testCoalesceUpdates() {
+        this.queue.enqueue("a", "a1", false, false);
+        this.queue.enqueue("a", "a2", false, false);
+        this.queue.enqueue("a", "a3", false, false);
+        Assert.assertEquals(1, this.queue.size());
+        Assert.assertTrue(this.queue.contains("a"));
+
+        final List<TimerWriteBehindQueue.Entry<String>> entries = this.queue.drain();
+        Assert.assertEquals(1, entries.size());
+        Assert.assertEquals("a3", entries.get(0).timer);
+        Assert.assertFalse(entries.get(0).newTimer);
+        Assert.assertFalse(entries.get(0).removed);
+        Assert.assertTrue(this.queue.isEmpty());
+    }
+
+    @Test
+    public void testCoalesceInsertAndUpdates() {
+        this.queue.enqueue("a", "a1", false, true);
+        this.queue.enqueue("a", "a2", false, false);
+
+        final List<TimerWriteBehindQueue.Entry<String>> entries = this.queue.drain();
+        Assert.assertEquals(1, entries.size());
+        Assert.assertEquals("a2", entries.get(0).timer);
+        // the timer was never written, so the update still has to insert it
+        Assert.assertTrue(entries.get(0).newTimer);
+    }
+
+    @Test
+    public void testRemovedBeforeFlush() {
+        this.queue.enqueue("a", "a1", false, true);
+        this.queue.enqueue("a", "a2", false, false);
+        this.queue.enqueue("a", "a3", true, false);
+        // nothing to write for a timer that was created and removed between two flushes
+        Assert.assertTrue(this.queue.isEmpty());
+        Assert.assertTrue(this.queue.drain().isEmpty());
+
+        this.queue.enqueue("b", "b1", true, true);
+        Assert.assertTrue(this.queue.isEmpty());
+    }
+
+    @Test
+    public void testRemovedAfterFlush() {
+        this.queue.enqueue("a", "a1", false, true);
+        Assert.assertEquals(1, this.queue.drain().size());
+        this.queue.enqueue("a", "a2", false, false);
+        this.queue.enqueue("a", "a3", true, false);
+
+        final List<TimerWriteBehindQueue.Entry<String>> entries = this.queue.drain();
+        Assert.assertEquals(1, entries.size());
+        Assert.assertEquals("a3", entries.get(0).timer);
+        Assert.assertTrue(entries.get(0).removed);
+    }
+
+    @Test
+    public void testFlushOrder() {
+        this.queue.enqueue("a", "a1", false, true);
+        this.queue.enqueue("b", "b1", false, true);
+        this.queue.enqueue("c", "c1", false, true);
+        this.queue.enqueue("a", "a2", false, false);
+
+        final List<TimerWriteBehindQueue.Entry<String>> entries = this.queue.drain();
+        Assert.assertEquals(3, entries.size());
+        // in the order of the most recent change of each timer
+        Assert.assertEquals("b1", entries.get(0).timer);
+        Assert.assertEquals("c1", entries.get(1).timer);
+        Assert.assertEquals("a2", entries.get(2).timer);
+    }
+
+    @Test
+    public void testRequeue() {
+        this.queue.enqueue("a", "a1", false, false);
+        final TimerWriteBehindQueue.Entry<String> failed = this.queue.drain().get(0);
+        this.queue.requeue(failed);
+        Assert.assertEquals("a1", this.queue.drain().get(0).timer);
+
+        // a more recent change is not overwritten by the one that failed
+        this.queue.enqueue("a", "a2", false, false);
+        this.queue.requeue(failed);
+        Assert.assertEquals("a2", this.queue.drain().get(0).timer);
+    }
+
+    @Test
+    public void testRequeueFailedInsert() {
+        this.queue.enqueue("a", "a1", false, true);
+        final TimerWriteBehindQueue.Entry<String> failed = this.queue.drain().get(0);
+
+        // the timer is not in the database, so the more recent update has to insert it
+        this.queue.enqueue("a", "a2", false, false);
+        this.queue.requeue(failed);
+        TimerWriteBehindQueue.Entry<String> entry = this.queue.drain().get(0);
+        Assert.assertEquals("a2", entry.timer);
+        Assert.assertTrue(entry.newTimer);
+
+        // and a more recent removal leaves nothing to write
+        this.queue.enqueue("a", "a3", true, false);
+        this.queue.requeue(failed);
+        Assert.assertTrue(this.queue.isEmpty());
+    }
+}
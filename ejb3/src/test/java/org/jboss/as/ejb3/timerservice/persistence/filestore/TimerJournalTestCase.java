@@ -0,0 +1,292 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.ejb3.timerservice.persistence.filestore;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.Map;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests {@link TimerJournal}, using small segments so that rolling and compaction are covered.
+ */
+public class TimerJournalTestCase {
+
+    private static final long SEGMENT_SIZE = 1024;
+
+    private File directory;
+
+    @Before
+    public void setUp() throws IOException {
+        this.directory = File.createTempFile("timer-journal", "");
+        this.directory.delete();
+        this.directory.mkdirs();
+    }
+
+    @After
+    public void tearDown() {
+        final File[] files = this.directory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        this.directory.delete();
+    }
+
+    @Test
+    public void testReplay() throws Exception {
+        TimerJournal journal = this.open();
+        journal.put("a", bytes("a1"));
+        journal.put("b", bytes("b1"));
+        journal.put("a", bytes("a2"));
+        journal.put("c", bytes("c1"));
+        journal.remove("b");
+        journal.close();
+
+        journal = this.open();
+        try {
+            final Map<String, byte[]> timers = journal.read();
+            Assert.assertEquals(2, timers.size());
+            Assert.assertEquals("a2", string(timers.get("a")));
+            Assert.assertEquals("c1", string(timers.get("c")));
+            Assert.assertFalse(journal.contains("b"));
+        } finally {
+            journal.close();
+        }
+    }
+
+    @Test
+    public void testRemoveUnknown() throws Exception {
+        final TimerJournal journal = this.open();
+        try {
+            Assert.assertEquals(0, journal.remove("unknown"));
+            Assert.assertEquals(0, this.segmentLength());
+        } finally {
+            journal.close();
+        }
+    }
+
+    @Test
+    public void testCompaction() throws Exception {
+        TimerJournal journal = this.open();
+        journal.put("kept", bytes("kept"));
+        // overwriting the same timer many times spans several segments, but only one record is live
+        for (int i = 0; i < 200; ++i) {
+            journal.put("updated", bytes("value-" + i));
+        }
+        journal.close();
+
+        Assert.assertTrue(this.segmentLength() <= 2 * SEGMENT_SIZE);
+
+        journal = this.open();
+        try {
+            final Map<String, byte[]> timers = journal.read();
+            Assert.assertEquals(2, timers.size());
+            Assert.assertEquals("kept", string(timers.get("kept")));
+            Assert.assertEquals("value-199", string(timers.get("updated")));
+        } finally {
+            journal.close();
+        }
+    }
+
+    @Test
+    public void testTornTail() throws Exception {
+        TimerJournal journal = this.open();
+        journal.put("a", bytes("a1"));
+        journal.put("b", bytes("b1"));
+        journal.close();
+
+        // cut the last record in half, as a crash in the middle of the write would
+        final File segment = new File(this.directory, TimerJournal.segmentName(1));
+        final RandomAccessFile file = new RandomAccessFile(segment, "rw");
+        try {
+            file.setLength(file.length() - 3);
+        } finally {
+            file.close();
+        }
+
+        journal = this.open();
+        try {
+            Assert.assertTrue(journal.contains("a"));
+            Assert.assertFalse(journal.contains("b"));
+            // new records go after the last complete one
+            journal.put("c", bytes("c1"));
+        } finally {
+            journal.close();
+        }
+
+        journal = this.open();
+        try {
+            final Map<String, byte[]> timers = journal.read();
+            Assert.assertEquals(2, timers.size());
+            Assert.assertEquals("a1", string(timers.get("a")));
+            Assert.assertEquals("c1", string(timers.get("c")));
+        } finally {
+            journal.close();
+        }
+    }
+
+    @Test
+    public void testCorruptRecord() throws Exception {
+        TimerJournal journal = this.open();
+        journal.put("a", bytes("a1"));
+        journal.close();
+
+        final File segment = new File(this.directory, TimerJournal.segmentName(1));
+        final RandomAccessFile file = new RandomAccessFile(segment, "rw");
+        try {
+            file.seek(file.length() - 1);
+            file.write('x');
+        } finally {
+            file.close();
+        }
+
+        journal = this.open();
+        try {
+            Assert.assertFalse(journal.contains("a"));
+        } finally {
+            journal.close();
+        }
+    }
+
+    @Test
+    public void testInvalidLength() throws Exception {
+        TimerJournal journal = this.open();
+        journal.put("a", bytes("a1"));
+        final long valid = this.segmentLength();
+        journal.put("b", bytes("b1"));
+        journal.close();
+
+        // a length that runs past the end of the segment
+        final File segment = new File(this.directory, TimerJournal.segmentName(1));
+        final RandomAccessFile file = new RandomAccessFile(segment, "rw");
+        try {
+            file.seek(valid);
+            file.writeInt(Integer.MAX_VALUE);
+        } finally {
+            file.close();
+        }
+
+        journal = this.open();
+        try {
+            Assert.assertTrue(journal.contains("a"));
+            Assert.assertFalse(journal.contains("b"));
+            Assert.assertEquals(valid, this.segmentLength());
+        } finally {
+            journal.close();
+        }
+    }
+
+    @Test
+    public void testLargeRecord() throws Exception {
+        // larger than the buffer the records are replayed through
+        final byte[] payload = new byte[100000];
+        for (int i = 0; i < payload.length; ++i) {
+            payload[i] = (byte) i;
+        }
+        TimerJournal journal = this.open();
+        journal.put("a", payload);
+        journal.put("b", bytes("b1"));
+        journal.close();
+
+        journal = this.open();
+        try {
+            final Map<String, byte[]> timers = journal.read();
+            Assert.assertEquals(2, timers.size());
+            Assert.assertArrayEquals(payload, timers.get("a"));
+            Assert.assertEquals("b1", string(timers.get("b")));
+        } finally {
+            journal.close();
+        }
+    }
+
+    @Test
+    public void testSync() throws Exception {
+        final TimerJournal journal = new TimerJournal(this.directory, SEGMENT_SIZE, true);
+        journal.replay();
+        try {
+            final long first = journal.put("a", bytes("a1"));
+            final long second = journal.put("b", bytes("b1"));
+            Assert.assertTrue(second > first);
+            journal.sync(second);
+            // already covered by the previous sync
+            journal.sync(first);
+        } finally {
+            journal.close();
+        }
+    }
+
+    @Test
+    public void testSyncedCompaction() throws Exception {
+        TimerJournal journal = new TimerJournal(this.directory, SEGMENT_SIZE, true);
+        journal.replay();
+        try {
+            // rolls and compacts several times, forcing the journal directory each time
+            for (int i = 0; i < 200; ++i) {
+                journal.sync(journal.put("updated", bytes("value-" + i)));
+            }
+        } finally {
+            journal.close();
+        }
+
+        Assert.assertTrue(this.segmentLength() <= 2 * SEGMENT_SIZE);
+
+        journal = this.open();
+        try {
+            final Map<String, byte[]> timers = journal.read();
+            Assert.assertEquals(1, timers.size());
+            Assert.assertEquals("value-199", string(timers.get("updated")));
+        } finally {
+            journal.close();
+        }
+    }
+
+    private TimerJournal open() throws IOException {
+        final TimerJournal journal = new TimerJournal(this.directory, SEGMENT_SIZE, false);
+        journal.replay();
+        return journal;
+    }
+
+    private long segmentLength() {
+        long length = 0;
+        for (File file : this.directory.listFiles()) {
+            if (TimerJournal.sequenceOf(file.getName()) > 0) {
+                length += file.length();
+            }
+        }
+        return length;
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes();
+    }
+
+    private static String string(byte[] value) {
+        return new String(value);
+    }
+}
@@ -25,11 +25,13 @@ package org.jboss.as.jpa.container;
 import java.io.IOException;
 import java.io.Serializable;
 import java.security.AccessController;
+import java.util.HashMap;
 import java.util.Map;
 
 import javax.persistence.EntityManager;
 import javax.persistence.EntityManagerFactory;
 import javax.persistence.SynchronizationType;
+import javax.transaction.Transaction;
 
 import org.jboss.as.jpa.config.Configuration;
 import org.jboss.as.jpa.messages.JpaLogger;
@@ -55,6 +57,12 @@ public class TransactionScopedEntityManager extends AbstractEntityManager implem
 
     private static final long serialVersionUID = 455498112L;
 
+    /**
+     * The entity managers the current thread resolved in its transaction, by scoped persistence unit name, so that the
+     * following calls in the same transaction do not look them up in the transaction registry again.
+     */
+    private static final ThreadLocal<TransactionBinding> transactionBinding = new ThreadLocal<TransactionBinding>();
+
     private final String puScopedName;          // Scoped name of the persistent unit
     private final Map properties;
     private transient EntityManagerFactory emf;
@@ -72,12 +80,30 @@ public class TransactionScopedEntityManager extends AbstractEntityManager implem
     @Override
     protected EntityManager getEntityManager() {
         EntityManager entityManager;
-        boolean isInTx;
+        final Transaction transaction = TransactionUtil.getTransaction();
+        final boolean isInTx = TransactionUtil.isActive(transaction);
 
-        isInTx = TransactionUtil.isInTx();
+        TransactionBinding binding = transactionBinding.get();
+        if (binding != null && (!isInTx || binding.transaction != transaction)) {
+            // the transaction of the binding completed, possibly on another thread (e.g. the transaction reaper) that
+            // could not unbind it from this thread
+            transactionBinding.remove();
+            binding = null;
+        }
 
         if (isInTx) {
+            if (binding != null) {
+                entityManager = binding.entityManagers.get(puScopedName);
+                if (entityManager != null) {
+                    testForMixedSynchronizationTypes(entityManager, puScopedName, synchronizationType);
+                    return entityManager;
+                }
+            } else {
+                binding = new TransactionBinding(transaction);
+                transactionBinding.set(binding);
+            }
             entityManager = getOrCreateTransactionScopedEntityManager(emf, puScopedName, properties, synchronizationType);
+            binding.entityManagers.put(puScopedName, entityManager);
         } else {
             entityManager = NonTxEmCloser.get(puScopedName);
             if (entityManager == null) {
@@ -88,6 +114,32 @@ public class TransactionScopedEntityManager extends AbstractEntityManager implem
         return entityManager;
     }
 
+    /**
+     * Forget the entity manager bound to the current thread for the specified persistence unit, if it is the specified
+     * one.  Called when the transaction of the entity manager completes.
+     *
+     * @param scopedPuName  the scoped name of the persistence unit
+     * @param entityManager the underlying entity manager
+     */
+    public static void unbind(String scopedPuName, EntityManager entityManager) {
+        final TransactionBinding binding = transactionBinding.get();
+        if (binding != null && binding.entityManagers.get(scopedPuName) == entityManager) {
+            binding.entityManagers.remove(scopedPuName);
+            if (binding.entityManagers.isEmpty()) {
+                transactionBinding.remove();
+            }
+        }
+    }
+
+    /**
+     * @param scopedPuName the scoped name of the persistence unit
+     * @return the entity manager bound to the current thread for the specified persistence unit, or null
+     */
+    static EntityManager getBoundEntityManager(String scopedPuName) {
+        final TransactionBinding binding = transactionBinding.get();
+        return (binding != null) ? binding.entityManagers.get(scopedPuName) : null;
+    }
+
     @Override
     protected boolean isExtendedPersistenceContext() {
         return false;
@@ -211,5 +263,16 @@ public class TransactionScopedEntityManager extends AbstractEntityManager implem
         }
     }
 
+    /**
+     * The entity managers resolved by transaction scoped entity managers in a transaction, by scoped persistence unit
+     * name.  Only valid while the same transaction is active, which is checked by identity.
+     */
+    private static final class TransactionBinding {
+        final Transaction transaction;
+        final Map<String, EntityManager> entityManagers = new HashMap<String, EntityManager>(4);
 
+        TransactionBinding(Transaction transaction) {
+            this.transaction = transaction;
+        }
+    }
 }
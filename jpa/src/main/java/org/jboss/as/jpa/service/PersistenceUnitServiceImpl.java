@@ -85,6 +85,7 @@ public class PersistenceUnitServiceImpl implements Service<PersistenceUnitServic
 
     private volatile EntityManagerFactory entityManagerFactory;
     private volatile ProxyBeanManager proxyBeanManager;
+    private volatile long startupTime = -1;
 
     public PersistenceUnitServiceImpl(
             final ClassLoader classLoader,
@@ -123,6 +124,7 @@ public class PersistenceUnitServiceImpl implements Service<PersistenceUnitServic
                                 Thread.currentThread().setContextClassLoader(classLoader);
 
                                 try {
+                                    final long start = System.currentTimeMillis();
                                     PhaseOnePersistenceUnitServiceImpl phaseOnePersistenceUnitService = phaseOnePersistenceUnitServiceInjectedValue.getOptionalValue();
                                     WritableServiceBasedNamingStore.pushOwner(deploymentUnitServiceName);
 
@@ -152,6 +154,7 @@ public class PersistenceUnitServiceImpl implements Service<PersistenceUnitServic
 
                                         // get the EntityManagerFactory from the second phase of the persistence unit bootstrap
                                         entityManagerFactory = emfBuilder.build();
+                                        startupTime = phaseOnePersistenceUnitService.getStartupTime() + System.currentTimeMillis() - start;
                                     } else {
                                         JPA_LOGGER.startingService("Persistence Unit", pu.getScopedPersistenceUnitName());
                                         // start the persistence unit in one pass (1 of 1)
@@ -165,6 +168,7 @@ public class PersistenceUnitServiceImpl implements Service<PersistenceUnitServic
                                             properties.getValue().put(CDI_BEAN_MANAGER, proxyBeanManager);
                                         }
                                         entityManagerFactory = createContainerEntityManagerFactory();
+                                        startupTime = System.currentTimeMillis() - start;
                                     }
                                     persistenceUnitRegistry.add(getScopedPersistenceUnitName(), getValue());
                                     context.complete();
@@ -223,6 +227,7 @@ public class PersistenceUnitServiceImpl implements Service<PersistenceUnitServic
                                         JPA_LOGGER.failedToStopPUService(t, pu.getScopedPersistenceUnitName());
                                     } finally {
                                         entityManagerFactory = null;
+                                        startupTime = -1;
                                         pu.setTempClassLoaderFactory(null);
                                         WritableServiceBasedNamingStore.popOwner();
                                         persistenceUnitRegistry.remove(getScopedPersistenceUnitName());
@@ -273,6 +278,24 @@ public class PersistenceUnitServiceImpl implements Service<PersistenceUnitServic
         return pu.getScopedPersistenceUnitName();
     }
 
+    /**
+     * Get the name of the deployment unit service that contains the persistence unit
+     *
+     * @return the deployment unit service name
+     */
+    public ServiceName getDeploymentUnitServiceName() {
+        return deploymentUnitServiceName;
+    }
+
+    /**
+     * Get the time taken to create the entity manager factory, including the first phase of a two phase bootstrap
+     *
+     * @return the startup time in milliseconds, or -1 if the persistence unit has not started
+     */
+    public long getStartupTime() {
+        return startupTime;
+    }
+
     public Injector<Map> getPropertiesInjector() {
         return properties;
     }
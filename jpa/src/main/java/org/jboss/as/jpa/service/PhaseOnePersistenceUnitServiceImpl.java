@@ -75,6 +75,8 @@ public class PhaseOnePersistenceUnitServiceImpl implements Service<PhaseOnePersi
 
     private volatile boolean secondPhaseStarted = false;
 
+    private volatile long startupTime = -1;
+
     public PhaseOnePersistenceUnitServiceImpl(
             final ClassLoader classLoader,
             final PersistenceUnitMetadata pu,
@@ -115,7 +117,9 @@ public class PhaseOnePersistenceUnitServiceImpl implements Service<PhaseOnePersi
                                     }
 
                                     WritableServiceBasedNamingStore.pushOwner(deploymentUnitServiceName);
+                                    final long start = System.currentTimeMillis();
                                     entityManagerFactoryBuilder = createContainerEntityManagerFactoryBuilder();
+                                    startupTime = System.currentTimeMillis() - start;
                                     context.complete();
                                 } catch (Throwable t) {
                                     context.failed(new StartException(t));
@@ -211,6 +215,15 @@ public class PhaseOnePersistenceUnitServiceImpl implements Service<PhaseOnePersi
         return entityManagerFactoryBuilder;
     }
 
+    /**
+     * Get the time taken by the first phase of bootstrapping the persistence unit
+     *
+     * @return the startup time in milliseconds, or -1 if the first phase has not completed
+     */
+    public long getStartupTime() {
+        return startupTime;
+    }
+
     public void setSecondPhaseStarted(boolean secondPhaseStarted) {
         this.secondPhaseStarted = secondPhaseStarted;
     }
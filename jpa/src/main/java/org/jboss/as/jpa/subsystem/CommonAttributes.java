@@ -30,4 +30,5 @@ interface CommonAttributes {
     String DEFAULT_DATASOURCE = "default-datasource";
     String JPA = "jpa";
     String DEFAULT_EXTENDEDPERSISTENCE_INHERITANCE = "default-extended-persistence-inheritance";
+    String PERSISTENCE_UNIT_STARTUP_TIMES = "persistence-unit-startup-times";
 }
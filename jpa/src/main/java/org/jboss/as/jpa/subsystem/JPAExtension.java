@@ -103,7 +103,7 @@ public class JPAExtension implements Extension {
 
         if (context.isRuntimeOnlyRegistrationValid()) {
             final ManagementResourceRegistration jpaSubsystemDeployments = registration.registerDeploymentModel(JPADefinition.INSTANCE);
-
+            jpaSubsystemDeployments.registerMetric(PersistenceUnitStartupTimesHandler.PERSISTENCE_UNIT_STARTUP_TIMES, PersistenceUnitStartupTimesHandler.INSTANCE);
         }
     }
 
@@ -22,6 +22,8 @@
 
 package org.jboss.as.jpa.subsystem;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
@@ -48,6 +50,15 @@ public class PersistenceUnitRegistryImpl implements PersistenceUnitServiceRegist
         return registry.get(persistenceUnitResourceName);
     }
 
+    /**
+     * @return a snapshot of the started persistence unit services
+     */
+    public Collection<PersistenceUnitService> getPersistenceUnitServices() {
+        synchronized (registry) {
+            return new ArrayList<PersistenceUnitService>(registry.values());
+        }
+    }
+
     public void add(String scopedPersistenceUnitName, PersistenceUnitService service) {
         registry.put(scopedPersistenceUnitName, service);
     }
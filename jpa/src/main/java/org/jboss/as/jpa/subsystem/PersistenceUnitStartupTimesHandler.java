@@ -0,0 +1,88 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright (c) 2014, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.jpa.subsystem;
+
+import org.jboss.as.controller.AbstractRuntimeOnlyHandler;
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.PathElement;
+import org.jboss.as.controller.SimpleAttributeDefinition;
+import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
+import org.jboss.as.controller.client.helpers.MeasurementUnit;
+import org.jboss.as.controller.descriptions.ModelDescriptionConstants;
+import org.jboss.as.jpa.service.PersistenceUnitServiceImpl;
+import org.jboss.as.jpa.spi.PersistenceUnitService;
+import org.jboss.as.server.deployment.Services;
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
+import org.jboss.msc.service.ServiceName;
+
+/**
+ * Reads the time taken to start each persistence unit of a deployment (or sub-deployment), keyed by
+ * scoped persistence unit name.
+ */
+class PersistenceUnitStartupTimesHandler extends AbstractRuntimeOnlyHandler {
+
+    static final SimpleAttributeDefinition PERSISTENCE_UNIT_STARTUP_TIMES =
+            new SimpleAttributeDefinitionBuilder(CommonAttributes.PERSISTENCE_UNIT_STARTUP_TIMES, ModelType.OBJECT, true)
+                    .setMeasurementUnit(MeasurementUnit.MILLISECONDS)
+                    .setStorageRuntime()
+                    .build();
+
+    static final PersistenceUnitStartupTimesHandler INSTANCE = new PersistenceUnitStartupTimesHandler();
+
+    private PersistenceUnitStartupTimesHandler() {
+    }
+
+    @Override
+    protected void executeRuntimeStep(OperationContext context, ModelNode operation) throws OperationFailedException {
+        final ServiceName deploymentUnitServiceName = deploymentUnitServiceName(context, operation);
+        final ModelNode result = new ModelNode().setEmptyObject();
+        for (PersistenceUnitService service : PersistenceUnitRegistryImpl.INSTANCE.getPersistenceUnitServices()) {
+            if (service instanceof PersistenceUnitServiceImpl) {
+                final PersistenceUnitServiceImpl persistenceUnit = (PersistenceUnitServiceImpl) service;
+                final long startupTime = persistenceUnit.getStartupTime();
+                if (startupTime >= 0 && deploymentUnitServiceName.equals(persistenceUnit.getDeploymentUnitServiceName())) {
+                    result.get(persistenceUnit.getScopedPersistenceUnitName()).set(startupTime);
+                }
+            }
+        }
+        context.getResult().set(result);
+        context.stepCompleted();
+    }
+
+    private static ServiceName deploymentUnitServiceName(final OperationContext context, final ModelNode operation) {
+        final PathAddress address = PathAddress.pathAddress(operation.require(ModelDescriptionConstants.OP_ADDR));
+        final String deployment = resolveRuntimeName(context, address.getElement(0));
+        if (address.getElement(1).getKey().equals(ModelDescriptionConstants.SUBDEPLOYMENT)) {
+            return Services.deploymentUnitName(deployment, address.getElement(1).getValue());
+        }
+        return Services.deploymentUnitName(deployment);
+    }
+
+    private static String resolveRuntimeName(final OperationContext context, final PathElement address) {
+        return context.readResourceFromRoot(PathAddress.pathAddress(address), false).getModel()
+                .get(ModelDescriptionConstants.RUNTIME_NAME).asString();
+    }
+}
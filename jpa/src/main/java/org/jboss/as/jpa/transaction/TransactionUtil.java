@@ -33,6 +33,7 @@ import javax.transaction.TransactionManager;
 import javax.transaction.TransactionSynchronizationRegistry;
 
 import org.jboss.as.jpa.container.ExtendedEntityManager;
+import org.jboss.as.jpa.container.TransactionScopedEntityManager;
 import org.jboss.as.jpa.messages.JpaLogger;
 import org.jboss.tm.TxUtils;
 
@@ -63,7 +64,14 @@ public class TransactionUtil {
     }
 
     public static boolean isInTx() {
-        Transaction tx = getTransaction();
+        return isActive(getTransaction());
+    }
+
+    /**
+     * @param tx the transaction of the current thread, may be null
+     * @return true if the specified transaction is active
+     */
+    public static boolean isActive(Transaction tx) {
         if (tx == null || !TxUtils.isActive(tx))
             return false;
         return true;
@@ -140,6 +148,7 @@ public class TransactionUtil {
         }
 
         public void afterCompletion(int status) {
+            TransactionScopedEntityManager.unbind(scopedPuName, manager);
             /**
              * If its not safe (safeToClose returns false) to close the EntityManager now,
              * any connections joined to the JTA transaction
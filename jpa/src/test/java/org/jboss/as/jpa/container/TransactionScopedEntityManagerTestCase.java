@@ -0,0 +1,222 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.jpa.container;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.SynchronizationType;
+import javax.transaction.Status;
+import javax.transaction.Synchronization;
+import javax.transaction.Transaction;
+import javax.transaction.TransactionManager;
+import javax.transaction.TransactionSynchronizationRegistry;
+
+import org.jboss.as.jpa.transaction.TransactionUtil;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * Tests that a {@link TransactionScopedEntityManager} looks up the underlying entity manager of a transaction once,
+ * rather than on every call.
+ */
+public class TransactionScopedEntityManagerTestCase {
+
+    private static final int CALLS = 200;
+
+    static final Map<String, Integer> counts = new HashMap<String, Integer>();
+    static final Map<Object, Object> resources = new HashMap<Object, Object>();
+    static final List<Synchronization> synchronizations = new ArrayList<Synchronization>();
+    static Transaction current;
+
+    @BeforeClass
+    public static void setUp() {
+        TransactionUtil.setTransactionManager(proxy(TransactionManager.class, new InvocationHandler() {
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) {
+                return method.getName().equals("getTransaction") ? current : null;
+            }
+        }));
+        TransactionUtil.setTransactionSynchronizationRegistry(proxy(TransactionSynchronizationRegistry.class, new InvocationHandler() {
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) {
+                count(method.getName());
+                switch (method.getName()) {
+                    case "getResource":
+                        return resources.get(args[0]);
+                    case "putResource":
+                        resources.put(args[0], args[1]);
+                        return null;
+                    case "registerInterposedSynchronization":
+                        synchronizations.add((Synchronization) args[0]);
+                        return null;
+                    default:
+                        return null;
+                }
+            }
+        }));
+    }
+
+    @Before
+    public void reset() {
+        counts.clear();
+    }
+
+    @Test
+    public void testResolvedOncePerTransaction() throws Exception {
+        final TransactionScopedEntityManager entityManager = new TransactionScopedEntityManager("test.jar#pu", null, createEntityManagerFactory(), SynchronizationType.SYNCHRONIZED);
+
+        begin();
+        for (int i = 0; i < CALLS; i++) {
+            assertNotNull(entityManager.find(String.class, i));
+        }
+        assertEquals(1, calls("createEntityManager"));
+        assertEquals(1, calls("getResource"));
+        assertEquals(CALLS, calls("find"));
+        commit();
+
+        // a new transaction gets a new entity manager
+        begin();
+        entityManager.find(String.class, 0);
+        assertEquals(2, calls("createEntityManager"));
+        commit();
+        assertEquals(2, calls("close"));
+    }
+
+    @Test
+    public void testProxiesOfSamePersistenceUnit() throws Exception {
+        final EntityManagerFactory emf = createEntityManagerFactory();
+        final TransactionScopedEntityManager first = new TransactionScopedEntityManager("test.jar#pu", null, emf, SynchronizationType.SYNCHRONIZED);
+        final TransactionScopedEntityManager second = new TransactionScopedEntityManager("test.jar#pu", null, emf, SynchronizationType.SYNCHRONIZED);
+
+        begin();
+        for (int i = 0; i < CALLS; i++) {
+            first.find(String.class, i);
+            second.find(String.class, i);
+        }
+        // the proxies share the binding of their persistence unit, rather than replacing each other's
+        assertEquals(1, calls("createEntityManager"));
+        assertEquals(1, calls("getResource"));
+        commit();
+        assertNull(TransactionScopedEntityManager.getBoundEntityManager("test.jar#pu"));
+    }
+
+    @Test
+    public void testCompletedOnAnotherThread() throws Exception {
+        final TransactionScopedEntityManager entityManager = new TransactionScopedEntityManager("test.jar#pu", null, createEntityManagerFactory(), SynchronizationType.SYNCHRONIZED);
+
+        begin();
+        entityManager.find(String.class, 0);
+        assertNotNull(TransactionScopedEntityManager.getBoundEntityManager("test.jar#pu"));
+
+        // the transaction times out, and the reaper completes it
+        current = null;
+        final Thread reaper = new Thread() {
+            @Override
+            public void run() {
+                for (Synchronization synchronization : synchronizations) {
+                    synchronization.afterCompletion(Status.STATUS_ROLLEDBACK);
+                }
+            }
+        };
+        reaper.start();
+        reaper.join();
+        assertNotNull(TransactionScopedEntityManager.getBoundEntityManager("test.jar#pu"));
+
+        // the next call finds that the binding belongs to a completed transaction, and drops it
+        entityManager.find(String.class, 0);
+        assertNull(TransactionScopedEntityManager.getBoundEntityManager("test.jar#pu"));
+
+        begin();
+        entityManager.find(String.class, 0);
+        assertEquals(3, calls("createEntityManager"));
+        final EntityManager bound = TransactionScopedEntityManager.getBoundEntityManager("test.jar#pu");
+        assertNotNull(bound);
+        entityManager.find(String.class, 1);
+        assertSame(bound, TransactionScopedEntityManager.getBoundEntityManager("test.jar#pu"));
+        commit();
+    }
+
+    private static void begin() {
+        resources.clear();
+        synchronizations.clear();
+        current = proxy(Transaction.class, new InvocationHandler() {
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) {
+                return method.getName().equals("getStatus") ? Status.STATUS_ACTIVE : null;
+            }
+        });
+    }
+
+    private static void commit() {
+        current = null;
+        for (Synchronization synchronization : synchronizations) {
+            synchronization.afterCompletion(Status.STATUS_COMMITTED);
+        }
+    }
+
+    private static EntityManagerFactory createEntityManagerFactory() {
+        return proxy(EntityManagerFactory.class, new InvocationHandler() {
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) {
+                if (method.getName().equals("createEntityManager")) {
+                    count(method.getName());
+                    return proxy(EntityManager.class, new InvocationHandler() {
+                        @Override
+                        public Object invoke(Object proxy, Method method, Object[] args) {
+                            count(method.getName());
+                            return method.getName().equals("find") ? "entity" : null;
+                        }
+                    });
+                }
+                return null;
+            }
+        });
+    }
+
+    static void count(String method) {
+        counts.put(method, calls(method) + 1);
+    }
+
+    static int calls(String method) {
+        Integer count = counts.get(method);
+        return (count == null) ? 0 : count;
+    }
+
+    static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type }, handler));
+    }
+}
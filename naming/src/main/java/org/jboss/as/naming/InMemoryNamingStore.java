@@ -32,11 +32,8 @@ import static org.jboss.as.naming.util.NamingUtils.nameNotFoundException;
 import static org.jboss.as.naming.util.NamingUtils.notAContextException;
 
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.Hashtable;
 import java.util.List;
-import java.util.Map;
-import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 import java.util.concurrent.locks.ReentrantLock;
 
 import javax.naming.Binding;
@@ -45,7 +42,6 @@ import javax.naming.CompositeName;
 import javax.naming.Context;
 import javax.naming.Name;
 import javax.naming.NameClassPair;
-import javax.naming.NameNotFoundException;
 import javax.naming.NamingException;
 import javax.naming.Reference;
 import javax.naming.event.EventContext;
@@ -58,13 +54,17 @@ import org.jboss.as.naming.logging.NamingLogger;
  * In-memory implementation of the NamingStore.  The backing for the entries is a basic tree structure with either context
  * nodes or binding nodes.  The context nodes are allowed to have children and can be represented by a NamingContext.  A
  * binding node is only allowed to have a normal object binding.
+ * <p/>
+ * The tree is never changed once it is visible to lookups.  Writers copy the contexts on the path to the change and then
+ * replace the root, so lookups never wait.  The children of a context are kept in a {@link PersistentHashMap}, so a copy
+ * shares them with the original, and binding into a large context does not copy all of its children.
  *
  * @author John E. Bailey
  */
 public class InMemoryNamingStore implements WritableNamingStore {
 
-    /* The root node of the tree.  Represents a JNDI name of "" */
-    private final ContextNode root = new ContextNode(null, null, new CompositeName(), new NamingContext(this, null));
+    /* The root node of the tree.  Represents a JNDI name of "".  Replaced by every change, while holding the write lock */
+    private volatile ContextNode root = new ContextNode(new CompositeName(), new NamingContext(this, null));
 
     /* Naming Event Coordinator */
     private final NamingEventCoordinator eventCoordinator;
@@ -130,7 +130,8 @@ public class InMemoryNamingStore implements WritableNamingStore {
 
         writeLock.lock();
         try {
-            root.accept(new BindVisitor(true, name, object, bindType.getName()));
+            final Update update = new Update();
+            update.commit(update.apply(root, name, 0, true, new BindChange(object, bindType.getName())));
         } finally {
             writeLock.unlock();
         }
@@ -149,7 +150,8 @@ public class InMemoryNamingStore implements WritableNamingStore {
 
         writeLock.lock();
         try {
-            root.accept(new RebindVisitor(name, object, bindType.getName()));
+            final Update update = new Update();
+            update.commit(update.apply(root, name, 0, false, new RebindChange(object, bindType.getName())));
         } finally {
             writeLock.unlock();
         }
@@ -168,7 +170,8 @@ public class InMemoryNamingStore implements WritableNamingStore {
 
         writeLock.lock();
         try {
-            root.accept(new UnbindVisitor(name));
+            final Update update = new Update();
+            update.commit(update.apply(root, name, 0, false, new UnbindChange()));
         } finally {
             writeLock.unlock();
         }
@@ -223,7 +226,15 @@ public class InMemoryNamingStore implements WritableNamingStore {
         if (isLastComponentEmpty(name)) {
             throw emptyNameException();
         }
-        return root.accept(new CreateSubContextVisitor(name));
+        writeLock.lock();
+        try {
+            final Update update = new Update();
+            final CreateSubcontextChange change = new CreateSubcontextChange();
+            update.commit(update.apply(root, name, 0, false, change));
+            return change.subContext;
+        } finally {
+            writeLock.unlock();
+        }
     }
 
     /**
@@ -234,7 +245,7 @@ public class InMemoryNamingStore implements WritableNamingStore {
     public void close() throws NamingException {
         writeLock.lock();
         try {
-            root.clear();
+            root = new ContextNode(root, PersistentHashMap.<String, TreeNode>empty());
         } finally {
             writeLock.unlock();
         }
@@ -296,52 +307,22 @@ public class InMemoryNamingStore implements WritableNamingStore {
         protected abstract <T> T accept(NodeVisitor<T> visitor) throws NamingException;
     }
 
-    private static final AtomicMapFieldUpdater<ContextNode, String, TreeNode> childrenUpdater = AtomicMapFieldUpdater.newMapUpdater(AtomicReferenceFieldUpdater.newUpdater(ContextNode.class, Map.class, "children"));
-
     private class ContextNode extends TreeNode {
-        volatile Map<String, TreeNode> children = Collections.emptyMap();
-        protected final String name;
-        protected final ContextNode parentNode;
+        final PersistentHashMap<String, TreeNode> children;
 
-        private ContextNode(final ContextNode parentNode, final String name, final Name fullName, final NamingContext context) {
+        private ContextNode(final Name fullName, final NamingContext context) {
             super(fullName, new Binding(getLastComponent(fullName), Context.class.getName(), context));
-            this.name = name;
-            this.parentNode = parentNode;
+            this.children = PersistentHashMap.empty();
         }
 
-        private void addChild(final String childName, final TreeNode childNode) throws NamingException {
-            if (childrenUpdater.putIfAbsent(this, childName, childNode) != null) {
-                throw nameAlreadyBoundException(fullName.add(childName));
-            }
-        }
-
-        private TreeNode replaceChild(final String childName, final TreeNode childNode) throws NamingException {
-            return childrenUpdater.put(this, childName, childNode);
-        }
-
-        private TreeNode removeChild(final String childName) throws NameNotFoundException {
-            TreeNode old = childrenUpdater.remove(this, childName);
-            if (old == null) {
-                throw nameNotFoundException(childName, fullName);
-            }
-            if(parentNode != null && children.isEmpty()) {
-                childrenUpdater.remove(parentNode, name);
-            }
-            return old;
-        }
-
-        private void clear() {
-            childrenUpdater.clear(this);
+        private ContextNode(final ContextNode node, final PersistentHashMap<String, TreeNode> children) {
+            super(node.fullName, node.binding);
+            this.children = children;
         }
 
         protected final <T> T accept(NodeVisitor<T> visitor) throws NamingException {
             return visitor.visit(this);
         }
-
-        public TreeNode addOrGetChild(final String childName, final TreeNode childNode) {
-            TreeNode appearing = childrenUpdater.putIfAbsent(this, childName, childNode);
-            return appearing == null ? childNode : appearing;
-        }
     }
 
     private class BindingNode extends TreeNode {
@@ -361,19 +342,11 @@ public class InMemoryNamingStore implements WritableNamingStore {
     }
 
     private abstract class NodeTraversingVisitor<T> implements NodeVisitor<T> {
-        private final boolean createIfMissing;
         private Name currentName;
-        private Name traversedName;
         protected final Name targetName;
 
-        protected NodeTraversingVisitor(final boolean createIfMissing, final Name targetName) {
-            this.createIfMissing = createIfMissing;
-            this.targetName = currentName = targetName;
-            this.traversedName = new CompositeName();
-        }
-
         protected NodeTraversingVisitor(final Name targetName) {
-            this(false, targetName);
+            this.targetName = currentName = targetName;
         }
 
         public final T visit(final BindingNode bindingNode) throws NamingException {
@@ -388,16 +361,10 @@ public class InMemoryNamingStore implements WritableNamingStore {
                 return found(contextNode);
             }
             final String childName = currentName.get(0);
-            traversedName.add(childName);
             currentName = currentName.getSuffix(1);
             final TreeNode node = contextNode.children.get(childName);
             if (node == null) {
-                if (createIfMissing) {
-                    final NamingContext subContext = new NamingContext((Name)traversedName.clone(), InMemoryNamingStore.this, new Hashtable<String, Object>());
-                    return contextNode.addOrGetChild(childName, new ContextNode(contextNode, childName, (Name)traversedName.clone(), subContext)).accept(this);
-                } else {
-                    throw nameNotFoundException(childName, contextNode.fullName);
-                }
+                throw nameNotFoundException(childName, contextNode.fullName);
             }
             return node.accept(this);
         }
@@ -413,85 +380,6 @@ public class InMemoryNamingStore implements WritableNamingStore {
         }
     }
 
-    private abstract class BindingContextVisitor<T> extends NodeTraversingVisitor<T> {
-        protected final Name targetName;
-
-        protected BindingContextVisitor(final boolean createIfMissing, final Name targetName) {
-            super(createIfMissing, targetName.getPrefix(targetName.size() - 1));
-            this.targetName = targetName;
-        }
-
-        protected BindingContextVisitor(final Name targetName) {
-            this(false, targetName);
-        }
-
-        protected final T found(final ContextNode contextNode) throws NamingException {
-            return foundBindContext(contextNode);
-        }
-
-        protected final T found(final BindingNode bindingNode) throws NamingException {
-            checkReferenceForContinuation(targetName.getSuffix(bindingNode.fullName.size()), bindingNode.binding.getObject());
-            throw notAContextException(targetName);
-        }
-
-        protected abstract T foundBindContext(final ContextNode contextNode) throws NamingException;
-    }
-
-    private final class BindVisitor extends BindingContextVisitor<Void> {
-        private final Object object;
-        private final String className;
-
-        private BindVisitor(final boolean createIfMissing, final Name name, final Object object, final String className) {
-            super(createIfMissing, name);
-            this.object = object;
-            this.className = className;
-        }
-
-        protected Void foundBindContext(final ContextNode contextNode) throws NamingException {
-            final String childName = getLastComponent(targetName);
-            final Binding binding = new Binding(childName, className, object, true);
-            final BindingNode bindingNode = new BindingNode(targetName, binding);
-            contextNode.addChild(childName, bindingNode);
-            fireEvent(contextNode, targetName, null, binding, NamingEvent.OBJECT_ADDED, "bind");
-            return null;
-        }
-    }
-
-    private final class RebindVisitor extends BindingContextVisitor<Void> {
-        private final Object object;
-        private final String className;
-
-        private RebindVisitor(final Name name, final Object object, final String className) {
-            super(name);
-            this.object = object;
-            this.className = className;
-        }
-
-        protected Void foundBindContext(final ContextNode contextNode) throws NamingException {
-            final String childName = getLastComponent(targetName);
-            final Binding binding = new Binding(childName, className, object, true);
-            final BindingNode bindingNode = new BindingNode(targetName, binding);
-            final TreeNode previous = contextNode.replaceChild(childName, bindingNode);
-
-            final Binding previousBinding = previous != null ? previous.binding : null;
-            fireEvent(contextNode, targetName, previousBinding, binding, previousBinding != null ? NamingEvent.OBJECT_CHANGED : NamingEvent.OBJECT_ADDED, "rebind");
-            return null;
-        }
-    }
-
-    private final class UnbindVisitor extends BindingContextVisitor<Void> {
-
-        private UnbindVisitor(final Name targetName) throws NamingException {
-            super(targetName);
-        }
-
-        protected Void foundBindContext(final ContextNode contextNode) throws NamingException {
-            final TreeNode previous = contextNode.removeChild(getLastComponent(targetName));
-            fireEvent(contextNode, targetName, previous.binding, null, NamingEvent.OBJECT_REMOVED, "unbind");
-            return null;
-        }
-    }
-
     private final class LookupVisitor extends NodeTraversingVisitor<Object> {
         private LookupVisitor(final Name targetName) {
             super(targetName);
@@ -552,18 +440,168 @@ public class InMemoryNamingStore implements WritableNamingStore {
         }
     }
 
-    private final class CreateSubContextVisitor extends BindingContextVisitor<Context> {
-        private CreateSubContextVisitor(final Name targetName) throws NamingException {
-            super(targetName);
+    /**
+     * A change of the context a name is bound in.
+     */
+    private interface ContextChange {
+        /**
+         * @param update the update that makes the change
+         * @param contextNode the context the name is bound in
+         * @param targetName the name
+         * @return the changed context, or {@code null} if the context should be removed
+         * @throws NamingException if the change cannot be made
+         */
+        ContextNode apply(Update update, ContextNode contextNode, Name targetName) throws NamingException;
+    }
+
+    /**
+     * Builds a new tree from changes, sharing the nodes that did not change with the current tree.
+     * Must only be used while holding the write lock.
+     */
+    private final class Update {
+        private final List<Event> events = new ArrayList<Event>();
+
+        /**
+         * Applies a change to the context that the target name is bound in, copying the contexts on the way to it.
+         *
+         * @return the changed {@code contextNode}, or {@code null} if it should be removed
+         */
+        ContextNode apply(final ContextNode contextNode, final Name targetName, final int position, final boolean createIfMissing, final ContextChange change) throws NamingException {
+            if (position == targetName.size() - 1) {
+                return change.apply(this, contextNode, targetName);
+            }
+            final String childName = targetName.get(position);
+            final TreeNode node = contextNode.children.get(childName);
+            final ContextNode childNode;
+            if (node == null) {
+                if (!createIfMissing) {
+                    throw nameNotFoundException(childName, contextNode.fullName);
+                }
+                final Name fullName = targetName.getPrefix(position + 1);
+                childNode = new ContextNode(fullName, new NamingContext(fullName, InMemoryNamingStore.this, new Hashtable<String, Object>()));
+            } else if (node instanceof BindingNode) {
+                final Object object = node.binding.getObject();
+                if (position == targetName.size() - 2) {
+                    checkReferenceForContinuation(targetName.getSuffix(node.fullName.size()), object);
+                    throw notAContextException(targetName);
+                }
+                checkReferenceForContinuation(targetName.getPrefix(targetName.size() - 1).getSuffix(position + 1), object);
+                throw notAContextException(node.fullName);
+            } else {
+                childNode = (ContextNode) node;
+            }
+            final ContextNode changed = apply(childNode, targetName, position + 1, createIfMissing, change);
+            return changed != null ? putChild(contextNode, childName, changed) : removeChild(contextNode, childName);
         }
 
-        protected Context foundBindContext(ContextNode contextNode) throws NamingException {
-            final NamingContext subContext = new NamingContext(targetName, InMemoryNamingStore.this, new Hashtable<String, Object>());
+        ContextNode putChild(final ContextNode contextNode, final String childName, final TreeNode childNode) {
+            return new ContextNode(contextNode, contextNode.children.put(childName, childNode));
+        }
+
+        ContextNode removeChild(final ContextNode contextNode, final String childName) {
+            return new ContextNode(contextNode, contextNode.children.remove(childName));
+        }
+
+        void event(final ContextNode contextNode, final Name name, final Binding existingBinding, final Binding newBinding, final int type, final String changeInfo) {
+            events.add(new Event(contextNode, name, existingBinding, newBinding, type, changeInfo));
+        }
+
+        /**
+         * Makes the new tree visible to lookups, and then fires the events of the changes.
+         */
+        void commit(final ContextNode newRoot) {
+            root = newRoot;
+            for (Event event : events) {
+                fireEvent(event.contextNode, event.name, event.existingBinding, event.newBinding, event.type, event.changeInfo);
+            }
+        }
+    }
+
+    private final class Event {
+        private final ContextNode contextNode;
+        private final Name name;
+        private final Binding existingBinding;
+        private final Binding newBinding;
+        private final int type;
+        private final String changeInfo;
+
+        private Event(final ContextNode contextNode, final Name name, final Binding existingBinding, final Binding newBinding, final int type, final String changeInfo) {
+            this.contextNode = contextNode;
+            this.name = name;
+            this.existingBinding = existingBinding;
+            this.newBinding = newBinding;
+            this.type = type;
+            this.changeInfo = changeInfo;
+        }
+    }
+
+    private final class BindChange implements ContextChange {
+        private final Object object;
+        private final String className;
+
+        private BindChange(final Object object, final String className) {
+            this.object = object;
+            this.className = className;
+        }
+
+        public ContextNode apply(final Update update, final ContextNode contextNode, final Name targetName) throws NamingException {
             final String childName = getLastComponent(targetName);
-            final ContextNode subContextNode = new ContextNode(contextNode, childName, targetName, subContext);
-            contextNode.addChild(getLastComponent(targetName), subContextNode);
-            fireEvent(contextNode, targetName, null, subContextNode.binding, NamingEvent.OBJECT_ADDED, "createSubcontext");
-            return subContext;
+            if (contextNode.children.containsKey(childName)) {
+                throw nameAlreadyBoundException(((Name) contextNode.fullName.clone()).add(childName));
+            }
+            final Binding binding = new Binding(childName, className, object, true);
+            update.event(contextNode, targetName, null, binding, NamingEvent.OBJECT_ADDED, "bind");
+            return update.putChild(contextNode, childName, new BindingNode(targetName, binding));
+        }
+    }
+
+    private final class RebindChange implements ContextChange {
+        private final Object object;
+        private final String className;
+
+        private RebindChange(final Object object, final String className) {
+            this.object = object;
+            this.className = className;
+        }
+
+        public ContextNode apply(final Update update, final ContextNode contextNode, final Name targetName) throws NamingException {
+            final String childName = getLastComponent(targetName);
+            final Binding binding = new Binding(childName, className, object, true);
+            final TreeNode previous = contextNode.children.get(childName);
+
+            final Binding previousBinding = previous != null ? previous.binding : null;
+            update.event(contextNode, targetName, previousBinding, binding, previousBinding != null ? NamingEvent.OBJECT_CHANGED : NamingEvent.OBJECT_ADDED, "rebind");
+            return update.putChild(contextNode, childName, new BindingNode(targetName, binding));
+        }
+    }
+
+    private final class UnbindChange implements ContextChange {
+
+        public ContextNode apply(final Update update, final ContextNode contextNode, final Name targetName) throws NamingException {
+            final String childName = getLastComponent(targetName);
+            final TreeNode previous = contextNode.children.get(childName);
+            if (previous == null) {
+                throw nameNotFoundException(childName, contextNode.fullName);
+            }
+            update.event(contextNode, targetName, previous.binding, null, NamingEvent.OBJECT_REMOVED, "unbind");
+            final ContextNode changed = update.removeChild(contextNode, childName);
+            // contexts other than the root are removed with their last binding
+            return changed.children.isEmpty() && !contextNode.fullName.isEmpty() ? null : changed;
+        }
+    }
+
+    private final class CreateSubcontextChange implements ContextChange {
+        private NamingContext subContext;
+
+        public ContextNode apply(final Update update, final ContextNode contextNode, final Name targetName) throws NamingException {
+            final String childName = getLastComponent(targetName);
+            if (contextNode.children.containsKey(childName)) {
+                throw nameAlreadyBoundException(((Name) contextNode.fullName.clone()).add(childName));
+            }
+            subContext = new NamingContext(targetName, InMemoryNamingStore.this, new Hashtable<String, Object>());
+            final ContextNode subContextNode = new ContextNode(targetName, subContext);
+            update.event(contextNode, targetName, null, subContextNode.binding, NamingEvent.OBJECT_ADDED, "createSubcontext");
+            return update.putChild(contextNode, childName, subContextNode);
         }
     }
 }
@@ -0,0 +1,301 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.naming;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * An immutable hash map, of which a changed copy shares all but the changed path with the original.  Putting or removing
+ * a key thus takes time logarithmic in the size of the map, rather than linear as with copying a {@code HashMap}.
+ * <p/>
+ * The map is a hash array mapped trie: every level consumes 5 bits of the hash of the keys, and keeps only the slots in
+ * use, as indicated by a bitmap.  A slot holds either a key and its value, or a deeper level.  Keys whose hashes are equal
+ * are kept in a list.
+ */
+final class PersistentHashMap<K, V> {
+
+    private static final int BITS = 5;
+    private static final int MASK = (1 << BITS) - 1;
+
+    private static final PersistentHashMap<Object, Object> EMPTY = new PersistentHashMap<Object, Object>(BitmapNode.EMPTY, 0);
+
+    private final Node root;
+    private final int size;
+
+    private PersistentHashMap(final Node root, final int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    @SuppressWarnings("unchecked")
+    static <K, V> PersistentHashMap<K, V> empty() {
+        return (PersistentHashMap<K, V>) EMPTY;
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    V get(final Object key) {
+        return (V) root.get(key, hash(key), 0);
+    }
+
+    boolean containsKey(final Object key) {
+        return get(key) != null;
+    }
+
+    /**
+     * @return a copy of this map, with the value of the key replaced or added
+     */
+    PersistentHashMap<K, V> put(final K key, final V value) {
+        if (key == null || value == null) {
+            throw new IllegalArgumentException();
+        }
+        final boolean[] added = new boolean[1];
+        final Node root = this.root.put(key, value, hash(key), 0, added);
+        return root == this.root ? this : new PersistentHashMap<K, V>(root, added[0] ? size + 1 : size);
+    }
+
+    /**
+     * @return a copy of this map, without the key
+     */
+    PersistentHashMap<K, V> remove(final Object key) {
+        final Node root = this.root.remove(key, hash(key), 0);
+        if (root == this.root) {
+            return this;
+        }
+        return root == null ? PersistentHashMap.<K, V>empty() : new PersistentHashMap<K, V>(root, size - 1);
+    }
+
+    /**
+     * @return the values of this map, in no particular order
+     */
+    @SuppressWarnings("unchecked")
+    Collection<V> values() {
+        final List<Object> values = new ArrayList<Object>(size);
+        root.values(values);
+        return (Collection<V>) values;
+    }
+
+    private static int hash(final Object key) {
+        final int h = key.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    private static int bit(final int hash, final int shift) {
+        return 1 << ((hash >>> shift) & MASK);
+    }
+
+    private interface Node {
+        Object get(Object key, int hash, int shift);
+
+        Node put(Object key, Object value, int hash, int shift, boolean[] added);
+
+        /**
+         * @return the node without the key, {@code null} if it would be empty, or this node if it does not hold the key
+         */
+        Node remove(Object key, int hash, int shift);
+
+        void values(List<Object> values);
+    }
+
+    private static final class BitmapNode implements Node {
+        static final BitmapNode EMPTY = new BitmapNode(0, new Object[0]);
+
+        private final int bitmap;
+        // a key and its value per slot in use, or null and a deeper node
+        private final Object[] slots;
+
+        BitmapNode(final int bitmap, final Object[] slots) {
+            this.bitmap = bitmap;
+            this.slots = slots;
+        }
+
+        private int index(final int bit) {
+            return Integer.bitCount(bitmap & (bit - 1)) << 1;
+        }
+
+        public Object get(final Object key, final int hash, final int shift) {
+            final int bit = bit(hash, shift);
+            if ((bitmap & bit) == 0) {
+                return null;
+            }
+            final int index = index(bit);
+            final Object slotKey = slots[index];
+            if (slotKey == null) {
+                return ((Node) slots[index + 1]).get(key, hash, shift + BITS);
+            }
+            return key.equals(slotKey) ? slots[index + 1] : null;
+        }
+
+        public Node put(final Object key, final Object value, final int hash, final int shift, final boolean[] added) {
+            final int bit = bit(hash, shift);
+            final int index = index(bit);
+            if ((bitmap & bit) == 0) {
+                final Object[] slots = new Object[this.slots.length + 2];
+                System.arraycopy(this.slots, 0, slots, 0, index);
+                slots[index] = key;
+                slots[index + 1] = value;
+                System.arraycopy(this.slots, index, slots, index + 2, this.slots.length - index);
+                added[0] = true;
+                return new BitmapNode(bitmap | bit, slots);
+            }
+            final Object slotKey = this.slots[index];
+            final Object slotValue = this.slots[index + 1];
+            if (slotKey == null) {
+                final Node node = ((Node) slotValue).put(key, value, hash, shift + BITS, added);
+                return node == slotValue ? this : replace(index, null, node);
+            }
+            if (key.equals(slotKey)) {
+                return value == slotValue ? this : replace(index, slotKey, value);
+            }
+            // both keys move to a deeper level
+            final int slotHash = hash(slotKey);
+            final Node node;
+            if (slotHash == hash) {
+                node = new CollisionNode(hash, new Object[] {slotKey, slotValue, key, value});
+            } else {
+                node = EMPTY.put(slotKey, slotValue, slotHash, shift + BITS, new boolean[1]).put(key, value, hash, shift + BITS, added);
+            }
+            added[0] = true;
+            return replace(index, null, node);
+        }
+
+        public Node remove(final Object key, final int hash, final int shift) {
+            final int bit = bit(hash, shift);
+            if ((bitmap & bit) == 0) {
+                return this;
+            }
+            final int index = index(bit);
+            final Object slotKey = slots[index];
+            if (slotKey == null) {
+                final Node node = ((Node) slots[index + 1]).remove(key, hash, shift + BITS);
+                if (node == slots[index + 1]) {
+                    return this;
+                }
+                return node != null ? replace(index, null, node) : without(bit, index);
+            }
+            return key.equals(slotKey) ? without(bit, index) : this;
+        }
+
+        private BitmapNode replace(final int index, final Object key, final Object value) {
+            final Object[] slots = this.slots.clone();
+            slots[index] = key;
+            slots[index + 1] = value;
+            return new BitmapNode(bitmap, slots);
+        }
+
+        private BitmapNode without(final int bit, final int index) {
+            if (bitmap == bit) {
+                return null;
+            }
+            final Object[] slots = new Object[this.slots.length - 2];
+            System.arraycopy(this.slots, 0, slots, 0, index);
+            System.arraycopy(this.slots, index + 2, slots, index, slots.length - index);
+            return new BitmapNode(bitmap & ~bit, slots);
+        }
+
+        public void values(final List<Object> values) {
+            for (int i = 0; i < slots.length; i += 2) {
+                if (slots[i] == null) {
+                    ((Node) slots[i + 1]).values(values);
+                } else {
+                    values.add(slots[i + 1]);
+                }
+            }
+        }
+    }
+
+    private static final class CollisionNode implements Node {
+        private final int hash;
+        // keys and their values
+        private final Object[] entries;
+
+        CollisionNode(final int hash, final Object[] entries) {
+            this.hash = hash;
+            this.entries = entries;
+        }
+
+        private int index(final Object key) {
+            for (int i = 0; i < entries.length; i += 2) {
+                if (key.equals(entries[i])) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        public Object get(final Object key, final int hash, final int shift) {
+            final int index = index(key);
+            return index < 0 ? null : entries[index + 1];
+        }
+
+        public Node put(final Object key, final Object value, final int hash, final int shift, final boolean[] added) {
+            if (hash != this.hash) {
+                // the keys of this node move to a deeper level than the new key
+                return new BitmapNode(bit(this.hash, shift), new Object[] {null, this}).put(key, value, hash, shift, added);
+            }
+            final int index = index(key);
+            if (index >= 0) {
+                if (entries[index + 1] == value) {
+                    return this;
+                }
+                final Object[] entries = this.entries.clone();
+                entries[index + 1] = value;
+                return new CollisionNode(hash, entries);
+            }
+            final Object[] entries = new Object[this.entries.length + 2];
+            System.arraycopy(this.entries, 0, entries, 0, this.entries.length);
+            entries[this.entries.length] = key;
+            entries[this.entries.length + 1] = value;
+            added[0] = true;
+            return new CollisionNode(hash, entries);
+        }
+
+        public Node remove(final Object key, final int hash, final int shift) {
+            final int index = index(key);
+            if (index < 0) {
+                return this;
+            }
+            if (entries.length == 2) {
+                return null;
+            }
+            final Object[] entries = new Object[this.entries.length - 2];
+            System.arraycopy(this.entries, 0, entries, 0, index);
+            System.arraycopy(this.entries, index + 2, entries, index, entries.length - index);
+            return new CollisionNode(hash, entries);
+        }
+
+        public void values(final List<Object> values) {
+            for (int i = 1; i < entries.length; i += 2) {
+                values.add(entries[i]);
+            }
+        }
+    }
+}
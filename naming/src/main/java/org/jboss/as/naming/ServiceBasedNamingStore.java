@@ -25,12 +25,18 @@ package org.jboss.as.naming;
 import java.security.AccessController;
 import java.security.PrivilegedAction;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Enumeration;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.NavigableSet;
 import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
 
 import javax.naming.Binding;
 import javax.naming.CannotProceedException;
@@ -58,16 +64,37 @@ import org.wildfly.security.manager.WildFlySecurityManager;
  * @author Eduardo Martins
  */
 public class ServiceBasedNamingStore implements NamingStore {
+    /**
+     * The maximum number of names a store remembers the binder service of.
+     */
+    static final int MAX_LOOKUP_CACHE_SIZE = 1024;
+
+    private static final int HITS = 0;
+    private static final int MISSES = 1;
+
+    // the stores not yet closed, whose counts add up with those of the closed stores to the lookup cache metrics
+    private static final Set<ServiceBasedNamingStore> OPEN_STORES = Collections.newSetFromMap(new WeakHashMap<ServiceBasedNamingStore, Boolean>());
+    private static final AtomicLong CLOSED_STORE_HITS = new AtomicLong();
+    private static final AtomicLong CLOSED_STORE_MISSES = new AtomicLong();
+
     private final Name EMPTY_NAME = new CompositeName();
     private Name baseName;
     private final ServiceRegistry serviceRegistry;
     private final ServiceName serviceNameBase;
 
     private ConcurrentSkipListSet<ServiceName> boundServices = new ConcurrentSkipListSet<ServiceName>();
+    // the binder services that names resolved to directly, removed when the binder service is unbound
+    private final ConcurrentMap<Name, CachedBinding> lookupCache = new ConcurrentHashMap<Name, CachedBinding>();
+    // the name each cached binder service is cached under, so that unbinding invalidates the entry by key
+    private final ConcurrentMap<ServiceName, Name> cachedNames = new ConcurrentHashMap<ServiceName, Name>();
+    private final StripedCounters lookupCounters = new StripedCounters(2);
 
     public ServiceBasedNamingStore(final ServiceRegistry serviceRegistry, final ServiceName serviceNameBase) {
         this.serviceRegistry = serviceRegistry;
         this.serviceNameBase = serviceNameBase;
+        synchronized (OPEN_STORES) {
+            OPEN_STORES.add(this);
+        }
     }
 
     @Override
@@ -79,9 +106,24 @@ public class ServiceBasedNamingStore implements NamingStore {
         if (name.isEmpty()) {
             return new NamingContext(EMPTY_NAME, this, null);
         }
+        final CachedBinding cached = lookupCache.get(name);
+        if (cached != null) {
+            if (cached.controller.getState() != ServiceController.State.REMOVED) {
+                if (!cached.referenced) {
+                    cached.referenced = true;
+                }
+                lookupCounters.increment(HITS);
+                return lookup(name.toString(), cached.controller, dereference);
+            }
+            uncache(name, cached);
+        }
+        lookupCounters.increment(MISSES);
         final ServiceName lookupName = buildServiceName(name);
-        Object obj = lookup(name.toString(), lookupName, dereference);
-        if (obj == null) {
+        final ServiceController<?> controller = serviceRegistry.getService(lookupName);
+        Object obj = lookup(name.toString(), controller, dereference);
+        if (obj != null) {
+            cache(name, lookupName, controller);
+        } else {
             final ServiceName lower = boundServices.lower(lookupName);
             if (lower != null && lower.isParentOf(lookupName)) {
                 // Parent might be a reference or a link
@@ -109,6 +151,56 @@ public class ServiceBasedNamingStore implements NamingStore {
         return obj;
     }
 
+    private void cache(final Name name, final ServiceName lookupName, final ServiceController<?> controller) {
+        // only bindings of this store are cached, as only their unbinding is noticed
+        if (!boundServices.contains(lookupName)) {
+            return;
+        }
+        final Name key = (Name) name.clone();
+        if (cachedNames.putIfAbsent(lookupName, key) != null) {
+            // already cached, possibly under another name resolving to the same binder service
+            return;
+        }
+        if (lookupCache.size() >= MAX_LOOKUP_CACHE_SIZE) {
+            evict();
+        }
+        final CachedBinding binding = new CachedBinding(lookupName, controller);
+        if (lookupCache.putIfAbsent(key, binding) != null) {
+            cachedNames.remove(lookupName, key);
+        } else if (!boundServices.contains(lookupName)) {
+            // unbound concurrently, before the entry was visible to remove(ServiceName)
+            uncache(key, binding);
+        }
+    }
+
+    /**
+     * Makes room in the lookup cache, giving entries that were looked up since the last eviction passed over them a
+     * second chance.
+     */
+    private void evict() {
+        Map.Entry<Name, CachedBinding> victim = null;
+        for (Map.Entry<Name, CachedBinding> entry : lookupCache.entrySet()) {
+            if (victim == null) {
+                victim = entry;
+            }
+            final CachedBinding binding = entry.getValue();
+            if (!binding.referenced) {
+                victim = entry;
+                break;
+            }
+            binding.referenced = false;
+        }
+        if (victim != null) {
+            uncache(victim.getKey(), victim.getValue());
+        }
+    }
+
+    private void uncache(final Name name, final CachedBinding binding) {
+        if (lookupCache.remove(name, binding)) {
+            cachedNames.remove(binding.serviceName, name);
+        }
+    }
+
     private void checkReferenceForContinuation(final Name name, final Object object) throws CannotProceedException {
         if (object instanceof Reference) {
             if (((Reference) object).get("nns") != null) {
@@ -125,8 +217,11 @@ public class ServiceBasedNamingStore implements NamingStore {
     }
 
     private Object lookup(final String name, final ServiceName lookupName, boolean dereference) throws NamingException {
+        return lookup(name, serviceRegistry.getService(lookupName), dereference);
+    }
+
+    private Object lookup(final String name, final ServiceController<?> controller, boolean dereference) throws NamingException {
         try {
-            final ServiceController<?> controller = serviceRegistry.getService(lookupName);
             if (controller != null) {
                 final Object object = controller.getValue();
                 if (dereference && object instanceof ManagedReferenceFactory) {
@@ -257,6 +352,14 @@ public class ServiceBasedNamingStore implements NamingStore {
 
     public void close() throws NamingException {
         boundServices.clear();
+        lookupCache.clear();
+        cachedNames.clear();
+        synchronized (OPEN_STORES) {
+            if (OPEN_STORES.remove(this)) {
+                CLOSED_STORE_HITS.addAndGet(getLookupCacheHits());
+                CLOSED_STORE_MISSES.addAndGet(getLookupCacheMisses());
+            }
+        }
     }
 
     public void addNamingListener(Name target, int scope, NamingListener listener) {
@@ -275,6 +378,59 @@ public class ServiceBasedNamingStore implements NamingStore {
 
     public void remove(final ServiceName serviceName) {
         boundServices.remove(serviceName);
+        final Name name = cachedNames.get(serviceName);
+        if (name != null) {
+            final CachedBinding binding = lookupCache.get(name);
+            if (binding != null && binding.serviceName.equals(serviceName)) {
+                uncache(name, binding);
+            } else {
+                cachedNames.remove(serviceName, name);
+            }
+        }
+    }
+
+    /**
+     * @return the number of lookups on this store that were resolved by a previously found binder service
+     */
+    public long getLookupCacheHits() {
+        return lookupCounters.get(HITS);
+    }
+
+    /**
+     * @return the number of lookups on this store that had to find the binder service in the service registry
+     */
+    public long getLookupCacheMisses() {
+        return lookupCounters.get(MISSES);
+    }
+
+    int getLookupCacheSize() {
+        return lookupCache.size();
+    }
+
+    /**
+     * @return the number of lookups, across all stores, that were resolved by a previously found binder service
+     */
+    public static long getLookupCacheHitCount() {
+        long count = CLOSED_STORE_HITS.get();
+        synchronized (OPEN_STORES) {
+            for (ServiceBasedNamingStore store : OPEN_STORES) {
+                count += store.getLookupCacheHits();
+            }
+        }
+        return count;
+    }
+
+    /**
+     * @return the number of lookups, across all stores, that had to find the binder service in the service registry
+     */
+    public static long getLookupCacheMissCount() {
+        long count = CLOSED_STORE_MISSES.get();
+        synchronized (OPEN_STORES) {
+            for (ServiceBasedNamingStore store : OPEN_STORES) {
+                count += store.getLookupCacheMisses();
+            }
+        }
+        return count;
     }
 
     protected ServiceName buildServiceName(final Name name) {
@@ -367,4 +523,16 @@ public class ServiceBasedNamingStore implements NamingStore {
         }
         return new CompositeName();
     }
+
+    private static final class CachedBinding {
+        final ServiceName serviceName;
+        final ServiceController<?> controller;
+        // whether looked up since the last eviction passed over it
+        volatile boolean referenced;
+
+        CachedBinding(final ServiceName serviceName, final ServiceController<?> controller) {
+            this.serviceName = serviceName;
+            this.controller = controller;
+        }
+    }
 }
@@ -0,0 +1,74 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.naming;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A few counters that many threads increment at once. The counters are split into stripes that each fill a cache line
+ * of their own, and a thread only increments the counters of the stripe it hashes to, so that threads on different
+ * stripes neither contend nor share cache lines. Reading a counter sums up its stripes.
+ */
+final class StripedCounters {
+
+    // the longs of a cache line, which bounds the number of counters
+    private static final int LINE = 8;
+    private static final int STRIPES = stripes(Runtime.getRuntime().availableProcessors());
+
+    private final AtomicLongArray values = new AtomicLongArray(STRIPES * LINE);
+
+    StripedCounters(int counters) {
+        if (counters > LINE) {
+            throw new IllegalArgumentException();
+        }
+    }
+
+    void increment(int counter) {
+        this.values.incrementAndGet(stripe() * LINE + counter);
+    }
+
+    long get(int counter) {
+        long sum = 0;
+        for (int i = 0; i < STRIPES; ++i) {
+            sum += this.values.get(i * LINE + counter);
+        }
+        return sum;
+    }
+
+    private static int stripe() {
+        final long id = Thread.currentThread().getId();
+        // thread ids are sequential, spread them so that neighbouring threads land on different stripes
+        int hash = (int) (id ^ (id >>> 32)) * 0x9E3779B9;
+        return (hash ^ (hash >>> 16)) & (STRIPES - 1);
+    }
+
+    /**
+     * @return the power of 2 at or above the number of processors, at most 16
+     */
+    static int stripes(int processors) {
+        int stripes = 1;
+        while (stripes < processors && stripes < 16) {
+            stripes <<= 1;
+        }
+        return stripes;
+    }
+}
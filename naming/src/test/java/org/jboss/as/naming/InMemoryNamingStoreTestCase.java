@@ -265,4 +265,26 @@ public class InMemoryNamingStoreTestCase {
             fail("Should have throw name not found exception");
         } catch (NameNotFoundException expected){}
     }
+
+    @Test
+    public void testLookupWhileBinding() throws Exception {
+        nameStore.bind(new CompositeName("stable/item"), "stable");
+        final Thread writer = new Thread() {
+            public void run() {
+                try {
+                    for (int i = 0; i < 1000; ++i) {
+                        nameStore.bind(new CompositeName("changing/item" + i), i);
+                    }
+                } catch (Exception e) {
+                    throw new RuntimeException(e);
+                }
+            }
+        };
+        writer.start();
+        while (writer.isAlive()) {
+            assertEquals("stable", nameStore.lookup(new CompositeName("stable/item")));
+        }
+        writer.join();
+        assertEquals(1000, nameStore.list(new CompositeName("changing")).size());
+    }
 }
@@ -0,0 +1,98 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.naming;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Tests {@link PersistentHashMap} against a {@code HashMap}.
+ */
+public class PersistentHashMapTestCase {
+
+    @Test
+    public void testPutAndRemove() {
+        final Random random = new Random(42);
+        final Map<Integer, Integer> expected = new HashMap<Integer, Integer>();
+        PersistentHashMap<Integer, Integer> map = PersistentHashMap.empty();
+        for (int i = 0; i < 100000; ++i) {
+            final Integer key = random.nextInt(5000);
+            if (random.nextInt(3) == 0) {
+                expected.remove(key);
+                map = map.remove(key);
+            } else {
+                expected.put(key, i);
+                map = map.put(key, i);
+            }
+        }
+        assertEquals(expected.size(), map.size());
+        for (int key = 0; key < 5000; ++key) {
+            assertEquals(expected.get(key), map.get(key));
+        }
+        assertEquals(new HashSet<Integer>(expected.values()), new HashSet<Integer>(map.values()));
+        assertEquals(expected.size(), map.values().size());
+    }
+
+    @Test
+    public void testCopiesAreIndependent() {
+        final PersistentHashMap<String, String> original = PersistentHashMap.<String, String>empty().put("a", "1").put("b", "2");
+        final PersistentHashMap<String, String> changed = original.put("a", "3").remove("b").put("c", "4");
+        assertEquals("1", original.get("a"));
+        assertEquals("2", original.get("b"));
+        assertNull(original.get("c"));
+        assertEquals(2, original.size());
+        assertEquals("3", changed.get("a"));
+        assertFalse(changed.containsKey("b"));
+        assertEquals("4", changed.get("c"));
+        assertEquals(2, changed.size());
+        // unchanged maps are returned as is
+        assertSame(original, original.remove("missing"));
+        assertSame(original, original.put("a", original.get("a")));
+    }
+
+    @Test
+    public void testCollisions() {
+        // "Aa" and "BB" have the same hash code
+        PersistentHashMap<String, String> map = PersistentHashMap.<String, String>empty().put("Aa", "1").put("BB", "2").put("C", "3");
+        assertEquals(3, map.size());
+        assertEquals("1", map.get("Aa"));
+        assertEquals("2", map.get("BB"));
+        assertEquals("3", map.get("C"));
+        map = map.remove("Aa");
+        assertEquals(2, map.size());
+        assertNull(map.get("Aa"));
+        assertEquals("2", map.get("BB"));
+        map = map.remove("BB").remove("C");
+        assertTrue(map.isEmpty());
+        assertNull(map.get("BB"));
+    }
+}
@@ -31,13 +31,16 @@ import javax.naming.CompositeName;
 import javax.naming.Context;
 import javax.naming.Name;
 import javax.naming.NameClassPair;
+import javax.naming.NameNotFoundException;
 import javax.naming.NameParser;
 import javax.naming.NamingEnumeration;
 import javax.naming.NamingException;
 
 import org.jboss.msc.service.Service;
 import org.jboss.msc.service.ServiceContainer;
+import org.jboss.msc.service.ServiceController;
 import org.jboss.msc.service.ServiceName;
+import org.jboss.msc.service.StabilityMonitor;
 import org.jboss.msc.service.StartContext;
 import org.jboss.msc.service.StartException;
 import org.jboss.msc.service.StopContext;
@@ -98,6 +101,66 @@ public class ServiceBasedNamingStoreTestCase {
         assertEquals(value, obj);
     }
 
+    @Test
+    public void testLookupCache() throws Exception {
+        final ServiceName bindingName = ServiceName.JBOSS.append("foo", "bar");
+        final Object value = new Object();
+        bindObject(bindingName, value);
+
+        final Name name = new CompositeName("foo/bar");
+        assertEquals(value, store.lookup(name));
+        // the name may be changed by the caller without affecting the cache
+        name.add("baz");
+        assertEquals(value, store.lookup(new CompositeName("foo/bar")));
+        assertEquals(1, store.getLookupCacheHits());
+        assertEquals(1, store.getLookupCacheMisses());
+        assertTrue(ServiceBasedNamingStore.getLookupCacheHitCount() >= 1);
+
+        final ServiceController<?> controller = container.getRequiredService(bindingName);
+        final StabilityMonitor monitor = new StabilityMonitor();
+        monitor.addController(controller);
+        controller.setMode(ServiceController.Mode.REMOVE);
+        monitor.awaitStability();
+        try {
+            store.lookup(new CompositeName("foo/bar"));
+            fail("Should have thrown name not found");
+        } catch (NameNotFoundException expected) {
+        }
+    }
+
+    @Test
+    public void testLookupCacheInvalidatedOnUnbind() throws Exception {
+        final ServiceName bindingName = ServiceName.JBOSS.append("foo", "bar");
+        bindObject(bindingName, new Object());
+        store.lookup(new CompositeName("foo/bar"));
+        assertEquals(1, store.getLookupCacheSize());
+
+        store.remove(bindingName);
+        assertEquals(0, store.getLookupCacheSize());
+        // a lookup after unbinding does not bring the binding back into the cache
+        store.lookup(new CompositeName("foo/bar"));
+        assertEquals(0, store.getLookupCacheSize());
+    }
+
+    @Test
+    public void testLookupCacheEviction() throws Exception {
+        final Object value = new Object();
+        final int bindings = ServiceBasedNamingStore.MAX_LOOKUP_CACHE_SIZE + 10;
+        for (int i = 0; i < bindings; ++i) {
+            bindObject(ServiceName.JBOSS.append("bean" + i), value);
+        }
+        final Name hot = new CompositeName("bean0");
+        for (int i = 0; i < bindings; ++i) {
+            assertEquals(value, store.lookup(new CompositeName("bean" + i)));
+            store.lookup(hot);
+        }
+        assertTrue(store.getLookupCacheSize() <= ServiceBasedNamingStore.MAX_LOOKUP_CACHE_SIZE);
+        // a binding looked up between evictions keeps its entry
+        final long hits = store.getLookupCacheHits();
+        store.lookup(hot);
+        assertEquals(hits + 1, store.getLookupCacheHits());
+    }
+
     @Test
     public void testLookupParentContext() throws Exception {
         final ServiceName bindingName = ServiceName.JBOSS.append("foo", "bar");
@@ -407,6 +470,7 @@ public class ServiceBasedNamingStoreTestCase {
             }
 
             public void stop(StopContext context) {
+                store.remove(serviceName);
             }
 
             public ManagedReferenceFactory getValue() throws IllegalStateException, IllegalArgumentException {
@@ -22,6 +22,7 @@
 package org.jboss.as.security;
 
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.NAME;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
 
 import java.security.Principal;
@@ -47,6 +48,7 @@ import org.jboss.as.controller.operations.common.Util;
 import org.jboss.as.controller.registry.ManagementResourceRegistration;
 import org.jboss.as.controller.registry.OperationEntry;
 import org.jboss.as.security.logging.SecurityLogger;
+import org.jboss.as.security.org.jboss.as.security.lru.CacheStatistics;
 import org.jboss.as.security.plugins.SecurityDomainContext;
 import org.jboss.as.security.service.SecurityDomainService;
 import org.jboss.dmr.ModelNode;
@@ -66,6 +68,18 @@ class SecurityDomainResourceDefinition extends SimpleResourceDefinition {
             .setAllowExpression(true)
             .build();
 
+    static final SimpleAttributeDefinition CACHE_HIT_COUNT = new SimpleAttributeDefinitionBuilder(Constants.CACHE_HIT_COUNT, ModelType.LONG, true)
+            .setStorageRuntime()
+            .build();
+
+    static final SimpleAttributeDefinition CACHE_MISS_COUNT = new SimpleAttributeDefinitionBuilder(Constants.CACHE_MISS_COUNT, ModelType.LONG, true)
+            .setStorageRuntime()
+            .build();
+
+    static final SimpleAttributeDefinition CACHE_EVICTION_COUNT = new SimpleAttributeDefinitionBuilder(Constants.CACHE_EVICTION_COUNT, ModelType.LONG, true)
+            .setStorageRuntime()
+            .build();
+
     private final boolean registerRuntimeOnly;
     private final List<AccessConstraintDefinition> accessConstraints;
 
@@ -82,6 +96,11 @@ class SecurityDomainResourceDefinition extends SimpleResourceDefinition {
     @Override
     public void registerAttributes(final ManagementResourceRegistration resourceRegistration) {
         resourceRegistration.registerReadWriteAttribute(CACHE_TYPE, null, new SecurityDomainReloadWriteHandler(CACHE_TYPE));
+        if (registerRuntimeOnly) {
+            resourceRegistration.registerMetric(CACHE_HIT_COUNT, CacheStatisticsHandler.INSTANCE);
+            resourceRegistration.registerMetric(CACHE_MISS_COUNT, CacheStatisticsHandler.INSTANCE);
+            resourceRegistration.registerMetric(CACHE_EVICTION_COUNT, CacheStatisticsHandler.INSTANCE);
+        }
     }
 
     @Override
@@ -188,6 +207,40 @@ class SecurityDomainResourceDefinition extends SimpleResourceDefinition {
         }
     }
 
+    /**
+     * Reads the counters of the authentication cache. They are undefined if the cache of the domain does not keep
+     * statistics.
+     */
+    static final class CacheStatisticsHandler extends AbstractRuntimeOnlyHandler {
+        static final CacheStatisticsHandler INSTANCE = new CacheStatisticsHandler();
+
+        @Override
+        protected void executeRuntimeStep(OperationContext context, ModelNode operation) throws OperationFailedException {
+            ModelNode opAddr = operation.require(OP_ADDR);
+            PathAddress address = PathAddress.pathAddress(opAddr);
+            final String securityDomain = address.getLastElement().getValue();
+            final String attributeName = operation.require(NAME).asString();
+
+            ServiceController<SecurityDomainContext> controller = getSecurityDomainService(context, securityDomain);
+            if (controller != null) {
+                waitForService(controller);
+                Object cache = controller.getValue().getAuthenticationCache();
+                if (cache instanceof CacheStatistics) {
+                    CacheStatistics statistics = (CacheStatistics) cache;
+                    ModelNode result = context.getResult();
+                    if (Constants.CACHE_HIT_COUNT.equals(attributeName)) {
+                        result.set(statistics.getHitCount());
+                    } else if (Constants.CACHE_MISS_COUNT.equals(attributeName)) {
+                        result.set(statistics.getMissCount());
+                    } else if (Constants.CACHE_EVICTION_COUNT.equals(attributeName)) {
+                        result.set(statistics.getEvictionCount());
+                    }
+                }
+            }
+            context.completeStep(OperationContext.RollbackHandler.NOOP_ROLLBACK_HANDLER);
+        }
+    }
+
     /**
      * Wait for the required service to start up and fail otherwise. This method is necessary when a runtime operation
      * uses a service that might have been created within a composite operation.
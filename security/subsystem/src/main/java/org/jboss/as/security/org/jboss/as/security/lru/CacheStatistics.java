@@ -0,0 +1,40 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.jboss.as.security.org.jboss.as.security.lru;
+
+/**
+ * Counters of a cache that keeps statistics.
+ */
+public interface CacheStatistics {
+
+    /**
+     * @return the number of lookups that found an entry
+     */
+    long getHitCount();
+
+    /**
+     * @return the number of lookups that did not find an entry
+     */
+    long getMissCount();
+
+    /**
+     * @return the number of entries that were removed to stay within the maximum size
+     */
+    long getEvictionCount();
+}
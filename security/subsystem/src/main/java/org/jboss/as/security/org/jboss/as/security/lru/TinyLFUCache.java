@@ -0,0 +1,542 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.jboss.as.security.org.jboss.as.security.lru;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A bounded cache that decides which entries to keep by how often they were used recently, rather than only by
+ * how recently they were used.
+ * <p/>
+ * <p>New entries enter a small LRU window. An entry that falls out of the window is only admitted into the main
+ * area if a frequency sketch estimates that it is used more often than the entry it would replace, so a burst of
+ * keys that are only used once, e.g. failed logins of unknown principals, cannot flush the frequently used ones. The
+ * main area is a segmented LRU, where entries that are used again are promoted from a probation into a protected
+ * segment (W-TinyLFU).</p>
+ * <p/>
+ * <p>Lookups never block. Their effect on the eviction policy is recorded only if the policy lock is free, so under
+ * contention the policy works from a sample of the accesses. Adding an entry always takes the lock, so the size
+ * bound is strict.</p>
+ */
+public class TinyLFUCache<K, V> extends AbstractMap<K, V> implements ConcurrentMap<K, V>, CacheStatistics {
+
+    private static final int NEW = 0;
+    private static final int WINDOW = 1;
+    private static final int PROBATION = 2;
+    private static final int PROTECTED = 3;
+    private static final int DEAD = 4;
+
+    private final int maxEntries;
+    private final int maxWindow;
+    private final int maxProtected;
+
+    private final ConcurrentHashMap<K, Node<K, V>> cache = new ConcurrentHashMap<>();
+    private final RemoveCallback<K, V> removeCallback;
+
+    private final ReentrantLock policyLock = new ReentrantLock();
+    // the following are guarded by the policy lock
+    private final FrequencySketch sketch;
+    private final Queue<K, V> window = new Queue<>();
+    private final Queue<K, V> probation = new Queue<>();
+    private final Queue<K, V> protectedQueue = new Queue<>();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public TinyLFUCache(int maxEntries) {
+        this(maxEntries, null);
+    }
+
+    public TinyLFUCache(int maxEntries, RemoveCallback<K, V> removeCallback) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("maxEntries must be greater than 0: " + maxEntries);
+        }
+        this.maxEntries = maxEntries;
+        this.maxWindow = Math.max(1, maxEntries / 100);
+        this.maxProtected = (maxEntries - this.maxWindow) * 4 / 5;
+        this.removeCallback = removeCallback;
+        this.sketch = new FrequencySketch(maxEntries);
+    }
+
+    public V put(K key, V newValue) {
+        return put(key, newValue, false);
+    }
+
+    public V put(K key, V newValue, boolean ifAbsent) {
+        Node<K, V> node = cache.get(key);
+        if (node != null) {
+            V old = node.value;
+            if (ifAbsent) {
+                return old;
+            }
+            node.value = newValue;
+            recordAccess(node);
+            return old;
+        }
+        node = new Node<>(key, newValue);
+        if (cache.putIfAbsent(key, node) != null) {
+            return this.put(key, newValue, ifAbsent);
+        }
+        List<Node<K, V>> evicted;
+        policyLock.lock();
+        try {
+            // a concurrent remove may have killed it already
+            if (node.queue != NEW) {
+                return null;
+            }
+            sketch.increment(key.hashCode());
+            window.addLast(node, WINDOW);
+            evicted = evict();
+        } finally {
+            policyLock.unlock();
+        }
+        for (Node<K, V> victim : evicted) {
+            if (cache.remove(victim.key, victim)) {
+                evictions.incrementAndGet();
+                if (removeCallback != null) {
+                    removeCallback.afterRemove(victim.key, victim.value);
+                }
+            }
+        }
+        return null;
+    }
+
+    public V replace(K key, V newValue) {
+        Node<K, V> node = get0(key);
+        if (node == null) return null;
+
+        V old = node.value;
+        node.value = newValue;
+        if (removeCallback != null) {
+            removeCallback.afterRemove(key, old);
+        }
+        return old;
+    }
+
+    public boolean replace(K key, V oldValue, V newValue) {
+        Node<K, V> node = get0(key);
+        if (node == null || node.value != oldValue) {
+            return false;
+        }
+        boolean ret;
+        synchronized (node) {
+            ret = node.value == oldValue;
+            if (ret) {
+                node.value = newValue;
+            }
+        }
+        if (removeCallback != null) {
+            removeCallback.afterRemove(key, oldValue);
+        }
+        return ret;
+    }
+
+    public V get(Object key) {
+        Node<K, V> node = get0(key);
+        if (node == null) return null;
+
+        return node.value;
+    }
+
+    private Node<K, V> get0(Object key) {
+        @SuppressWarnings("SuspiciousMethodCalls")
+        Node<K, V> node = cache.get(key);
+        if (node == null) {
+            misses.incrementAndGet();
+            // count the miss too, so that a key that keeps coming back is admitted once it is added
+            if (key != null && policyLock.tryLock()) {
+                try {
+                    sketch.increment(key.hashCode());
+                } finally {
+                    policyLock.unlock();
+                }
+            }
+            return null;
+        }
+        hits.incrementAndGet();
+        recordAccess(node);
+        return node;
+    }
+
+    private void recordAccess(Node<K, V> node) {
+        // the policy is only updated if nobody else is doing so, which samples the accesses under contention
+        if (!policyLock.tryLock()) {
+            return;
+        }
+        try {
+            sketch.increment(node.key.hashCode());
+            switch (node.queue) {
+                case WINDOW:
+                    window.moveToLast(node);
+                    break;
+                case PROBATION:
+                    // used again, so promote it, and make room by demoting the least recently used protected entry
+                    probation.remove(node);
+                    protectedQueue.addLast(node, PROTECTED);
+                    if (protectedQueue.size > maxProtected) {
+                        Node<K, V> demoted = protectedQueue.head;
+                        protectedQueue.remove(demoted);
+                        probation.addLast(demoted, PROBATION);
+                    }
+                    break;
+                case PROTECTED:
+                    protectedQueue.moveToLast(node);
+                    break;
+                default:
+                    // not linked yet, or already removed
+            }
+        } finally {
+            policyLock.unlock();
+        }
+    }
+
+    /**
+     * Moves the entries that overflow the window into probation, and evicts until the cache is within its bounds.
+     * Must be called while holding the policy lock.
+     *
+     * @return the evicted nodes, which are still in the map
+     */
+    private List<Node<K, V>> evict() {
+        Node<K, V> candidate = null;
+        while (window.size > maxWindow) {
+            candidate = window.head;
+            window.remove(candidate);
+            probation.addLast(candidate, PROBATION);
+        }
+        List<Node<K, V>> evicted = new ArrayList<>(1);
+        while (window.size + probation.size + protectedQueue.size > maxEntries) {
+            Node<K, V> victim = probation.head;
+            if (victim == null) {
+                victim = (protectedQueue.head != null) ? protectedQueue.head : window.head;
+            } else if (candidate != null && candidate != victim && candidate.queue == PROBATION) {
+                // admit the candidate only if it is used more often than the entry it would replace
+                if (sketch.frequency(candidate.key.hashCode()) <= sketch.frequency(victim.key.hashCode())) {
+                    victim = candidate;
+                }
+                candidate = null;
+            }
+            unlink(victim);
+            victim.queue = DEAD;
+            evicted.add(victim);
+        }
+        return evicted;
+    }
+
+    // must be called while holding the policy lock
+    private void unlink(Node<K, V> node) {
+        switch (node.queue) {
+            case WINDOW:
+                window.remove(node);
+                break;
+            case PROBATION:
+                probation.remove(node);
+                break;
+            case PROTECTED:
+                protectedQueue.remove(node);
+                break;
+            default:
+        }
+    }
+
+    private void kill(Node<K, V> node) {
+        policyLock.lock();
+        try {
+            unlink(node);
+            node.queue = DEAD;
+        } finally {
+            policyLock.unlock();
+        }
+    }
+
+    public boolean remove(Object key, Object value) {
+        Node<K, V> toRemove = cache.get(key);
+        if (toRemove == null || toRemove.value != value || !cache.remove(key, toRemove)) {
+            return false;
+        }
+        kill(toRemove);
+        return true;
+    }
+
+    public V remove(Object key) {
+        Node<K, V> remove = cache.remove(key);
+        if (remove == null) {
+            return null;
+        }
+        kill(remove);
+        if (removeCallback != null) {
+            removeCallback.afterRemove(remove.key, remove.value);
+        }
+        return remove.value;
+    }
+
+    public void clear() {
+        for (Iterator<Entry<K, V>> iter = entrySet().iterator(); iter.hasNext();) {
+            iter.next();
+            iter.remove();
+        }
+    }
+
+    public int size() {
+        return cache.size();
+    }
+
+    @Override
+    public V putIfAbsent(K key, V value) {
+        return put(key, value, true);
+    }
+
+    @Override
+    public Set<Entry<K, V>> entrySet() {
+        return new WrappedEntrySet(cache.entrySet());
+    }
+
+    @Override
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    @Override
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    @Override
+    public long getEvictionCount() {
+        return evictions.get();
+    }
+
+    private static final class Node<K, V> {
+        final K key;
+        volatile V value;
+        // the following are guarded by the policy lock
+        int queue = NEW;
+        Node<K, V> prev;
+        Node<K, V> next;
+
+        Node(K key, V value) {
+            this.key = key;
+            this.value = value;
+        }
+    }
+
+    /**
+     * A doubly linked list of nodes, least recently used first.
+     */
+    private static final class Queue<K, V> {
+        Node<K, V> head;
+        Node<K, V> tail;
+        int size;
+
+        void addLast(Node<K, V> node, int queue) {
+            node.queue = queue;
+            node.prev = tail;
+            node.next = null;
+            if (tail == null) {
+                head = node;
+            } else {
+                tail.next = node;
+            }
+            tail = node;
+            size++;
+        }
+
+        void remove(Node<K, V> node) {
+            if (node.prev == null) {
+                head = node.next;
+            } else {
+                node.prev.next = node.next;
+            }
+            if (node.next == null) {
+                tail = node.prev;
+            } else {
+                node.next.prev = node.prev;
+            }
+            node.prev = null;
+            node.next = null;
+            size--;
+        }
+
+        void moveToLast(Node<K, V> node) {
+            if (node != tail) {
+                int queue = node.queue;
+                remove(node);
+                addLast(node, queue);
+            }
+        }
+    }
+
+    /**
+     * A count-min sketch of 4-bit counters, which estimates how often a key was used recently. All counters are
+     * halved once the number of increments reaches ten times the capacity, so that old popularity fades away.
+     */
+    private static final class FrequencySketch {
+        private static final int[] SEEDS = new int[] { 0x97cb3127, 0xb9c4d2d5, 0x7d9e1f5b, 0x5bd1e995 };
+
+        private final byte[][] table;
+        private final int mask;
+        private final int sampleSize;
+        private int additions;
+
+        FrequencySketch(int capacity) {
+            int width = Integer.highestOneBit(Math.max(16, capacity));
+            if (width < capacity) {
+                width <<= 1;
+            }
+            this.table = new byte[SEEDS.length][width];
+            this.mask = width - 1;
+            this.sampleSize = 10 * width;
+        }
+
+        void increment(int hashCode) {
+            boolean added = false;
+            for (int i = 0; i < SEEDS.length; ++i) {
+                int index = index(hashCode, i);
+                if (table[i][index] < 15) {
+                    table[i][index]++;
+                    added = true;
+                }
+            }
+            if (added && ++additions == sampleSize) {
+                reset();
+            }
+        }
+
+        int frequency(int hashCode) {
+            int frequency = Integer.MAX_VALUE;
+            for (int i = 0; i < SEEDS.length; ++i) {
+                frequency = Math.min(frequency, table[i][index(hashCode, i)]);
+            }
+            return frequency;
+        }
+
+        private int index(int hashCode, int row) {
+            int hash = hashCode * SEEDS[row];
+            hash ^= hash >>> 16;
+            return hash & mask;
+        }
+
+        private void reset() {
+            for (byte[] row : table) {
+                for (int i = 0; i < row.length; ++i) {
+                    row[i] >>>= 1;
+                }
+            }
+            additions /= 2;
+        }
+    }
+
+    private class WrappedEntrySet extends AbstractSet<Entry<K, V>> {
+        private final Set<Entry<K, Node<K, V>>> set;
+
+        public WrappedEntrySet(Set<Entry<K, Node<K, V>>> set) {
+            this.set = set;
+        }
+
+        public Iterator<Entry<K, V>> iterator() {
+            return new WrappedIterator(set.iterator());
+        }
+
+        @Override
+        public int size() {
+            return set.size();
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            if (!(o instanceof Entry))
+                return false;
+            Entry<?,?> e = (Entry<?,?>)o;
+            V v = TinyLFUCache.this.get(e.getKey());
+            return v != null && v.equals(e.getValue());
+        }
+
+        @Override
+        public boolean remove(Object o) {
+            if (!(o instanceof Entry))
+                return false;
+            Entry<?,?> e = (Entry<?,?>)o;
+            return TinyLFUCache.this.remove(e.getKey()) != null;
+        }
+
+        public boolean isEmpty() {
+            return TinyLFUCache.this.isEmpty();
+        }
+
+        public void clear() {
+            TinyLFUCache.this.clear();
+        }
+    }
+
+    private class WrappedIterator implements Iterator<Entry<K, V>> {
+        private final Iterator<Entry<K, Node<K, V>>> iterator;
+        private Node<K, V> last;
+
+        public WrappedIterator(Iterator<Entry<K, Node<K, V>>> iterator) {
+            this.iterator = iterator;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return iterator.hasNext();
+        }
+
+        @Override
+        public Entry<K, V> next() {
+            final Node<K, V> next = iterator.next().getValue();
+            last = next;
+
+            return new Entry<K, V>() {
+                @Override
+                public K getKey() {
+                    return next.key;
+                }
+
+                @Override
+                public V getValue() {
+                    return next.value;
+                }
+
+                @Override
+                public V setValue(V value) {
+                    V old = next.value;
+                    next.value = value;
+                    return old;
+                }
+            };
+        }
+
+        @Override
+        public void remove() {
+            if (last == null) {
+                throw new IllegalStateException("next() not called");
+            }
+            TinyLFUCache.this.remove(last.key);
+        }
+    }
+}
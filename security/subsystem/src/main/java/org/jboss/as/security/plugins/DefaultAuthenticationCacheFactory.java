@@ -27,6 +27,7 @@ import java.util.concurrent.ConcurrentMap;
 
 import org.jboss.as.security.org.jboss.as.security.lru.LRUCache;
 import org.jboss.as.security.org.jboss.as.security.lru.RemoveCallback;
+import org.jboss.as.security.org.jboss.as.security.lru.TinyLFUCache;
 import org.jboss.security.authentication.JBossCachedAuthenticationManager.DomainInfo;
 
 /**
@@ -36,20 +37,37 @@ import org.jboss.security.authentication.JBossCachedAuthenticationManager.Domain
  */
 public class DefaultAuthenticationCacheFactory implements AuthenticationCacheFactory {
 
+    private static final int MAX_ENTRIES = 1000;
+
+    private final boolean frequencyBased;
+
+    public DefaultAuthenticationCacheFactory() {
+        this(false);
+    }
+
+    /**
+     * @param frequencyBased {@code true} to create a {@link TinyLFUCache}, which keeps the principals that authenticate
+     *        most often, {@code false} to create an {@link LRUCache}
+     */
+    public DefaultAuthenticationCacheFactory(boolean frequencyBased) {
+        this.frequencyBased = frequencyBased;
+    }
+
     /**
      * Returns a default cache implementation
      *
      * @return cache implementation
      */
     public ConcurrentMap<Principal, DomainInfo> getCache() {
-        ConcurrentMap<Principal, DomainInfo> map = new LRUCache<>(1000,  new RemoveCallback<Principal, DomainInfo>() {
+        RemoveCallback<Principal, DomainInfo> callback = new RemoveCallback<Principal, DomainInfo>() {
             @Override
             public void afterRemove(Principal key, DomainInfo value) {
                 if (value != null) {
                     value.logout();
                 }
             }
-        });
+        };
+        ConcurrentMap<Principal, DomainInfo> map = frequencyBased ? new TinyLFUCache<>(MAX_ENTRIES, callback) : new LRUCache<>(MAX_ENTRIES, callback);
         return map;
     }
 }
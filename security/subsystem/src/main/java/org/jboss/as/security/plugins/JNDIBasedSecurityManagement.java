@@ -274,6 +274,7 @@ public class JNDIBasedSecurityManagement implements ISecurityManagement {
     public SecurityDomainContext createSecurityDomainContext(String securityDomain, AuthenticationCacheFactory cacheFactory) throws Exception {
         log.debugf("Creating SDC for domain = %s", securityDomain);
         AuthenticationManager am = createAuthenticationManager(securityDomain);
+        Map<Principal, ?> authenticationCache = null;
         if (cacheFactory != null && am instanceof CacheableManager) {
             // create authentication cache
             final Map<Principal, ?> cache = cacheFactory.getCache();
@@ -281,6 +282,7 @@ public class JNDIBasedSecurityManagement implements ISecurityManagement {
                 @SuppressWarnings({ "unchecked", "rawtypes" })
                 CacheableManager<Map, Principal> cm = (CacheableManager<Map, Principal>) am;
                 cm.setCache(cache);
+                authenticationCache = cache;
             }
         }
 
@@ -290,6 +292,7 @@ public class JNDIBasedSecurityManagement implements ISecurityManagement {
         }
 
         SecurityDomainContext securityDomainContext = new SecurityDomainContext(am);
+        securityDomainContext.setAuthenticationCache(authenticationCache);
         securityDomainContext.setAuthorizationManager(createAuthorizationManager(securityDomain));
         securityDomainContext.setAuditManager(createAuditManager(securityDomain));
         securityDomainContext.setIdentityTrustManager(createIdentityTrustManager(securityDomain));
@@ -93,6 +93,8 @@ public class SecurityDomainService implements Service<SecurityDomainContext> {
             cacheFactory = new InfinispanAuthenticationCacheFactory(cacheManagerValue.getValue(), name);
         } else if ("default".equals(cacheType)) {
             cacheFactory = new DefaultAuthenticationCacheFactory();
+        } else if ("tiny-lfu".equals(cacheType)) {
+            cacheFactory = new DefaultAuthenticationCacheFactory(true);
         }
         try {
             securityDomainContext = securityManagement.createSecurityDomainContext(name, cacheFactory);
@@ -0,0 +1,112 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014 Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.jboss.as.security.org.jboss.as.security.lru;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests {@link TinyLFUCache}, and compares its hit rate with {@link LRUCache} when frequently used keys are mixed
+ * with a scan of keys that are used only once.
+ */
+public class TinyLFUCacheTestCase {
+
+    private static final int MAX_ENTRIES = 100;
+    private static final int HOT_KEYS = 50;
+
+    @Test
+    public void testBounded() {
+        TinyLFUCache<Integer, String> cache = new TinyLFUCache<>(MAX_ENTRIES);
+        for (int i = 0; i < 10 * MAX_ENTRIES; ++i) {
+            cache.put(i, String.valueOf(i));
+            Assert.assertTrue(cache.size() <= MAX_ENTRIES);
+        }
+        Assert.assertEquals(MAX_ENTRIES, cache.size());
+        Assert.assertEquals(9 * MAX_ENTRIES, cache.getEvictionCount());
+    }
+
+    @Test
+    public void testRemoveCallback() {
+        final List<Integer> removed = new ArrayList<>();
+        TinyLFUCache<Integer, String> cache = new TinyLFUCache<>(1, new RemoveCallback<Integer, String>() {
+            @Override
+            public void afterRemove(Integer key, String value) {
+                removed.add(key);
+            }
+        });
+        cache.put(1, "1");
+        cache.put(2, "2");
+        Assert.assertEquals(1, cache.size());
+        Assert.assertEquals(1, removed.size());
+
+        Integer remaining = cache.keySet().iterator().next();
+        Assert.assertEquals(String.valueOf(remaining), cache.remove(remaining));
+        Assert.assertEquals(2, removed.size());
+        Assert.assertTrue(cache.isEmpty());
+    }
+
+    @Test
+    public void testStatistics() {
+        TinyLFUCache<Integer, String> cache = new TinyLFUCache<>(MAX_ENTRIES);
+        cache.put(1, "1");
+        Assert.assertEquals("1", cache.get(1));
+        Assert.assertEquals("1", cache.get(1));
+        Assert.assertNull(cache.get(2));
+        Assert.assertEquals(2, cache.getHitCount());
+        Assert.assertEquals(1, cache.getMissCount());
+        Assert.assertEquals(0, cache.getEvictionCount());
+    }
+
+    @Test
+    public void testScanResistance() {
+        double lru = hitRate(new LRUCache<Integer, String>(MAX_ENTRIES));
+        double tinyLFU = hitRate(new TinyLFUCache<Integer, String>(MAX_ENTRIES));
+        // the scan flushes the frequently used keys out of an LRU, but is not admitted into a TinyLFU cache
+        Assert.assertTrue("lru " + lru + ", tiny-lfu " + tinyLFU, tinyLFU > 0.5);
+        Assert.assertTrue("lru " + lru + ", tiny-lfu " + tinyLFU, tinyLFU > 2 * lru);
+    }
+
+    private static double hitRate(Map<Integer, String> cache) {
+        int scanKey = HOT_KEYS;
+        int hits = 0;
+        int lookups = 0;
+        for (int i = 0; i < 100 * HOT_KEYS; ++i) {
+            if (lookup(cache, i % HOT_KEYS)) {
+                hits++;
+            }
+            lookups++;
+            // two keys that are never used again for every frequently used one
+            lookup(cache, scanKey++);
+            lookup(cache, scanKey++);
+        }
+        return (double) hits / lookups;
+    }
+
+    private static boolean lookup(Map<Integer, String> cache, int key) {
+        if (cache.get(key) != null) {
+            return true;
+        }
+        cache.put(key, String.valueOf(key));
+        return false;
+    }
+}
@@ -47,11 +47,11 @@ public class TransactionLeakContextHandleFactory implements ContextHandleFactory
 
     public static final String NAME = "TRANSACTION_LEAK";
 
-    private TransactionManager transactionManager;
+    private volatile SetupContextHandle setupContextHandle = new TransactionLeakSetupContextHandle(null);
 
     @Override
     public SetupContextHandle saveContext(ContextService contextService, Map<String, String> contextObjectProperties) {
-        return new TransactionLeakSetupContextHandle(transactionManager);
+        return setupContextHandle;
     }
 
     @Override
@@ -71,17 +71,18 @@ public class TransactionLeakContextHandleFactory implements ContextHandleFactory
 
     @Override
     public SetupContextHandle readSetupContextHandle(ObjectInputStream in) throws IOException, ClassNotFoundException {
-        return new TransactionLeakSetupContextHandle(transactionManager);
+        return setupContextHandle;
     }
 
     @Override
     public void inject(TransactionManager value) throws InjectionException {
-        transactionManager = value;
+        // the handle has no state besides the transaction manager, a single instance is shared by all saved contexts
+        setupContextHandle = new TransactionLeakSetupContextHandle(value);
     }
 
     @Override
     public void uninject() {
-        transactionManager = null;
+        setupContextHandle = new TransactionLeakSetupContextHandle(null);
     }
 
     private static class TransactionLeakSetupContextHandle implements SetupContextHandle {
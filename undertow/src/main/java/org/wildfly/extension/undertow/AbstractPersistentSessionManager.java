@@ -41,12 +41,25 @@ import org.jboss.msc.value.InjectedValue;
 import org.wildfly.extension.undertow.logging.UndertowLogger;
 
 import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
 import java.io.IOException;
 import java.io.Serializable;
 import java.nio.ByteBuffer;
+import java.util.AbstractMap;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.Deque;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * Persistent session manager
@@ -57,35 +70,46 @@ public abstract class AbstractPersistentSessionManager implements SessionPersist
 
     public static final ServiceName SERVICE_NAME = ServiceName.JBOSS.append("undertow", "persistent-session-manager");
 
+    /**
+     * The number of sessions marshalled by one task.
+     */
+    private static final int CHUNK_SIZE = 1000;
+
+    private static final int INITIAL_BUFFER_SIZE = 512;
+
     private MarshallerFactory factory;
     private MarshallingConfiguration configuration;
 
     private final InjectedValue<ModuleLoader> moduleLoaderInjectedValue = new InjectedValue<>();
+    private final InjectedValue<ExecutorService> executorInjectedValue = new InjectedValue<>();
 
     @Override
     public void persistSessions(String deploymentName, Map<String, PersistentSession> sessionData) {
         try {
-            final Marshaller marshaller = createMarshaller();
+            final SessionWriter writer = openSessionWriter(deploymentName, sessionData.size());
             try {
-                final Map<String, SessionEntry> serializedData = new HashMap<String, SessionEntry>();
-                for (Map.Entry<String, PersistentSession> sessionEntry : sessionData.entrySet()) {
-                    Map<String, byte[]> data = new HashMap<String, byte[]>();
-                    for (Map.Entry<String, Object> sessionAttribute : sessionEntry.getValue().getSessionData().entrySet()) {
-                        try {
-                            final ByteArrayOutputStream out = new ByteArrayOutputStream();
-                            marshaller.start(new OutputStreamByteOutput(out));
-                            marshaller.writeObject(sessionAttribute.getValue());
-                            marshaller.finish();
-                            data.put(sessionAttribute.getKey(), out.toByteArray());
-                        } catch (Exception e) {
-                            UndertowLogger.ROOT_LOGGER.failedToPersistSessionAttribute(sessionAttribute.getKey(), sessionAttribute.getValue(), sessionEntry.getKey(), e);
-                        }
+                // a single chunk is marshalled by the caller
+                final ExecutorService executor = sessionData.size() > CHUNK_SIZE ? executorInjectedValue.getOptionalValue() : null;
+                // chunks are marshalled in parallel, and written as they complete, so that at most a few chunks are held in memory
+                final int window = executor != null ? Runtime.getRuntime().availableProcessors() : 1;
+                final Deque<Future<Map<String, SessionEntry>>> marshalling = new ArrayDeque<>(window);
+                final Iterator<Map.Entry<String, PersistentSession>> sessions = sessionData.entrySet().iterator();
+                while (sessions.hasNext()) {
+                    final List<Map.Entry<String, PersistentSession>> chunk = new ArrayList<>(Math.min(CHUNK_SIZE, sessionData.size()));
+                    while (sessions.hasNext() && chunk.size() < CHUNK_SIZE) {
+                        chunk.add(sessions.next());
+                    }
+                    if (marshalling.size() == window) {
+                        write(writer, marshalling.poll().get());
                     }
-                    serializedData.put(sessionEntry.getKey(), new SessionEntry(sessionEntry.getValue().getExpiration(), data));
+                    marshalling.add(marshal(executor, chunk));
                 }
-                persistSerializedSessions(deploymentName, serializedData);
+                while (!marshalling.isEmpty()) {
+                    write(writer, marshalling.poll().get());
+                }
+                writer.commit();
             } finally {
-                marshaller.close();
+                writer.close();
             }
         } catch (Exception e) {
             UndertowServletLogger.ROOT_LOGGER.failedToPersistSessions(e);
@@ -93,34 +117,83 @@ public abstract class AbstractPersistentSessionManager implements SessionPersist
 
     }
 
-    protected abstract void persistSerializedSessions(String deploymentName, Map<String, SessionEntry> serializedData) throws IOException;
+    private Future<Map<String, SessionEntry>> marshal(ExecutorService executor, final List<Map.Entry<String, PersistentSession>> sessions) {
+        final FutureTask<Map<String, SessionEntry>> task = new FutureTask<>(new Callable<Map<String, SessionEntry>>() {
+            @Override
+            public Map<String, SessionEntry> call() throws IOException {
+                return marshalSessions(sessions);
+            }
+        });
+        if (executor != null) {
+            try {
+                executor.execute(task);
+                return task;
+            } catch (RejectedExecutionException e) {
+                // marshalled by the caller instead
+            }
+        }
+        task.run();
+        return task;
+    }
+
+    private static void write(SessionWriter writer, Map<String, SessionEntry> serializedData) throws IOException {
+        for (Map.Entry<String, SessionEntry> sessionEntry : serializedData.entrySet()) {
+            writer.write(sessionEntry.getKey(), sessionEntry.getValue());
+        }
+    }
+
+    private Map<String, SessionEntry> marshalSessions(List<Map.Entry<String, PersistentSession>> sessions) throws IOException {
+        final Map<String, SessionEntry> serializedData = new HashMap<String, SessionEntry>(sessions.size() * 4 / 3 + 1);
+        final Marshaller marshaller = createMarshaller();
+        try {
+            // one buffer per chunk, rather than one per attribute
+            final ByteArrayOutputStream out = new ByteArrayOutputStream(INITIAL_BUFFER_SIZE);
+            for (Map.Entry<String, PersistentSession> sessionEntry : sessions) {
+                Map<String, byte[]> data = new HashMap<String, byte[]>();
+                for (Map.Entry<String, Object> sessionAttribute : sessionEntry.getValue().getSessionData().entrySet()) {
+                    try {
+                        out.reset();
+                        marshaller.start(new OutputStreamByteOutput(out));
+                        marshaller.writeObject(sessionAttribute.getValue());
+                        marshaller.finish();
+                        data.put(sessionAttribute.getKey(), out.toByteArray());
+                    } catch (Exception e) {
+                        UndertowLogger.ROOT_LOGGER.failedToPersistSessionAttribute(sessionAttribute.getKey(), sessionAttribute.getValue(), sessionEntry.getKey(), e);
+                    }
+                }
+                serializedData.put(sessionEntry.getKey(), new SessionEntry(sessionEntry.getValue().getExpiration(), data));
+            }
+        } finally {
+            marshaller.close();
+        }
+        return serializedData;
+    }
+
+    /**
+     * Opens a writer for the sessions of a deployment. The sessions written replace the persisted sessions of the
+     * deployment once they are committed, and are discarded if the writer is closed without committing.
+     *
+     * @param deploymentName the deployment
+     * @param sessions the number of sessions that will be written
+     */
+    protected abstract SessionWriter openSessionWriter(String deploymentName, int sessions) throws IOException;
 
     protected abstract Map<String, SessionEntry> loadSerializedSessions(final String deploymentName) throws IOException;
 
     @Override
     public Map<String, PersistentSession> loadSessionAttributes(String deploymentName, final ClassLoader classLoader) {
         try {
-            Unmarshaller unmarshaller = createUnmarshaller();
-            try {
-                long time = System.currentTimeMillis();
-                Map<String, SessionEntry> data = loadSerializedSessions(deploymentName);
-                if (data != null) {
-                    Map<String, PersistentSession> ret = new HashMap<String, PersistentSession>();
-                    for (Map.Entry<String, SessionEntry> sessionEntry : data.entrySet()) {
-                        if (sessionEntry.getValue().expiry.getTime() > time) {
-                            Map<String, Object> session = new HashMap<String, Object>();
-                            for (Map.Entry<String, byte[]> sessionAttribute : sessionEntry.getValue().data.entrySet()) {
-                                unmarshaller.start(new ByteBufferInput(ByteBuffer.wrap(sessionAttribute.getValue())));
-                                session.put(sessionAttribute.getKey(), unmarshaller.readObject());
-                                unmarshaller.finish();
-                            }
-                            ret.put(sessionEntry.getKey(), new PersistentSession(sessionEntry.getValue().expiry, session));
-                        }
+            long time = System.currentTimeMillis();
+            Map<String, SessionEntry> data = loadSerializedSessions(deploymentName);
+            if (data != null) {
+                Map<String, PersistentSession> ret = new HashMap<String, PersistentSession>();
+                for (Map.Entry<String, SessionEntry> sessionEntry : data.entrySet()) {
+                    if (sessionEntry.getValue().expiry.getTime() > time) {
+                        // attributes are only unmarshalled once the session is restored by its first request
+                        ret.put(sessionEntry.getKey(), new PersistentSession(sessionEntry.getValue().expiry, new SessionAttributes(sessionEntry.getKey(), sessionEntry.getValue().data)));
                     }
-                    return ret;
                 }
-            } finally {
-                unmarshaller.close();
+                return ret;
             }
         } catch (Exception e) {
             UndertowServletLogger.ROOT_LOGGER.failedtoLoadPersistentSessions(e);
@@ -162,11 +235,25 @@ public abstract class AbstractPersistentSessionManager implements SessionPersist
         return moduleLoaderInjectedValue;
     }
 
+    public InjectedValue<ExecutorService> getExecutorInjectedValue() {
+        return executorInjectedValue;
+    }
+
+    /**
+     * Receives the marshalled sessions of a deployment one at a time.
+     */
+    protected interface SessionWriter extends Closeable {
+
+        void write(String sessionId, SessionEntry entry) throws IOException;
+
+        void commit() throws IOException;
+    }
+
     protected static final class SessionEntry implements Serializable {
         private final Date expiry;
         private final Map<String, byte[]> data;
 
-        private SessionEntry(Date expiry, Map<String, byte[]> data) {
+        SessionEntry(Date expiry, Map<String, byte[]> data) {
             this.expiry = expiry;
             this.data = data;
         }
@@ -179,4 +266,50 @@ public abstract class AbstractPersistentSessionManager implements SessionPersist
             return data;
         }
     }
+
+    /**
+     * The attributes of a restored session, which are unmarshalled on first access.
+     */
+    private final class SessionAttributes extends AbstractMap<String, Object> {
+        private final String sessionId;
+        private Map<String, byte[]> serialized;
+        private Map<String, Object> attributes;
+
+        SessionAttributes(String sessionId, Map<String, byte[]> serialized) {
+            this.sessionId = sessionId;
+            this.serialized = serialized;
+        }
+
+        @Override
+        public synchronized Set<Entry<String, Object>> entrySet() {
+            if (attributes == null) {
+                attributes = unmarshal();
+                serialized = null;
+            }
+            return attributes.entrySet();
+        }
+
+        private Map<String, Object> unmarshal() {
+            final Map<String, Object> attributes = new HashMap<String, Object>(serialized.size() * 4 / 3 + 1);
+            try {
+                final Unmarshaller unmarshaller = createUnmarshaller();
+                try {
+                    for (Map.Entry<String, byte[]> sessionAttribute : serialized.entrySet()) {
+                        try {
+                            unmarshaller.start(new ByteBufferInput(ByteBuffer.wrap(sessionAttribute.getValue())));
+                            attributes.put(sessionAttribute.getKey(), unmarshaller.readObject());
+                            unmarshaller.finish();
+                        } catch (Exception e) {
+                            UndertowLogger.ROOT_LOGGER.failedToLoadSessionAttribute(sessionAttribute.getKey(), sessionId, e);
+                        }
+                    }
+                } finally {
+                    unmarshaller.close();
+                }
+            } catch (IOException e) {
+                UndertowServletLogger.ROOT_LOGGER.failedtoLoadPersistentSessions(e);
+            }
+            return attributes;
+        }
+    }
 }
@@ -57,9 +57,13 @@ class AccessLogAdd extends AbstractAddStepHandler {
         final String directory = AccessLogDefinition.DIRECTORY.resolveModelAttribute(context, model).asString();
         final String filePrefix = AccessLogDefinition.PREFIX.resolveModelAttribute(context, model).asString();
         final String fileSuffix = AccessLogDefinition.SUFFIX.resolveModelAttribute(context, model).asString();
+        final boolean rotate = AccessLogDefinition.ROTATE.resolveModelAttribute(context, model).asBoolean();
+        final ModelNode queueSize = AccessLogDefinition.QUEUE_SIZE.resolveModelAttribute(context, model);
+        final ModelNode rotateSize = AccessLogDefinition.ROTATE_SIZE.resolveModelAttribute(context, model);
+        final boolean compressRotated = AccessLogDefinition.COMPRESS_ROTATED.resolveModelAttribute(context, model).asBoolean();
 
-
-        final AccessLogService service = new AccessLogService(pattern, new File(directory), filePrefix, fileSuffix);
+        final AccessLogService service = new AccessLogService(pattern, new File(directory), filePrefix, fileSuffix, rotate,
+                queueSize.isDefined() ? queueSize.asInt() : null, rotateSize.isDefined() ? rotateSize.asLong() : 0, compressRotated);
         final String serverName = serverAddress.getLastElement().getValue();
         final String hostName = hostAddress.getLastElement().getValue();
 
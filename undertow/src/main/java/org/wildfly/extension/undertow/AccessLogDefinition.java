@@ -21,11 +21,17 @@
  */
 package org.wildfly.extension.undertow;
 
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
+
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
 
+import org.jboss.as.controller.AbstractRuntimeOnlyHandler;
 import org.jboss.as.controller.AttributeDefinition;
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.PathAddress;
 import org.jboss.as.controller.PersistentResourceDefinition;
 import org.jboss.as.controller.ReloadRequiredRemoveStepHandler;
 import org.jboss.as.controller.SimpleAttributeDefinition;
@@ -33,11 +39,17 @@ import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
 import org.jboss.as.controller.access.constraint.SensitivityClassification;
 import org.jboss.as.controller.access.management.AccessConstraintDefinition;
 import org.jboss.as.controller.access.management.SensitiveTargetAccessConstraintDefinition;
+import org.jboss.as.controller.client.helpers.MeasurementUnit;
+import org.jboss.as.controller.operations.validation.IntRangeValidator;
+import org.jboss.as.controller.operations.validation.LongRangeValidator;
 import org.jboss.as.controller.operations.validation.StringLengthValidator;
 import org.jboss.as.controller.registry.AttributeAccess;
+import org.jboss.as.controller.registry.ManagementResourceRegistration;
 import org.jboss.dmr.ModelNode;
 import org.jboss.dmr.ModelType;
 import org.jboss.dmr.ValueExpression;
+import org.jboss.msc.service.ServiceController;
+import org.jboss.msc.service.ServiceName;
 
 /**
  * @author Tomaz Cerar (c) 2013 Red Hat Inc.
@@ -74,6 +86,19 @@ public class AccessLogDefinition extends PersistentResourceDefinition {
             .setDefaultValue(new ModelNode(new ValueExpression("${jboss.server.log.dir}")))
             .setAllowExpression(true)
             .build();
+    protected static final SimpleAttributeDefinition QUEUE_SIZE = new SimpleAttributeDefinitionBuilder(Constants.QUEUE_SIZE, ModelType.INT, true)
+            .setValidator(new IntRangeValidator(1, true, true))
+            .setAllowExpression(true)
+            .build();
+    protected static final SimpleAttributeDefinition ROTATE_SIZE = new SimpleAttributeDefinitionBuilder(Constants.ROTATE_SIZE, ModelType.LONG, true)
+            .setValidator(new LongRangeValidator(1, true, true))
+            .setMeasurementUnit(MeasurementUnit.BYTES)
+            .setAllowExpression(true)
+            .build();
+    protected static final SimpleAttributeDefinition COMPRESS_ROTATED = new SimpleAttributeDefinitionBuilder(Constants.COMPRESS_ROTATED, ModelType.BOOLEAN, true)
+            .setDefaultValue(new ModelNode(false))
+            .setAllowExpression(true)
+            .build();
     static final Collection<SimpleAttributeDefinition> ATTRIBUTES = Arrays.asList(
             // IMPORTANT -- keep these in xsd order as this order controls marshalling
             WORKER,
@@ -81,8 +106,14 @@ public class AccessLogDefinition extends PersistentResourceDefinition {
             PREFIX,
             SUFFIX,
             ROTATE,
-            DIRECTORY
+            DIRECTORY,
+            QUEUE_SIZE,
+            ROTATE_SIZE,
+            COMPRESS_ROTATED
     );
+
+    static final SimpleAttributeDefinition DROPPED_ENTRIES = new SimpleAttributeDefinitionBuilder(Constants.DROPPED_ENTRIES, ModelType.LONG, false).setStorageRuntime().build();
+    static final SimpleAttributeDefinition QUEUE_DEPTH = new SimpleAttributeDefinitionBuilder(Constants.QUEUE_DEPTH, ModelType.INT, false).setStorageRuntime().build();
     static final AccessLogDefinition INSTANCE = new AccessLogDefinition();
     private final List<AccessConstraintDefinition> accessConstraints;
 
@@ -98,9 +129,45 @@ public class AccessLogDefinition extends PersistentResourceDefinition {
         return accessConstraints;
     }
 
+    @Override
+    public void registerAttributes(ManagementResourceRegistration resourceRegistration) {
+        super.registerAttributes(resourceRegistration);
+        resourceRegistration.registerMetric(DROPPED_ENTRIES, new AccessLogMetricsHandler() {
+            @Override
+            void executeRuntimeStep(OperationContext context, AccessLogService service) {
+                context.getResult().set(service.getDroppedEntries());
+            }
+        });
+        resourceRegistration.registerMetric(QUEUE_DEPTH, new AccessLogMetricsHandler() {
+            @Override
+            void executeRuntimeStep(OperationContext context, AccessLogService service) {
+                context.getResult().set(service.getQueueDepth());
+            }
+        });
+    }
+
     @Override
     public Collection<AttributeDefinition> getAttributes() {
         //noinspection unchecked
         return (Collection) ATTRIBUTES;
     }
+
+    private abstract static class AccessLogMetricsHandler extends AbstractRuntimeOnlyHandler {
+        @Override
+        protected void executeRuntimeStep(OperationContext context, ModelNode operation) throws OperationFailedException {
+            final PathAddress address = PathAddress.pathAddress(operation.require(OP_ADDR));
+            final PathAddress hostAddress = address.subAddress(0, address.size() - 1);
+            final PathAddress serverAddress = hostAddress.subAddress(0, hostAddress.size() - 1);
+            final ServiceName serviceName = UndertowService.accessLogServiceName(serverAddress.getLastElement().getValue(), hostAddress.getLastElement().getValue());
+            final ServiceController<?> controller = context.getServiceRegistry(false).getService(serviceName);
+            if ((controller != null) && (controller.getState() == ServiceController.State.UP)) {
+                this.executeRuntimeStep(context, (AccessLogService) controller.getValue());
+            } else {
+                context.getResult().set(0);
+            }
+            context.stepCompleted();
+        }
+
+        abstract void executeRuntimeStep(OperationContext context, AccessLogService service);
+    }
 }
@@ -47,13 +47,24 @@ class AccessLogService implements Service<AccessLogService> {
     private final File directory;
     private final String filePrefix;
     private final String fileSuffix;
+    private final boolean rotate;
+    private final Integer queueSize;
+    private final long rotateSize;
+    private final boolean compressRotated;
     private volatile AccessLogReceiver logReceiver;
 
-    AccessLogService(String pattern, File directory, String filePrefix, String fileSuffix) {
+    /**
+     * @param queueSize the size of the ring buffer of the asynchronous receiver, or null to use the default receiver
+     */
+    AccessLogService(String pattern, File directory, String filePrefix, String fileSuffix, boolean rotate, Integer queueSize, long rotateSize, boolean compressRotated) {
         this.pattern = pattern;
         this.directory = directory;
         this.filePrefix = filePrefix;
         this.fileSuffix = fileSuffix;
+        this.rotate = rotate;
+        this.queueSize = queueSize;
+        this.rotateSize = rotateSize;
+        this.compressRotated = compressRotated;
     }
 
     @Override
@@ -64,7 +75,11 @@ class AccessLogService implements Service<AccessLogService> {
             }
         }
         try {
-            logReceiver = new DefaultAccessLogReceiver(worker.getValue(), directory, filePrefix, fileSuffix);
+            if (queueSize != null) {
+                logReceiver = new RingBufferAccessLogReceiver(worker.getValue(), directory, filePrefix, fileSuffix, queueSize, rotate, rotateSize, compressRotated);
+            } else {
+                logReceiver = new DefaultAccessLogReceiver(worker.getValue(), directory, filePrefix, fileSuffix);
+            }
         } catch (IllegalStateException e) {
             throw new StartException(e);
         }
@@ -72,7 +87,10 @@ class AccessLogService implements Service<AccessLogService> {
 
     @Override
     public void stop(StopContext context) {
-
+        AccessLogReceiver logReceiver = this.logReceiver;
+        if (logReceiver instanceof RingBufferAccessLogReceiver) {
+            ((RingBufferAccessLogReceiver) logReceiver).close();
+        }
     }
 
     @Override
@@ -80,6 +98,16 @@ class AccessLogService implements Service<AccessLogService> {
         return this;
     }
 
+    long getDroppedEntries() {
+        AccessLogReceiver logReceiver = this.logReceiver;
+        return (logReceiver instanceof RingBufferAccessLogReceiver) ? ((RingBufferAccessLogReceiver) logReceiver).getDroppedEntries() : 0;
+    }
+
+    int getQueueDepth() {
+        AccessLogReceiver logReceiver = this.logReceiver;
+        return (logReceiver instanceof RingBufferAccessLogReceiver) ? ((RingBufferAccessLogReceiver) logReceiver).getQueueDepth() : 0;
+    }
+
     InjectedValue<XnioWorker> getWorker() {
         return worker;
     }
@@ -58,6 +58,11 @@ public interface Constants {
     String PREFIX = "prefix";
     String SUFFIX = "suffix";
     String ROTATE = "rotate";
+    String ROTATE_SIZE = "rotate-size";
+    String COMPRESS_ROTATED = "compress-rotated";
+    String QUEUE_SIZE = "queue-size";
+    String QUEUE_DEPTH = "queue-depth";
+    String DROPPED_ENTRIES = "dropped-entries";
     //String CLASS = "class";
     String DEFAULT_HOST = "default-host";
     String DEFAULT_VIRTUAL_HOST = "default-virtual-host";
@@ -39,6 +39,7 @@ import org.jboss.as.controller.PathAddress;
 import org.jboss.as.controller.PathElement;
 import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
 import org.jboss.as.controller.SimpleResourceDefinition;
+import org.jboss.as.controller.client.helpers.MeasurementUnit;
 import org.jboss.as.controller.descriptions.ModelDescriptionConstants;
 import org.jboss.as.controller.registry.ManagementResourceRegistration;
 import org.jboss.as.controller.registry.Resource;
@@ -47,6 +48,7 @@ import org.jboss.dmr.ModelType;
 import org.jboss.msc.service.ServiceController;
 import org.wildfly.extension.undertow.deployment.UndertowDeploymentService;
 import org.wildfly.extension.undertow.logging.UndertowLogger;
+import org.wildfly.extension.undertow.session.SessionExpirationStatistics;
 
 /**
  * @author Tomaz Cerar
@@ -103,6 +105,7 @@ public class DeploymentDefinition extends SimpleResourceDefinition {
 
             SessionStat stat = SessionStat.getStat(operation.require(ModelDescriptionConstants.NAME).asString());
             SessionManagerStatistics sms = sessionManager instanceof SessionManagerStatistics ? (SessionManagerStatistics) sessionManager : null;
+            SessionExpirationStatistics ses = sessionManager instanceof SessionExpirationStatistics ? (SessionExpirationStatistics) sessionManager : null;
 
             if (stat == null) {
                 context.getFailureDescription().set(UndertowLogger.ROOT_LOGGER.unknownMetric(operation.require(ModelDescriptionConstants.NAME).asString()));
@@ -157,6 +160,20 @@ public class DeploymentDefinition extends SimpleResourceDefinition {
                             result.set((int)sms.getRejectedSessions());
                         }
                         break;
+                    case SESSION_AVG_EXPIRATION_LAG:
+                        if(ses == null) {
+                            result.set(0L);
+                        } else {
+                            result.set(ses.getExpirationLag());
+                        }
+                        break;
+                    case SESSION_MAX_EXPIRATION_LAG:
+                        if(ses == null) {
+                            result.set(0L);
+                        } else {
+                            result.set(ses.getMaxExpirationLag());
+                        }
+                        break;
                     default:
                         throw new IllegalStateException(UndertowLogger.ROOT_LOGGER.unknownMetric(stat));
                 }
@@ -176,7 +193,9 @@ public class DeploymentDefinition extends SimpleResourceDefinition {
         SESSION_AVG_ALIVE_TIME(new SimpleAttributeDefinitionBuilder("session-avg-alive-time", ModelType.INT, false).setStorageRuntime().build()),
         SESSION_MAX_ALIVE_TIME(new SimpleAttributeDefinitionBuilder("session-max-alive-time", ModelType.INT, false).setStorageRuntime().build()),
         REJECTED_SESSIONS(new SimpleAttributeDefinitionBuilder("rejected-sessions", ModelType.INT, false).setStorageRuntime().build()),
-        MAX_ACTIVE_SESSIONS(new SimpleAttributeDefinitionBuilder("max-active-sessions", ModelType.INT, false).setStorageRuntime().build());
+        MAX_ACTIVE_SESSIONS(new SimpleAttributeDefinitionBuilder("max-active-sessions", ModelType.INT, false).setStorageRuntime().build()),
+        SESSION_AVG_EXPIRATION_LAG(new SimpleAttributeDefinitionBuilder("session-avg-expiration-lag", ModelType.LONG, false).setMeasurementUnit(MeasurementUnit.MILLISECONDS).setStorageRuntime().build()),
+        SESSION_MAX_EXPIRATION_LAG(new SimpleAttributeDefinitionBuilder("session-max-expiration-lag", ModelType.LONG, false).setMeasurementUnit(MeasurementUnit.MILLISECONDS).setStorageRuntime().build());
 
         private static final Map<String, SessionStat> MAP = new HashMap<>();
 
@@ -23,8 +23,6 @@ package org.wildfly.extension.undertow;
 
 import org.jboss.as.controller.services.path.PathManager;
 import org.jboss.marshalling.InputStreamByteInput;
-import org.jboss.marshalling.Marshaller;
-import org.jboss.marshalling.OutputStreamByteOutput;
 import org.jboss.marshalling.Unmarshaller;
 import org.jboss.msc.service.StartContext;
 import org.jboss.msc.service.StartException;
@@ -33,10 +31,19 @@ import org.jboss.msc.value.InjectedValue;
 import org.wildfly.extension.undertow.logging.UndertowLogger;
 import org.xnio.IoUtils;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Date;
+import java.util.HashMap;
 import java.util.Map;
 
 /**
@@ -45,6 +52,13 @@ import java.util.Map;
  * @author Stuart Douglas
  */
 public class DiskBasedModularPersistentSessionManager extends AbstractPersistentSessionManager {
+    /**
+     * Starts files that hold one record per session, rather than a single marshalled map.
+     */
+    static final int MAGIC = 0x57465053;
+    static final byte VERSION_1 = 1;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
     private final String path;
     private final String pathRelativeTo;
     private File baseDir;
@@ -84,21 +98,56 @@ public class DiskBasedModularPersistentSessionManager extends AbstractPersistent
 
 
     @Override
-    protected void persistSerializedSessions(String deploymentName, Map<String, SessionEntry> serializedData) throws IOException {
-        File file = new File(baseDir, deploymentName);
-        FileOutputStream out = new FileOutputStream(file, false);
+    protected SessionWriter openSessionWriter(String deploymentName, final int sessions) throws IOException {
+        final File file = new File(baseDir, deploymentName);
+        // written next to the file it replaces, so that a failed write leaves the previous sessions in place
+        final File tmp = new File(baseDir, deploymentName + ".tmp");
+        final DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp, false), BUFFER_SIZE));
         try {
-            Marshaller marshaller = createMarshaller();
-            try {
-                marshaller.start(new OutputStreamByteOutput(out));
-                marshaller.writeObject(serializedData);
-                marshaller.finish();
-            } finally {
-                marshaller.close();
-            }
-        } finally {
+            out.writeInt(MAGIC);
+            out.writeByte(VERSION_1);
+            out.writeInt(sessions);
+        } catch (IOException e) {
             IoUtils.safeClose(out);
+            tmp.delete();
+            throw e;
         }
+        return new SessionWriter() {
+            private int written;
+            private boolean committed;
+
+            @Override
+            public void write(String sessionId, SessionEntry entry) throws IOException {
+                out.writeUTF(sessionId);
+                out.writeLong(entry.getExpiry().getTime());
+                final Map<String, byte[]> data = entry.getData();
+                out.writeInt(data.size());
+                for (Map.Entry<String, byte[]> sessionAttribute : data.entrySet()) {
+                    out.writeUTF(sessionAttribute.getKey());
+                    out.writeInt(sessionAttribute.getValue().length);
+                    out.write(sessionAttribute.getValue());
+                }
+                ++written;
+            }
+
+            @Override
+            public void commit() throws IOException {
+                if (written != sessions) {
+                    throw UndertowLogger.ROOT_LOGGER.incompletePersistentSessions(written, sessions, tmp);
+                }
+                out.close();
+                Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+                committed = true;
+            }
+
+            @Override
+            public void close() {
+                if (!committed) {
+                    IoUtils.safeClose(out);
+                    tmp.delete();
+                }
+            }
+        };
     }
 
     @Override
@@ -107,25 +156,67 @@ public class DiskBasedModularPersistentSessionManager extends AbstractPersistent
         if (!file.exists()) {
             return null;
         }
-        FileInputStream in = new FileInputStream(file);
+        DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file), BUFFER_SIZE));
         try {
-            Unmarshaller unMarshaller = createUnmarshaller();
-            try {
-                try {
-                    unMarshaller.start(new InputStreamByteInput(in));
-                    return (Map<String, SessionEntry>) unMarshaller.readObject();
-                } catch (ClassNotFoundException e) {
-                    throw new RuntimeException(e);
-                } finally {
-                    unMarshaller.finish();
+            in.mark(4);
+            if (in.readInt() != MAGIC) {
+                // written by a previous version, as a single marshalled map
+                in.reset();
+                return loadMarshalledSessions(in);
+            }
+            final byte version = in.readByte();
+            if (version != VERSION_1) {
+                throw UndertowLogger.ROOT_LOGGER.unsupportedPersistentSessionVersion(file, version);
+            }
+            // lengths are checked against the file, so that a corrupt file fails rather than exhausting the heap
+            final long size = file.length();
+            final int sessions = readLength(in, file, size);
+            final Map<String, SessionEntry> serializedData = new HashMap<String, SessionEntry>(sessions * 4 / 3 + 1);
+            for (int i = 0; i < sessions; ++i) {
+                final String sessionId = in.readUTF();
+                final Date expiry = new Date(in.readLong());
+                final int attributes = readLength(in, file, size);
+                final Map<String, byte[]> data = new HashMap<String, byte[]>(attributes * 4 / 3 + 1);
+                for (int j = 0; j < attributes; ++j) {
+                    final String name = in.readUTF();
+                    final byte[] value = new byte[readLength(in, file, size)];
+                    in.readFully(value);
+                    data.put(name, value);
                 }
-            } finally {
-                unMarshaller.close();
+                serializedData.put(sessionId, new SessionEntry(expiry, data));
             }
+            if (in.read() != -1) {
+                throw UndertowLogger.ROOT_LOGGER.corruptPersistentSessions(file);
+            }
+            return serializedData;
         } finally {
             IoUtils.safeClose(in);
         }
+    }
 
+    private static int readLength(DataInputStream in, File file, long size) throws IOException {
+        final int length = in.readInt();
+        if (length < 0 || length > size) {
+            throw UndertowLogger.ROOT_LOGGER.corruptPersistentSessions(file);
+        }
+        return length;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, SessionEntry> loadMarshalledSessions(InputStream in) throws IOException {
+        Unmarshaller unMarshaller = createUnmarshaller();
+        try {
+            try {
+                unMarshaller.start(new InputStreamByteInput(in));
+                return (Map<String, SessionEntry>) unMarshaller.readObject();
+            } catch (ClassNotFoundException e) {
+                throw new RuntimeException(e);
+            } finally {
+                unMarshaller.finish();
+            }
+        } finally {
+            unMarshaller.close();
+        }
     }
 
     public InjectedValue<PathManager> getPathManager() {
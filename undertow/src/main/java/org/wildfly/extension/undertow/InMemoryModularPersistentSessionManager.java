@@ -38,8 +38,23 @@ public class InMemoryModularPersistentSessionManager extends AbstractPersistentS
     private final Map<String, Map<String, SessionEntry>> sessionData = Collections.synchronizedMap(new HashMap<String, Map<String, SessionEntry>>());
 
     @Override
-    protected void persistSerializedSessions(String deploymentName, Map<String, SessionEntry> serializedData) {
-        sessionData.put(deploymentName, serializedData);
+    protected SessionWriter openSessionWriter(final String deploymentName, int sessions) {
+        final Map<String, SessionEntry> serializedData = new HashMap<String, SessionEntry>(sessions * 4 / 3 + 1);
+        return new SessionWriter() {
+            @Override
+            public void write(String sessionId, SessionEntry entry) {
+                serializedData.put(sessionId, entry);
+            }
+
+            @Override
+            public void commit() {
+                sessionData.put(deploymentName, serializedData);
+            }
+
+            @Override
+            public void close() {
+            }
+        };
     }
 
     @Override
@@ -46,6 +46,7 @@ import org.jboss.msc.service.ServiceName;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
 
 /**
  * Global session cookie config
@@ -134,12 +135,14 @@ class PersistentSessionsDefinition extends PersistentResourceDefinition {
                     final DiskBasedModularPersistentSessionManager service = new DiskBasedModularPersistentSessionManager(path, relativeTo);
                     builder = context.getServiceTarget().addService(AbstractPersistentSessionManager.SERVICE_NAME, service)
                             .addDependency(Services.JBOSS_SERVICE_MODULE_LOADER, ModuleLoader.class, service.getModuleLoaderInjectedValue())
+                            .addDependency(Services.JBOSS_SERVER_EXECUTOR, ExecutorService.class, service.getExecutorInjectedValue())
                             .addDependency(PathManagerService.SERVICE_NAME, PathManager.class, service.getPathManager());
 
                 } else {
                     final InMemoryModularPersistentSessionManager service = new InMemoryModularPersistentSessionManager();
                     builder = context.getServiceTarget().addService(AbstractPersistentSessionManager.SERVICE_NAME, service)
-                            .addDependency(Services.JBOSS_SERVICE_MODULE_LOADER, ModuleLoader.class, service.getModuleLoaderInjectedValue());
+                            .addDependency(Services.JBOSS_SERVICE_MODULE_LOADER, ModuleLoader.class, service.getModuleLoaderInjectedValue())
+                            .addDependency(Services.JBOSS_SERVER_EXECUTOR, ExecutorService.class, service.getExecutorInjectedValue());
                 }
                 builder.install();
             }
@@ -0,0 +1,330 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.extension.undertow;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.text.SimpleDateFormat;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.zip.GZIPOutputStream;
+
+import io.undertow.server.handlers.accesslog.AccessLogReceiver;
+import org.wildfly.extension.undertow.logging.UndertowLogger;
+
+/**
+ * {@link AccessLogReceiver} that queues entries into a preallocated ring buffer, from which a single task drains them
+ * into a direct buffer that is written to the log file in one write per batch.
+ * Entries are dropped, rather than blocking the request, when the ring buffer is full.
+ * The log file is rotated daily and/or when it reaches a given size, and rotated files are optionally compressed.
+ */
+class RingBufferAccessLogReceiver implements AccessLogReceiver, Runnable {
+
+    private static final int IDLE = 0;
+    private static final int SCHEDULED = 1;
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+    private static final String COMPRESSED_SUFFIX = ".gz";
+
+    private final Executor executor;
+    private final File directory;
+    private final String prefix;
+    private final String suffix;
+    private final File file;
+    private final boolean rotate;
+    private final long rotateSize;
+    private final boolean compressRotated;
+
+    private final AtomicReferenceArray<String> entries;
+    private final int mask;
+    // Sequence of the next entry to claim by a request, and to write by the drain task
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicInteger state = new AtomicInteger(IDLE);
+    private final AtomicLong dropped = new AtomicLong();
+    private volatile boolean closed = false;
+
+    // Only accessed by the drain task, which never runs concurrently with itself
+    private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder().onMalformedInput(CodingErrorAction.REPLACE).onUnmappableCharacter(CodingErrorAction.REPLACE);
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(WRITE_BUFFER_SIZE);
+    private final SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd");
+    private FileChannel channel;
+    private long size;
+    private String date;
+    private long changeOverPoint;
+
+    /**
+     * @param executor executes the drain task and the compression of rotated files
+     * @param directory the log directory
+     * @param prefix the prefix of the log file name
+     * @param suffix the suffix of the log file name
+     * @param queueSize the minimum capacity of the ring buffer, rounded up to a power of 2
+     * @param rotate whether the log file is rotated daily
+     * @param rotateSize the size, in bytes, at which the log file is rotated, or a non-positive value to disable size based rotation
+     * @param compressRotated whether rotated files are gzip compressed
+     */
+    RingBufferAccessLogReceiver(Executor executor, File directory, String prefix, String suffix, int queueSize, boolean rotate, long rotateSize, boolean compressRotated) {
+        this.executor = executor;
+        this.directory = directory;
+        this.prefix = prefix;
+        this.suffix = suffix;
+        this.file = new File(directory, prefix + suffix);
+        this.rotate = rotate;
+        this.rotateSize = rotateSize;
+        this.compressRotated = compressRotated;
+        int capacity = Integer.highestOneBit(Math.max(queueSize, 2) - 1) << 1;
+        this.entries = new AtomicReferenceArray<>(capacity);
+        this.mask = capacity - 1;
+    }
+
+    @Override
+    public void logMessage(String message) {
+        if (this.closed) {
+            this.dropped.incrementAndGet();
+            return;
+        }
+        long tail;
+        do {
+            tail = this.tail.get();
+            if (tail - this.head.get() > this.mask) {
+                this.dropped.incrementAndGet();
+                return;
+            }
+        } while (!this.tail.compareAndSet(tail, tail + 1));
+        this.entries.lazySet((int) tail & this.mask, message);
+        if ((this.state.get() == IDLE) && this.state.compareAndSet(IDLE, SCHEDULED)) {
+            try {
+                this.executor.execute(this);
+            } catch (RejectedExecutionException e) {
+                // Entries will be written by the next successfully scheduled task, or on close
+                this.state.set(IDLE);
+            }
+        }
+    }
+
+    /**
+     * @return the number of entries that were discarded because the ring buffer was full
+     */
+    long getDroppedEntries() {
+        return this.dropped.get();
+    }
+
+    /**
+     * @return the number of entries waiting to be written
+     */
+    int getQueueDepth() {
+        return (int) Math.max(this.tail.get() - this.head.get(), 0);
+    }
+
+    /**
+     * Writes all queued entries and closes the log file.
+     */
+    void close() {
+        this.closed = true;
+        if (this.state.compareAndSet(IDLE, SCHEDULED)) {
+            this.run();
+        }
+    }
+
+    @Override
+    public void run() {
+        while (true) {
+            this.drain();
+            if (this.closed) {
+                // Remain scheduled, so that no further drain task is submitted
+                this.closeChannel();
+                return;
+            }
+            this.state.set(IDLE);
+            if (((this.head.get() == this.tail.get()) && !this.closed) || !this.state.compareAndSet(IDLE, SCHEDULED)) {
+                return;
+            }
+        }
+    }
+
+    private void drain() {
+        long head = this.head.get();
+        // Write at most one ring buffer worth of entries per batch, so that rotation is checked regularly
+        long tail = Math.min(this.tail.get(), head + this.mask + 1);
+        if (head == tail) return;
+        try {
+            this.prepare();
+            while (head < tail) {
+                int index = (int) head & this.mask;
+                String entry = this.entries.get(index);
+                while (entry == null) {
+                    // The slot was claimed, but the entry is not yet visible
+                    Thread.yield();
+                    entry = this.entries.get(index);
+                }
+                this.entries.lazySet(index, null);
+                head += 1;
+                this.head.lazySet(head);
+                this.write(entry);
+            }
+            this.flush();
+        } catch (IOException e) {
+            UndertowLogger.ROOT_LOGGER.failedToWriteAccessLog(this.file, e);
+            this.buffer.clear();
+            this.closeChannel();
+            // Discard the rest of this batch, rather than retrying it forever
+            this.dropped.addAndGet(tail - head);
+            for (; head < tail; ++head) {
+                this.entries.lazySet((int) head & this.mask, null);
+            }
+            this.head.set(head);
+        }
+    }
+
+    private void prepare() throws IOException {
+        if (this.channel == null) {
+            this.open();
+        } else if (this.rotate && (System.currentTimeMillis() >= this.changeOverPoint)) {
+            this.rotate();
+        }
+    }
+
+    private void open() throws IOException {
+        long now = System.currentTimeMillis();
+        this.date = this.dateFormat.format(new Date(now));
+        if (this.rotate && (this.file.length() > 0)) {
+            // Rotate a log file left over from a previous day
+            String date = this.dateFormat.format(new Date(this.file.lastModified()));
+            if (!date.equals(this.date)) {
+                this.archive(date);
+            }
+        }
+        this.channel = FileChannel.open(this.file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        this.size = this.channel.size();
+        Calendar calendar = Calendar.getInstance();
+        calendar.setTimeInMillis(now);
+        calendar.set(Calendar.HOUR_OF_DAY, 0);
+        calendar.set(Calendar.MINUTE, 0);
+        calendar.set(Calendar.SECOND, 0);
+        calendar.set(Calendar.MILLISECOND, 0);
+        calendar.add(Calendar.DATE, 1);
+        this.changeOverPoint = calendar.getTimeInMillis();
+    }
+
+    private void rotate() throws IOException {
+        this.closeChannel();
+        this.archive(this.date);
+        this.open();
+    }
+
+    private void archive(String date) {
+        File target = new File(this.directory, this.prefix + date + this.suffix);
+        for (int i = 1; target.exists() || new File(target.getPath() + COMPRESSED_SUFFIX).exists(); ++i) {
+            target = new File(this.directory, this.prefix + date + "-" + i + this.suffix);
+        }
+        if (!this.file.renameTo(target)) {
+            UndertowLogger.ROOT_LOGGER.failedToRotateAccessLog(this.file, target);
+            return;
+        }
+        if (this.compressRotated) {
+            final File rotated = target;
+            try {
+                this.executor.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        compress(rotated);
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                compress(rotated);
+            }
+        }
+    }
+
+    private void write(String entry) throws IOException {
+        CharBuffer chars = CharBuffer.wrap(entry);
+        this.encoder.reset();
+        while (this.encoder.encode(chars, this.buffer, true).isOverflow()) {
+            this.flush();
+        }
+        while (this.encoder.flush(this.buffer).isOverflow()) {
+            this.flush();
+        }
+        if (!this.buffer.hasRemaining()) {
+            this.flush();
+        }
+        this.buffer.put((byte) '\n');
+    }
+
+    private void flush() throws IOException {
+        if (this.buffer.position() == 0) return;
+        if ((this.rotateSize > 0) && (this.size > 0) && (this.size + this.buffer.position() > this.rotateSize)) {
+            this.rotate();
+        }
+        this.buffer.flip();
+        while (this.buffer.hasRemaining()) {
+            this.size += this.channel.write(this.buffer);
+        }
+        this.buffer.clear();
+    }
+
+    private void closeChannel() {
+        FileChannel channel = this.channel;
+        if (channel != null) {
+            this.channel = null;
+            try {
+                channel.close();
+            } catch (IOException e) {
+                UndertowLogger.ROOT_LOGGER.failedToWriteAccessLog(this.file, e);
+            }
+        }
+    }
+
+    static void compress(File file) {
+        File target = new File(file.getPath() + COMPRESSED_SUFFIX);
+        try {
+            try (InputStream input = new FileInputStream(file); OutputStream output = new GZIPOutputStream(new FileOutputStream(target))) {
+                byte[] buffer = new byte[8192];
+                int read = input.read(buffer);
+                while (read >= 0) {
+                    output.write(buffer, 0, read);
+                    read = input.read(buffer);
+                }
+            }
+            file.delete();
+        } catch (IOException e) {
+            UndertowLogger.ROOT_LOGGER.failedToCompressAccessLog(file, e);
+            target.delete();
+        }
+    }
+}
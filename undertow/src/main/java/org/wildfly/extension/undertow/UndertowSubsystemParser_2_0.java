@@ -41,6 +41,7 @@ import org.jboss.staxmapper.XMLExtendedStreamReader;
 import org.jboss.staxmapper.XMLExtendedStreamWriter;
 import org.wildfly.extension.undertow.filters.CustomFilterDefinition;
 import org.wildfly.extension.undertow.filters.ErrorPageDefinition;
+import org.wildfly.extension.undertow.filters.AdaptiveConcurrencyLimitFilter;
 import org.wildfly.extension.undertow.filters.BasicAuthHandler;
 import org.wildfly.extension.undertow.filters.ConnectionLimitHandler;
 import org.wildfly.extension.undertow.filters.FilterDefinitions;
@@ -112,7 +113,8 @@ public class UndertowSubsystemParser_2_0 implements XMLStreamConstants, XMLEleme
                                                                 )
                                                 ).addChild(
                                                 builder(AccessLogDefinition.INSTANCE)
-                                                        .addAttributes(AccessLogDefinition.PATTERN, AccessLogDefinition.DIRECTORY, AccessLogDefinition.PREFIX, AccessLogDefinition.SUFFIX, AccessLogDefinition.WORKER, AccessLogDefinition.ROTATE)
+                                                        .addAttributes(AccessLogDefinition.PATTERN, AccessLogDefinition.DIRECTORY, AccessLogDefinition.PREFIX, AccessLogDefinition.SUFFIX, AccessLogDefinition.WORKER, AccessLogDefinition.ROTATE,
+                                                                AccessLogDefinition.QUEUE_SIZE, AccessLogDefinition.ROTATE_SIZE, AccessLogDefinition.COMPRESS_ROTATED)
                                         ).addChild(
                                                 builder(FilterRefDefinition.INSTANCE)
                                                         .addAttributes(FilterRefDefinition.PREDICATE, FilterRefDefinition.PRIORITY)
@@ -194,7 +196,8 @@ public class UndertowSubsystemParser_2_0 implements XMLStreamConstants, XMLEleme
                                                         FileHandler.PATH,
                                                         FileHandler.CACHE_BUFFER_SIZE,
                                                         FileHandler.CACHE_BUFFERS,
-                                                        FileHandler.DIRECTORY_LISTING)
+                                                        FileHandler.DIRECTORY_LISTING,
+                                                        FileHandler.BUFFER_CACHE)
                                 )
                                 .addChild(
                                         builder(ReverseProxyHandler.INSTANCE)
@@ -221,6 +224,11 @@ public class UndertowSubsystemParser_2_0 implements XMLStreamConstants, XMLEleme
                                 .addChild(
                                         builder(ConnectionLimitHandler.INSTANCE)
                                                 .addAttributes(ConnectionLimitHandler.MAX_CONCURRENT_REQUESTS, ConnectionLimitHandler.QUEUE_SIZE)
+                                )
+                                .addChild(
+                                        builder(AdaptiveConcurrencyLimitFilter.INSTANCE)
+                                                .addAttributes(AdaptiveConcurrencyLimitFilter.INITIAL_LIMIT, AdaptiveConcurrencyLimitFilter.MIN_LIMIT, AdaptiveConcurrencyLimitFilter.MAX_LIMIT,
+                                                        AdaptiveConcurrencyLimitFilter.QUEUE_SIZE, AdaptiveConcurrencyLimitFilter.QUEUE_TIMEOUT)
                                 ).addChild(
                                 builder(ResponseHeaderFilter.INSTANCE)
                                         .addAttributes(ResponseHeaderFilter.NAME, ResponseHeaderFilter.VALUE)
@@ -25,6 +25,7 @@ package org.wildfly.extension.undertow.deployment;
 import io.undertow.server.session.InMemorySessionManager;
 import io.undertow.servlet.api.SessionManagerFactory;
 
+import org.jboss.as.ee.utils.SerializableClassUtils;
 import org.jboss.as.server.deployment.Attachments;
 import org.jboss.as.server.deployment.DeploymentPhaseContext;
 import org.jboss.as.server.deployment.DeploymentUnit;
@@ -61,7 +62,7 @@ public class SharedSessionManagerDeploymentProcessor implements DeploymentUnitPr
         DistributableSessionManagerFactoryBuilder builder = new DistributableSessionManagerFactoryBuilderValue().getValue();
         if (builder != null) {
             Module module = deploymentUnit.getAttachment(Attachments.MODULE);
-            builder.build(target, managerServiceName, new SimpleDistributableSessionManagerConfiguration(sharedConfig, deploymentUnit.getName(), module))
+            builder.build(target, managerServiceName, new SimpleDistributableSessionManagerConfiguration(sharedConfig, deploymentUnit.getName(), module, SerializableClassUtils.getSerializableClassNames(deploymentUnit.getAttachment(Attachments.COMPOSITE_ANNOTATION_INDEX))))
                     .setInitialMode(Mode.ON_DEMAND)
                     .install();
         } else {
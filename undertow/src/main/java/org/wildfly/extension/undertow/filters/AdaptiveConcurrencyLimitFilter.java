@@ -0,0 +1,188 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.extension.undertow.filters;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+import io.undertow.predicate.Predicate;
+import io.undertow.server.HttpHandler;
+import io.undertow.server.handlers.PredicateHandler;
+import org.jboss.as.controller.AbstractRuntimeOnlyHandler;
+import org.jboss.as.controller.AttributeDefinition;
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.ReloadRequiredRemoveStepHandler;
+import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
+import org.jboss.as.controller.client.helpers.MeasurementUnit;
+import org.jboss.as.controller.operations.validation.IntRangeValidator;
+import org.jboss.as.controller.registry.ManagementResourceRegistration;
+import org.jboss.as.controller.registry.OperationEntry;
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
+import org.jboss.msc.service.ServiceController;
+import org.wildfly.extension.undertow.UndertowService;
+
+/**
+ * Filter that limits the number of concurrent requests, adapting the limit to the observed latency, so that requests
+ * are queued or rejected before the resources behind the application, e.g. datasources, are overloaded.
+ */
+public class AdaptiveConcurrencyLimitFilter extends Filter {
+
+    public static final AdaptiveConcurrencyLimitFilter INSTANCE = new AdaptiveConcurrencyLimitFilter();
+
+    public static final AttributeDefinition INITIAL_LIMIT = new SimpleAttributeDefinitionBuilder("initial-limit", ModelType.INT)
+            .setAllowExpression(true)
+            .setAllowNull(true)
+            .setValidator(new IntRangeValidator(1, true, true))
+            .setDefaultValue(new ModelNode(20))
+            .build();
+
+    public static final AttributeDefinition MIN_LIMIT = new SimpleAttributeDefinitionBuilder("min-limit", ModelType.INT)
+            .setAllowExpression(true)
+            .setAllowNull(true)
+            .setValidator(new IntRangeValidator(1, true, true))
+            .setDefaultValue(new ModelNode(1))
+            .build();
+
+    public static final AttributeDefinition MAX_LIMIT = new SimpleAttributeDefinitionBuilder("max-limit", ModelType.INT)
+            .setAllowExpression(true)
+            .setAllowNull(true)
+            .setValidator(new IntRangeValidator(1, true, true))
+            .setDefaultValue(new ModelNode(1000))
+            .build();
+
+    public static final AttributeDefinition QUEUE_SIZE = new SimpleAttributeDefinitionBuilder("queue-size", ModelType.INT)
+            .setAllowExpression(true)
+            .setAllowNull(true)
+            .setValidator(new IntRangeValidator(0, true, true))
+            .setDefaultValue(new ModelNode(100))
+            .build();
+
+    public static final AttributeDefinition QUEUE_TIMEOUT = new SimpleAttributeDefinitionBuilder("queue-timeout", ModelType.LONG)
+            .setAllowExpression(true)
+            .setAllowNull(true)
+            .setMeasurementUnit(MeasurementUnit.MILLISECONDS)
+            .setDefaultValue(new ModelNode(1000L))
+            .build();
+
+    static final AttributeDefinition CURRENT_LIMIT = new SimpleAttributeDefinitionBuilder("current-limit", ModelType.INT, false).setStorageRuntime().build();
+    static final AttributeDefinition ACTIVE_REQUESTS = new SimpleAttributeDefinitionBuilder("active-requests", ModelType.INT, false).setStorageRuntime().build();
+    static final AttributeDefinition QUEUED_REQUESTS = new SimpleAttributeDefinitionBuilder("queued-requests", ModelType.INT, false).setStorageRuntime().build();
+    static final AttributeDefinition REJECTED_REQUESTS = new SimpleAttributeDefinitionBuilder("rejected-requests", ModelType.LONG, false).setStorageRuntime().build();
+    static final AttributeDefinition TIMED_OUT_REQUESTS = new SimpleAttributeDefinitionBuilder("timed-out-requests", ModelType.LONG, false).setStorageRuntime().build();
+
+    /*
+    <adaptive-concurrency-limit name="limit" initial-limit="20" max-limit="200" queue-size="100" queue-timeout="500"/>
+     */
+
+    private AdaptiveConcurrencyLimitFilter() {
+        super("adaptive-concurrency-limit");
+    }
+
+    @Override
+    public Collection<AttributeDefinition> getAttributes() {
+        return Arrays.asList(INITIAL_LIMIT, MIN_LIMIT, MAX_LIMIT, QUEUE_SIZE, QUEUE_TIMEOUT);
+    }
+
+    @Override
+    public void registerOperations(ManagementResourceRegistration resourceRegistration) {
+        FilterAdd add = new FilterAdd(this) {
+            @Override
+            FilterService createService(ModelNode model) {
+                return new AdaptiveConcurrencyLimitService(model, model.get(INITIAL_LIMIT.getName()).asInt(), model.get(MIN_LIMIT.getName()).asInt(),
+                        model.get(MAX_LIMIT.getName()).asInt(), model.get(QUEUE_SIZE.getName()).asInt(), model.get(QUEUE_TIMEOUT.getName()).asLong());
+            }
+        };
+        registerAddOperation(resourceRegistration, add, OperationEntry.Flag.RESTART_RESOURCE_SERVICES);
+        registerRemoveOperation(resourceRegistration, ReloadRequiredRemoveStepHandler.INSTANCE, OperationEntry.Flag.RESTART_RESOURCE_SERVICES);
+    }
+
+    @Override
+    public void registerAttributes(ManagementResourceRegistration resourceRegistration) {
+        super.registerAttributes(resourceRegistration);
+        resourceRegistration.registerMetric(CURRENT_LIMIT, new LimitMetricsHandler() {
+            @Override
+            void executeRuntimeStep(OperationContext context, AdaptiveRequestLimit limit) {
+                context.getResult().set(limit.getLimiter().getLimit());
+            }
+        });
+        resourceRegistration.registerMetric(ACTIVE_REQUESTS, new LimitMetricsHandler() {
+            @Override
+            void executeRuntimeStep(OperationContext context, AdaptiveRequestLimit limit) {
+                context.getResult().set(limit.getLimiter().getInFlight());
+            }
+        });
+        resourceRegistration.registerMetric(QUEUED_REQUESTS, new LimitMetricsHandler() {
+            @Override
+            void executeRuntimeStep(OperationContext context, AdaptiveRequestLimit limit) {
+                context.getResult().set(limit.getQueuedCount());
+            }
+        });
+        resourceRegistration.registerMetric(REJECTED_REQUESTS, new LimitMetricsHandler() {
+            @Override
+            void executeRuntimeStep(OperationContext context, AdaptiveRequestLimit limit) {
+                context.getResult().set(limit.getLimiter().getRejectedCount());
+            }
+        });
+        resourceRegistration.registerMetric(TIMED_OUT_REQUESTS, new LimitMetricsHandler() {
+            @Override
+            void executeRuntimeStep(OperationContext context, AdaptiveRequestLimit limit) {
+                context.getResult().set(limit.getLimiter().getTimedOutCount());
+            }
+        });
+    }
+
+    @Override
+    public Class<? extends HttpHandler> getHandlerClass() {
+        return AdaptiveConcurrencyLimitHandler.class;
+    }
+
+    @Override
+    public HttpHandler createHttpHandler(Predicate predicate, ModelNode model, HttpHandler next) {
+        // Not shared with other filter refs; the filter service shares a single limit instead
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(model.get(INITIAL_LIMIT.getName()).asInt(), model.get(MIN_LIMIT.getName()).asInt(), model.get(MAX_LIMIT.getName()).asInt());
+        HttpHandler handler = new AdaptiveConcurrencyLimitHandler(new AdaptiveRequestLimit(limiter, model.get(QUEUE_SIZE.getName()).asInt(), model.get(QUEUE_TIMEOUT.getName()).asLong()), next);
+        return (predicate != null) ? new PredicateHandler(predicate, handler, next) : handler;
+    }
+
+    private abstract static class LimitMetricsHandler extends AbstractRuntimeOnlyHandler {
+        @Override
+        protected void executeRuntimeStep(OperationContext context, ModelNode operation) throws OperationFailedException {
+            final String name = PathAddress.pathAddress(operation.require(OP_ADDR)).getLastElement().getValue();
+            final ServiceController<?> controller = context.getServiceRegistry(false).getService(UndertowService.FILTER.append(name));
+            final AdaptiveRequestLimit limit = ((controller != null) && (controller.getState() == ServiceController.State.UP)) ? ((AdaptiveConcurrencyLimitService) controller.getValue()).getLimit() : null;
+            if (limit != null) {
+                this.executeRuntimeStep(context, limit);
+            } else {
+                context.getResult().set(0);
+            }
+            context.stepCompleted();
+        }
+
+        abstract void executeRuntimeStep(OperationContext context, AdaptiveRequestLimit limit);
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.extension.undertow.filters;
+
+import io.undertow.predicate.Predicate;
+import io.undertow.server.HttpHandler;
+import io.undertow.server.handlers.PredicateHandler;
+import org.jboss.dmr.ModelNode;
+import org.jboss.msc.service.StartContext;
+import org.jboss.msc.service.StartException;
+import org.jboss.msc.service.StopContext;
+
+/**
+ * Filter service for the adaptive concurrency limit, which shares a single limit between all filter refs, so that
+ * the limit reflects the total load on the resources behind it.
+ */
+public class AdaptiveConcurrencyLimitService extends FilterService {
+
+    private final int initialLimit;
+    private final int minLimit;
+    private final int maxLimit;
+    private final int queueSize;
+    private final long queueTimeout;
+
+    private volatile AdaptiveRequestLimit limit;
+
+    AdaptiveConcurrencyLimitService(ModelNode model, int initialLimit, int minLimit, int maxLimit, int queueSize, long queueTimeout) {
+        super(AdaptiveConcurrencyLimitFilter.INSTANCE, model);
+        this.initialLimit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.queueSize = queueSize;
+        this.queueTimeout = queueTimeout;
+    }
+
+    @Override
+    public void start(StartContext context) throws StartException {
+        super.start(context);
+        this.limit = new AdaptiveRequestLimit(new AdaptiveConcurrencyLimiter(this.initialLimit, this.minLimit, this.maxLimit), this.queueSize, this.queueTimeout);
+    }
+
+    @Override
+    public void stop(StopContext context) {
+        super.stop(context);
+        this.limit = null;
+    }
+
+    @Override
+    public HttpHandler createHttpHandler(Predicate predicate, HttpHandler next) {
+        HttpHandler handler = new AdaptiveConcurrencyLimitHandler(this.limit, next);
+        if (predicate != null) {
+            return new PredicateHandler(predicate, handler, next);
+        } else {
+            return handler;
+        }
+    }
+
+    AdaptiveRequestLimit getLimit() {
+        return this.limit;
+    }
+}
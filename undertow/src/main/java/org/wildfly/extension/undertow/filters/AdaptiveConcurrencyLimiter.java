@@ -0,0 +1,209 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.extension.undertow.filters;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Concurrency limit that adapts to the observed request latency, using a gradient between the long term and the
+ * short term average latency.
+ * While latency stays close to its long term average, the limit grows by roughly the square root of the limit per
+ * sampling window; as requests start to queue up downstream and latency rises, the limit shrinks proportionally, by at
+ * most half per window.
+ * The limit only grows while it is actually reached, so that an idle application does not accumulate an unbounded limit.
+ * Samples are accumulated in striped counters, so that completing requests do not contend; only the thread that closes
+ * a sampling window takes a lock, to recompute the limit.
+ */
+class AdaptiveConcurrencyLimiter {
+
+    // Ratio of short term to long term latency that is still considered normal
+    private static final double TOLERANCE = 1.5;
+    // Weight of a new limit against the current limit
+    private static final double SMOOTHING = 0.2;
+    // Number of sampling windows over which the long term latency is averaged
+    private static final int LONG_WINDOW = 100;
+    private static final long SAMPLING_WINDOW = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final int MIN_WINDOW_SAMPLES = 10;
+    private static final long NOT_STARTED = Long.MIN_VALUE;
+    // The longs of a cache line, of which a stripe uses the first for the sum of its latencies, and the second for its number of samples
+    private static final int LINE = 8;
+    private static final int STRIPES = stripes(Runtime.getRuntime().availableProcessors());
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong timedOut = new AtomicLong();
+    private volatile int limit;
+
+    private final AtomicLongArray window = new AtomicLongArray(STRIPES * LINE);
+    private final AtomicInteger windowMaxInFlight = new AtomicInteger();
+    private final AtomicLong windowEnd = new AtomicLong(NOT_STARTED);
+    private final Lock updateLock = new ReentrantLock();
+
+    // Guarded by updateLock
+    private double estimatedLimit;
+    private double longRtt = 0;
+
+    AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit) {
+        this.minLimit = minLimit;
+        this.maxLimit = Math.max(minLimit, maxLimit);
+        this.estimatedLimit = Math.max(minLimit, Math.min(initialLimit, this.maxLimit));
+        this.limit = (int) this.estimatedLimit;
+    }
+
+    /**
+     * Acquires a permit, if fewer requests than the current limit are in flight.
+     * @return the number of requests in flight, including this one, or 0 if the limit was reached
+     */
+    int tryAcquire() {
+        while (true) {
+            int current = this.inFlight.get();
+            if (current >= this.limit) return 0;
+            if (this.inFlight.compareAndSet(current, current + 1)) return current + 1;
+        }
+    }
+
+    /**
+     * Acquires a permit regardless of the current limit, e.g. to hand over the permit of a completed request.
+     * @return the number of requests in flight, including this one
+     */
+    int acquire() {
+        return this.inFlight.incrementAndGet();
+    }
+
+    /**
+     * Releases the permit of a completed request.
+     * @param rtt the duration of the request, in nanoseconds, or a negative value if it should not be sampled
+     * @param inFlight the number of requests in flight when the request was admitted
+     */
+    void release(long rtt, int inFlight) {
+        this.inFlight.decrementAndGet();
+        if (rtt >= 0) {
+            this.sample(rtt, inFlight, System.nanoTime());
+        }
+    }
+
+    void rejected() {
+        this.rejected.incrementAndGet();
+    }
+
+    void timedOut() {
+        this.timedOut.incrementAndGet();
+    }
+
+    int getLimit() {
+        return this.limit;
+    }
+
+    int getInFlight() {
+        return this.inFlight.get();
+    }
+
+    long getRejectedCount() {
+        return this.rejected.get();
+    }
+
+    long getTimedOutCount() {
+        return this.timedOut.get();
+    }
+
+    void sample(long rtt, int inFlight, long now) {
+        int stripe = stripe() * LINE;
+        this.window.addAndGet(stripe, rtt);
+        this.window.incrementAndGet(stripe + 1);
+        int maxInFlight = this.windowMaxInFlight.get();
+        while ((inFlight > maxInFlight) && !this.windowMaxInFlight.compareAndSet(maxInFlight, inFlight)) {
+            maxInFlight = this.windowMaxInFlight.get();
+        }
+        long end = this.windowEnd.get();
+        if (end == NOT_STARTED) {
+            this.windowEnd.compareAndSet(NOT_STARTED, now + SAMPLING_WINDOW);
+        } else if ((now - end >= 0) && (this.getWindowSamples() >= MIN_WINDOW_SAMPLES) && this.updateLock.tryLock()) {
+            try {
+                // Another thread may have closed this window in the meantime
+                if (this.windowEnd.get() == end) {
+                    long rttSum = 0;
+                    long samples = 0;
+                    for (int i = 0; i < STRIPES; ++i) {
+                        rttSum += this.window.getAndSet(i * LINE, 0);
+                        samples += this.window.getAndSet(i * LINE + 1, 0);
+                    }
+                    this.update((double) rttSum / samples, this.windowMaxInFlight.getAndSet(0));
+                    this.windowEnd.set(NOT_STARTED);
+                }
+            } finally {
+                this.updateLock.unlock();
+            }
+        }
+    }
+
+    private long getWindowSamples() {
+        long samples = 0;
+        for (int i = 0; i < STRIPES; ++i) {
+            samples += this.window.get(i * LINE + 1);
+        }
+        return samples;
+    }
+
+    private void update(double shortRtt, int windowMaxInFlight) {
+        if (this.longRtt == 0) {
+            this.longRtt = shortRtt;
+        } else {
+            this.longRtt += (shortRtt - this.longRtt) / LONG_WINDOW;
+            if (this.longRtt > 2 * shortRtt) {
+                // Latency dropped significantly, e.g. after a downstream resource recovered, so recover the baseline faster
+                this.longRtt *= 0.95;
+            }
+        }
+        // Do not grow the limit while the application does not use it
+        if (windowMaxInFlight < this.estimatedLimit / 2) return;
+
+        double gradient = Math.max(0.5, Math.min(1.0, TOLERANCE * this.longRtt / shortRtt));
+        double newLimit = this.estimatedLimit * gradient + Math.sqrt(this.estimatedLimit);
+        double estimatedLimit = this.estimatedLimit * (1 - SMOOTHING) + newLimit * SMOOTHING;
+        this.estimatedLimit = Math.max(this.minLimit, Math.min(this.maxLimit, estimatedLimit));
+        this.limit = (int) this.estimatedLimit;
+    }
+
+    private static int stripe() {
+        long id = Thread.currentThread().getId();
+        // Thread ids are sequential, so spread them, so that neighbouring threads use different stripes
+        int hash = (int) (id ^ (id >>> 32)) * 0x9E3779B9;
+        return (hash ^ (hash >>> 16)) & (STRIPES - 1);
+    }
+
+    // The power of 2 at or above the number of processors, at most 16
+    private static int stripes(int processors) {
+        int stripes = 1;
+        while ((stripes < processors) && (stripes < 16)) {
+            stripes <<= 1;
+        }
+        return stripes;
+    }
+}
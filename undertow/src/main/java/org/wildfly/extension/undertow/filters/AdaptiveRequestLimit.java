@@ -0,0 +1,163 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.extension.undertow.filters;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.undertow.server.ExchangeCompletionListener;
+import io.undertow.server.HttpHandler;
+import io.undertow.server.HttpServerExchange;
+import io.undertow.server.handlers.ResponseCodeHandler;
+import io.undertow.util.SameThreadExecutor;
+import org.xnio.XnioExecutor;
+
+/**
+ * Request limit shared by all {@link AdaptiveConcurrencyLimitHandler}s created from the same filter, whose limit is
+ * adapted by an {@link AdaptiveConcurrencyLimiter}.
+ * Requests beyond the limit are suspended in a bounded queue, and rejected with a 503 if the queue is full, or if
+ * they are not admitted within the queue timeout.
+ */
+class AdaptiveRequestLimit {
+
+    private static final HttpHandler REJECTION_HANDLER = new ResponseCodeHandler(503);
+
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final int queueSize;
+    private final long queueTimeout;
+    private final Queue<QueuedRequest> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queued = new AtomicInteger();
+
+    /**
+     * @param limiter the adaptive concurrency limit
+     * @param queueSize the maximum number of queued requests
+     * @param queueTimeout the maximum time, in milliseconds, a request is queued, or a non-positive value to wait indefinitely
+     */
+    AdaptiveRequestLimit(AdaptiveConcurrencyLimiter limiter, int queueSize, long queueTimeout) {
+        this.limiter = limiter;
+        this.queueSize = queueSize;
+        this.queueTimeout = queueTimeout;
+    }
+
+    AdaptiveConcurrencyLimiter getLimiter() {
+        return this.limiter;
+    }
+
+    int getQueuedCount() {
+        return this.queued.get();
+    }
+
+    void handleRequest(final HttpServerExchange exchange, final HttpHandler next) throws Exception {
+        int inFlight = this.limiter.tryAcquire();
+        if (inFlight > 0) {
+            this.admit(exchange, inFlight);
+            next.handleRequest(exchange);
+            return;
+        }
+        if (this.queued.incrementAndGet() > this.queueSize) {
+            this.queued.decrementAndGet();
+            this.limiter.rejected();
+            REJECTION_HANDLER.handleRequest(exchange);
+            return;
+        }
+        final QueuedRequest request = new QueuedRequest(exchange, next);
+        exchange.dispatch(SameThreadExecutor.INSTANCE, new Runnable() {
+            @Override
+            public void run() {
+                AdaptiveRequestLimit.this.queue.add(request);
+                if (AdaptiveRequestLimit.this.queueTimeout > 0) {
+                    request.timeout = exchange.getIoThread().executeAfter(request, AdaptiveRequestLimit.this.queueTimeout, TimeUnit.MILLISECONDS);
+                }
+                // A permit may have been released before the request was queued
+                AdaptiveRequestLimit.this.resumeQueuedRequests();
+            }
+        });
+    }
+
+    private void admit(HttpServerExchange exchange, final int inFlight) {
+        final long start = System.nanoTime();
+        exchange.addExchangeCompleteListener(new ExchangeCompletionListener() {
+            @Override
+            public void exchangeEvent(HttpServerExchange exchange, NextListener nextListener) {
+                try {
+                    AdaptiveRequestLimit.this.limiter.release(System.nanoTime() - start, inFlight);
+                    AdaptiveRequestLimit.this.resumeQueuedRequests();
+                } finally {
+                    nextListener.proceed();
+                }
+            }
+        });
+    }
+
+    private void resumeQueuedRequests() {
+        while (!this.queue.isEmpty()) {
+            int inFlight = this.limiter.tryAcquire();
+            if (inFlight == 0) return;
+            QueuedRequest request = this.queue.poll();
+            if ((request == null) || !request.claim()) {
+                // Queue was drained concurrently, or the request already timed out
+                this.limiter.release(-1, 0);
+                continue;
+            }
+            XnioExecutor.Key timeout = request.timeout;
+            if (timeout != null) {
+                timeout.remove();
+            }
+            this.admit(request.exchange, inFlight);
+            request.exchange.dispatch(request.next);
+        }
+    }
+
+    private class QueuedRequest implements Runnable {
+        final HttpServerExchange exchange;
+        final HttpHandler next;
+        private final AtomicBoolean claimed = new AtomicBoolean(false);
+        volatile XnioExecutor.Key timeout;
+
+        QueuedRequest(HttpServerExchange exchange, HttpHandler next) {
+            this.exchange = exchange;
+            this.next = next;
+        }
+
+        boolean claim() {
+            if (this.claimed.compareAndSet(false, true)) {
+                AdaptiveRequestLimit.this.queued.decrementAndGet();
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public void run() {
+            // Queue timeout expired
+            if (this.claim()) {
+                AdaptiveRequestLimit.this.queue.remove(this);
+                AdaptiveRequestLimit.this.limiter.timedOut();
+                this.exchange.dispatch(SameThreadExecutor.INSTANCE, REJECTION_HANDLER);
+            }
+        }
+    }
+}
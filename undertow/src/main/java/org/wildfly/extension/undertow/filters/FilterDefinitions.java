@@ -43,6 +43,7 @@ public class FilterDefinitions extends PersistentResourceDefinition {
     private static List<? extends PersistentResourceDefinition> FILTERS = Collections.unmodifiableList(Arrays.asList(
             BasicAuthHandler.INSTANCE,
             ConnectionLimitHandler.INSTANCE,
+            AdaptiveConcurrencyLimitFilter.INSTANCE,
             ResponseHeaderFilter.INSTANCE,
             GzipFilter.INSTANCE,
             ErrorPageDefinition.INSTANCE,
@@ -27,14 +27,21 @@ import java.util.Arrays;
 import java.util.Collection;
 
 import io.undertow.server.HttpHandler;
+import io.undertow.server.handlers.cache.DirectBufferCache;
+import io.undertow.server.handlers.resource.CachingResourceManager;
 import io.undertow.server.handlers.resource.FileResourceManager;
 import io.undertow.server.handlers.resource.ResourceHandler;
+import io.undertow.server.handlers.resource.ResourceManager;
 import org.jboss.as.controller.AttributeDefinition;
 import org.jboss.as.controller.OperationContext;
 import org.jboss.as.controller.OperationFailedException;
 import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
 import org.jboss.dmr.ModelNode;
 import org.jboss.dmr.ModelType;
+import org.jboss.msc.service.ServiceBuilder;
+import org.jboss.msc.service.ServiceName;
+import org.jboss.msc.service.ServiceTarget;
+import org.wildfly.extension.undertow.BufferCacheService;
 import org.wildfly.extension.undertow.Constants;
 import org.wildfly.extension.undertow.logging.UndertowLogger;
 
@@ -45,6 +52,12 @@ public class FileHandler extends Handler {
 
     public static final FileHandler INSTANCE = new FileHandler();
 
+    // Files larger than this are transferred directly from the file system, rather than cached
+    private static final int TRANSFER_MIN_SIZE = 1024 * 1024;
+    private static final int MAX_CACHED_RESOURCES = 1024;
+    // How often, in milliseconds, a cached resource is checked for modification
+    private static final int CACHE_MAX_AGE = 2000;
+
     /*<file path="/opt/data" cache-buffer-size="1024" cache-buffers="1024"/>*/
     public static final AttributeDefinition PATH = new SimpleAttributeDefinitionBuilder(Constants.PATH, ModelType.STRING)
             .setAllowNull(true)
@@ -60,6 +73,10 @@ public class FileHandler extends Handler {
             .setAllowExpression(true)
             .setDefaultValue(new ModelNode(1024))
             .build();
+    public static final AttributeDefinition BUFFER_CACHE = new SimpleAttributeDefinitionBuilder(Constants.BUFFER_CACHE, ModelType.STRING)
+            .setAllowNull(true)
+            .setAllowExpression(true)
+            .build();
     public static final AttributeDefinition DIRECTORY_LISTING = new SimpleAttributeDefinitionBuilder(Constants.DIRECTORY_LISTING, ModelType.BOOLEAN)
             .setAllowNull(true)
             .setAllowExpression(true)
@@ -72,7 +89,21 @@ public class FileHandler extends Handler {
 
     @Override
     public Collection<AttributeDefinition> getAttributes() {
-        return Arrays.asList(PATH, CACHE_BUFFER_SIZE, CACHE_BUFFERS, DIRECTORY_LISTING);
+        return Arrays.asList(PATH, CACHE_BUFFER_SIZE, CACHE_BUFFERS, DIRECTORY_LISTING, BUFFER_CACHE);
+    }
+
+    @Override
+    ServiceBuilder<HttpHandler> addService(OperationContext context, ModelNode model, ServiceTarget target, ServiceName name) throws OperationFailedException {
+        ModelNode bufferCache = BUFFER_CACHE.resolveModelAttribute(context, model);
+        if (!bufferCache.isDefined()) {
+            return super.addService(context, model, target, name);
+        }
+        String path = PATH.resolveModelAttribute(context, model).asString();
+        boolean directoryListing = DIRECTORY_LISTING.resolveModelAttribute(context, model).asBoolean();
+        UndertowLogger.ROOT_LOGGER.creatingFileHandler(path);
+        FileHandlerService service = new FileHandlerService(new File(path), directoryListing);
+        return target.addService(name, service)
+                .addDependency(BufferCacheService.SERVICE_NAME.append(bufferCache.asString()), DirectBufferCache.class, service.getBufferCacheInjector());
     }
 
     @Override
@@ -80,9 +111,23 @@ public class FileHandler extends Handler {
         String path = PATH.resolveModelAttribute(context, model).asString();
         boolean directoryListing = DIRECTORY_LISTING.resolveModelAttribute(context, model).asBoolean();
         UndertowLogger.ROOT_LOGGER.creatingFileHandler(path);
-        FileResourceManager resourceManager = new FileResourceManager(new File(path), 1024 * 1024);
+        return createHandler(new File(path), directoryListing, null);
+    }
+
+    /**
+     * Creates a handler for the files of the specified directory.
+     * @param path a directory
+     * @param directoryListing whether to list the contents of directories
+     * @param bufferCache a buffer cache for the contents of small files, or null, if files are always read from the file system
+     * @return a handler
+     */
+    static HttpHandler createHandler(File path, boolean directoryListing, DirectBufferCache bufferCache) {
+        ResourceManager resourceManager = new FileResourceManager(path, TRANSFER_MIN_SIZE);
+        if (bufferCache != null) {
+            resourceManager = new CachingResourceManager(MAX_CACHED_RESOURCES, TRANSFER_MIN_SIZE, bufferCache, resourceManager, CACHE_MAX_AGE);
+        }
         ResourceHandler handler = new ResourceHandler(resourceManager);
         handler.setDirectoryListingEnabled(directoryListing);
-        return handler;
+        return new PreCompressedResourceHandler(resourceManager, handler);
     }
 }
@@ -0,0 +1,69 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.extension.undertow.handlers;
+
+import java.io.File;
+
+import io.undertow.server.HttpHandler;
+import io.undertow.server.handlers.cache.DirectBufferCache;
+import org.jboss.msc.inject.Injector;
+import org.jboss.msc.service.Service;
+import org.jboss.msc.service.StartContext;
+import org.jboss.msc.service.StartException;
+import org.jboss.msc.service.StopContext;
+import org.jboss.msc.value.InjectedValue;
+
+/**
+ * Provides the handler of a file handler resource that caches the contents of small files in a configured buffer cache.
+ */
+class FileHandlerService implements Service<HttpHandler> {
+
+    private final InjectedValue<DirectBufferCache> bufferCache = new InjectedValue<>();
+    private final File path;
+    private final boolean directoryListing;
+
+    private volatile HttpHandler httpHandler;
+
+    FileHandlerService(File path, boolean directoryListing) {
+        this.path = path;
+        this.directoryListing = directoryListing;
+    }
+
+    @Override
+    public void start(StartContext context) throws StartException {
+        this.httpHandler = FileHandler.createHandler(this.path, this.directoryListing, this.bufferCache.getValue());
+    }
+
+    @Override
+    public void stop(StopContext context) {
+        this.httpHandler = null;
+    }
+
+    @Override
+    public HttpHandler getValue() throws IllegalStateException, IllegalArgumentException {
+        return this.httpHandler;
+    }
+
+    Injector<DirectBufferCache> getBufferCacheInjector() {
+        return this.bufferCache;
+    }
+}
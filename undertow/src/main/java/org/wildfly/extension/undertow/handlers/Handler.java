@@ -36,6 +36,9 @@ import org.jboss.as.controller.access.management.SensitiveTargetAccessConstraint
 import org.jboss.as.controller.registry.ManagementResourceRegistration;
 import org.jboss.as.controller.registry.OperationEntry;
 import org.jboss.dmr.ModelNode;
+import org.jboss.msc.service.ServiceBuilder;
+import org.jboss.msc.service.ServiceName;
+import org.jboss.msc.service.ServiceTarget;
 import org.wildfly.extension.undertow.Constants;
 import org.wildfly.extension.undertow.UndertowExtension;
 import org.wildfly.extension.undertow.UndertowService;
@@ -68,5 +71,13 @@ abstract class Handler extends PersistentResourceDefinition {
         return CONSTRAINTS;
     }
 
+    /**
+     * Adds the service providing the handler of this resource.
+     * By default, the service provides the handler returned by {@link #createHandler(OperationContext, ModelNode)}.
+     */
+    ServiceBuilder<HttpHandler> addService(OperationContext context, ModelNode model, ServiceTarget target, ServiceName name) throws OperationFailedException {
+        return target.addService(name, new HandlerService(this.createHandler(context, model)));
+    }
+
     abstract HttpHandler createHandler(final OperationContext context, ModelNode model) throws OperationFailedException;
 }
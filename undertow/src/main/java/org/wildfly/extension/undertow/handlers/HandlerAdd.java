@@ -49,9 +49,8 @@ class HandlerAdd extends AbstractAddStepHandler {
         final PathAddress address = PathAddress.pathAddress(operation.get(OP_ADDR));
         final String name = address.getLastElement().getValue();
 
-        final HandlerService service = new HandlerService(handler.createHandler(context, model));
         final ServiceTarget target = context.getServiceTarget();
-        target.addService(UndertowService.HANDLER.append(name), service)
+        handler.addService(context, model, target, UndertowService.HANDLER.append(name))
                 .setInitialMode(ServiceController.Mode.ON_DEMAND)
                 .install();
     }
@@ -0,0 +1,104 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.extension.undertow.handlers;
+
+import io.undertow.server.HttpHandler;
+import io.undertow.server.HttpServerExchange;
+import io.undertow.server.handlers.resource.Resource;
+import io.undertow.server.handlers.resource.ResourceManager;
+import io.undertow.util.Headers;
+import io.undertow.util.Methods;
+import io.undertow.util.MimeMappings;
+
+/**
+ * Serves the gzip compressed sibling of a static resource, e.g. <code>app.js.gz</code> for <code>app.js</code>, to clients that accept it,
+ * so that the resource does not need to be compressed again by a gzip filter on every request.
+ * The response keeps the content type of the uncompressed resource.
+ */
+class PreCompressedResourceHandler implements HttpHandler {
+
+    static final String GZIP = "gzip";
+    static final String EXTENSION = ".gz";
+
+    private final ResourceManager resourceManager;
+    private final HttpHandler next;
+
+    PreCompressedResourceHandler(ResourceManager resourceManager, HttpHandler next) {
+        this.resourceManager = resourceManager;
+        this.next = next;
+    }
+
+    @Override
+    public void handleRequest(HttpServerExchange exchange) throws Exception {
+        String path = exchange.getRelativePath();
+        if ((exchange.getRequestMethod().equals(Methods.GET) || exchange.getRequestMethod().equals(Methods.HEAD)) && !path.endsWith(EXTENSION) && acceptsGzip(exchange.getRequestHeaders().get(Headers.ACCEPT_ENCODING))) {
+            if (exchange.isInIoThread()) {
+                // Resource lookups may block
+                exchange.dispatch(this);
+                return;
+            }
+            Resource compressed = this.resourceManager.getResource(path + EXTENSION);
+            if ((compressed != null) && !compressed.isDirectory()) {
+                Resource resource = this.resourceManager.getResource(path);
+                if ((resource != null) && !resource.isDirectory()) {
+                    String contentType = resource.getContentType(MimeMappings.DEFAULT);
+                    if (contentType != null) {
+                        exchange.getResponseHeaders().put(Headers.CONTENT_TYPE, contentType);
+                    }
+                    exchange.getResponseHeaders().put(Headers.CONTENT_ENCODING, GZIP);
+                    exchange.getResponseHeaders().add(Headers.VARY, Headers.ACCEPT_ENCODING_STRING);
+                    exchange.setRelativePath(path + EXTENSION);
+                }
+            }
+        }
+        this.next.handleRequest(exchange);
+    }
+
+    /**
+     * Indicates whether the specified Accept-Encoding header values allow a gzip encoded response.
+     * @param values the header values, possibly null
+     * @return true, if gzip is listed without a zero quality value, false otherwise
+     */
+    static boolean acceptsGzip(Iterable<String> values) {
+        if (values == null) return false;
+        for (String value : values) {
+            for (String encoding : value.split(",")) {
+                String[] parameters = encoding.split(";");
+                if (parameters[0].trim().equalsIgnoreCase(GZIP)) {
+                    for (int i = 1; i < parameters.length; ++i) {
+                        String parameter = parameters[i].trim();
+                        if (parameter.startsWith("q=")) {
+                            try {
+                                return Float.parseFloat(parameter.substring(2)) > 0;
+                            } catch (NumberFormatException e) {
+                                return false;
+                            }
+                        }
+                    }
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
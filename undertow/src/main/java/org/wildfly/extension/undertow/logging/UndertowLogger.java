@@ -27,6 +27,7 @@ import static org.jboss.logging.Logger.Level.INFO;
 import static org.jboss.logging.Logger.Level.WARN;
 
 import java.io.File;
+import java.io.IOException;
 import java.net.InetSocketAddress;
 
 import org.jboss.as.server.deployment.DeploymentUnit;
@@ -304,4 +305,29 @@ public interface UndertowLogger extends BasicLogger {
 
     @Message(id = 70, value = "Could not load handler %s from %s module")
     RuntimeException couldNotLoadHandlerFromModule(String className,String moduleName, @Cause Exception e);
+
+    @LogMessage(level = WARN)
+    @Message(id = 71, value = "Failed to load session attribute %s for session %s")
+    void failedToLoadSessionAttribute(String attributeName, String sessionID, @Cause Exception e);
+
+    @Message(id = 72, value = "Persistent sessions in %s have unsupported version %d")
+    IOException unsupportedPersistentSessionVersion(File file, int version);
+
+    @LogMessage(level = ERROR)
+    @Message(id = 73, value = "Failed to write access log %s")
+    void failedToWriteAccessLog(File file, @Cause Throwable cause);
+
+    @LogMessage(level = WARN)
+    @Message(id = 74, value = "Failed to rotate access log %s to %s")
+    void failedToRotateAccessLog(File file, File target);
+
+    @LogMessage(level = WARN)
+    @Message(id = 75, value = "Failed to compress rotated access log %s")
+    void failedToCompressAccessLog(File file, @Cause Throwable cause);
+
+    @Message(id = 76, value = "Persistent sessions in %s are corrupt")
+    IOException corruptPersistentSessions(File file);
+
+    @Message(id = 77, value = "Only %d of %d persistent sessions were written to %s")
+    IOException incompletePersistentSessions(int written, int sessions, File file);
 }
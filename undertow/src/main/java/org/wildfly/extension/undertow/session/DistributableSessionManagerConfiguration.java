@@ -21,6 +21,8 @@
  */
 package org.wildfly.extension.undertow.session;
 
+import java.util.Collection;
+
 import org.jboss.metadata.web.jboss.ReplicationGranularity;
 import org.jboss.modules.Module;
 
@@ -34,4 +36,16 @@ public interface DistributableSessionManagerConfiguration {
     Module getModule();
 
     String getCacheName();
+
+    /**
+     * Returns the names of the serializable classes of the deployment, in an order that does not vary between nodes.
+     * @return a collection of class names
+     */
+    Collection<String> getSerializableClassNames();
+
+    /**
+     * Returns the window, in milliseconds, within which updates to the last accessed time of a session are not replicated.
+     * @return a window in milliseconds, or 0 if every access is replicated
+     */
+    long getLastAccessCoalescingWindow();
 }
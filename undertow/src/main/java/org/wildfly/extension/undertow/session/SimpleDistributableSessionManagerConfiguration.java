@@ -21,8 +21,17 @@
  */
 package org.wildfly.extension.undertow.session;
 
+import java.util.Collection;
+
+import org.jboss.metadata.javaee.spec.ParamValueMetaData;
+import java.util.Collection;
+
 import org.jboss.metadata.web.jboss.JBossWebMetaData;
+import java.util.Collection;
+
 import org.jboss.metadata.web.jboss.ReplicationConfig;
+import java.util.Collection;
+
 import org.jboss.metadata.web.jboss.ReplicationGranularity;
 import org.jboss.modules.Module;
 
@@ -32,24 +41,45 @@ import org.jboss.modules.Module;
  */
 public class SimpleDistributableSessionManagerConfiguration implements DistributableSessionManagerConfiguration {
 
+    /**
+     * Context parameter of a distributable web application that specifies, in milliseconds, the window within which
+     * updates to the last accessed time of a session are not replicated.
+     */
+    public static final String LAST_ACCESS_COALESCING_WINDOW = "org.wildfly.clustering.web.session.last-access-coalescing-window";
+
     private final Integer maxActiveSessions;
     private final ReplicationConfig replicationConfig;
     private final String deploymentName;
     private final Module module;
+    private final long lastAccessCoalescingWindow;
+    private final Collection<String> serializableClassNames;
 
-    public SimpleDistributableSessionManagerConfiguration(JBossWebMetaData metaData, String deploymentName, Module module) {
-        this(metaData.getMaxActiveSessions(), metaData.getReplicationConfig(), deploymentName, module);
+    public SimpleDistributableSessionManagerConfiguration(JBossWebMetaData metaData, String deploymentName, Module module, Collection<String> serializableClassNames) {
+        this(metaData.getMaxActiveSessions(), metaData.getReplicationConfig(), deploymentName, module, parseLastAccessCoalescingWindow(metaData), serializableClassNames);
     }
 
-    public SimpleDistributableSessionManagerConfiguration(SharedSessionManagerConfig config, String deploymentName, Module module) {
-        this(config.getMaxActiveSessions(), config.getReplicationConfig(), deploymentName, module);
+    public SimpleDistributableSessionManagerConfiguration(SharedSessionManagerConfig config, String deploymentName, Module module, Collection<String> serializableClassNames) {
+        this(config.getMaxActiveSessions(), config.getReplicationConfig(), deploymentName, module, 0, serializableClassNames);
     }
 
-    private SimpleDistributableSessionManagerConfiguration(Integer maxActiveSessions, ReplicationConfig replicationConfig, String deploymentName, Module module) {
+    private SimpleDistributableSessionManagerConfiguration(Integer maxActiveSessions, ReplicationConfig replicationConfig, String deploymentName, Module module, long lastAccessCoalescingWindow, Collection<String> serializableClassNames) {
         this.maxActiveSessions = maxActiveSessions;
         this.replicationConfig = replicationConfig;
         this.deploymentName = deploymentName;
         this.module = module;
+        this.lastAccessCoalescingWindow = lastAccessCoalescingWindow;
+        this.serializableClassNames = serializableClassNames;
+    }
+
+    private static long parseLastAccessCoalescingWindow(JBossWebMetaData metaData) {
+        if (metaData.getContextParams() != null) {
+            for (ParamValueMetaData param : metaData.getContextParams()) {
+                if (LAST_ACCESS_COALESCING_WINDOW.equals(param.getParamName())) {
+                    return Math.max(Long.parseLong(param.getParamValue().trim()), 0);
+                }
+            }
+        }
+        return 0;
     }
 
     @Override
@@ -76,4 +106,14 @@ public class SimpleDistributableSessionManagerConfiguration implements Distribut
     public String getCacheName() {
         return (this.replicationConfig != null) ? this.replicationConfig.getCacheName() : null;
     }
+
+    @Override
+    public long getLastAccessCoalescingWindow() {
+        return this.lastAccessCoalescingWindow;
+    }
+
+    @Override
+    public Collection<String> getSerializableClassNames() {
+        return this.serializableClassNames;
+    }
 }
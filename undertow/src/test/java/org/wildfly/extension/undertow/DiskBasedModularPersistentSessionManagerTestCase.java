@@ -0,0 +1,193 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.wildfly.extension.undertow;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import io.undertow.servlet.api.SessionPersistenceManager.PersistentSession;
+import org.jboss.as.controller.services.path.PathManagerService;
+import org.jboss.marshalling.Marshaller;
+import org.jboss.marshalling.OutputStreamByteOutput;
+import org.jboss.modules.Module;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the file format of {@link DiskBasedModularPersistentSessionManager}, and that files it cannot read are ignored.
+ */
+public class DiskBasedModularPersistentSessionManagerTestCase {
+
+    private static final String DEPLOYMENT = "test.war";
+
+    private File directory;
+    private DiskBasedModularPersistentSessionManager manager;
+
+    @Before
+    public void setUp() throws Exception {
+        this.directory = Files.createTempDirectory("persistent-sessions").toFile();
+        this.manager = new DiskBasedModularPersistentSessionManager(this.directory.getAbsolutePath(), null);
+        this.manager.getModuleLoaderInjectedValue().inject(Module.getBootModuleLoader());
+        this.manager.getPathManager().inject(new PathManagerService() {
+        });
+        this.manager.start(null);
+    }
+
+    @After
+    public void tearDown() {
+        this.manager.stop(null);
+        for (File file : this.directory.listFiles()) {
+            file.delete();
+        }
+        this.directory.delete();
+    }
+
+    @Test
+    public void roundTrip() {
+        final Map<String, PersistentSession> sessions = new HashMap<>();
+        final Map<String, Object> attributes = new HashMap<>();
+        attributes.put("name", "value");
+        attributes.put("count", 42);
+        sessions.put("live", new PersistentSession(new Date(System.currentTimeMillis() + 3600000), attributes));
+        sessions.put("expired", new PersistentSession(new Date(System.currentTimeMillis() - 3600000), attributes));
+        this.manager.persistSessions(DEPLOYMENT, sessions);
+
+        final Map<String, PersistentSession> loaded = this.manager.loadSessionAttributes(DEPLOYMENT, this.getClass().getClassLoader());
+        assertEquals(Collections.singleton("live"), loaded.keySet());
+        assertEquals(attributes, new HashMap<>(loaded.get("live").getSessionData()));
+        assertEquals(sessions.get("live").getExpiration(), loaded.get("live").getExpiration());
+    }
+
+    @Test
+    public void parallelRoundTrip() {
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            this.manager.getExecutorInjectedValue().inject(executor);
+            final Date expiration = new Date(System.currentTimeMillis() + 3600000);
+            final Map<String, PersistentSession> sessions = new HashMap<>();
+            for (int i = 0; i < 2500; ++i) {
+                sessions.put("session" + i, new PersistentSession(expiration, Collections.<String, Object>singletonMap("index", i)));
+            }
+            this.manager.persistSessions(DEPLOYMENT, sessions);
+
+            final Map<String, PersistentSession> loaded = this.manager.loadSessionAttributes(DEPLOYMENT, this.getClass().getClassLoader());
+            assertEquals(sessions.keySet(), loaded.keySet());
+            for (int i = 0; i < 2500; ++i) {
+                assertEquals(i, loaded.get("session" + i).getSessionData().get("index"));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void legacyFormat() throws Exception {
+        final Date expiration = new Date(System.currentTimeMillis() + 3600000);
+        final Map<String, AbstractPersistentSessionManager.SessionEntry> serializedData = new HashMap<>();
+        serializedData.put("session", new AbstractPersistentSessionManager.SessionEntry(expiration, Collections.singletonMap("name", this.marshal("value"))));
+        try (OutputStream out = new FileOutputStream(new File(this.directory, DEPLOYMENT))) {
+            final Marshaller marshaller = this.manager.createMarshaller();
+            marshaller.start(new OutputStreamByteOutput(out));
+            marshaller.writeObject(serializedData);
+            marshaller.finish();
+            marshaller.close();
+        }
+
+        final Map<String, PersistentSession> loaded = this.manager.loadSessionAttributes(DEPLOYMENT, this.getClass().getClassLoader());
+        assertEquals(Collections.singleton("session"), loaded.keySet());
+        assertEquals("value", loaded.get("session").getSessionData().get("name"));
+    }
+
+    @Test
+    public void truncatedFile() throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new FileOutputStream(new File(this.directory, DEPLOYMENT)))) {
+            out.writeInt(DiskBasedModularPersistentSessionManager.MAGIC);
+            out.writeByte(DiskBasedModularPersistentSessionManager.VERSION_1);
+            out.writeInt(1);
+            out.writeUTF("session");
+        }
+        assertNull(this.manager.loadSessionAttributes(DEPLOYMENT, this.getClass().getClassLoader()));
+    }
+
+    @Test
+    public void corruptLength() throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new FileOutputStream(new File(this.directory, DEPLOYMENT)))) {
+            out.writeInt(DiskBasedModularPersistentSessionManager.MAGIC);
+            out.writeByte(DiskBasedModularPersistentSessionManager.VERSION_1);
+            // a session count that would exhaust the heap if trusted
+            out.writeInt(Integer.MAX_VALUE);
+        }
+        assertNull(this.manager.loadSessionAttributes(DEPLOYMENT, this.getClass().getClassLoader()));
+    }
+
+    @Test
+    public void unsupportedVersion() throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new FileOutputStream(new File(this.directory, DEPLOYMENT)))) {
+            out.writeInt(DiskBasedModularPersistentSessionManager.MAGIC);
+            out.writeByte(DiskBasedModularPersistentSessionManager.VERSION_1 + 1);
+            out.writeInt(0);
+        }
+        assertNull(this.manager.loadSessionAttributes(DEPLOYMENT, this.getClass().getClassLoader()));
+    }
+
+    @Test
+    public void abandonedWrite() throws IOException {
+        final Date expiration = new Date(System.currentTimeMillis() + 3600000);
+        this.manager.persistSessions(DEPLOYMENT, Collections.singletonMap("session", new PersistentSession(expiration, Collections.<String, Object>singletonMap("name", "value"))));
+
+        // a write that is closed without being committed leaves the previous sessions in place
+        try (AbstractPersistentSessionManager.SessionWriter writer = this.manager.openSessionWriter(DEPLOYMENT, 1)) {
+            writer.write("other", new AbstractPersistentSessionManager.SessionEntry(expiration, Collections.<String, byte[]>emptyMap()));
+        }
+        assertFalse(new File(this.directory, DEPLOYMENT + ".tmp").exists());
+
+        final Map<String, PersistentSession> loaded = this.manager.loadSessionAttributes(DEPLOYMENT, this.getClass().getClassLoader());
+        assertEquals(Collections.singleton("session"), loaded.keySet());
+        assertEquals("value", loaded.get("session").getSessionData().get("name"));
+    }
+
+    private byte[] marshal(Object value) throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final Marshaller marshaller = this.manager.createMarshaller();
+        marshaller.start(new OutputStreamByteOutput(out));
+        marshaller.writeObject(value);
+        marshaller.finish();
+        marshaller.close();
+        return out.toByteArray();
+    }
+}
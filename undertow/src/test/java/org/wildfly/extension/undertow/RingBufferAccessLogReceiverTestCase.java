@@ -0,0 +1,143 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.extension.undertow;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests {@link RingBufferAccessLogReceiver}, using an executor that runs tasks either immediately or on demand.
+ */
+public class RingBufferAccessLogReceiverTestCase {
+
+    private static final Executor DIRECT_EXECUTOR = new Executor() {
+        @Override
+        public void execute(Runnable task) {
+            task.run();
+        }
+    };
+
+    private File directory;
+
+    @Before
+    public void setUp() throws IOException {
+        this.directory = Files.createTempDirectory("access-log").toFile();
+    }
+
+    @After
+    public void tearDown() {
+        for (File file : this.directory.listFiles()) {
+            file.delete();
+        }
+        this.directory.delete();
+    }
+
+    @Test
+    public void testWrite() throws IOException {
+        RingBufferAccessLogReceiver receiver = new RingBufferAccessLogReceiver(DIRECT_EXECUTOR, this.directory, "access", ".log", 16, true, 0, false);
+        receiver.logMessage("first");
+        receiver.logMessage("second \u00e9");
+        receiver.close();
+
+        assertEquals("first\nsecond \u00e9\n", read(new File(this.directory, "access.log")));
+        assertEquals(0, receiver.getDroppedEntries());
+        assertEquals(0, receiver.getQueueDepth());
+    }
+
+    @Test
+    public void testDropped() throws IOException {
+        final List<Runnable> tasks = new ArrayList<>();
+        RingBufferAccessLogReceiver receiver = new RingBufferAccessLogReceiver(new Executor() {
+            @Override
+            public void execute(Runnable task) {
+                tasks.add(task);
+            }
+        }, this.directory, "access", ".log", 4, true, 0, false);
+        for (int i = 0; i < 6; ++i) {
+            receiver.logMessage(String.valueOf(i));
+        }
+        // The drain task is only scheduled once
+        assertEquals(1, tasks.size());
+        assertEquals(4, receiver.getQueueDepth());
+        assertEquals(2, receiver.getDroppedEntries());
+
+        tasks.get(0).run();
+        assertEquals(0, receiver.getQueueDepth());
+        receiver.logMessage("4");
+        assertEquals(2, tasks.size());
+        receiver.close();
+
+        assertEquals("0\n1\n2\n3\n", read(new File(this.directory, "access.log")));
+    }
+
+    @Test
+    public void testSizeRotation() throws IOException {
+        RingBufferAccessLogReceiver receiver = new RingBufferAccessLogReceiver(DIRECT_EXECUTOR, this.directory, "access", ".log", 16, false, 10, true);
+        receiver.logMessage("0123456789");
+        receiver.logMessage("abcdefghij");
+        receiver.logMessage("ABCDEFGHIJ");
+        receiver.close();
+
+        File[] files = this.directory.listFiles();
+        assertEquals(3, files.length);
+        List<String> rotated = new ArrayList<>();
+        for (File file : files) {
+            if (file.getName().equals("access.log")) {
+                assertEquals("ABCDEFGHIJ\n", read(file));
+            } else {
+                assertTrue(file.getName(), file.getName().startsWith("access") && file.getName().endsWith(".log.gz"));
+                rotated.add(read(file));
+            }
+        }
+        assertTrue(rotated.contains("0123456789\n"));
+        assertTrue(rotated.contains("abcdefghij\n"));
+    }
+
+    private static String read(File file) throws IOException {
+        try (InputStream input = file.getName().endsWith(".gz") ? new GZIPInputStream(new FileInputStream(file)) : new FileInputStream(file)) {
+            byte[] buffer = new byte[1024];
+            StringBuilder builder = new StringBuilder();
+            int read = input.read(buffer);
+            while (read >= 0) {
+                builder.append(new String(buffer, 0, read, StandardCharsets.UTF_8));
+                read = input.read(buffer);
+            }
+            return builder.toString();
+        }
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.extension.undertow.filters;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Test;
+
+/**
+ * Tests {@link AdaptiveConcurrencyLimiter}, feeding it simulated latency samples.
+ */
+public class AdaptiveConcurrencyLimiterTestCase {
+
+    private static final long WINDOW = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final long RTT = TimeUnit.MILLISECONDS.toNanos(10);
+
+    @Test
+    public void testPermits() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2, 1, 10);
+        assertEquals(1, limiter.tryAcquire());
+        assertEquals(2, limiter.tryAcquire());
+        assertEquals(0, limiter.tryAcquire());
+        limiter.release(-1, 0);
+        assertEquals(1, limiter.getInFlight());
+        assertEquals(2, limiter.tryAcquire());
+    }
+
+    @Test
+    public void testGrowsWhileLatencyIsStable() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(20, 1, 100);
+        long now = this.sample(limiter, 0, 50, RTT, 20);
+        assertTrue(String.valueOf(limiter.getLimit()), limiter.getLimit() > 20);
+        this.sample(limiter, now, 1000, RTT, 100);
+        assertEquals(100, limiter.getLimit());
+    }
+
+    @Test
+    public void testShrinksWhenLatencyRises() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(50, 5, 100);
+        long now = this.sample(limiter, 0, 1, RTT, 50);
+        int limit = limiter.getLimit();
+        now = this.sample(limiter, now, 1, 10 * RTT, 50);
+        assertTrue(limiter.getLimit() + " >= " + limit, limiter.getLimit() < limit);
+        // Latency is only compared to the long term average, which eventually follows a sustained rise
+        this.sample(limiter, now, 10, 10 * RTT, 50);
+        assertTrue(limiter.getLimit() + " > " + limit / 2, limiter.getLimit() <= limit / 2);
+    }
+
+    @Test
+    public void testDoesNotGrowWhenUnused() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(20, 1, 100);
+        this.sample(limiter, 0, 50, RTT, 2);
+        assertEquals(20, limiter.getLimit());
+    }
+
+    @Test
+    public void testConcurrentSamples() throws InterruptedException {
+        final AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(20, 1, 100);
+        final AtomicLong clock = new AtomicLong();
+        Thread[] threads = new Thread[4];
+        for (int i = 0; i < threads.length; ++i) {
+            threads[i] = new Thread() {
+                @Override
+                public void run() {
+                    for (int j = 0; j < 10000; ++j) {
+                        limiter.sample(RTT, limiter.getLimit(), clock.addAndGet(WINDOW / 20));
+                    }
+                }
+            };
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(100, limiter.getLimit());
+    }
+
+    @Test
+    public void testCounters() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(1, 1, 1);
+        limiter.rejected();
+        limiter.rejected();
+        limiter.timedOut();
+        assertEquals(2, limiter.getRejectedCount());
+        assertEquals(1, limiter.getTimedOutCount());
+    }
+
+    /**
+     * Completes the specified number of sampling windows of 10 samples each.
+     * @return the time after the last window
+     */
+    private long sample(AdaptiveConcurrencyLimiter limiter, long start, int windows, long rtt, int inFlight) {
+        long now = start;
+        for (int i = 0; i < windows; ++i) {
+            for (int j = 0; j < 10; ++j) {
+                limiter.sample(rtt, inFlight, now + j);
+            }
+            now += WINDOW;
+            limiter.sample(rtt, inFlight, now);
+            now += 1;
+        }
+        return now;
+    }
+}
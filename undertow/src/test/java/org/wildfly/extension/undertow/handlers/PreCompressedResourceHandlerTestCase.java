@@ -0,0 +1,162 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2014, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.wildfly.extension.undertow.handlers;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import io.undertow.server.HttpHandler;
+import io.undertow.server.HttpServerExchange;
+import io.undertow.server.ServerConnection;
+import io.undertow.server.handlers.resource.Resource;
+import io.undertow.server.handlers.resource.ResourceManager;
+import io.undertow.util.Headers;
+import io.undertow.util.HttpString;
+import io.undertow.util.Methods;
+import io.undertow.util.MimeMappings;
+import org.junit.Test;
+
+/**
+ * Tests {@link PreCompressedResourceHandler}.
+ */
+public class PreCompressedResourceHandlerTestCase {
+
+    private static final String PATH = "/app.js";
+    private static final String CONTENT_TYPE = "application/javascript";
+
+    @Test
+    public void servesCompressedVariant() throws Exception {
+        ResourceManager manager = mock(ResourceManager.class);
+        Resource resource = mock(Resource.class);
+        Resource compressed = mock(Resource.class);
+        when(manager.getResource(PATH)).thenReturn(resource);
+        when(manager.getResource(PATH + PreCompressedResourceHandler.EXTENSION)).thenReturn(compressed);
+        when(resource.getContentType(any(MimeMappings.class))).thenReturn(CONTENT_TYPE);
+        HttpHandler next = mock(HttpHandler.class);
+        HttpServerExchange exchange = createExchange(Methods.GET, "deflate, gzip");
+
+        new PreCompressedResourceHandler(manager, next).handleRequest(exchange);
+
+        verify(next).handleRequest(exchange);
+        assertEquals(PATH + PreCompressedResourceHandler.EXTENSION, exchange.getRelativePath());
+        assertEquals(PreCompressedResourceHandler.GZIP, exchange.getResponseHeaders().getFirst(Headers.CONTENT_ENCODING));
+        assertEquals(CONTENT_TYPE, exchange.getResponseHeaders().getFirst(Headers.CONTENT_TYPE));
+        assertEquals(Headers.ACCEPT_ENCODING_STRING, exchange.getResponseHeaders().getFirst(Headers.VARY));
+    }
+
+    @Test
+    public void fallsBackWithoutCompressedVariant() throws Exception {
+        ResourceManager manager = mock(ResourceManager.class);
+        when(manager.getResource(PATH)).thenReturn(mock(Resource.class));
+        HttpHandler next = mock(HttpHandler.class);
+        HttpServerExchange exchange = createExchange(Methods.GET, "gzip");
+
+        new PreCompressedResourceHandler(manager, next).handleRequest(exchange);
+
+        verify(next).handleRequest(exchange);
+        assertUnchanged(exchange);
+    }
+
+    @Test
+    public void fallsBackForCompressedDirectory() throws Exception {
+        ResourceManager manager = mock(ResourceManager.class);
+        Resource directory = mock(Resource.class);
+        when(directory.isDirectory()).thenReturn(true);
+        when(manager.getResource(PATH)).thenReturn(mock(Resource.class));
+        when(manager.getResource(PATH + PreCompressedResourceHandler.EXTENSION)).thenReturn(directory);
+        HttpHandler next = mock(HttpHandler.class);
+        HttpServerExchange exchange = createExchange(Methods.GET, "gzip");
+
+        new PreCompressedResourceHandler(manager, next).handleRequest(exchange);
+
+        verify(next).handleRequest(exchange);
+        assertUnchanged(exchange);
+    }
+
+    @Test
+    public void fallsBackIfGzipNotAccepted() throws Exception {
+        ResourceManager manager = mock(ResourceManager.class);
+        HttpHandler next = mock(HttpHandler.class);
+        HttpServerExchange exchange = createExchange(Methods.GET, "gzip;q=0");
+
+        new PreCompressedResourceHandler(manager, next).handleRequest(exchange);
+
+        verify(next).handleRequest(exchange);
+        verifyZeroInteractions(manager);
+        assertUnchanged(exchange);
+    }
+
+    @Test
+    public void fallsBackForOtherMethods() throws Exception {
+        ResourceManager manager = mock(ResourceManager.class);
+        HttpHandler next = mock(HttpHandler.class);
+        HttpServerExchange exchange = createExchange(Methods.POST, "gzip");
+
+        new PreCompressedResourceHandler(manager, next).handleRequest(exchange);
+
+        verify(next).handleRequest(exchange);
+        verifyZeroInteractions(manager);
+        assertUnchanged(exchange);
+    }
+
+    private static HttpServerExchange createExchange(HttpString method, String acceptEncoding) {
+        // A mock connection has no I/O thread, so the handler does not dispatch
+        HttpServerExchange exchange = new HttpServerExchange(mock(ServerConnection.class));
+        exchange.setRequestMethod(method);
+        exchange.setRelativePath(PATH);
+        exchange.getRequestHeaders().put(Headers.ACCEPT_ENCODING, acceptEncoding);
+        return exchange;
+    }
+
+    private static void assertUnchanged(HttpServerExchange exchange) {
+        assertEquals(PATH, exchange.getRelativePath());
+        assertNull(exchange.getResponseHeaders().getFirst(Headers.CONTENT_ENCODING));
+        assertNull(exchange.getResponseHeaders().getFirst(Headers.VARY));
+    }
+
+    @Test
+    public void acceptsGzip() {
+        assertTrue(PreCompressedResourceHandler.acceptsGzip(Collections.singletonList("gzip")));
+        assertTrue(PreCompressedResourceHandler.acceptsGzip(Collections.singletonList("deflate, GZIP;q=0.5")));
+        assertTrue(PreCompressedResourceHandler.acceptsGzip(Arrays.asList("deflate", "gzip")));
+    }
+
+    @Test
+    public void rejectsGzip() {
+        assertFalse(PreCompressedResourceHandler.acceptsGzip(null));
+        assertFalse(PreCompressedResourceHandler.acceptsGzip(Collections.<String>emptyList()));
+        assertFalse(PreCompressedResourceHandler.acceptsGzip(Collections.singletonList("deflate, identity")));
+        assertFalse(PreCompressedResourceHandler.acceptsGzip(Collections.singletonList("gzip;q=0")));
+        assertFalse(PreCompressedResourceHandler.acceptsGzip(Collections.singletonList("x-gzip")));
+    }
+}